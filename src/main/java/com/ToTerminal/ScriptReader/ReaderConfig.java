@@ -1,55 +1,53 @@
 package com.ToTerminal.ScriptReader;
 
-import com.ToTerminal.utils.Values;
-
-import java.io.*;
+import java.io.Serializable;
 import java.util.ArrayList;
 
+/**
+ * Acceso a los scripts registrados a través del {@link ScriptRegistry} compartido.
+ * Sigue siendo serializable únicamente para poder leer y migrar el antiguo scripts.dat.
+ */
 public class ReaderConfig implements Serializable {
+    // Solo se rellena al deserializar un scripts.dat antiguo
     private ArrayList<Script> scripts;
     private static final long serialVersionUID = 829L;
 
-public ReaderConfig() {
-        this.scripts = new ArrayList<>();
-        // Cargar scripts desde el archivo si existe
-        try {
-            java.io.File f = new java.io.File(Values.SCRIPTS_DIR + "/scripts.dat");
-            if (f.exists()) {
-                ObjectInputStream ois = new ObjectInputStream(new FileInputStream(Values.SCRIPTS_DIR + "/scripts.dat"));
-                ReaderConfig config = (ReaderConfig) ois.readObject();
-                this.scripts = config.getScripts();
-                ois.close();
-            }else {
-                // Si no existe, inicializar con una lista vacía
-                this.scripts = new ArrayList<>();
-            }
-        } catch (Exception e) {
-            e.printStackTrace();
-        }
+    private final transient ScriptRegistry registry;
+
+    public ReaderConfig() {
+        this.registry = ScriptRegistry.getInstance();
     }
+
+    /**
+     * Los cambios se guardan al hacerlos; se mantiene por compatibilidad
+     */
     public void safe(){
-        try {
-            ObjectOutputStream oos = new ObjectOutputStream(new FileOutputStream(Values.SCRIPTS_DIR + "/scripts.dat"));
-            oos.writeObject(this);
-            oos.close();
-        } catch (Exception e) {
-            e.printStackTrace();
-        }
+        registry.save();
     }
 
     public ArrayList<Script> getScripts() {
-        return scripts;
+        return new ArrayList<>(registry.getScripts());
     }
     public void setScript(Script s) {
-        this.scripts.add(s);
+        registry.add(s);
     }
     public void changeScript(String scriptName, Script newScript) {
-        for (int i = 0; i < scripts.size(); i++) {
-            if (scripts.get(i).getScriptName().equals(scriptName)) {
-                scripts.set(i, newScript);
-                return;
-            }
-        }
+        registry.replace(scriptName, newScript);
     }
-}
 
+    /**
+     * Busca un script por su nombre.
+     * @param scriptName nombre del script
+     * @return el script o null si no existe
+     */
+    public Script getScript(String scriptName) {
+        return registry.getScript(scriptName);
+    }
+
+    /**
+     * Scripts leídos del formato serializado antiguo
+     */
+    ArrayList<Script> getLegacyScripts() {
+        return scripts;
+    }
+}
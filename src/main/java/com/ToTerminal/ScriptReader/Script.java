@@ -13,11 +13,6 @@ public class Script implements java.io.Serializable{
     private AvailableLanguage availableLanguage;
     private String scriptDescription;
     
-    /**
-     * Estado actual del script (ej. si el archivo existe o no).
-     */
-    public ScriptState state = ScriptState.DEFAULT_STATE;
-    
     @Serial
     private static final long serialVersionUID = 707;
 
@@ -60,12 +55,4 @@ public class Script implements java.io.Serializable{
     public void setScriptDescription(String scriptDescription) {
         this.scriptDescription = scriptDescription;
     }
-    
-    /**
-     * Marca el script como no encontrado.
-     * Útil cuando el archivo físico ha sido eliminado o movido.
-     */
-    public void markAsNotFound(){
-        this.state  = ScriptState.NOT_FOUND;
-    }
 }
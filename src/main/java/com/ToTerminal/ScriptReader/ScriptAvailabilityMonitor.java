@@ -0,0 +1,301 @@
+package com.ToTerminal.ScriptReader;
+
+import java.io.IOException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Vigila en segundo plano la disponibilidad de los archivos de los scripts registrados.
+ * Observa con un {@link WatchService} los directorios que contienen scripts y mantiene en caché
+ * el estado, el tamaño y la fecha de modificación de cada archivo, de modo que las vistas no
+ * tienen que consultar el sistema de archivos (que puede ser lento, p. ej. en unidades de red).
+ *
+ * Cada {@link #RESCAN_INTERVAL_MILLIS} ms se repasan todos los archivos, lo que cubre los
+ * sistemas de archivos que no notifican cambios y los directorios que aún no existían.
+ */
+public class ScriptAvailabilityMonitor {
+
+    public static final long RESCAN_INTERVAL_MILLIS = 30_000;
+
+    private static final long POLL_MILLIS = 500;
+
+    private static ScriptAvailabilityMonitor instance;
+
+    private final ScriptRegistry registry;
+    private final Map<String, FileStatus> statuses = new ConcurrentHashMap<>();
+    private final List<StatusListener> listeners = new CopyOnWriteArrayList<>();
+    private final AtomicBoolean resync = new AtomicBoolean(true);
+    private final WatchService watchService;
+
+    // Solo se usan desde el hilo del monitor
+    private final Map<Path, WatchKey> watchedDirs = new HashMap<>();
+    private final Map<WatchKey, Path> keyDirs = new HashMap<>();
+    private Map<Path, List<Script>> scriptsByDir = Map.of();
+    private long lastSync;
+
+    private ScriptAvailabilityMonitor(ScriptRegistry registry) {
+        this.registry = registry;
+        WatchService service = null;
+        try {
+            service = FileSystems.getDefault().newWatchService();
+        } catch (IOException | UnsupportedOperationException e) {
+            // Sin WatchService solo quedan los repasos periódicos
+            e.printStackTrace();
+        }
+        this.watchService = service;
+        registry.addChangeListener(change -> resync.set(true));
+
+        Thread thread = new Thread(this::run, "script-monitor");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * Obtiene el monitor compartido, iniciándolo la primera vez que se usa
+     */
+    public static synchronized ScriptAvailabilityMonitor getInstance() {
+        if (instance == null) {
+            instance = new ScriptAvailabilityMonitor(ScriptRegistry.getInstance());
+        }
+        return instance;
+    }
+
+    /**
+     * Estado en caché del archivo de un script, sin acceder al disco
+     * @return el estado o {@link FileStatus#UNKNOWN} si todavía no se ha comprobado
+     */
+    public FileStatus getStatus(Script script) {
+        String key = ScriptRegistry.normalize(script.getScriptPath());
+        return key == null ? FileStatus.UNKNOWN : statuses.getOrDefault(key, FileStatus.UNKNOWN);
+    }
+
+    /**
+     * Fuerza un repaso de todos los archivos en segundo plano
+     */
+    public void refresh() {
+        resync.set(true);
+    }
+
+    public void addStatusListener(StatusListener listener) {
+        if (listener != null && !listeners.contains(listener)) {
+            listeners.add(listener);
+        }
+    }
+
+    public void removeStatusListener(StatusListener listener) {
+        listeners.remove(listener);
+    }
+
+    // ========================================
+    // HILO DEL MONITOR
+    // ========================================
+
+    private void run() {
+        while (true) {
+            try {
+                if (resync.getAndSet(false) || System.currentTimeMillis() - lastSync > RESCAN_INTERVAL_MILLIS) {
+                    sync();
+                }
+                WatchKey key = watchService != null
+                    ? watchService.poll(POLL_MILLIS, TimeUnit.MILLISECONDS)
+                    : null;
+                if (watchService == null) {
+                    Thread.sleep(POLL_MILLIS);
+                }
+                if (key != null) {
+                    handle(key);
+                }
+            } catch (InterruptedException e) {
+                return;
+            } catch (RuntimeException e) {
+                e.printStackTrace();
+            }
+        }
+    }
+
+    /**
+     * Ajusta los directorios vigilados a los scripts registrados y comprueba todos los archivos
+     */
+    private void sync() {
+        Map<Path, List<Script>> byDir = new HashMap<>();
+        Set<String> known = new HashSet<>();
+        for (Script script : registry.getScripts()) {
+            Path path = toPath(script);
+            if (path == null || path.getParent() == null) continue;
+            byDir.computeIfAbsent(path.getParent(), d -> new ArrayList<>()).add(script);
+            known.add(path.toString());
+        }
+
+        if (watchService != null) {
+            watchedDirs.entrySet().removeIf(entry -> {
+                if (byDir.containsKey(entry.getKey()) && entry.getValue().isValid()) return false;
+                entry.getValue().cancel();
+                keyDirs.remove(entry.getValue());
+                return true;
+            });
+            for (Path dir : byDir.keySet()) {
+                if (watchedDirs.containsKey(dir)) continue;
+                try {
+                    WatchKey key = dir.register(watchService, StandardWatchEventKinds.ENTRY_CREATE,
+                        StandardWatchEventKinds.ENTRY_DELETE, StandardWatchEventKinds.ENTRY_MODIFY);
+                    watchedDirs.put(dir, key);
+                    keyDirs.put(key, dir);
+                } catch (IOException | UnsupportedOperationException e) {
+                    // Directorio inexistente o no vigilable: se cubre con los repasos periódicos
+                }
+            }
+        }
+
+        scriptsByDir = byDir;
+        statuses.keySet().retainAll(known);
+        for (List<Script> scripts : byDir.values()) {
+            for (Script script : scripts) {
+                update(script);
+            }
+        }
+        lastSync = System.currentTimeMillis();
+    }
+
+    private void handle(WatchKey key) {
+        Path dir = keyDirs.get(key);
+        List<WatchEvent<?>> events = key.pollEvents();
+        if (dir != null) {
+            List<Script> scripts = scriptsByDir.getOrDefault(dir, List.of());
+            boolean overflow = false;
+            Set<Path> changed = new HashSet<>();
+            for (WatchEvent<?> event : events) {
+                if (event.kind() == StandardWatchEventKinds.OVERFLOW) {
+                    overflow = true;
+                } else if (event.context() instanceof Path) {
+                    changed.add(dir.resolve((Path) event.context()));
+                }
+            }
+            for (Script script : scripts) {
+                if (overflow || changed.contains(toPath(script))) {
+                    update(script);
+                }
+            }
+        }
+        if (!key.reset()) {
+            // El directorio ya no existe: sus scripts dejan de estar disponibles
+            if (dir != null) {
+                watchedDirs.remove(dir);
+                for (Script script : scriptsByDir.getOrDefault(dir, List.of())) {
+                    update(script);
+                }
+            }
+            keyDirs.remove(key);
+        }
+    }
+
+    private void update(Script script) {
+        Path path = toPath(script);
+        if (path == null) return;
+        FileStatus status = stat(path);
+        FileStatus previous = statuses.put(path.toString(), status);
+        if (!status.equals(previous)) {
+            for (StatusListener listener : listeners) {
+                try {
+                    listener.onStatusChanged(script, status);
+                } catch (Exception e) {
+                    e.printStackTrace();
+                }
+            }
+        }
+    }
+
+    private static FileStatus stat(Path path) {
+        try {
+            BasicFileAttributes attributes = Files.readAttributes(path, BasicFileAttributes.class);
+            return new FileStatus(ScriptState.DEFAULT_STATE, attributes.size(),
+                attributes.lastModifiedTime().toMillis());
+        } catch (NoSuchFileException e) {
+            return FileStatus.NOT_FOUND;
+        } catch (IOException | SecurityException e) {
+            return FileStatus.UNKNOWN;
+        }
+    }
+
+    private static Path toPath(Script script) {
+        String normalized = ScriptRegistry.normalize(script.getScriptPath());
+        try {
+            return normalized == null ? null : Path.of(normalized);
+        } catch (RuntimeException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Interfaz para escuchar cambios de disponibilidad. Se llama desde el hilo del monitor.
+     */
+    public interface StatusListener {
+        void onStatusChanged(Script script, FileStatus status);
+    }
+
+    /**
+     * Estado de un archivo de script: disponibilidad, tamaño y fecha de modificación
+     */
+    public static final class FileStatus {
+        public static final FileStatus UNKNOWN = new FileStatus(ScriptState.UNKNOWN, -1, -1);
+        public static final FileStatus NOT_FOUND = new FileStatus(ScriptState.NOT_FOUND, -1, -1);
+
+        private final ScriptState state;
+        private final long size;
+        private final long lastModified;
+
+        FileStatus(ScriptState state, long size, long lastModified) {
+            this.state = state;
+            this.size = size;
+            this.lastModified = lastModified;
+        }
+
+        public ScriptState getState() {
+            return state;
+        }
+
+        /**
+         * Tamaño en bytes o -1 si no se conoce
+         */
+        public long getSize() {
+            return size;
+        }
+
+        /**
+         * Fecha de modificación en milisegundos o -1 si no se conoce
+         */
+        public long getLastModified() {
+            return lastModified;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) return true;
+            if (!(obj instanceof FileStatus)) return false;
+            FileStatus that = (FileStatus) obj;
+            return state == that.state && size == that.size && lastModified == that.lastModified;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(state, size, lastModified);
+        }
+    }
+}
@@ -0,0 +1,205 @@
+package com.ToTerminal.ScriptReader;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.function.Consumer;
+import java.util.zip.CRC32;
+
+/**
+ * Diario de solo anexado con los cambios del registro de scripts.
+ *
+ * Formato: cabecera (int magic, int versión, long generación) seguida de registros
+ * {@code int longitud, int crc32, datos}. Un registro incompleto o con CRC incorrecto
+ * al final del archivo (p. ej. tras matar el proceso a mitad de escritura) se descarta
+ * y el archivo se trunca en el último registro válido.
+ *
+ * Las escrituras llegan al sistema operativo inmediatamente; {@link #force()} las lleva
+ * al disco y lo llama periódicamente el {@link ScriptStore} para agrupar los fsync.
+ */
+class ScriptJournal implements AutoCloseable {
+
+    static final byte OP_ADD = 1;
+    static final byte OP_CHANGE = 2;
+    static final byte OP_REMOVE = 3;
+
+    private static final int MAGIC = 0x54545344; // "TTSD"
+    private static final int VERSION = 1;
+    private static final int HEADER_BYTES = 16;
+    private static final int RECORD_HEADER_BYTES = 8;
+    private static final int MAX_RECORD_BYTES = 16 * 1024 * 1024;
+
+    private final Path file;
+    private final long generation;
+    private final FileChannel channel;
+    private long size;
+    private int records;
+    private boolean dirty;
+
+    private ScriptJournal(Path file, long generation, FileChannel channel, long size, int records) {
+        this.file = file;
+        this.generation = generation;
+        this.channel = channel;
+        this.size = size;
+        this.records = records;
+    }
+
+    /**
+     * Crea un diario vacío, sustituyendo el que hubiera
+     */
+    static ScriptJournal create(Path file, long generation) throws IOException {
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+            StandardOpenOption.READ, StandardOpenOption.TRUNCATE_EXISTING);
+        ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+        header.putInt(MAGIC).putInt(VERSION).putLong(generation).flip();
+        while (header.hasRemaining()) {
+            channel.write(header);
+        }
+        channel.force(true);
+        return new ScriptJournal(file, generation, channel, HEADER_BYTES, 0);
+    }
+
+    /**
+     * Lee la generación de un diario existente
+     * @return la generación o -1 si el archivo no tiene una cabecera válida
+     */
+    static long readGeneration(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+            while (header.hasRemaining() && channel.read(header) >= 0) {
+                // leer la cabecera completa
+            }
+            header.flip();
+            if (header.remaining() < HEADER_BYTES || header.getInt() != MAGIC || header.getInt() != VERSION) {
+                return -1;
+            }
+            return header.getLong();
+        }
+    }
+
+    /**
+     * Abre un diario existente, pasa cada registro válido a {@code replay} y lo deja listo
+     * para seguir anexando. La cola dañada, si la hay, se trunca.
+     * @return el diario abierto o null si no tiene una cabecera válida
+     */
+    static ScriptJournal open(Path file, Consumer<ByteBuffer> replay) throws IOException {
+        long generation = readGeneration(file);
+        if (generation < 0) {
+            return null;
+        }
+        byte[] data = Files.readAllBytes(file);
+        ByteBuffer in = ByteBuffer.wrap(data);
+        in.position(HEADER_BYTES);
+
+        CRC32 crc = new CRC32();
+        int records = 0;
+        long valid = HEADER_BYTES;
+        while (in.remaining() >= RECORD_HEADER_BYTES) {
+            int length = in.getInt();
+            int checksum = in.getInt();
+            if (length < 0 || length > MAX_RECORD_BYTES || length > in.remaining()) break;
+
+            crc.reset();
+            crc.update(data, in.position(), length);
+            if ((int) crc.getValue() != checksum) break;
+
+            ByteBuffer payload = ByteBuffer.wrap(data, in.position(), length).slice();
+            in.position(in.position() + length);
+            replay.accept(payload);
+            records++;
+            valid = in.position();
+        }
+
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE, StandardOpenOption.READ);
+        if (valid < data.length) {
+            channel.truncate(valid);
+            channel.force(true);
+        }
+        channel.position(valid);
+        return new ScriptJournal(file, generation, channel, valid, records);
+    }
+
+    /**
+     * Anexa un registro al diario (sin forzar el fsync)
+     */
+    synchronized void append(byte[] payload) throws IOException {
+        CRC32 crc = new CRC32();
+        crc.update(payload);
+        ByteBuffer record = ByteBuffer.allocate(RECORD_HEADER_BYTES + payload.length);
+        record.putInt(payload.length).putInt((int) crc.getValue()).put(payload).flip();
+        while (record.hasRemaining()) {
+            channel.write(record);
+        }
+        size += record.limit();
+        records++;
+        dirty = true;
+    }
+
+    /**
+     * Lleva al disco los registros anexados desde el último fsync
+     */
+    synchronized void force() throws IOException {
+        if (dirty && channel.isOpen()) {
+            channel.force(false);
+            dirty = false;
+        }
+    }
+
+    synchronized long size() {
+        return size;
+    }
+
+    synchronized int records() {
+        return records;
+    }
+
+    long generation() {
+        return generation;
+    }
+
+    Path file() {
+        return file;
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        if (channel.isOpen()) {
+            force();
+            channel.close();
+        }
+    }
+
+    // ========================================
+    // REGISTROS
+    // ========================================
+
+    static byte[] addRecord(Script script) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(128);
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeByte(OP_ADD);
+        ScriptStore.writeScript(out, script);
+        return bytes.toByteArray();
+    }
+
+    static byte[] changeRecord(String oldName, Script script) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(128);
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeByte(OP_CHANGE);
+        ScriptStore.writeString(out, oldName);
+        ScriptStore.writeScript(out, script);
+        return bytes.toByteArray();
+    }
+
+    static byte[] removeRecord(String name) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(32);
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeByte(OP_REMOVE);
+        ScriptStore.writeString(out, name);
+        return bytes.toByteArray();
+    }
+}
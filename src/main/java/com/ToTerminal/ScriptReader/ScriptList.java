@@ -0,0 +1,81 @@
+package com.ToTerminal.ScriptReader;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Lista de scripts en orden de registro con índice por nombre.
+ * Las operaciones son idempotentes: las usa el {@link ScriptRegistry} para aplicar cambios
+ * y el {@link ScriptStore} para reproducir el diario, de modo que ambos coinciden siempre.
+ */
+final class ScriptList {
+
+    private final List<Script> scripts;
+    private final Map<String, Script> byName;
+
+    ScriptList() {
+        this(List.of());
+    }
+
+    ScriptList(List<Script> initial) {
+        this.scripts = new ArrayList<>(initial.size() + 1);
+        this.byName = new HashMap<>(initial.size() * 2);
+        for (Script s : initial) {
+            put(s);
+        }
+    }
+
+    Script get(String name) {
+        return byName.get(name);
+    }
+
+    /**
+     * Añade un script o sustituye al que tenga el mismo nombre
+     * @return el script sustituido o null
+     */
+    Script put(Script script) {
+        Script existing = byName.put(script.getScriptName(), script);
+        if (existing != null) {
+            scripts.set(scripts.indexOf(existing), script);
+        } else {
+            scripts.add(script);
+        }
+        return existing;
+    }
+
+    /**
+     * Sustituye el script {@code oldName} conservando su posición; si no existe se añade
+     * @return el script sustituido o null
+     */
+    Script change(String oldName, Script script) {
+        Script old = byName.remove(oldName);
+        if (old == null) {
+            return put(script);
+        }
+        // Si el nuevo nombre ya pertenecía a otro script, ese queda sustituido
+        Script clash = byName.remove(script.getScriptName());
+        if (clash != null && clash != old) {
+            scripts.remove(clash);
+        }
+        scripts.set(scripts.indexOf(old), script);
+        byName.put(script.getScriptName(), script);
+        return old;
+    }
+
+    /**
+     * @return el script eliminado o null si no existía
+     */
+    Script remove(String name) {
+        Script old = byName.remove(name);
+        if (old != null) {
+            scripts.remove(old);
+        }
+        return old;
+    }
+
+    List<Script> toList() {
+        return List.copyOf(scripts);
+    }
+}
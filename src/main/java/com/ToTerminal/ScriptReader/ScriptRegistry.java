@@ -0,0 +1,265 @@
+package com.ToTerminal.ScriptReader;
+
+import com.ToTerminal.utils.Values;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Registro compartido de los scripts de la aplicación.
+ * Mantiene una única lista en memoria con índices por nombre, por ruta y por lenguaje,
+ * persistida por el {@link ScriptStore}.
+ *
+ * Las lecturas no toman ningún bloqueo: cada cambio construye una instantánea inmutable nueva
+ * y la publica en un campo volátil. Los cambios se notifican a los {@link ChangeListener}
+ * registrados en el hilo que los realiza.
+ *
+ * Los scripts del registro no deben modificarse; para editarlos se usa {@link #replace}.
+ */
+public class ScriptRegistry {
+
+    private static ScriptRegistry instance;
+
+    private final ScriptStore store;
+    private final List<ChangeListener> listeners = new CopyOnWriteArrayList<>();
+    private volatile Snapshot snapshot;
+
+    ScriptRegistry(Path directory) {
+        this.store = new ScriptStore(directory);
+        this.snapshot = new Snapshot(store.load());
+    }
+
+    /**
+     * Obtiene el registro compartido, cargándolo la primera vez que se usa
+     */
+    public static synchronized ScriptRegistry getInstance() {
+        if (instance == null) {
+            instance = new ScriptRegistry(Path.of(Values.SCRIPTS_DIR));
+        }
+        return instance;
+    }
+
+    // ========================================
+    // LECTURAS
+    // ========================================
+
+    /**
+     * Scripts en orden de registro (lista inmutable)
+     */
+    public List<Script> getScripts() {
+        return snapshot.scripts;
+    }
+
+    /**
+     * Busca un script por su nombre
+     * @return el script o null si no existe
+     */
+    public Script getScript(String scriptName) {
+        return snapshot.byName.get(scriptName);
+    }
+
+    /**
+     * Busca un script por la ruta de su archivo
+     * @return el script o null si no hay ninguno registrado con esa ruta
+     */
+    public Script getScriptByPath(String scriptPath) {
+        return snapshot.byPath.get(normalize(scriptPath));
+    }
+
+    /**
+     * Scripts de un lenguaje en orden de registro (lista inmutable)
+     */
+    public List<Script> getScripts(AvailableLanguage language) {
+        return snapshot.byLanguage.getOrDefault(language, List.of());
+    }
+
+    public int size() {
+        return snapshot.scripts.size();
+    }
+
+    // ========================================
+    // CAMBIOS
+    // ========================================
+
+    /**
+     * Registra un script; si ya hay uno con el mismo nombre lo sustituye
+     */
+    public void add(Script script) {
+        Change change;
+        synchronized (this) {
+            ScriptList scripts = new ScriptList(snapshot.scripts);
+            Script old = scripts.put(script);
+            publish(scripts);
+            store.logAdd(script, () -> snapshot.scripts);
+            change = new Change(old == null ? ChangeType.ADDED : ChangeType.CHANGED, old, script);
+        }
+        fire(change);
+    }
+
+    /**
+     * Sustituye un script existente por una versión nueva
+     * @param scriptName nombre actual del script
+     * @param newScript nuevos datos del script
+     * @return false si no existe ningún script con ese nombre
+     */
+    public boolean replace(String scriptName, Script newScript) {
+        Change change;
+        synchronized (this) {
+            if (!snapshot.byName.containsKey(scriptName)) {
+                return false;
+            }
+            ScriptList scripts = new ScriptList(snapshot.scripts);
+            Script old = scripts.change(scriptName, newScript);
+            publish(scripts);
+            store.logChange(scriptName, newScript, () -> snapshot.scripts);
+            change = new Change(ChangeType.CHANGED, old, newScript);
+        }
+        fire(change);
+        return true;
+    }
+
+    /**
+     * Elimina un script del registro
+     * @return false si no existe ningún script con ese nombre
+     */
+    public boolean remove(String scriptName) {
+        Change change;
+        synchronized (this) {
+            if (!snapshot.byName.containsKey(scriptName)) {
+                return false;
+            }
+            ScriptList scripts = new ScriptList(snapshot.scripts);
+            Script old = scripts.remove(scriptName);
+            publish(scripts);
+            store.logRemove(scriptName, () -> snapshot.scripts);
+            change = new Change(ChangeType.REMOVED, old, null);
+        }
+        fire(change);
+        return true;
+    }
+
+    /**
+     * Lleva al disco los cambios pendientes
+     */
+    public void save() {
+        store.flush();
+    }
+
+    private void publish(ScriptList scripts) {
+        snapshot = new Snapshot(scripts.toList());
+    }
+
+    // ========================================
+    // EVENTOS
+    // ========================================
+
+    public void addChangeListener(ChangeListener listener) {
+        if (listener != null && !listeners.contains(listener)) {
+            listeners.add(listener);
+        }
+    }
+
+    public void removeChangeListener(ChangeListener listener) {
+        listeners.remove(listener);
+    }
+
+    private void fire(Change change) {
+        for (ChangeListener listener : listeners) {
+            try {
+                listener.onScriptChanged(change);
+            } catch (Exception e) {
+                e.printStackTrace();
+            }
+        }
+    }
+
+    /**
+     * Interfaz para escuchar cambios en el registro
+     */
+    public interface ChangeListener {
+        void onScriptChanged(Change change);
+    }
+
+    public enum ChangeType {
+        ADDED,
+        CHANGED,
+        REMOVED
+    }
+
+    /**
+     * Cambio en el registro: script anterior (null en las altas) y nuevo (null en las bajas)
+     */
+    public static final class Change {
+        private final ChangeType type;
+        private final Script oldScript;
+        private final Script newScript;
+
+        Change(ChangeType type, Script oldScript, Script newScript) {
+            this.type = type;
+            this.oldScript = oldScript;
+            this.newScript = newScript;
+        }
+
+        public ChangeType getType() {
+            return type;
+        }
+
+        public Script getOldScript() {
+            return oldScript;
+        }
+
+        public Script getNewScript() {
+            return newScript;
+        }
+    }
+
+    // ========================================
+    // INSTANTÁNEA
+    // ========================================
+
+    static String normalize(String path) {
+        if (path == null) return null;
+        try {
+            return Path.of(path).toAbsolutePath().normalize().toString();
+        } catch (RuntimeException e) {
+            return path;
+        }
+    }
+
+    /**
+     * Estado inmutable del registro con todos sus índices
+     */
+    private static final class Snapshot {
+        final List<Script> scripts;
+        final Map<String, Script> byName;
+        final Map<String, Script> byPath;
+        final Map<AvailableLanguage, List<Script>> byLanguage;
+
+        Snapshot(List<Script> scripts) {
+            this.scripts = scripts;
+            Map<String, Script> names = new HashMap<>(scripts.size() * 2);
+            Map<String, Script> paths = new HashMap<>(scripts.size() * 2);
+            Map<AvailableLanguage, List<Script>> languages = new EnumMap<>(AvailableLanguage.class);
+            for (Script s : scripts) {
+                names.put(s.getScriptName(), s);
+                String path = normalize(s.getScriptPath());
+                if (path != null) {
+                    paths.putIfAbsent(path, s);
+                }
+                if (s.getAvailableLanguage() != null) {
+                    languages.computeIfAbsent(s.getAvailableLanguage(), l -> new ArrayList<>()).add(s);
+                }
+            }
+            languages.replaceAll((language, list) -> Collections.unmodifiableList(list));
+            this.byName = names;
+            this.byPath = paths;
+            this.byLanguage = languages;
+        }
+    }
+}
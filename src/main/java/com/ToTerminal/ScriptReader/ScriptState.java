@@ -2,5 +2,6 @@ package com.ToTerminal.ScriptReader;
 
 public enum ScriptState {
     NOT_FOUND,
-    DEFAULT_STATE
+    DEFAULT_STATE,
+    UNKNOWN
 }
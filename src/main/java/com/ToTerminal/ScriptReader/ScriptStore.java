@@ -0,0 +1,374 @@
+package com.ToTerminal.ScriptReader;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Persistencia del registro de scripts.
+ * El estado se guarda en {@code scripts.bin}, una instantánea en formato binario versionado
+ * en la que cada script es un registro con prefijo de longitud, y {@code scripts.journal}, un
+ * diario de solo anexado ({@link ScriptJournal}) con los cambios posteriores a la instantánea.
+ *
+ * Cada alta, cambio o baja se anexa al diario y los fsync se agrupan cada
+ * {@link #FSYNC_INTERVAL_MILLIS} ms. Cuando el diario supera {@link #COMPACTION_THRESHOLD_BYTES}
+ * se rota y se escribe una nueva instantánea en segundo plano.
+ *
+ * Si solo existe el antiguo {@code scripts.dat} (serialización Java de {@link ReaderConfig})
+ * se migra automáticamente y el archivo original se conserva como {@code scripts.dat.bak}.
+ *
+ * Una instantánea que no se puede leer se aparta como {@code scripts.bin.corrupt} y los cambios
+ * del diario se reproducen sin ella. Durante esa sesión no se compacta, para conservar el diario
+ * completo por si se repara la instantánea.
+ */
+final class ScriptStore {
+
+    static final int MAGIC = 0x54545353; // "TTSS"
+    static final int VERSION = 2;
+    static final String STORE_FILE = "scripts.bin";
+    static final String JOURNAL_FILE = "scripts.journal";
+    static final String OLD_JOURNAL_FILE = "scripts.journal.old";
+    static final String LEGACY_FILE = "scripts.dat";
+    static final String CORRUPT_SUFFIX = ".corrupt";
+
+    static final long FSYNC_INTERVAL_MILLIS = 50;
+    static final long COMPACTION_THRESHOLD_BYTES = 256 * 1024;
+
+    private final Path directory;
+    private final ScheduledExecutorService background = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread t = new Thread(r, "script-store");
+        t.setDaemon(true);
+        return t;
+    });
+
+    private ScriptJournal journal;
+    private boolean compacting;
+    private boolean snapshotDamaged;
+
+    ScriptStore(Path directory) {
+        this.directory = directory;
+        background.scheduleWithFixedDelay(this::flush,
+            FSYNC_INTERVAL_MILLIS, FSYNC_INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+        Runtime.getRuntime().addShutdownHook(new Thread(this::close, "script-store-shutdown"));
+    }
+
+    /**
+     * Registra un alta en el diario
+     * @param state estado completo tras el cambio, por si hay que compactar
+     */
+    synchronized void logAdd(Script script, Supplier<List<Script>> state) {
+        log(() -> ScriptJournal.addRecord(script), state);
+    }
+
+    /**
+     * Registra un cambio en el diario
+     * @param state estado completo tras el cambio, por si hay que compactar
+     */
+    synchronized void logChange(String oldName, Script script, Supplier<List<Script>> state) {
+        log(() -> ScriptJournal.changeRecord(oldName, script), state);
+    }
+
+    /**
+     * Registra una baja en el diario
+     * @param state estado completo tras el cambio, por si hay que compactar
+     */
+    synchronized void logRemove(String name, Supplier<List<Script>> state) {
+        log(() -> ScriptJournal.removeRecord(name), state);
+    }
+
+    /**
+     * Lleva al disco los cambios pendientes del diario
+     */
+    void flush() {
+        ScriptJournal current;
+        synchronized (this) {
+            current = journal;
+        }
+        if (current == null) return;
+        try {
+            current.force();
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+
+    // ========================================
+    // PERSISTENCIA
+    // ========================================
+
+    private interface RecordSupplier {
+        byte[] get() throws IOException;
+    }
+
+    private void log(RecordSupplier record, Supplier<List<Script>> state) {
+        try {
+            if (journal == null) {
+                journal = ScriptJournal.create(directory.resolve(JOURNAL_FILE), 0);
+            }
+            journal.append(record.get());
+            if (journal.size() > COMPACTION_THRESHOLD_BYTES && !compacting && !snapshotDamaged) {
+                compact(state.get());
+            }
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * Rota el diario y escribe en segundo plano una instantánea del estado actual.
+     * El diario nuevo tiene la generación de la instantánea, así que si el proceso muere antes de
+     * terminar, al arrancar se reproducen el diario antiguo y el nuevo sobre la instantánea anterior.
+     */
+    private void compact(List<Script> scripts) throws IOException {
+        long generation = journal.generation() + 1;
+        Path oldJournal = directory.resolve(OLD_JOURNAL_FILE);
+        journal.close();
+        Files.move(journal.file(), oldJournal, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        journal = ScriptJournal.create(directory.resolve(JOURNAL_FILE), generation);
+
+        byte[] snapshot = encode(scripts, generation);
+        compacting = true;
+        background.execute(() -> {
+            try {
+                writeSnapshot(snapshot);
+                Files.deleteIfExists(oldJournal);
+            } catch (IOException e) {
+                e.printStackTrace();
+            } finally {
+                synchronized (this) {
+                    compacting = false;
+                }
+            }
+        });
+    }
+
+    private void writeSnapshot(byte[] snapshot) throws IOException {
+        Files.createDirectories(directory);
+        Path tmp = Files.createTempFile(directory, "scripts", ".tmp");
+        try (FileChannel channel = FileChannel.open(tmp, StandardOpenOption.WRITE)) {
+            ByteBuffer buffer = ByteBuffer.wrap(snapshot);
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            channel.force(true);
+        }
+        Files.move(tmp, directory.resolve(STORE_FILE),
+            StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private synchronized void close() {
+        try {
+            if (journal != null) {
+                journal.close();
+            }
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * Lee la instantánea y reproduce el diario sobre ella
+     * @return los scripts registrados en orden de registro
+     */
+    synchronized List<Script> load() {
+        Path store = directory.resolve(STORE_FILE);
+        Path legacy = directory.resolve(LEGACY_FILE);
+        Path oldJournal = directory.resolve(OLD_JOURNAL_FILE);
+        Path currentJournal = directory.resolve(JOURNAL_FILE);
+        List<Script> initial = new ArrayList<>();
+        long snapshotGeneration = 0;
+        try {
+            Files.createDirectories(directory);
+            if (Files.exists(store)) {
+                try {
+                    snapshotGeneration = decode(ByteBuffer.wrap(Files.readAllBytes(store)), initial);
+                } catch (IOException | RuntimeException e) {
+                    e.printStackTrace();
+                    initial.clear();
+                    snapshotDamaged = true;
+                    Files.move(store, directory.resolve(STORE_FILE + CORRUPT_SUFFIX), StandardCopyOption.REPLACE_EXISTING);
+                }
+            } else if (Files.exists(legacy)) {
+                initial.addAll(readLegacy(legacy));
+                writeSnapshot(encode(initial, 0));
+                Files.move(legacy, directory.resolve(LEGACY_FILE + ".bak"), StandardCopyOption.REPLACE_EXISTING);
+            }
+        } catch (IOException | ClassNotFoundException | RuntimeException e) {
+            e.printStackTrace();
+        }
+
+        ScriptList scripts = new ScriptList(initial);
+        Consumer<ByteBuffer> replay = record -> replay(scripts, record);
+        try {
+            // Diario de una compactación que no llegó a escribir la instantánea
+            boolean interrupted = false;
+            if (Files.exists(oldJournal)) {
+                if (ScriptJournal.readGeneration(oldJournal) >= snapshotGeneration) {
+                    try (ScriptJournal old = ScriptJournal.open(oldJournal, replay)) {
+                        interrupted = old != null;
+                    }
+                }
+                if (!interrupted) {
+                    Files.deleteIfExists(oldJournal);
+                }
+            }
+            if (Files.exists(currentJournal)
+                    && ScriptJournal.readGeneration(currentJournal) >= snapshotGeneration) {
+                journal = ScriptJournal.open(currentJournal, replay);
+            }
+            if (journal == null) {
+                journal = ScriptJournal.create(currentJournal, snapshotGeneration);
+            }
+            if (interrupted && !snapshotDamaged) {
+                writeSnapshot(encode(scripts.toList(), journal.generation()));
+                Files.deleteIfExists(oldJournal);
+            }
+        } catch (IOException | RuntimeException e) {
+            e.printStackTrace();
+        }
+        return scripts.toList();
+    }
+
+    private static void replay(ScriptList scripts, ByteBuffer record) {
+        switch (record.get()) {
+            case ScriptJournal.OP_ADD:
+                scripts.put(readScript(record));
+                break;
+            case ScriptJournal.OP_CHANGE:
+                String oldName = readString(record);
+                scripts.change(oldName, readScript(record));
+                break;
+            case ScriptJournal.OP_REMOVE:
+                scripts.remove(readString(record));
+                break;
+            default:
+                break;
+        }
+    }
+
+    /**
+     * Lee el formato antiguo basado en serialización Java
+     */
+    private static List<Script> readLegacy(Path file) throws IOException, ClassNotFoundException {
+        try (ObjectInputStream ois = new ObjectInputStream(Files.newInputStream(file))) {
+            ReaderConfig config = (ReaderConfig) ois.readObject();
+            List<Script> legacy = config.getLegacyScripts();
+            return legacy != null ? legacy : List.of();
+        }
+    }
+
+    // ========================================
+    // FORMATO BINARIO
+    // ========================================
+    //
+    // int magic, int versión, long generación (desde la versión 2), int número de scripts y,
+    // por cada script, int longitud + registro. Un registro contiene cuatro cadenas (nombre,
+    // ruta, lenguaje y descripción) codificadas como int longitud + bytes UTF-8.
+    // Al leer se salta lo que quede del registro, de forma que versiones futuras
+    // pueden añadir campos al final sin romper a las anteriores.
+
+    static byte[] encode(List<Script> scripts, long generation) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(64 + scripts.size() * 128);
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeInt(MAGIC);
+        out.writeInt(VERSION);
+        out.writeLong(generation);
+        out.writeInt(scripts.size());
+        for (Script s : scripts) {
+            writeScript(out, s);
+        }
+        out.flush();
+        return bytes.toByteArray();
+    }
+
+    /**
+     * Decodifica una instantánea
+     * @param in contenido del archivo
+     * @param result lista donde se añaden los scripts
+     * @return la generación de la instantánea
+     */
+    static long decode(ByteBuffer in, List<Script> result) throws IOException {
+        try {
+            if (in.getInt() != MAGIC) {
+                throw new IOException("Not a scripts store");
+            }
+            int version = in.getInt();
+            if (version > VERSION) {
+                throw new IOException("Unsupported scripts store version " + version);
+            }
+            long generation = version >= 2 ? in.getLong() : 0;
+            int count = in.getInt();
+            for (int i = 0; i < count; i++) {
+                result.add(readScript(in));
+            }
+            return generation;
+        } catch (BufferUnderflowException | IndexOutOfBoundsException | IllegalArgumentException e) {
+            throw new IOException("Truncated scripts store", e);
+        }
+    }
+
+    static void writeScript(DataOutputStream out, Script s) throws IOException {
+        ByteArrayOutputStream recordBytes = new ByteArrayOutputStream(128);
+        DataOutputStream record = new DataOutputStream(recordBytes);
+        writeString(record, s.getScriptName());
+        writeString(record, s.getScriptPath());
+        writeString(record, s.getAvailableLanguage() != null ? s.getAvailableLanguage().name() : null);
+        writeString(record, s.getScriptDescription());
+        out.writeInt(recordBytes.size());
+        recordBytes.writeTo(out);
+    }
+
+    static Script readScript(ByteBuffer in) {
+        int length = in.getInt();
+        int end = in.position() + length;
+        String name = readString(in);
+        String path = readString(in);
+        String language = readString(in);
+        String description = readString(in);
+        in.position(end);
+        return new Script(name, path, parseLanguage(language), description);
+    }
+
+    private static AvailableLanguage parseLanguage(String name) {
+        if (name == null) return null;
+        try {
+            return AvailableLanguage.valueOf(name);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    static void writeString(DataOutputStream out, String value) throws IOException {
+        if (value == null) {
+            out.writeInt(-1);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    static String readString(ByteBuffer in) {
+        int length = in.getInt();
+        if (length < 0) return null;
+        String value = new String(in.array(), in.arrayOffset() + in.position(), length, StandardCharsets.UTF_8);
+        in.position(in.position() + length);
+        return value;
+    }
+}
@@ -1,23 +1,33 @@
 package com.ToTerminal.controllers;
 
+import com.ToTerminal.ScriptReader.AvailableLanguage;
 import com.ToTerminal.ScriptReader.Script;
-import com.ToTerminal.ScriptReader.ScriptReader;
+import com.ToTerminal.ScriptReader.ScriptAvailabilityMonitor;
+import com.ToTerminal.ScriptReader.ScriptRegistry;
+import com.ToTerminal.ScriptReader.ScriptState;
 import com.ToTerminal.models.ConfigData;
+import com.ToTerminal.models.ScriptListCell;
 import com.ToTerminal.models.ScriptView;
 import com.ToTerminal.utils.InternationalizationHelper;
 import com.ToTerminal.utils.Values;
 import com.ToTerminal.utils.StyleManager;
+import com.ToTerminal.utils.ThemePreview;
 
 import javafx.application.Platform;
+import javafx.collections.FXCollections;
+import javafx.collections.ListChangeListener;
+import javafx.collections.ObservableList;
+import javafx.collections.transformation.FilteredList;
 import javafx.fxml.FXML;
 import javafx.fxml.FXMLLoader;
 import javafx.fxml.Initializable;
 import javafx.scene.Scene;
 import javafx.scene.control.*;
 import javafx.scene.layout.BorderPane;
-import javafx.scene.layout.HBox;
+import javafx.scene.layout.VBox;
 import javafx.stage.Modality;
 import javafx.stage.Stage;
+import javafx.stage.WindowEvent;
 
 import java.io.File;
 import java.io.FileInputStream;
@@ -28,7 +38,10 @@ import java.io.ObjectInputStream;
 import java.io.ObjectOutputStream;
 import java.net.URL;
 import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
 import java.util.ResourceBundle;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 /**
  * Controlador para la ventana de configuración
@@ -42,6 +55,7 @@ public class ConfigController implements Initializable {
     @FXML private ColorPicker backgroundColorPicker;
     @FXML private ColorPicker textColorPicker;
     @FXML private Slider fontSizeSlider;
+    @FXML private ToggleButton previewThemeButton;
     @FXML private Label fontSizeLabel;
     @FXML private ComboBox<String> fontFamilyComboBox;
     
@@ -51,6 +65,7 @@ public class ConfigController implements Initializable {
     @FXML private CheckBox showTimeCheckBox;
     @FXML private CheckBox showPathCheckBox;
     @FXML private Spinner<Integer> historyLimitSpinner;
+    @FXML private Spinner<Integer> outputLimitSpinner;
     
     // Pestaña Avanzado
     @FXML private Tab advancedTab;
@@ -59,9 +74,16 @@ public class ConfigController implements Initializable {
     @FXML private CheckBox logCommandsCheckBox;
     @FXML private TextField logFilePathTextField;
     @FXML private Button browseLogFileButton;
+    @FXML private Spinner<Integer> nodePoolSizeSpinner;
+    @FXML private Spinner<Integer> nodeIdleTimeoutSpinner;
 
     @FXML private Tab scriptsTab;
-    @FXML private HBox scriptContent;
+    @FXML private VBox scriptContent;
+    @FXML private TextField scriptFilterField;
+    @FXML private ComboBox<String> languageFilterComboBox;
+    @FXML private ComboBox<String> stateFilterComboBox;
+    @FXML private Label scriptCountLabel;
+    @FXML private ListView<Script> scriptListView;
 
     // Botones
     @FXML private Button applyButton;
@@ -73,10 +95,38 @@ public class ConfigController implements Initializable {
 
     private ConfigData loadedSettings;
     private StyleManager styleManager;
+    private ThemePreview themePreview;
 
     public Script selectedScript;
-    public ScriptView selectedScriptView;
-    public ScriptView lastSelectedScriptView;
+
+    // Estados por los que se puede filtrar, en el orden del desplegable (tras "todos")
+    private static final ScriptState[] STATE_FILTERS = {
+        ScriptState.DEFAULT_STATE, ScriptState.NOT_FOUND, ScriptState.UNKNOWN
+    };
+
+    // Lista completa de scripts y vista filtrada que muestra la ListView
+    private final ObservableList<Script> scriptItems = FXCollections.observableArrayList();
+    private final FilteredList<Script> filteredScripts = new FilteredList<>(scriptItems);
+    // Celdas creadas por la ListView (solo las necesarias para cubrir la zona visible)
+    private final List<ScriptListCell> scriptCells = new ArrayList<>();
+    private final AtomicBoolean statusRefreshPending = new AtomicBoolean();
+
+    // Aplica en la lista los cambios del registro de scripts mientras la ventana está abierta
+    private final ScriptRegistry.ChangeListener scriptsListener = change -> {
+        if (Platform.isFxApplicationThread()) {
+            applyScriptChange(change);
+        } else {
+            Platform.runLater(() -> applyScriptChange(change));
+        }
+    };
+
+    // Refresca las celdas visibles cuando el monitor detecta cambios; las ráfagas se agrupan
+    // en una sola actualización del hilo de JavaFX
+    private final ScriptAvailabilityMonitor.StatusListener statusListener = (script, status) -> {
+        if (statusRefreshPending.compareAndSet(false, true)) {
+            Platform.runLater(this::applyStatusChanges);
+        }
+    };
 
 
     /**
@@ -92,11 +142,13 @@ public class ConfigController implements Initializable {
         styleManager = StyleManager.getInstance();
         
         loadCurrentSettings();
+        themePreview = new ThemePreview(() -> loadedSettings);
         setupAppearanceTab();
         setupTerminalTab();
         setupAdvancedTab();
         setupButtons();
         setupSettings();
+        setupScriptsTab();
         updateScriptsList();
         
         // Registrar esta ventana en el StyleManager
@@ -104,6 +156,12 @@ public class ConfigController implements Initializable {
             Stage stage = (Stage) configTabPane.getScene().getWindow();
             if (stage != null) {
                 styleManager.registerStage(stage);
+                themePreview.setScene(configTabPane.getScene());
+                stage.addEventHandler(WindowEvent.WINDOW_HIDDEN, e -> {
+                    themePreview.dispose();
+                    ScriptRegistry.getInstance().removeChangeListener(scriptsListener);
+                    ScriptAvailabilityMonitor.getInstance().removeStatusListener(statusListener);
+                });
             }
         });
 
@@ -141,8 +199,10 @@ public class ConfigController implements Initializable {
         fontFamilyComboBox.valueProperty().addListener((obs, oldVal, newVal) -> {
             if (loadedSettings != null && newVal != null) {
                 String fontValue = getFontValueFromKey(newVal);
-                loadedSettings.setSelectedFontFamily(fontValue);
-                applyAppearanceStyles();
+                if (!fontValue.equals(loadedSettings.getSelectedFontFamily())) {
+                    loadedSettings.setSelectedFontFamily(fontValue);
+                    applyAppearanceStyles();
+                }
             }
         });
 
@@ -155,15 +215,21 @@ public class ConfigController implements Initializable {
         fontSizeSlider.setShowTickMarks(true);
 
         fontSizeSlider.valueProperty().addListener((obs, oldVal, newVal) -> {
-            fontSizeLabel.setText(String.format("%.0f pt", newVal.doubleValue()));
+            // El slider notifica valores continuos; solo cuenta el cambio de tamaño entero
+            if (oldVal != null && oldVal.intValue() == newVal.intValue()) {
+                return;
+            }
+            fontSizeLabel.setText(newVal.intValue() + " pt");
             // Aplicar cambios de tamaño de fuente en tiempo real
-            if (loadedSettings != null) {
+            if (loadedSettings != null && loadedSettings.getFontSize() != newVal.intValue()) {
                 loadedSettings.setFontSize(newVal.intValue());
                 applyAppearanceStyles();
             }
         });
         fontSizeLabel.setText("12 pt");
 
+        previewThemeButton.setText(InternationalizationHelper.getText("config.appearance.theme.preview"));
+
         backgroundColorPicker.setValue(javafx.scene.paint.Color.web("#004b23"));
         textColorPicker.setValue(javafx.scene.paint.Color.web("#ccff33"));
         
@@ -194,7 +260,11 @@ public class ConfigController implements Initializable {
         showPathCheckBox.setSelected(true);
 
         historyLimitSpinner.setValueFactory(
-            new SpinnerValueFactory.IntegerSpinnerValueFactory(10, 1000, 100, 10)
+            new SpinnerValueFactory.IntegerSpinnerValueFactory(10, 1000000, 100, 10)
+        );
+
+        outputLimitSpinner.setValueFactory(
+            new SpinnerValueFactory.IntegerSpinnerValueFactory(1000, 1000000, 10000, 1000)
         );
     }
     
@@ -209,6 +279,13 @@ public class ConfigController implements Initializable {
         startupCommandTextField.setPromptText(InternationalizationHelper.getText("config.advanced.startup.placeholder"));
         logFilePathTextField.setText("~/ToTerminal.log");
 
+        nodePoolSizeSpinner.setValueFactory(
+            new SpinnerValueFactory.IntegerSpinnerValueFactory(0, 8, ConfigData.DEFAULT_NODE_WORKER_POOL_SIZE, 1)
+        );
+        nodeIdleTimeoutSpinner.setValueFactory(
+            new SpinnerValueFactory.IntegerSpinnerValueFactory(10, 3600, ConfigData.DEFAULT_NODE_WORKER_IDLE_TIMEOUT, 10)
+        );
+
         logCommandsCheckBox.selectedProperty().addListener((obs, oldVal, newVal) -> {
             logFilePathTextField.setDisable(!newVal);
             browseLogFileButton.setDisable(!newVal);
@@ -311,10 +388,13 @@ public class ConfigController implements Initializable {
                showTimeCheckBox != null && 
                showPathCheckBox != null && 
                historyLimitSpinner != null && 
+               outputLimitSpinner != null && 
                autoCompleteCheckBox != null && 
                startupCommandTextField != null && 
                logCommandsCheckBox != null && 
-               logFilePathTextField != null;
+               logFilePathTextField != null && 
+               nodePoolSizeSpinner != null && 
+               nodeIdleTimeoutSpinner != null;
     }
     
     /**
@@ -335,160 +415,17 @@ public class ConfigController implements Initializable {
         backgroundColorPicker.setValue(loadedSettings.getBackgroundColorAsColor());
         textColorPicker.setValue(loadedSettings.getTextColorAsColor());
         
-        // Aplicar estilos inline con !important para sobrescribir CSS
+        // Vista previa del tema en esta ventana
         applyAppearanceStyles();
     }
     
     /**
-     * Aplica los estilos de apariencia a toda la interfaz.
-     * Genera strings CSS basados en los colores y fuentes seleccionados.
+     * Pide la vista previa de los valores de apariencia que se están editando.
+     * Los cambios seguidos de los controles se agrupan y se aplican una vez por frame.
      */
     private void applyAppearanceStyles() {
-        if (loadedSettings == null) return;
-        
-        String bgColor = loadedSettings.getBackgroundColor();
-        String textColor = loadedSettings.getTextColor();
-        String fontSize = loadedSettings.getFontSize() + "px";
-        String fontFamily = getFontFamilyCSSValue(loadedSettings.getSelectedFontFamily());
-        
-        // Aplicar estilos al contenedor principal de configuración
-        if (configTabPane != null) {
-            configTabPane.setStyle(String.format(
-                "-fx-background-color: %s !important; " +
-                "-fx-text-fill: %s !important;",
-                bgColor, textColor
-            ));
-        }
-        
-        // Aplicar estilos a las pestañas
-        if (appearanceTab != null) {
-            appearanceTab.setStyle(String.format(
-                "-fx-background-color: %s !important; " +
-                "-fx-text-fill: %s !important;",
-                bgColor, textColor
-            ));
-        }
-        
-        if (terminalTab != null) {
-            terminalTab.setStyle(String.format(
-                "-fx-background-color: %s !important; " +
-                "-fx-text-fill: %s !important;",
-                bgColor, textColor
-            ));
-        }
-        
-        if (advancedTab != null) {
-            advancedTab.setStyle(String.format(
-                "-fx-background-color: %s !important; " +
-                "-fx-text-fill: %s !important;",
-                bgColor, textColor
-            ));
-        }
-        
-        // Aplicar estilos a elementos específicos
-        applyStylesToFormElements(bgColor, textColor, fontSize, fontFamily);
-        
-        // Aplicar estilos a la pestaña de scripts
-        applyStylesToScriptsTab(bgColor, textColor, fontSize, fontFamily);
-    }
-    
-    private void applyStylesToScriptsTab(String bgColor, String textColor, String fontSize, String fontFamily) {
-        if (scriptsTab != null) {
-            scriptsTab.setStyle(String.format(
-                "-fx-background-color: %s !important; " +
-                "-fx-text-fill: %s !important;",
-                bgColor, textColor
-            ));
-        }
-        
-        if (scriptContent != null) {
-            scriptContent.setStyle(String.format(
-                "-fx-background-color: %s !important; " +
-                "-fx-text-fill: %s !important;",
-                bgColor, textColor
-            ));
-        }
-    }
-    
-    private void applyStylesToFormElements(String bgColor, String textColor, String fontSize, String fontFamily) {
-        // Aplicar estilos a campos de texto
-        if (promptTextField != null) {
-            promptTextField.setStyle(String.format(
-                "-fx-background-color: %s !important; " +
-                "-fx-text-fill: %s !important; " +
-                "-fx-font-size: %s !important; " +
-                "-fx-font-family: %s !important;",
-                bgColor, textColor, fontSize, fontFamily
-            ));
-        }
-        
-        if (startupCommandTextField != null) {
-            startupCommandTextField.setStyle(String.format(
-                "-fx-background-color: %s !important; " +
-                "-fx-text-fill: %s !important; " +
-                "-fx-font-size: %s !important; " +
-                "-fx-font-family: %s !important;",
-                bgColor, textColor, fontSize, fontFamily
-            ));
-        }
-        
-        if (logFilePathTextField != null) {
-            logFilePathTextField.setStyle(String.format(
-                "-fx-background-color: %s !important; " +
-                "-fx-text-fill: %s !important; " +
-                "-fx-font-size: %s !important; " +
-                "-fx-font-family: %s !important;",
-                bgColor, textColor, fontSize, fontFamily
-            ));
-        }
-        
-        // Aplicar estilos a ComboBoxes
-        if (fontFamilyComboBox != null) {
-            fontFamilyComboBox.setStyle(String.format(
-                "-fx-background-color: %s !important; " +
-                "-fx-text-fill: %s !important; " +
-                "-fx-font-size: %s !important; " +
-                "-fx-font-family: %s !important;",
-                bgColor, textColor, fontSize, fontFamily
-            ));
-        }
-        
-        // Aplicar estilos a labels
-        if (fontSizeLabel != null) {
-            fontSizeLabel.setStyle(String.format(
-                "-fx-text-fill: %s !important; " +
-                "-fx-font-size: %s !important; " +
-                "-fx-font-family: %s !important;",
-                textColor, fontSize, fontFamily
-            ));
-        }
-    }
-    
-    /**
-     * Convierte el valor interno de la fuente a su nombre CSS correspondiente.
-     *
-     * @param fontValue Valor interno de la fuente (ej. "courier_new").
-     * @return El nombre de la familia de fuentes CSS.
-     */
-    private String getFontFamilyCSSValue(String fontValue) {
-        // Convertir valores internos a nombres de fuente CSS válidos
-        switch (fontValue) {
-            case "courier_new":
-                return "'Courier New', monospace";
-            case "consolas":
-                return "'Consolas', monospace";
-            case "monaco":
-                return "'Monaco', monospace";
-            case "ubuntu_mono":
-                return "'Ubuntu Mono', monospace";
-            case "jetbrains_mono":
-                return "'JetBrains Mono', monospace";
-            case "fira_code":
-                return "'Fira Code', monospace";
-            case "source_code_pro":
-                return "'Source Code Pro', monospace";
-            default:
-                return "'Courier New', monospace";
+        if (themePreview != null) {
+            themePreview.request();
         }
     }
     
@@ -509,56 +446,7 @@ public class ConfigController implements Initializable {
     }
     
     public String getCurrentFontFamily() {
-        return loadedSettings != null ? getFontFamilyCSSValue(loadedSettings.getSelectedFontFamily()) : "'Courier New', monospace";
-    }
-    
-    /**
-     * Método para aplicar estilos a un nodo específico (útil para el terminal principal)
-     */
-    public void applyStylesToNode(javafx.scene.Node node) {
-        if (loadedSettings == null || node == null) return;
-        
-        String bgColor = loadedSettings.getBackgroundColor();
-        String textColor = loadedSettings.getTextColor();
-        String fontSize = loadedSettings.getFontSize() + "px";
-        String fontFamily = getFontFamilyCSSValue(loadedSettings.getSelectedFontFamily());
-        
-        node.setStyle(String.format(
-            "-fx-background-color: %s !important; " +
-            "-fx-text-fill: %s !important; " +
-            "-fx-font-size: %s !important; " +
-            "-fx-font-family: %s !important;",
-            bgColor, textColor, fontSize, fontFamily
-        ));
-    }
-    
-    /**
-     * Método para limpiar todos los estilos inline y permitir que el CSS tome control
-     */
-    /**
-     * Limpia los estilos en línea de todos los elementos.
-     */
-    private void clearInlineStyles() {
-        // Limpiar estilos del contenedor principal
-        if (configTabPane != null) {
-            configTabPane.setStyle("");
-        }
-        
-        // Limpiar estilos de las pestañas
-        if (appearanceTab != null) appearanceTab.setStyle("");
-        if (terminalTab != null) terminalTab.setStyle("");
-        if (advancedTab != null) advancedTab.setStyle("");
-        if (scriptsTab != null) scriptsTab.setStyle("");
-        
-        // Limpiar estilos de los elementos de formulario
-        if (promptTextField != null) promptTextField.setStyle("");
-        if (startupCommandTextField != null) startupCommandTextField.setStyle("");
-        if (logFilePathTextField != null) logFilePathTextField.setStyle("");
-        if (fontFamilyComboBox != null) fontFamilyComboBox.setStyle("");
-        if (fontSizeLabel != null) fontSizeLabel.setStyle("");
-        
-        // Limpiar estilos del área de scripts
-        if (scriptContent != null) scriptContent.setStyle("");
+        return loadedSettings != null ? StyleManager.getFontFamilyCSSValue(loadedSettings.getSelectedFontFamily()) : "'Courier New', monospace";
     }
     
     /**
@@ -576,6 +464,11 @@ public class ConfigController implements Initializable {
         if (historyLimitSpinner.getValueFactory() != null) {
             historyLimitSpinner.getValueFactory().setValue(loadedSettings.getHistoryLimit());
         }
+        
+        // Configurar límite de líneas de salida
+        if (outputLimitSpinner.getValueFactory() != null) {
+            outputLimitSpinner.getValueFactory().setValue(loadedSettings.getOutputLineLimit());
+        }
     }
     
     /**
@@ -595,6 +488,14 @@ public class ConfigController implements Initializable {
         // Habilitar/deshabilitar campos de log según la configuración
         logFilePathTextField.setDisable(!loadedSettings.isEnableCommandLogging());
         browseLogFileButton.setDisable(!loadedSettings.isEnableCommandLogging());
+        
+        // Configurar el pool de procesos de NodeJS
+        if (nodePoolSizeSpinner.getValueFactory() != null) {
+            nodePoolSizeSpinner.getValueFactory().setValue(loadedSettings.getNodeWorkerPoolSize());
+        }
+        if (nodeIdleTimeoutSpinner.getValueFactory() != null) {
+            nodeIdleTimeoutSpinner.getValueFactory().setValue(loadedSettings.getNodeWorkerIdleTimeout());
+        }
     }
     
     /**
@@ -689,12 +590,15 @@ public class ConfigController implements Initializable {
         newConfig.setShowTimeInPrompt(showTimeCheckBox.isSelected());
         newConfig.setShowPathInPrompt(showPathCheckBox.isSelected());
         newConfig.setHistoryLimit(historyLimitSpinner.getValue());
+        newConfig.setOutputLineLimit(outputLimitSpinner.getValue());
         
         // Guardar configuración Avanzada
         newConfig.setEnableAutoComplete(autoCompleteCheckBox.isSelected());
         newConfig.setStartupCommand(startupCommandTextField.getText());
         newConfig.setEnableCommandLogging(logCommandsCheckBox.isSelected());
         newConfig.setLogFilePath(logFilePathTextField.getText());
+        newConfig.setNodeWorkerPoolSize(nodePoolSizeSpinner.getValue());
+        newConfig.setNodeWorkerIdleTimeout(nodeIdleTimeoutSpinner.getValue());
         
         // Actualizar la configuración cargada
         loadedSettings = newConfig;
@@ -725,9 +629,6 @@ public class ConfigController implements Initializable {
             // Restaurar valores por defecto en el objeto ConfigData
             loadedSettings.setDefaultValues();
             
-            // Limpiar estilos inline para permitir que el CSS tome control
-            clearInlineStyles();
-            
             // Aplicar la configuración por defecto a la interfaz
             setupSettings();
             
@@ -762,16 +663,126 @@ public class ConfigController implements Initializable {
     }
 
     /**
-     * Actualiza la lista visual de scripts disponibles.
-     * Lee los scripts usando ScriptReader y genera las vistas correspondientes.
+     * Configura la lista virtualizada de scripts y sus filtros.
+     * La ListView solo crea celdas para los scripts visibles y las reutiliza al desplazarse.
+     */
+    private void setupScriptsTab() {
+        scriptFilterField.setPromptText(InternationalizationHelper.getText("config.scripts.filter_placeholder"));
+
+        languageFilterComboBox.getItems().add(InternationalizationHelper.getText("config.scripts.all_languages"));
+        for (AvailableLanguage language : AvailableLanguage.values()) {
+            languageFilterComboBox.getItems().add(language.toString());
+        }
+        languageFilterComboBox.getSelectionModel().selectFirst();
+
+        stateFilterComboBox.getItems().addAll(
+            InternationalizationHelper.getText("config.scripts.all_states"),
+            InternationalizationHelper.getText("config.scripts.states.available"),
+            InternationalizationHelper.getText("config.scripts.states.not_found"),
+            InternationalizationHelper.getText("config.scripts.states.unknown")
+        );
+        stateFilterComboBox.getSelectionModel().selectFirst();
+
+        // Los filtros se aplican a cada cambio, sin esperar a confirmar
+        scriptFilterField.textProperty().addListener((obs, oldValue, newValue) -> applyScriptFilter());
+        languageFilterComboBox.getSelectionModel().selectedIndexProperty().addListener((obs, oldValue, newValue) -> applyScriptFilter());
+        stateFilterComboBox.getSelectionModel().selectedIndexProperty().addListener((obs, oldValue, newValue) -> applyScriptFilter());
+
+        scriptListView.setItems(filteredScripts);
+        // Con altura fija la ListView no tiene que medir cada celda
+        scriptListView.setFixedCellSize(ScriptView.PREF_HEIGHT + 10);
+        scriptListView.setCellFactory(list -> {
+            ScriptListCell cell = new ScriptListCell(this);
+            scriptCells.add(cell);
+            return cell;
+        });
+        scriptListView.getSelectionModel().selectedItemProperty().addListener(
+            (obs, oldScript, newScript) -> selectedScript = newScript
+        );
+
+        filteredScripts.addListener((ListChangeListener<Script>) change -> updateScriptCount());
+    }
+
+    /**
+     * Carga la lista de scripts a partir del registro y se suscribe a sus cambios y a los
+     * del monitor de disponibilidad para actualizar solo lo necesario.
      */
     private void updateScriptsList(){
-        ArrayList<Script> list = new ScriptReader().getScripts();
-        if(list == null){
+        ScriptRegistry registry = ScriptRegistry.getInstance();
+        scriptItems.setAll(registry.getScripts());
+        updateScriptCount();
+        registry.addChangeListener(scriptsListener);
+        ScriptAvailabilityMonitor.getInstance().addStatusListener(statusListener);
+    }
+
+    /**
+     * Aplica los filtros de nombre, lenguaje y estado a la lista de scripts.
+     */
+    private void applyScriptFilter() {
+        String query = scriptFilterField.getText() == null ? "" : scriptFilterField.getText().trim().toLowerCase(Locale.ROOT);
+        int languageIndex = languageFilterComboBox.getSelectionModel().getSelectedIndex();
+        int stateIndex = stateFilterComboBox.getSelectionModel().getSelectedIndex();
+        AvailableLanguage language = languageIndex > 0 ? AvailableLanguage.values()[languageIndex - 1] : null;
+        ScriptState state = stateIndex > 0 ? STATE_FILTERS[stateIndex - 1] : null;
+
+        if (query.isEmpty() && language == null && state == null) {
+            filteredScripts.setPredicate(null);
             return;
         }
-        for(Script s : list){
-             scriptContent.getChildren().add(new ScriptView(s,this));
+        ScriptAvailabilityMonitor monitor = ScriptAvailabilityMonitor.getInstance();
+        filteredScripts.setPredicate(script ->
+            (language == null || script.getAvailableLanguage() == language)
+                && (query.isEmpty() || (script.getScriptName() != null
+                    && script.getScriptName().toLowerCase(Locale.ROOT).contains(query)))
+                && (state == null || monitor.getStatus(script).getState() == state)
+        );
+    }
+
+    private void updateScriptCount() {
+        scriptCountLabel.setText(InternationalizationHelper.getText("config.scripts.count",
+            filteredScripts.size(), scriptItems.size()));
+    }
+
+    /**
+     * Aplica los cambios de disponibilidad acumulados: refresca las celdas visibles y,
+     * si se filtra por estado, vuelve a evaluar el filtro.
+     */
+    private void applyStatusChanges() {
+        statusRefreshPending.set(false);
+        if (stateFilterComboBox.getSelectionModel().getSelectedIndex() > 0) {
+            applyScriptFilter();
+        }
+        for (ScriptListCell cell : scriptCells) {
+            cell.refreshStatus();
+        }
+    }
+
+    /**
+     * Aplica un cambio del registro a la lista de scripts.
+     *
+     * @param change Cambio publicado por el registro.
+     */
+    private void applyScriptChange(ScriptRegistry.Change change) {
+        switch (change.getType()) {
+            case ADDED:
+                scriptItems.add(change.getNewScript());
+                break;
+            case CHANGED:
+                int index = scriptItems.indexOf(change.getOldScript());
+                if (index >= 0) {
+                    scriptItems.set(index, change.getNewScript());
+                } else {
+                    scriptItems.add(change.getNewScript());
+                }
+                if (selectedScript == change.getOldScript()) {
+                    scriptListView.getSelectionModel().select(change.getNewScript());
+                }
+                break;
+            case REMOVED:
+                scriptItems.remove(change.getOldScript());
+                break;
+            default:
+                break;
         }
     }
     
@@ -785,11 +796,12 @@ public class ConfigController implements Initializable {
     }
     
     /**
-     * Muestra una vista previa del tema seleccionado (funcionalidad futura).
+     * Activa o desactiva la vista previa del tema en todas las ventanas abiertas.
+     * Al cerrar la ventana de configuración sin aplicar, las ventanas recuperan su tema.
      */
     @FXML
     private void previewTheme() {
-        System.out.println("Vista previa del tema: No disponible");
+        themePreview.setGlobal(previewThemeButton.isSelected());
     }
 
     /**
@@ -850,23 +862,4 @@ public class ConfigController implements Initializable {
         stage.close();
     }
 
-    /**
-     * Actualiza el estilo visual de los scripts seleccionados en la lista.
-     * Resalta el script seleccionado actualmente y restaura el estilo del previamente seleccionado.
-     */
-    public void updateSelectionStyle(){
-        String selectedStyle = "-fx-background-color: #d0e0f0; -fx-border-color: #aaa; -fx-border-width: 1px; -fx-border-radius: 5px;";
-        String normalStyle = "-fx-background-color: #f0f0f0; -fx-border-color: #ccc; -fx-border-width: 1px; -fx-border-radius: 5px;";
-        
-        if (selectedScriptView != null) {
-            selectedScriptView.setStyle(selectedStyle);
-        }
-        
-        if (lastSelectedScriptView != null && lastSelectedScriptView != selectedScriptView) {
-            lastSelectedScriptView.setStyle(normalStyle);
-        }
-        
-        lastSelectedScriptView = selectedScriptView;
-    }
-
 }
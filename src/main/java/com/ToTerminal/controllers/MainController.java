@@ -1,30 +1,36 @@
 package com.ToTerminal.controllers;
 
-import com.ToTerminal.interpreter.Interpreter;
+import com.ToTerminal.ScriptReader.ScriptAvailabilityMonitor;
+import com.ToTerminal.interpreter.CommandLogger;
+import com.ToTerminal.interpreter.NodeWorkerPool;
+import com.ToTerminal.interpreter.TerminalSession;
+import com.ToTerminal.models.CommandHistory;
 import com.ToTerminal.models.ConfigData;
-import com.ToTerminal.utils.Values;
 import com.ToTerminal.utils.InternationalizationHelper;
 import com.ToTerminal.utils.StyleManager;
+import javafx.beans.binding.Bindings;
+import javafx.beans.property.ReadOnlyIntegerProperty;
+import javafx.collections.ListChangeListener;
 import javafx.fxml.FXML;
 import javafx.fxml.FXMLLoader;
 import javafx.fxml.Initializable;
+import javafx.scene.Parent;
 import javafx.scene.Scene;
 import javafx.scene.control.*;
-import javafx.scene.input.KeyCode;
-import javafx.scene.input.KeyEvent;
-import javafx.scene.layout.VBox;
 import javafx.stage.Modality;
 import javafx.stage.Stage;
 import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.net.URL;
+import java.nio.file.Path;
 import java.time.LocalTime;
 import java.time.format.DateTimeFormatter;
-import java.util.ArrayList;
-import java.util.List;
 import java.util.ResourceBundle;
 
 /**
- * Controlador principal para la interfaz del terminal
+ * Controlador principal para la interfaz del terminal.
+ * Gestiona el menú, la barra de estado y las pestañas; cada pestaña es una sesión independiente
+ * con su propio {@link SessionController}. La barra de estado muestra la pestaña activa.
  */
 public class MainController implements Initializable, StyleManager.StyleChangeListener {
 
@@ -36,50 +42,67 @@ public class MainController implements Initializable, StyleManager.StyleChangeLi
     
     @FXML private Label currentPath;
     @FXML private Label terminalStatus;
+    @FXML private Label jobCount;
     @FXML private Label currentTime;
     
-    @FXML private ScrollPane outputScrollPane;
-    @FXML private VBox terminalOutput;
-    @FXML private TextField commandInput;
-    @FXML private Label promptLabel;
+    @FXML private TabPane sessionTabs;
     
-    private List<String> commandHistory = new ArrayList<>();
-    private int historyIndex = -1;
-    private Interpreter interpreter;
+    private CommandHistory commandHistory;
+    private CommandLogger commandLogger;
     private StyleManager styleManager;
-
-    public static MainController instance;
     
     /**
      * Inicializa el controlador principal.
-     * Configura el StyleManager, el intérprete y los componentes de la interfaz.
+     * Configura el StyleManager, los servicios compartidos por las sesiones y la primera pestaña.
      */
     @Override
     public void initialize(URL location, ResourceBundle resources) {
-        instance = this;
-
         // Inicializar StyleManager
         styleManager = StyleManager.getInstance();
         styleManager.addStyleChangeListener(this);
         
-        // Configurar valores iniciales
-        currentPath.setText(Values.currentPath);
-        terminalStatus.setText(InternationalizationHelper.getText("main.status.ready"));
         updateTime();
-
-        // Configurar prompt
-        promptLabel.setText(Values.PROMPT);
         
-        // Mensaje de bienvenida
-        addOutputLine(InternationalizationHelper.getText("main.terminal.welcome"), "welcome");
-        addOutputLine(InternationalizationHelper.getText("main.terminal.help_hint"), "info");
-        addOutputLine("", "normal");
+        // Historial de comandos guardado entre sesiones
+        commandHistory = CommandHistory.getInstance();
+        commandHistory.setLimit(styleManager.getCurrentConfig().getHistoryLimit());
+        
+        // Registro de los comandos ejecutados
+        commandLogger = CommandLogger.getInstance();
+        configureCommandLog(styleManager.getCurrentConfig());
         
-        // Inicializar el intérprete de comandos
-        interpreter = new Interpreter(terminalOutput, currentPath, outputScrollPane);
+        // Pool de procesos de NodeJS para los scripts
+        configureNodePool(styleManager.getCurrentConfig());
         
-        // Configurar eventos
-        setupEventHandlers();
+        // Comprobar en segundo plano la disponibilidad de los scripts registrados
+        ScriptAvailabilityMonitor.getInstance();
+        
+        // Pestañas: la barra de estado sigue a la activa y las cerradas liberan su sesión
+        sessionTabs.getSelectionModel().selectedItemProperty().addListener((obs, oldTab, newTab) -> {
+            if (oldTab != null) {
+                ((SessionController) oldTab.getUserData()).setActive(false);
+            }
+            if (newTab != null) {
+                showSession((SessionController) newTab.getUserData());
+            }
+        });
+        sessionTabs.getTabs().addListener((ListChangeListener<Tab>) change -> {
+            while (change.next()) {
+                for (Tab tab : change.getRemoved()) {
+                    ((SessionController) tab.getUserData()).close();
+                }
+            }
+            if (sessionTabs.getTabs().isEmpty()) {
+                System.exit(0);
+            }
+        });
+        newSession();
+        
+        // Eventos del menú
+        configMenuItem.setOnAction(e -> openConfigWindow());
+        scriptCreatorMenuItem.setOnAction(e -> openScriptCreatorWindow());
+        helpMenuItem.setOnAction(e -> showHelp());
+        aboutMenuItem.setOnAction(e -> showAbout());
         
         // Actualizar la hora cada segundo
         javafx.animation.Timeline timeline = new javafx.animation.Timeline(
@@ -98,99 +121,72 @@ public class MainController implements Initializable, StyleManager.StyleChangeLi
     }
     
     /**
-     * Configura los manejadores de eventos para la entrada de comandos y el menú.
+     * Abre una pestaña con una sesión nueva y la selecciona.
      */
-    private void setupEventHandlers() {
-        // Evento para procesar comandos al presionar Enter
-        commandInput.setOnKeyPressed(this::handleKeyPressed);
+    @FXML
+    private void newSession() {
+        FXMLLoader loader = new FXMLLoader(getClass().getResource("/fxml/SessionInterface.fxml"));
+        Parent content;
+        try {
+            content = loader.load();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        SessionController controller = loader.getController();
+        TerminalSession session = controller.getSession();
         
-        // Eventos del menú
-        configMenuItem.setOnAction(e -> openConfigWindow());
-        scriptCreatorMenuItem.setOnAction(e -> openScriptCreatorWindow());
-        helpMenuItem.setOnAction(e -> showHelp());
-        aboutMenuItem.setOnAction(e -> showAbout());
+        Tab tab = new Tab();
+        tab.setContent(content);
+        tab.setUserData(controller);
+        // El título es el nombre de la carpeta actual de la sesión
+        tab.textProperty().bind(Bindings.createStringBinding(
+            () -> tabTitle(session.workingDirectoryProperty().get()), session.workingDirectoryProperty()));
+        session.setCloseHandler(() -> sessionTabs.getTabs().remove(tab));
+        
+        sessionTabs.getTabs().add(tab);
+        sessionTabs.getSelectionModel().select(tab);
     }
     
     /**
-     * Maneja los eventos de teclado en el campo de entrada.
-     * Procesa Enter para ejecutar y flechas para navegar el historial.
-     *
-     * @param event El evento de teclado.
+     * Cierra la pestaña activa; al cerrar la última se cierra la aplicación.
      */
-    private void handleKeyPressed(KeyEvent event) {
-        if (event.getCode() == KeyCode.ENTER) {
-            processCommand();
-        } else if (event.getCode() == KeyCode.UP) {
-            navigateHistory(-1);
-            event.consume();
-        } else if (event.getCode() == KeyCode.DOWN) {
-            navigateHistory(1);
-            event.consume();
+    @FXML
+    private void closeSession() {
+        Tab tab = sessionTabs.getSelectionModel().getSelectedItem();
+        if (tab != null) {
+            sessionTabs.getTabs().remove(tab);
         }
     }
     
     /**
-     * Procesa el comando ingresado por el usuario.
-     * Añade el comando al historial, lo muestra y lo envía al intérprete.
+     * Controlador de la pestaña activa
      */
-    private void processCommand() {
-        String command = commandInput.getText().trim();
-        if (!command.isEmpty()) {
-            // Agregar al historial
-            commandHistory.add(command);
-            historyIndex = commandHistory.size();
-            
-            // Mostrar el comando en la salida
-            addOutputLine(promptLabel.getText() + " " + command, "command");
-            
-            // Procesar el comando
-            interpreter.executeCommand(command);
-            
-            // Limpiar el campo de entrada
-            commandInput.clear();
-        }
+    private SessionController currentSession() {
+        return (SessionController) sessionTabs.getSelectionModel().getSelectedItem().getUserData();
     }
     
-    
-    
     /**
-     * Navega por el historial de comandos.
-     *
-     * @param direction Dirección de navegación: -1 para atrás, 1 para adelante.
+     * Enlaza la barra de estado con la sesión de la pestaña activa
      */
-    private void navigateHistory(int direction) {
-        if (commandHistory.isEmpty()) return;
-        
-        historyIndex += direction;
-        
-        if (historyIndex < 0) {
-            historyIndex = 0;
-        } else if (historyIndex >= commandHistory.size()) {
-            historyIndex = commandHistory.size();
-            commandInput.clear();
-            return;
-        }
-        
-        commandInput.setText(commandHistory.get(historyIndex));
-        commandInput.positionCaret(commandInput.getText().length());
+    private void showSession(SessionController controller) {
+        TerminalSession session = controller.getSession();
+        ReadOnlyIntegerProperty jobs = session.getInterpreter().getJobs().countProperty();
+        currentPath.textProperty().bind(session.workingDirectoryProperty());
+        terminalStatus.textProperty().bind(Bindings.when(controller.runningProperty())
+            .then(InternationalizationHelper.getText("main.status.running"))
+            .otherwise(InternationalizationHelper.getText("main.status.ready")));
+        // Número de trabajos en segundo plano junto al estado; oculto si no hay ninguno
+        jobCount.textProperty().bind(Bindings.createStringBinding(
+            () -> InternationalizationHelper.getText("main.status.jobs", jobs.get()), jobs));
+        jobCount.visibleProperty().bind(jobs.greaterThan(0));
+        jobCount.managedProperty().bind(jobs.greaterThan(0));
+        controller.setActive(true);
     }
     
-    /**
-     * Agrega una línea de texto a la salida del terminal.
-     *
-     * @param text El texto a mostrar.
-     * @param styleClass La clase CSS para estilizar el texto.
-     */
-    private void addOutputLine(String text, String styleClass) {
-        Label outputLabel = new Label(text);
-        outputLabel.getStyleClass().add("output-line");
-        outputLabel.getStyleClass().add(styleClass);
-        terminalOutput.getChildren().add(outputLabel);
-
-        // Auto-scroll hacia abajo
-        javafx.application.Platform.runLater(() -> {
-            outputScrollPane.setVvalue(1.0);
-        });
+    private static String tabTitle(String directory) {
+        if (directory == null) return "";
+        Path name = Path.of(directory).getFileName();
+        return name != null ? name.toString() : directory;
     }
     
     /**
@@ -220,7 +216,7 @@ public class MainController implements Initializable, StyleManager.StyleChangeLi
             configStage.showAndWait();
         } catch (IOException e) {
             e.printStackTrace();
-            addOutputLine(InternationalizationHelper.getText("main.windows.config.error"), "error");
+            currentSession().addOutputLine(InternationalizationHelper.getText("main.windows.config.error"), "error");
         }
     }
     
@@ -236,15 +232,16 @@ public class MainController implements Initializable, StyleManager.StyleChangeLi
             
             ScriptCreatorController controller = loader.getController();
             
-            // Configurar callback para cuando se cree un script
+            // Configurar callback para cuando se cree un script; se avisa en la pestaña activa
+            SessionController session = currentSession();
             controller.setOnScriptCreated(script -> {
-                addOutputLine(InternationalizationHelper.getText("main.windows.script_creator.script_created", 
+                session.addOutputLine(InternationalizationHelper.getText("main.windows.script_creator.script_created", 
                     script.getScriptName()), "info");
-                addOutputLine(InternationalizationHelper.getText("main.windows.script_creator.language", 
+                session.addOutputLine(InternationalizationHelper.getText("main.windows.script_creator.language", 
                     script.getAvailableLanguage().toString()) + ", " + 
                     InternationalizationHelper.getText("main.windows.script_creator.path", 
                     script.getScriptPath()), "normal");
-                addOutputLine("", "normal");
+                session.addOutputLine("", "normal");
             });
             
             Stage scriptCreatorStage = new Stage();
@@ -258,7 +255,7 @@ public class MainController implements Initializable, StyleManager.StyleChangeLi
             scriptCreatorStage.showAndWait();
         } catch (IOException e) {
             e.printStackTrace();
-            addOutputLine(InternationalizationHelper.getText("main.windows.script_creator.error"), "error");
+            currentSession().addOutputLine(InternationalizationHelper.getText("main.windows.script_creator.error"), "error");
         }
     }
     
@@ -287,13 +284,11 @@ public class MainController implements Initializable, StyleManager.StyleChangeLi
     }
     
     /**
-     * Limpia la pantalla del terminal.
+     * Limpia la pantalla de la pestaña activa.
      */
     @FXML
     private void clearScreen() {
-        terminalOutput.getChildren().clear();
-        addOutputLine(InternationalizationHelper.getText("main.terminal.screen_cleared"), "info");
-        addOutputLine("", "normal");
+        currentSession().clearScreen();
     }
     
     /**
@@ -313,69 +308,41 @@ public class MainController implements Initializable, StyleManager.StyleChangeLi
     
     /**
      * Evento disparado cuando cambia la configuración de estilo.
-     * Actualiza los estilos de todos los componentes visuales.
+     * Los colores y la fuente llegan con la hoja del tema que sustituye el StyleManager;
+     * aquí solo se aplican los ajustes que no son de estilo.
      *
      * @param newConfig La nueva configuración.
      */
     @Override
     public void onStyleChanged(ConfigData newConfig) {
-        // Aplicar los nuevos estilos al terminal principal
         if (newConfig != null) {
-            // Aplicar estilos al área del terminal
-            if (terminalOutput != null) {
-                styleManager.applyStylesToNode(terminalOutput);
+            // Aplicar el límite de líneas a todas las pestañas
+            if (sessionTabs != null) {
+                for (Tab tab : sessionTabs.getTabs()) {
+                    ((SessionController) tab.getUserData()).applyConfig(newConfig);
+                }
             }
-            
-            // Aplicar estilos al área de entrada
-            if (commandInput != null) {
-                styleManager.applyStylesToNode(commandInput);
+            if (commandHistory != null) {
+                commandHistory.setLimit(newConfig.getHistoryLimit());
             }
-            
-            // Aplicar estilos a las etiquetas
-            if (currentPath != null) {
-                styleManager.applyStylesToNode(currentPath);
-            }
-            
-            if (terminalStatus != null) {
-                styleManager.applyStylesToNode(terminalStatus);
-            }
-            
-            if (currentTime != null) {
-                styleManager.applyStylesToNode(currentTime);
-            }
-            
-            if (promptLabel != null) {
-                styleManager.applyStylesToNode(promptLabel);
-            }
-            
-            // Aplicar estilos al ScrollPane
-            if (outputScrollPane != null) {
-                styleManager.applyStylesToNode(outputScrollPane);
+            if (commandLogger != null) {
+                configureCommandLog(newConfig);
             }
+            configureNodePool(newConfig);
         }
     }
+    
     /**
-     * Obtiene la instancia única del controlador.
-     * Nota: Si la instancia no ha sido inicializada por JavaFX, creará una nueva desconectada de la UI.
-     * Se recomienda asegurar que la UI esté cargada antes de usar este método para operaciones de UI.
-     *
-     * @return La instancia de MainController.
+     * Activa el registro de comandos y su archivo según la configuración
      */
-    public static synchronized MainController getInstance() {
-        if (instance == null) {
-            instance = new MainController();
-        }
-        return instance;
+    private void configureCommandLog(ConfigData config) {
+        commandLogger.configure(config.isEnableCommandLogging(), config.getLogFilePath());
     }
-
+    
     /**
-     * Actualiza la etiqueta de la ruta actual con el valor de Values.currentPath.
+     * Aplica el tamaño y el tiempo de inactividad del pool de NodeJS configurados
      */
-    public void updatePath() {
-        if (currentPath == null){
-            currentPath = new Label(Values.currentPath);
-        }else{
-            currentPath.setText(Values.currentPath);
-        }
+    private void configureNodePool(ConfigData config) {
+        NodeWorkerPool.getInstance().configure(config.getNodeWorkerPoolSize(), config.getNodeWorkerIdleTimeout());
     }
-}
\ No newline at end of file
+}
@@ -1,9 +1,8 @@
 package com.ToTerminal.controllers;
 
 import com.ToTerminal.ScriptReader.AvailableLanguage;
-import com.ToTerminal.ScriptReader.ReaderConfig;
 import com.ToTerminal.ScriptReader.Script;
-import com.ToTerminal.models.ConfigData;
+import com.ToTerminal.ScriptReader.ScriptRegistry;
 import com.ToTerminal.utils.InternationalizationHelper;
 import com.ToTerminal.utils.StyleManager;
 import javafx.fxml.FXML;
@@ -19,7 +18,7 @@ import java.util.function.Consumer;
 /**
  * Controlador para la ventana de creación de scripts
  */
-public class ScriptCreatorController implements Initializable, StyleManager.StyleChangeListener {
+public class ScriptCreatorController implements Initializable {
 
     @FXML private TextField scriptNameField;
     @FXML private TextField scriptPathField;
@@ -51,7 +50,6 @@ public class ScriptCreatorController implements Initializable, StyleManager.Styl
     public void initialize(URL location, ResourceBundle resources) {
         // Inicializar StyleManager
         styleManager = StyleManager.getInstance();
-        styleManager.addStyleChangeListener(this);
         
         setupLanguageComboBox();
         setupValidation();
@@ -316,9 +314,7 @@ public class ScriptCreatorController implements Initializable, StyleManager.Styl
             String description = scriptDescriptionArea.getText().trim();
             
             createdScript = new Script(name, path, language, description);
-            ReaderConfig config = new ReaderConfig();
-            config.setScript(createdScript);
-            config.safe();
+            ScriptRegistry.getInstance().add(createdScript);
 
 
             // Mostrar confirmación
@@ -379,14 +375,9 @@ public class ScriptCreatorController implements Initializable, StyleManager.Styl
             AvailableLanguage language = languageComboBox.getValue();
             String description = scriptDescriptionArea.getText().trim();
 
-            editingScript.setScriptName(name);
-            editingScript.setScriptPath(path);
-            editingScript.setAvailableLanguage(language);
-            editingScript.setScriptDescription(description);
-
-            ReaderConfig config = new ReaderConfig();
-            config.changeScript(sName,editingScript);
-            config.safe();
+            // El registro comparte sus scripts con otras vistas: se crea uno nuevo en lugar de modificarlo
+            editingScript = new Script(name, path, language, description);
+            ScriptRegistry.getInstance().replace(sName, editingScript);
 
             // Mostrar confirmación
             Alert alert = new Alert(Alert.AlertType.INFORMATION);
@@ -441,53 +432,4 @@ public class ScriptCreatorController implements Initializable, StyleManager.Styl
         if (path != null) languageComboBox.setValue(language);
         if (description != null) scriptDescriptionArea.setText(description);
     }
-    
-    @Override
-    public void onStyleChanged(ConfigData newConfig) {
-        // Aplicar los nuevos estilos a la ventana de creación de scripts
-        if (newConfig != null && styleManager != null) {
-            // Aplicar estilos a los campos de entrada
-            if (scriptNameField != null) {
-                styleManager.applyStylesToNode(scriptNameField);
-            }
-            
-            if (scriptPathField != null) {
-                styleManager.applyStylesToNode(scriptPathField);
-            }
-            
-            if (scriptDescriptionArea != null) {
-                styleManager.applyStylesToNode(scriptDescriptionArea);
-            }
-            
-            // Aplicar estilos a los ComboBoxes
-            if (languageComboBox != null) {
-                styleManager.applyStylesToNode(languageComboBox);
-            }
-            
-            // Aplicar estilos a las etiquetas
-            if (nameValidationLabel != null) {
-                styleManager.applyStylesToNode(nameValidationLabel);
-            }
-            
-            if (pathValidationLabel != null) {
-                styleManager.applyStylesToNode(pathValidationLabel);
-            }
-            
-            if (descriptionValidationLabel != null) {
-                styleManager.applyStylesToNode(descriptionValidationLabel);
-            }
-            
-            if (previewNameLabel != null) {
-                styleManager.applyStylesToNode(previewNameLabel);
-            }
-            
-            if (previewLanguageLabel != null) {
-                styleManager.applyStylesToNode(previewLanguageLabel);
-            }
-            
-            if (previewPathLabel != null) {
-                styleManager.applyStylesToNode(previewPathLabel);
-            }
-        }
-    }
 }
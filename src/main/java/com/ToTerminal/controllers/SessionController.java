@@ -0,0 +1,371 @@
+package com.ToTerminal.controllers;
+
+import com.ToTerminal.interpreter.AutoCompleter;
+import com.ToTerminal.interpreter.Interpreter;
+import com.ToTerminal.interpreter.OutputSink;
+import com.ToTerminal.interpreter.TerminalSession;
+import com.ToTerminal.models.ConfigData;
+import com.ToTerminal.models.SessionHistory;
+import com.ToTerminal.models.TerminalOutputView;
+import com.ToTerminal.utils.InternationalizationHelper;
+import com.ToTerminal.utils.StyleManager;
+import com.ToTerminal.utils.Values;
+import javafx.beans.property.ReadOnlyBooleanProperty;
+import javafx.beans.property.ReadOnlyBooleanWrapper;
+import javafx.fxml.FXML;
+import javafx.fxml.Initializable;
+import javafx.scene.control.Label;
+import javafx.scene.control.TextField;
+import javafx.scene.input.KeyCode;
+import javafx.scene.input.KeyEvent;
+import javafx.scene.layout.Priority;
+import javafx.scene.layout.VBox;
+import java.net.URL;
+import java.util.ResourceBundle;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Controlador de una pestaña de la terminal: la salida y la línea de entrada de una
+ * {@link TerminalSession}. Cada pestaña tiene su propio historial, búsqueda y autocompletado.
+ */
+public class SessionController implements Initializable {
+
+    @FXML private VBox sessionRoot;
+    @FXML private TextField commandInput;
+    @FXML private Label promptLabel;
+    
+    private TerminalOutputView terminalOutput;
+    private TerminalSession session;
+    private SessionHistory commandHistory;
+    private int historyIndex = -1;
+    
+    // Búsqueda inversa en el historial (Ctrl+R)
+    private boolean historySearch;
+    private final StringBuilder historyQuery = new StringBuilder();
+    private int historyMatch = -1;
+    private String textBeforeSearch;
+    
+    private AutoCompleter autoCompleter;
+    private CompletableFuture<AutoCompleter.Completion> pendingCompletion;
+    private Interpreter interpreter;
+    private OutputSink outputSink;
+    private final ReadOnlyBooleanWrapper running = new ReadOnlyBooleanWrapper(false);
+    
+    /**
+     * Crea la sesión de la pestaña y configura la entrada de comandos.
+     */
+    @Override
+    public void initialize(URL location, ResourceBundle resources) {
+        ConfigData config = StyleManager.getInstance().getCurrentConfig();
+        
+        // Área de salida virtualizada (solo crea nodos para las líneas visibles)
+        terminalOutput = new TerminalOutputView(config.getOutputLineLimit());
+        terminalOutput.getStyleClass().addAll("output-scroll", "terminal-output");
+        VBox.setVgrow(terminalOutput, Priority.ALWAYS);
+        sessionRoot.getChildren().add(0, terminalOutput);
+        
+        session = new TerminalSession(terminalOutput);
+        interpreter = session.getInterpreter();
+        outputSink = session.getOutput();
+        commandHistory = session.getHistory();
+        historyIndex = commandHistory.size();
+        
+        // Configurar prompt
+        promptLabel.setText(Values.PROMPT);
+        
+        // Mensaje de bienvenida
+        addOutputLine(InternationalizationHelper.getText("main.terminal.welcome"), "welcome");
+        addOutputLine(InternationalizationHelper.getText("main.terminal.help_hint"), "info");
+        addOutputLine("", "normal");
+        
+        setupEventHandlers();
+        
+        // Leer por adelantado la carpeta actual para el autocompletado
+        session.workingDirectoryProperty().addListener((obs, oldPath, newPath) -> autoCompleter.prefetch(newPath));
+    }
+    
+    /**
+     * Configura los manejadores de eventos de la entrada de comandos.
+     */
+    private void setupEventHandlers() {
+        // Evento para procesar comandos al presionar Enter
+        commandInput.setOnKeyPressed(this::handleKeyPressed);
+        
+        // La búsqueda en el historial intercepta las teclas antes que el campo de texto
+        commandInput.addEventFilter(KeyEvent.KEY_PRESSED, this::handleHistorySearchKey);
+        commandInput.addEventFilter(KeyEvent.KEY_TYPED, this::handleHistorySearchTyped);
+        
+        // Autocompletado con Tab; si se sigue escribiendo se descarta la petición pendiente
+        autoCompleter = AutoCompleter.getInstance();
+        autoCompleter.prefetch(session.getWorkingDirectory());
+        commandInput.addEventFilter(KeyEvent.KEY_PRESSED, event -> {
+            if (event.getCode() == KeyCode.TAB && !event.isControlDown() && !event.isAltDown()
+                    && StyleManager.getInstance().getCurrentConfig().isEnableAutoComplete()) {
+                requestCompletion();
+                event.consume();
+            }
+        });
+        commandInput.textProperty().addListener((obs, oldText, newText) -> cancelCompletion());
+    }
+    
+    public TerminalSession getSession() {
+        return session;
+    }
+    
+    /**
+     * Indica si la sesión está ejecutando un comando en primer plano
+     */
+    public ReadOnlyBooleanProperty runningProperty() {
+        return running.getReadOnlyProperty();
+    }
+    
+    /**
+     * Marca la pestaña como visible u oculta. Oculta, la salida solo se guarda en el buffer
+     * y no se refresca la vista.
+     */
+    public void setActive(boolean active) {
+        terminalOutput.setSuspended(!active);
+        if (active) {
+            javafx.application.Platform.runLater(commandInput::requestFocus);
+        }
+    }
+    
+    /**
+     * Aplica los ajustes de la configuración que afectan a la pestaña
+     */
+    public void applyConfig(ConfigData config) {
+        terminalOutput.setLineLimit(config.getOutputLineLimit());
+    }
+    
+    /**
+     * Limpia la pantalla de la sesión.
+     */
+    public void clearScreen() {
+        outputSink.clear();
+        addOutputLine(InternationalizationHelper.getText("main.terminal.screen_cleared"), "info");
+        addOutputLine("", "normal");
+    }
+    
+    /**
+     * Termina los procesos y trabajos de la sesión al cerrar la pestaña
+     */
+    public void close() {
+        cancelCompletion();
+        session.close();
+    }
+    
+    /**
+     * Maneja los eventos de teclado en el campo de entrada.
+     * Procesa Enter para ejecutar y flechas para navegar el historial.
+     *
+     * @param event El evento de teclado.
+     */
+    private void handleKeyPressed(KeyEvent event) {
+        if (event.getCode() == KeyCode.ENTER) {
+            processCommand();
+        } else if (event.getCode() == KeyCode.C && event.isControlDown() && interpreter.isProcessRunning()) {
+            // Ctrl+C cancela el proceso en ejecución
+            interpreter.cancelRunningProcess();
+            addOutputLine("^C", "info");
+            event.consume();
+        } else if (event.getCode() == KeyCode.UP) {
+            navigateHistory(-1);
+            event.consume();
+        } else if (event.getCode() == KeyCode.DOWN) {
+            navigateHistory(1);
+            event.consume();
+        }
+    }
+    
+    /**
+     * Procesa el comando ingresado por el usuario.
+     * Añade el comando al historial, lo muestra y lo envía al intérprete.
+     */
+    private void processCommand() {
+        String command = commandInput.getText().trim();
+        if (!command.isEmpty()) {
+            // Agregar al historial
+            commandHistory.add(command);
+            historyIndex = commandHistory.size();
+            
+            // Mostrar el comando en la salida
+            addOutputLine(promptLabel.getText() + " " + command, "command");
+            
+            // Procesar el comando (el intérprete lo anota en el registro de comandos)
+            CompletableFuture<Integer> result = interpreter.executeCommand(command);
+            if (!result.isDone()) {
+                running.set(true);
+                result.whenComplete((code, error) -> javafx.application.Platform.runLater(() -> running.set(false)));
+            }
+            
+            // Limpiar el campo de entrada
+            commandInput.clear();
+        }
+    }
+    
+    
+    
+    /**
+     * Navega por el historial de comandos.
+     *
+     * @param direction Dirección de navegación: -1 para atrás, 1 para adelante.
+     */
+    private void navigateHistory(int direction) {
+        int size = commandHistory.size();
+        if (size == 0) return;
+        
+        historyIndex += direction;
+        
+        if (historyIndex < 0) {
+            historyIndex = 0;
+        } else if (historyIndex >= size) {
+            historyIndex = size;
+            commandInput.clear();
+            return;
+        }
+        
+        commandInput.setText(commandHistory.get(historyIndex));
+        commandInput.positionCaret(commandInput.getText().length());
+    }
+    
+    /**
+     * Teclas durante la búsqueda inversa en el historial.
+     * Ctrl+R la inicia o busca una coincidencia más antigua, Retroceso borra de la consulta,
+     * Escape o Ctrl+G la cancelan y Enter o cualquier tecla de edición aceptan el comando encontrado.
+     *
+     * @param event El evento de teclado.
+     */
+    private void handleHistorySearchKey(KeyEvent event) {
+        KeyCode code = event.getCode();
+        if (code == KeyCode.R && event.isControlDown()) {
+            if (!historySearch) {
+                startHistorySearch();
+            } else {
+                searchHistory(historyMatch < 0 ? commandHistory.size() : historyMatch);
+            }
+            event.consume();
+            return;
+        }
+        if (!historySearch || code.isModifierKey()) return;
+        
+        if (code == KeyCode.ESCAPE || (code == KeyCode.G && event.isControlDown())) {
+            endHistorySearch();
+            commandInput.setText(textBeforeSearch);
+            commandInput.positionCaret(commandInput.getText().length());
+            event.consume();
+        } else if (code == KeyCode.BACK_SPACE) {
+            if (historyQuery.length() > 0) {
+                historyQuery.setLength(historyQuery.length() - 1);
+                searchHistory(commandHistory.size());
+            }
+            event.consume();
+        } else if (code == KeyCode.ENTER || code.isNavigationKey() || code == KeyCode.TAB
+                || event.isControlDown() || event.isAltDown()) {
+            // Acepta el comando y deja que la tecla haga lo suyo (Enter lo ejecuta)
+            endHistorySearch();
+        }
+    }
+    
+    /**
+     * Los caracteres escritos durante la búsqueda se añaden a la consulta
+     */
+    private void handleHistorySearchTyped(KeyEvent event) {
+        if (!historySearch) return;
+        String character = event.getCharacter();
+        if (character.isEmpty() || Character.isISOControl(character.charAt(0))
+                || event.isControlDown() || event.isAltDown()) {
+            return;
+        }
+        historyQuery.append(character);
+        // Si el comando actual sigue coincidiendo se queda; si no, se busca hacia atrás
+        searchHistory(historyMatch < 0 ? commandHistory.size() : historyMatch + 1);
+        event.consume();
+    }
+    
+    private void startHistorySearch() {
+        historySearch = true;
+        historyQuery.setLength(0);
+        historyMatch = -1;
+        textBeforeSearch = commandInput.getText();
+        showHistorySearch(true);
+    }
+    
+    /**
+     * Busca la consulta en el historial antes de la posición indicada
+     */
+    private void searchHistory(int before) {
+        if (historyQuery.length() == 0) {
+            historyMatch = -1;
+            showHistorySearch(true);
+            return;
+        }
+        int found = commandHistory.search(historyQuery.toString(), before);
+        if (found >= 0) {
+            historyMatch = found;
+            commandInput.setText(commandHistory.get(found));
+            commandInput.positionCaret(commandInput.getText().length());
+        }
+        showHistorySearch(found >= 0);
+    }
+    
+    private void showHistorySearch(boolean found) {
+        promptLabel.setText(InternationalizationHelper.getText(
+            found ? "main.history.search" : "main.history.search_failed", historyQuery.toString()));
+    }
+    
+    private void endHistorySearch() {
+        historySearch = false;
+        historyIndex = historyMatch >= 0 ? historyMatch : commandHistory.size();
+        promptLabel.setText(Values.PROMPT);
+    }
+    
+    /**
+     * Pide en segundo plano las opciones de autocompletado para la palabra del cursor.
+     * El resultado solo se aplica si el texto y el cursor no han cambiado entretanto.
+     */
+    private void requestCompletion() {
+        String text = commandInput.getText();
+        int caret = commandInput.getCaretPosition();
+        CompletableFuture<AutoCompleter.Completion> request = autoCompleter.complete(text, caret, session.getWorkingDirectory());
+        pendingCompletion = request;
+        request.thenAccept(completion -> javafx.application.Platform.runLater(() -> {
+            if (request != pendingCompletion || !text.equals(commandInput.getText())
+                    || caret != commandInput.getCaretPosition()) {
+                return;
+            }
+            pendingCompletion = null;
+            applyCompletion(text, completion);
+        }));
+    }
+    
+    private void cancelCompletion() {
+        if (pendingCompletion != null) {
+            pendingCompletion = null;
+            autoCompleter.cancel();
+        }
+    }
+    
+    /**
+     * Sustituye la palabra por la opción encontrada o, si no hay nada que añadir, muestra las opciones
+     */
+    private void applyCompletion(String text, AutoCompleter.Completion completion) {
+        if (completion.isAmbiguous()) {
+            addOutputLine(promptLabel.getText() + " " + text, "command");
+            addOutputLine(String.join("  ", completion.getCandidates()), "output");
+            return;
+        }
+        String replacement = completion.getReplacement();
+        commandInput.setText(text.substring(0, completion.getStart()) + replacement + text.substring(completion.getEnd()));
+        commandInput.positionCaret(completion.getStart() + replacement.length());
+    }
+    
+    /**
+     * Agrega una línea de texto a la salida del terminal.
+     *
+     * @param text El texto a mostrar.
+     * @param styleClass La clase CSS para estilizar el texto.
+     */
+    public void addOutputLine(String text, String styleClass) {
+        outputSink.append(text, styleClass);
+    }
+}
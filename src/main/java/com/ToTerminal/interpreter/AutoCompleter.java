@@ -0,0 +1,353 @@
+package com.ToTerminal.interpreter;
+
+import com.ToTerminal.ScriptReader.Script;
+import com.ToTerminal.ScriptReader.ScriptRegistry;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.InvalidPathException;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Autocompletado de la línea de comandos (Tab).
+ * Completa la primera palabra con los comandos internos y los ejecutables del PATH, el argumento
+ * de {@code run} con los scripts registrados y el resto con archivos y carpetas relativos a la
+ * ruta actual ({@code cd} solo con carpetas). Las palabras se separan con las mismas reglas de
+ * comillas y barras de escape que {@link CommandTokenizer}, y lo que se inserta se escapa o se
+ * pone entre comillas para que se lea como una sola palabra.
+ *
+ * Los comandos y los scripts están en {@link CompletionTrie}s; el contenido de cada carpeta se
+ * guarda en caché y solo se vuelve a leer cuando cambia su fecha de modificación. Todo se calcula
+ * en un hilo propio y cada petición cancela la anterior.
+ */
+public class AutoCompleter {
+
+    static final int MAX_CANDIDATES = 200;
+    static final int MAX_CACHED_DIRECTORIES = 64;
+
+    private static AutoCompleter instance;
+
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "autocomplete");
+        t.setDaemon(true);
+        return t;
+    });
+    private final AtomicLong generation = new AtomicLong();
+    private final Map<Path, Listing> directories = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Path, Listing> eldest) {
+            return size() > MAX_CACHED_DIRECTORIES;
+        }
+    };
+
+    private volatile CompletionTrie commands = new CompletionTrie(CommandRegistry.getInstance().getNames());
+    // null cuando cambia el registro; se reconstruye en la siguiente petición
+    private volatile CompletionTrie scripts;
+    private CompletableFuture<Completion> pending;
+
+    private AutoCompleter() {
+        ScriptRegistry.getInstance().addChangeListener(change -> scripts = null);
+        executor.execute(this::loadPathExecutables);
+    }
+
+    public static synchronized AutoCompleter getInstance() {
+        if (instance == null) {
+            instance = new AutoCompleter();
+        }
+        return instance;
+    }
+
+    /**
+     * Calcula en segundo plano las opciones para la palabra que termina en {@code caret}.
+     * Cancela la petición anterior si aún no había terminado.
+     *
+     * @param directory carpeta actual de la terminal
+     * @return futuro con el resultado; se cancela si llega otra petición o se llama a {@link #cancel()}
+     */
+    public synchronized CompletableFuture<Completion> complete(String text, int caret, String directory) {
+        cancel();
+        long request = generation.incrementAndGet();
+        CompletableFuture<Completion> result = new CompletableFuture<>();
+        pending = result;
+        executor.execute(() -> {
+            if (result.isDone()) return;
+            try {
+                result.complete(compute(text, caret, directory, request));
+            } catch (CancellationException e) {
+                result.cancel(false);
+            } catch (RuntimeException e) {
+                result.completeExceptionally(e);
+            }
+        });
+        return result;
+    }
+
+    /**
+     * Cancela la petición en curso (p. ej. porque el usuario ha seguido escribiendo)
+     */
+    public synchronized void cancel() {
+        generation.incrementAndGet();
+        if (pending != null) {
+            pending.cancel(false);
+            pending = null;
+        }
+    }
+
+    /**
+     * Lee en segundo plano una carpeta para que la primera petición sobre ella ya esté en caché
+     */
+    public void prefetch(String directory) {
+        executor.execute(() -> {
+            try {
+                listing(Path.of(directory));
+            } catch (InvalidPathException e) {
+                // Ruta no válida: no hay nada que guardar
+            }
+        });
+    }
+
+    // ========================================
+    // CÁLCULO (hilo autocomplete)
+    // ========================================
+
+    private Completion compute(String text, int caret, String directory, long request) {
+        String line = text.substring(0, Math.max(0, Math.min(caret, text.length())));
+        CommandTokenizer.Partial partial = CommandTokenizer.partial(line);
+        int start = partial.getStart();
+        String raw = line.substring(start);
+        String word = partial.getWord();
+        char quote = partial.getQuote();
+        // Palabras del comando actual: tras |, &, && o || empieza otro comando
+        List<String> previous = new ArrayList<>();
+        for (CommandTokenizer.Token token : partial.getPrevious()) {
+            if (token.is("|") || token.is("||") || token.is("&") || token.is("&&")) {
+                previous.clear();
+            } else {
+                previous.add(token.getText());
+            }
+        }
+        boolean firstWord = previous.isEmpty();
+        String command = firstWord ? "" : previous.get(0).toLowerCase();
+
+        if (firstWord && separatorIndex(word) < 0) {
+            return new Completion(start, line.length(), raw, quote, "", word, commands.find(word, MAX_CANDIDATES));
+        }
+        if (command.equals("run") && previous.size() == 1) {
+            return new Completion(start, line.length(), raw, quote, "", word, scripts().find(word, MAX_CANDIDATES));
+        }
+
+        // Archivos y carpetas: se completa solo el último componente de la ruta
+        int separator = separatorIndex(word);
+        String folder = word.substring(0, separator + 1);
+        String name = word.substring(separator + 1);
+        Listing listing;
+        try {
+            listing = listing(resolve(folder, directory));
+        } catch (InvalidPathException e) {
+            listing = null;
+        }
+        checkCancelled(request);
+        List<String> candidates = new ArrayList<>();
+        if (listing != null) {
+            for (String entry : listing.names.find(name, Integer.MAX_VALUE)) {
+                if (entry.startsWith(".") && !name.startsWith(".")) continue;
+                if (command.equals("cd") && !entry.endsWith("/")) continue;
+                candidates.add(entry);
+                if (candidates.size() == MAX_CANDIDATES) break;
+            }
+        }
+        return new Completion(start, line.length(), raw, quote, folder, name, candidates);
+    }
+
+    private CompletionTrie scripts() {
+        CompletionTrie current = scripts;
+        if (current == null) {
+            List<String> names = new ArrayList<>();
+            for (Script script : ScriptRegistry.getInstance().getScripts()) {
+                names.add(script.getScriptName());
+            }
+            current = new CompletionTrie(names);
+            scripts = current;
+        }
+        return current;
+    }
+
+    private void checkCancelled(long request) {
+        if (generation.get() != request) {
+            throw new CancellationException();
+        }
+    }
+
+    private static int separatorIndex(String word) {
+        return Math.max(word.lastIndexOf('/'), word.lastIndexOf(File.separatorChar));
+    }
+
+    private static Path resolve(String folder, String directory) {
+        if (folder.isEmpty()) {
+            return Path.of(directory);
+        }
+        if (folder.startsWith("~/") || folder.equals("~" + File.separator)) {
+            return Path.of(System.getProperty("user.home"), folder.substring(2));
+        }
+        Path path = Path.of(folder);
+        return path.isAbsolute() ? path : Path.of(directory).resolve(path);
+    }
+
+    /**
+     * Contenido de una carpeta; se vuelve a leer si ha cambiado desde la última vez
+     * @return null si no existe o no se puede leer
+     */
+    private Listing listing(Path folder) {
+        folder = folder.toAbsolutePath().normalize();
+        FileTime modified;
+        try {
+            modified = Files.getLastModifiedTime(folder);
+        } catch (IOException e) {
+            directories.remove(folder);
+            return null;
+        }
+        Listing cached = directories.get(folder);
+        if (cached != null && cached.modified.equals(modified)) {
+            return cached;
+        }
+
+        List<String> names = new ArrayList<>();
+        try (DirectoryStream<Path> entries = Files.newDirectoryStream(folder)) {
+            for (Path entry : entries) {
+                String name = entry.getFileName().toString();
+                names.add(Files.isDirectory(entry) ? name + "/" : name);
+            }
+        } catch (IOException e) {
+            return null;
+        }
+        Listing listing = new Listing(modified, new CompletionTrie(names));
+        directories.put(folder, listing);
+        return listing;
+    }
+
+    private void loadPathExecutables() {
+        String path = System.getenv("PATH");
+        if (path == null) return;
+        Set<String> names = new LinkedHashSet<>(CommandRegistry.getInstance().getNames());
+        for (String folder : path.split(File.pathSeparator)) {
+            if (folder.isEmpty()) continue;
+            try (DirectoryStream<Path> entries = Files.newDirectoryStream(Path.of(folder))) {
+                for (Path entry : entries) {
+                    if (Files.isRegularFile(entry) && Files.isExecutable(entry)) {
+                        names.add(entry.getFileName().toString());
+                    }
+                }
+            } catch (IOException | InvalidPathException e) {
+                // Carpetas del PATH que no existen o no se pueden leer
+            }
+        }
+        commands = new CompletionTrie(names);
+    }
+
+    private static final class Listing {
+        final FileTime modified;
+        final CompletionTrie names;
+
+        Listing(FileTime modified, CompletionTrie names) {
+            this.modified = modified;
+            this.names = names;
+        }
+    }
+
+    /**
+     * Resultado de un autocompletado: la palabra entre {@code start} y {@code end} del texto se
+     * sustituye por {@link #getReplacement()}. Las carpetas terminan en "/".
+     */
+    public static final class Completion {
+        private final int start;
+        private final int end;
+        private final String raw;
+        private final char quote;
+        private final String folder;
+        private final String word;
+        private final List<String> candidates;
+
+        /**
+         * @param raw la palabra tal como está escrita, con comillas y escapes
+         * @param quote comilla que sigue abierta al final de la palabra o 0
+         * @param folder parte de la ruta anterior a lo que se completa, sin comillas
+         * @param word lo que se completa, sin comillas
+         */
+        Completion(int start, int end, String raw, char quote, String folder, String word, List<String> candidates) {
+            this.start = start;
+            this.end = end;
+            this.raw = raw;
+            this.quote = quote;
+            this.folder = folder;
+            this.word = word;
+            this.candidates = Collections.unmodifiableList(candidates);
+        }
+
+        public int getStart() {
+            return start;
+        }
+
+        public int getEnd() {
+            return end;
+        }
+
+        public List<String> getCandidates() {
+            return candidates;
+        }
+
+        /**
+         * Texto que sustituye a la palabra: la ruta con la opción completa si solo hay una (con la
+         * comilla cerrada y un espacio detrás si no es una carpeta) o con el prefijo común de todas.
+         * Se escribe entre la comilla que estuviera abierta o, si no hay ninguna, con barras de escape.
+         */
+        public String getReplacement() {
+            String completed = completed();
+            boolean finished = candidates.size() == 1 && !completed.endsWith("/");
+            if (completed.equals(word) && !finished) return raw;
+            String text = CommandTokenizer.escape(folder + completed, quote);
+            if (quote != 0) {
+                text = quote + text + (finished ? String.valueOf(quote) : "");
+            }
+            return finished ? text + " " : text;
+        }
+
+        /**
+         * Indica si completar no añade nada y conviene mostrar las opciones
+         */
+        public boolean isAmbiguous() {
+            return candidates.size() > 1 && completed().equals(word);
+        }
+
+        /**
+         * La opción si solo hay una o el prefijo común de todas, sin comillas
+         */
+        private String completed() {
+            if (candidates.isEmpty()) return word;
+            if (candidates.size() == 1) return candidates.get(0);
+            String prefix = candidates.get(0);
+            for (String candidate : candidates) {
+                int i = 0;
+                while (i < prefix.length() && i < candidate.length() && prefix.charAt(i) == candidate.charAt(i)) {
+                    i++;
+                }
+                prefix = prefix.substring(0, i);
+            }
+            return prefix.length() > word.length() ? prefix : word;
+        }
+    }
+}
@@ -0,0 +1,310 @@
+package com.ToTerminal.interpreter;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Caché en disco del bytecode de los scripts Java compilados.
+ * Cada entrada se guarda en un archivo cuyo nombre es su clave de contenido
+ * (hash del código fuente, opciones del compilador y versión del JDK).
+ *
+ * Un índice asocia cada archivo fuente a su clave junto con su fecha de modificación
+ * y tamaño, de forma que un script sin cambios se resuelve sin leerlo ni calcular su hash.
+ * El tamaño total está limitado y se descartan primero las entradas usadas hace más tiempo.
+ * Cada uso se anota en memoria; el orden de uso se guarda en el índice con el siguiente cambio
+ * o con {@link #flush()} al cerrar la aplicación.
+ */
+public class BytecodeCache {
+
+    public static final long DEFAULT_MAX_BYTES = 64L * 1024 * 1024;
+
+    private static final int INDEX_VERSION = 1;
+    private static final int ENTRY_MAGIC = 0x54544243; // "TTBC"
+    private static final String INDEX_FILE = "index.dat";
+    private static final String ENTRY_EXTENSION = ".bin";
+
+    private final Path directory;
+    private final long maxBytes;
+    private final String environment;
+
+    // Orden de acceso: el primer elemento es el usado hace más tiempo (LRU)
+    private final LinkedHashMap<String, Long> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private final Map<String, SourceStamp> sources = new HashMap<>();
+    private long totalBytes;
+    private boolean loaded;
+    // Hay usos que el índice guardado todavía no refleja
+    private boolean accessed;
+
+    /**
+     * @param directory directorio de la caché
+     * @param maxBytes tamaño máximo total de las entradas
+     * @param environment huella del compilador (opciones y versión del JDK); si cambia,
+     *                    las asociaciones archivo-clave guardadas dejan de ser válidas
+     */
+    public BytecodeCache(Path directory, long maxBytes, String environment) {
+        this.directory = directory;
+        this.maxBytes = maxBytes;
+        this.environment = environment;
+    }
+
+    /**
+     * Busca la clave de un archivo fuente cuya fecha y tamaño no han cambiado
+     * @return la clave o null si el archivo es nuevo o se modificó
+     */
+    public synchronized String lookupKey(Path source, long lastModified, long size) {
+        ensureLoaded();
+        SourceStamp stamp = sources.get(source.toString());
+        if (stamp == null || stamp.lastModified != lastModified || stamp.size != size) {
+            return null;
+        }
+        return touch(stamp.key) ? stamp.key : null;
+    }
+
+    /**
+     * Anota el uso de una entrada (p. ej. un acierto en la caché en memoria)
+     * @return false si la entrada ya no existe
+     */
+    public synchronized boolean touch(String key) {
+        ensureLoaded();
+        // get() mueve la entrada al final del orden de acceso
+        if (entries.get(key) == null) return false;
+        accessed = true;
+        return true;
+    }
+
+    /**
+     * Guarda el orden de uso si ha cambiado desde la última vez que se guardó el índice
+     */
+    public synchronized void flush() {
+        if (accessed) {
+            saveIndex();
+        }
+    }
+
+    /**
+     * Carga una entrada de la caché
+     * @return el script compilado o null si no existe o está dañado
+     */
+    public synchronized JavaSourceCompiler.CompiledScript load(String key) {
+        ensureLoaded();
+        if (!touch(key)) return null;
+
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(
+                Files.newInputStream(entryPath(key))))) {
+            if (in.readInt() != ENTRY_MAGIC) {
+                throw new IOException("Invalid cache entry " + key);
+            }
+            String mainClass = in.readUTF();
+            int count = in.readInt();
+            Map<String, byte[]> classes = new HashMap<>();
+            for (int i = 0; i < count; i++) {
+                String name = in.readUTF();
+                byte[] bytes = new byte[in.readInt()];
+                in.readFully(bytes);
+                classes.put(name, bytes);
+            }
+            return new JavaSourceCompiler.CompiledScript(mainClass, classes);
+        } catch (IOException e) {
+            remove(key);
+            saveIndex();
+            return null;
+        }
+    }
+
+    /**
+     * Guarda una entrada y asocia el archivo fuente a ella
+     */
+    public synchronized void store(Path source, long lastModified, long size, String key,
+                                   JavaSourceCompiler.CompiledScript script) {
+        ensureLoaded();
+        if (!entries.containsKey(key)) {
+            try {
+                Files.createDirectories(directory);
+                Path tmp = Files.createTempFile(directory, key, ".tmp");
+                try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(
+                        Files.newOutputStream(tmp)))) {
+                    out.writeInt(ENTRY_MAGIC);
+                    out.writeUTF(script.getMainClass());
+                    out.writeInt(script.getClasses().size());
+                    for (Map.Entry<String, byte[]> c : script.getClasses().entrySet()) {
+                        out.writeUTF(c.getKey());
+                        out.writeInt(c.getValue().length);
+                        out.write(c.getValue());
+                    }
+                }
+                Files.move(tmp, entryPath(key), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+                long bytes = Files.size(entryPath(key));
+                entries.put(key, bytes);
+                totalBytes += bytes;
+            } catch (IOException e) {
+                e.printStackTrace();
+                return;
+            }
+        }
+        sources.put(source.toString(), new SourceStamp(lastModified, size, key));
+        evict();
+        saveIndex();
+    }
+
+    /**
+     * Asocia un archivo fuente a una entrada existente (p. ej. tras editarlo y deshacer cambios)
+     */
+    public synchronized void remember(Path source, long lastModified, long size, String key) {
+        ensureLoaded();
+        SourceStamp previous = sources.put(source.toString(), new SourceStamp(lastModified, size, key));
+        if (previous == null || !previous.key.equals(key)
+                || previous.lastModified != lastModified || previous.size != size) {
+            saveIndex();
+        }
+    }
+
+    /**
+     * Número de entradas en disco
+     */
+    public synchronized int getEntryCount() {
+        ensureLoaded();
+        return entries.size();
+    }
+
+    /**
+     * Tamaño total de las entradas en disco
+     */
+    public synchronized long getTotalBytes() {
+        ensureLoaded();
+        return totalBytes;
+    }
+
+    public long getMaxBytes() {
+        return maxBytes;
+    }
+
+    /**
+     * Elimina todas las entradas y el índice
+     */
+    public synchronized void clear() {
+        ensureLoaded();
+        for (String key : entries.keySet()) {
+            deleteQuietly(entryPath(key));
+        }
+        entries.clear();
+        sources.clear();
+        totalBytes = 0;
+        deleteQuietly(directory.resolve(INDEX_FILE));
+    }
+
+    private void evict() {
+        Iterator<Map.Entry<String, Long>> it = entries.entrySet().iterator();
+        while (totalBytes > maxBytes && entries.size() > 1 && it.hasNext()) {
+            Map.Entry<String, Long> eldest = it.next();
+            it.remove();
+            totalBytes -= eldest.getValue();
+            deleteQuietly(entryPath(eldest.getKey()));
+            sources.values().removeIf(stamp -> stamp.key.equals(eldest.getKey()));
+        }
+    }
+
+    private void remove(String key) {
+        Long bytes = entries.remove(key);
+        if (bytes != null) {
+            totalBytes -= bytes;
+        }
+        sources.values().removeIf(stamp -> stamp.key.equals(key));
+        deleteQuietly(entryPath(key));
+    }
+
+    private void ensureLoaded() {
+        if (loaded) return;
+        loaded = true;
+
+        Path index = directory.resolve(INDEX_FILE);
+        if (!Files.exists(index)) return;
+
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(index)))) {
+            if (in.readInt() != INDEX_VERSION) return;
+            boolean sameEnvironment = environment.equals(in.readUTF());
+
+            int entryCount = in.readInt();
+            for (int i = 0; i < entryCount; i++) {
+                String key = in.readUTF();
+                long bytes = in.readLong();
+                if (Files.exists(entryPath(key))) {
+                    entries.put(key, bytes);
+                    totalBytes += bytes;
+                }
+            }
+            int sourceCount = in.readInt();
+            for (int i = 0; i < sourceCount; i++) {
+                String path = in.readUTF();
+                SourceStamp stamp = new SourceStamp(in.readLong(), in.readLong(), in.readUTF());
+                if (sameEnvironment && entries.containsKey(stamp.key)) {
+                    sources.put(path, stamp);
+                }
+            }
+        } catch (IOException e) {
+            // Índice dañado: se reconstruye a medida que se compilan scripts
+            entries.clear();
+            sources.clear();
+            totalBytes = 0;
+        }
+    }
+
+    private void saveIndex() {
+        accessed = false;
+        try {
+            Files.createDirectories(directory);
+            Path tmp = Files.createTempFile(directory, "index", ".tmp");
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tmp)))) {
+                out.writeInt(INDEX_VERSION);
+                out.writeUTF(environment);
+                out.writeInt(entries.size());
+                for (Map.Entry<String, Long> e : entries.entrySet()) {
+                    out.writeUTF(e.getKey());
+                    out.writeLong(e.getValue());
+                }
+                out.writeInt(sources.size());
+                for (Map.Entry<String, SourceStamp> s : sources.entrySet()) {
+                    out.writeUTF(s.getKey());
+                    out.writeLong(s.getValue().lastModified);
+                    out.writeLong(s.getValue().size);
+                    out.writeUTF(s.getValue().key);
+                }
+            }
+            Files.move(tmp, directory.resolve(INDEX_FILE), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+
+    private Path entryPath(String key) {
+        return directory.resolve(key + ENTRY_EXTENSION);
+    }
+
+    private static void deleteQuietly(Path path) {
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException ignored) {
+        }
+    }
+
+    private static final class SourceStamp {
+        final long lastModified;
+        final long size;
+        final String key;
+
+        SourceStamp(long lastModified, long size, String key) {
+            this.lastModified = lastModified;
+            this.size = size;
+            this.key = key;
+        }
+    }
+}
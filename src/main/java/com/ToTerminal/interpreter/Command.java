@@ -0,0 +1,55 @@
+package com.ToTerminal.interpreter;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Comando interno de la terminal.
+ * Los comandos se buscan por nombre en el {@link CommandRegistry}. Los de la aplicación están en
+ * {@code com.ToTerminal.interpreter.commands} y se declaran como servicio en module-info.java,
+ * de modo que añadir uno no requiere tocar el {@link Interpreter}.
+ *
+ * Las implementaciones deben tener un constructor público sin parámetros y no guardar estado
+ * entre ejecuciones.
+ */
+public interface Command {
+
+    /**
+     * Hilo en el que se ejecuta el comando
+     */
+    enum ExecutionThread {
+        /** En el hilo de JavaFX: comandos rápidos o que tocan la interfaz */
+        FX,
+        /** En un hilo de trabajo: comandos que leen disco o tardan */
+        WORKER
+    }
+
+    /**
+     * Nombre con el que se invoca, en minúsculas
+     */
+    String getName();
+
+    /**
+     * Otros nombres del comando, en minúsculas
+     */
+    default List<String> getAliases() {
+        return List.of();
+    }
+
+    /**
+     * Descripción de una línea para la ayuda, ya traducida
+     */
+    String getDescription();
+
+    default ExecutionThread getExecutionThread() {
+        return ExecutionThread.FX;
+    }
+
+    /**
+     * Ejecuta el comando
+     * @param args argumentos ya separados, sin el nombre del comando
+     * @return futuro con el código de salida; los comandos que terminan al momento devuelven uno completado
+     * @throws Exception el intérprete muestra el mensaje como error y devuelve el código 1
+     */
+    CompletableFuture<Integer> execute(CommandContext context, List<String> args) throws Exception;
+}
@@ -0,0 +1,224 @@
+package com.ToTerminal.interpreter;
+
+import com.ToTerminal.interpreter.CommandTokenizer.Token;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Línea de comandos analizada: tuberías unidas por {@code &&} y {@code ||}. Una línea puede tener
+ * varias cadenas separadas por {@code &}; las que terminan en {@code &} se ejecutan en segundo plano.
+ * <pre>
+ * línea    := cadena ("&amp;" cadena)* "&amp;"?
+ * cadena   := tubería (("&amp;&amp;" | "||") tubería)*
+ * tubería  := etapa ("|" etapa)*
+ * etapa    := palabra+ ((">" | ">>") palabra)?
+ * </pre>
+ */
+final class CommandChain {
+
+    static final String AND = "&&";
+    static final String OR = "||";
+    static final String BACKGROUND = "&";
+
+    private final List<Pipeline> pipelines;
+    private final List<String> connectors;
+    private final boolean background;
+
+    private CommandChain(List<Pipeline> pipelines, List<String> connectors, boolean background) {
+        this.pipelines = Collections.unmodifiableList(pipelines);
+        this.connectors = Collections.unmodifiableList(connectors);
+        this.background = background;
+    }
+
+    List<Pipeline> getPipelines() {
+        return pipelines;
+    }
+
+    /**
+     * Operador entre la tubería {@code index} y la siguiente ({@link #AND} o {@link #OR})
+     */
+    String getConnector(int index) {
+        return connectors.get(index);
+    }
+
+    /**
+     * Indica si la cadena terminaba en {@code &}
+     */
+    boolean isBackground() {
+        return background;
+    }
+
+    /**
+     * Texto de la cadena reconstruido a partir de sus palabras, con comillas donde hacen falta
+     */
+    @Override
+    public String toString() {
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < pipelines.size(); i++) {
+            if (i > 0) {
+                text.append(' ').append(connectors.get(i - 1)).append(' ');
+            }
+            List<Stage> stages = pipelines.get(i).getStages();
+            for (int j = 0; j < stages.size(); j++) {
+                if (j > 0) {
+                    text.append(" | ");
+                }
+                Stage stage = stages.get(j);
+                for (int k = 0; k < stage.getWords().size(); k++) {
+                    if (k > 0) {
+                        text.append(' ');
+                    }
+                    text.append(quote(stage.getWords().get(k)));
+                }
+                if (stage.getRedirect() != null) {
+                    text.append(stage.isAppend() ? " >> " : " > ").append(quote(stage.getRedirect()));
+                }
+            }
+        }
+        return text.toString();
+    }
+
+    private static String quote(String word) {
+        if (!word.isEmpty() && word.chars().noneMatch(c -> c == ' ' || c == '\t' || c == '\'' || c == '"'
+                || c == '|' || c == '&' || c == '>')) {
+            return word;
+        }
+        return '"' + word.replace("\\", "\\\\").replace("\"", "\\\"") + '"';
+    }
+
+    /**
+     * Separa la línea en cadenas por {@code &}
+     * @return las cadenas en orden; solo la última puede no ser de segundo plano
+     * @throws IllegalArgumentException con el símbolo junto al que está el error ("newline" si falta algo al final)
+     */
+    static List<CommandChain> parse(List<Token> tokens) {
+        List<CommandChain> chains = new ArrayList<>();
+        int start = 0;
+        for (int i = 0; i < tokens.size(); i++) {
+            if (tokens.get(i).is(BACKGROUND)) {
+                if (i == start) {
+                    throw new IllegalArgumentException(BACKGROUND);
+                }
+                chains.add(parseChain(tokens.subList(start, i), BACKGROUND, true));
+                start = i + 1;
+            }
+        }
+        if (start < tokens.size()) {
+            chains.add(parseChain(tokens.subList(start, tokens.size()), "newline", false));
+        }
+        return chains;
+    }
+
+    /**
+     * @param end símbolo que sigue a la cadena, para el mensaje de error si termina incompleta
+     */
+    private static CommandChain parseChain(List<Token> tokens, String end, boolean background) {
+        List<Pipeline> pipelines = new ArrayList<>();
+        List<String> connectors = new ArrayList<>();
+        List<Stage> stages = new ArrayList<>();
+        List<String> words = new ArrayList<>();
+        String redirect = null;
+        boolean append = false;
+
+        for (int i = 0; i < tokens.size(); i++) {
+            Token token = tokens.get(i);
+            if (!token.isOperator()) {
+                if (redirect != null) {
+                    // Tras el archivo de una redirección solo puede venir un operador
+                    throw new IllegalArgumentException(token.getText());
+                }
+                words.add(token.getText());
+            } else if (token.is(">") || token.is(">>")) {
+                if (words.isEmpty() || redirect != null) {
+                    throw new IllegalArgumentException(token.getText());
+                }
+                if (i + 1 >= tokens.size() || tokens.get(i + 1).isOperator()) {
+                    throw new IllegalArgumentException(i + 1 < tokens.size() ? tokens.get(i + 1).getText() : end);
+                }
+                redirect = tokens.get(++i).getText();
+                append = token.is(">>");
+            } else {
+                if (words.isEmpty()) {
+                    throw new IllegalArgumentException(token.getText());
+                }
+                stages.add(new Stage(words, redirect, append));
+                words = new ArrayList<>();
+                redirect = null;
+                append = false;
+                if (!token.is("|")) {
+                    pipelines.add(new Pipeline(stages));
+                    stages = new ArrayList<>();
+                    connectors.add(token.getText());
+                }
+            }
+        }
+        if (words.isEmpty()) {
+            throw new IllegalArgumentException(end);
+        }
+        stages.add(new Stage(words, redirect, append));
+        pipelines.add(new Pipeline(stages));
+        return new CommandChain(pipelines, connectors, background);
+    }
+
+    /**
+     * Comandos unidos por {@code |}
+     */
+    static final class Pipeline {
+        private final List<Stage> stages;
+
+        Pipeline(List<Stage> stages) {
+            this.stages = Collections.unmodifiableList(stages);
+        }
+
+        List<Stage> getStages() {
+            return stages;
+        }
+
+        /**
+         * Un único comando sin redirección
+         */
+        boolean isSimple() {
+            return stages.size() == 1 && stages.get(0).getRedirect() == null;
+        }
+    }
+
+    /**
+     * Un comando de la tubería con su redirección de salida, si la tiene
+     */
+    static final class Stage {
+        private final List<String> words;
+        private final String redirect;
+        private final boolean append;
+
+        Stage(List<String> words, String redirect, boolean append) {
+            this.words = Collections.unmodifiableList(words);
+            this.redirect = redirect;
+            this.append = append;
+        }
+
+        String getName() {
+            return words.get(0);
+        }
+
+        List<String> getWords() {
+            return words;
+        }
+
+        List<String> getArgs() {
+            return words.subList(1, words.size());
+        }
+
+        /**
+         * Archivo al que se redirige la salida o null
+         */
+        String getRedirect() {
+            return redirect;
+        }
+
+        boolean isAppend() {
+            return append;
+        }
+    }
+}
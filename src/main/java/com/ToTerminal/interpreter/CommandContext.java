@@ -0,0 +1,127 @@
+package com.ToTerminal.interpreter;
+
+import java.io.File;
+
+/**
+ * Lo que un {@link Command} puede usar durante su ejecución: su entrada y su salida, la
+ * terminal, la carpeta de trabajo y la sesión e intérprete que lo han lanzado.
+ *
+ * En una tubería la entrada es la salida de la etapa anterior y la salida va a la siguiente
+ * etapa o a un archivo; fuera de ella la entrada está vacía y la salida es la terminal.
+ *
+ * En una tubería o en segundo plano cada comando funciona como en una subshell de bash: no cambia la
+ * carpeta de la sesión ni la cierra (ver {@link #isStandalone()}).
+ *
+ * Ctrl+C o {@code kill} cancelan el contexto: a partir de ahí {@link #print} devuelve false y los
+ * comandos largos deben terminar en cuanto lo vean.
+ */
+public final class CommandContext {
+
+    private final Interpreter interpreter;
+    private final OutputSink terminal;
+    private final LineSource input;
+    private final LineSink output;
+    private final String commandLine;
+    private final boolean standalone;
+    private final File directory;
+    private volatile boolean cancelled;
+
+    CommandContext(Interpreter interpreter, OutputSink terminal, LineSource input, LineSink output,
+                   String commandLine, boolean standalone, File directory) {
+        this.interpreter = interpreter;
+        this.terminal = terminal;
+        this.input = input;
+        this.output = output;
+        this.commandLine = commandLine;
+        this.standalone = standalone;
+        this.directory = directory;
+    }
+
+    public Interpreter getInterpreter() {
+        return interpreter;
+    }
+
+    public TerminalSession getSession() {
+        return interpreter.getSession();
+    }
+
+    /**
+     * La terminal, aunque la salida del comando esté redirigida
+     */
+    public OutputSink getTerminal() {
+        return terminal;
+    }
+
+    /**
+     * Entrada del comando ({@link LineSource#EMPTY} si no está detrás de una tubería)
+     */
+    public LineSource getInput() {
+        return input;
+    }
+
+    public LineSink getOutput() {
+        return output;
+    }
+
+    /**
+     * Línea completa tal como se escribió
+     */
+    public String getCommandLine() {
+        return commandLine;
+    }
+
+    /**
+     * Escribe una línea en la salida del comando (desde cualquier hilo).
+     * Las líneas de error van siempre a la terminal, como stderr.
+     *
+     * @return false si la salida ya no acepta líneas o el comando se ha cancelado, y puede dejar
+     *         de producirlas
+     */
+    public boolean print(String text, String styleClass) {
+        if (cancelled) return false;
+        if ("error".equals(styleClass)) {
+            terminal.append(text, styleClass);
+            return true;
+        }
+        return output.write(text, styleClass);
+    }
+
+    /**
+     * Indica si se ha pedido detener el comando (Ctrl+C o {@code kill})
+     */
+    public boolean isCancelled() {
+        return cancelled;
+    }
+
+    void cancel() {
+        cancelled = true;
+    }
+
+    /**
+     * Indica si el comando se ejecuta solo y en primer plano, fuera de una tubería y de un trabajo.
+     * Solo entonces puede cambiar la sesión o usar el proceso en primer plano.
+     */
+    public boolean isStandalone() {
+        return standalone;
+    }
+
+    /**
+     * Carpeta en la que se ejecuta el comando: la de la sesión si es {@link #isStandalone()} y, si no,
+     * la de su tubería o trabajo, aunque la sesión haya cambiado de carpeta después
+     */
+    public String getWorkingDirectory() {
+        if (directory != null) {
+            return directory.getPath();
+        }
+        return interpreter.getSession().getWorkingDirectory();
+    }
+
+    /**
+     * Cambia la carpeta de trabajo de la sesión; no hace nada si el comando no es {@link #isStandalone()}
+     * @param directory ruta absoluta de una carpeta existente
+     */
+    public void setWorkingDirectory(String directory) {
+        if (!standalone) return;
+        interpreter.getSession().setWorkingDirectory(directory);
+    }
+}
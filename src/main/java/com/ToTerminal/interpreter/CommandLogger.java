@@ -0,0 +1,243 @@
+package com.ToTerminal.interpreter;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.InvalidPathException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Registro de los comandos ejecutados ({@code enableCommandLogging} / {@code logFilePath}).
+ * Cada línea tiene, separados por tabuladores, la fecha de inicio, el código de salida, la
+ * duración en ms, la carpeta de trabajo y el comando.
+ *
+ * Registrar un comando solo añade la entrada a una cola sin bloqueos; un hilo propio la vacía cada
+ * {@link #FLUSH_INTERVAL_MILLIS} ms con una sola escritura y un fsync, así que si el proceso muere
+ * se pierde como mucho ese intervalo. Si la escritura falla, lo que no se ha escrito se reintenta
+ * en la siguiente, delante de las entradas nuevas. Cuando el archivo pasa de {@link #MAX_FILE_BYTES}
+ * se rota a {@code .1}, {@code .2}... hasta {@link #MAX_ROTATED_FILES}.
+ */
+public class CommandLogger {
+
+    static final long FLUSH_INTERVAL_MILLIS = 200;
+    static final long MAX_FILE_BYTES = 5 * 1024 * 1024;
+    static final int MAX_ROTATED_FILES = 3;
+
+    private static final DateTimeFormatter TIMESTAMP =
+        DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ss.SSSXXX").withZone(ZoneId.systemDefault());
+
+    private static CommandLogger instance;
+
+    private final ConcurrentLinkedQueue<Entry> queue = new ConcurrentLinkedQueue<>();
+    private final ScheduledExecutorService background = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread t = new Thread(r, "command-logger");
+        t.setDaemon(true);
+        return t;
+    });
+
+    private volatile boolean enabled;
+    private volatile Path file;
+
+    // Solo se usan dentro de flush()
+    private Path openFile;
+    private FileChannel channel;
+    // Bytes de una escritura que falló, pendientes de reintentar
+    private ByteBuffer unwritten;
+
+    private CommandLogger() {
+        background.scheduleWithFixedDelay(this::flush,
+            FLUSH_INTERVAL_MILLIS, FLUSH_INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+        Runtime.getRuntime().addShutdownHook(new Thread(this::close, "command-logger-shutdown"));
+    }
+
+    public static synchronized CommandLogger getInstance() {
+        if (instance == null) {
+            instance = new CommandLogger();
+        }
+        return instance;
+    }
+
+    /**
+     * Activa o desactiva el registro y cambia el archivo
+     * @param path ruta del archivo; "~" se sustituye por la carpeta del usuario
+     */
+    public void configure(boolean enabled, String path) {
+        Path target = null;
+        if (path != null && !path.isBlank()) {
+            String expanded = path.trim();
+            if (expanded.equals("~") || expanded.startsWith("~/")) {
+                expanded = System.getProperty("user.home") + expanded.substring(1);
+            }
+            try {
+                target = Path.of(expanded).toAbsolutePath();
+            } catch (InvalidPathException e) {
+                System.err.println("Ruta del registro de comandos no válida: " + path);
+            }
+        }
+        this.file = target;
+        this.enabled = enabled && target != null;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Registra un comando terminado. No bloquea ni hace E/S.
+     * @param startMillis momento de inicio (epoch ms)
+     * @param directory carpeta en la que se ejecutó
+     * @param exitCode código de salida (-1 si terminó con error)
+     * @param durationNanos duración
+     */
+    public void log(long startMillis, String directory, String command, int exitCode, long durationNanos) {
+        if (!enabled) return;
+        queue.add(new Entry(startMillis, directory, command, exitCode, durationNanos));
+    }
+
+    /**
+     * Escribe las entradas pendientes
+     */
+    synchronized void flush() {
+        if (queue.isEmpty() && unwritten == null) return;
+        Path target = file;
+        if (target == null) {
+            queue.clear();
+            unwritten = null;
+            return;
+        }
+
+        StringBuilder lines = new StringBuilder();
+        Entry entry;
+        while ((entry = queue.poll()) != null) {
+            entry.appendTo(lines);
+        }
+        ByteBuffer bytes = ByteBuffer.wrap(lines.toString().getBytes(StandardCharsets.UTF_8));
+        if (unwritten != null) {
+            if (unwritten.remaining() + bytes.remaining() > MAX_FILE_BYTES) {
+                System.err.println("Registro de comandos: se descartan " + unwritten.remaining() + " bytes sin escribir");
+            } else {
+                bytes = ByteBuffer.allocate(unwritten.remaining() + bytes.remaining()).put(unwritten).put(bytes).flip();
+            }
+        }
+        // Se conserva hasta que la escritura y el fsync terminan bien
+        unwritten = bytes;
+        try {
+            if (!target.equals(openFile)) {
+                closeChannel();
+                open(target);
+            }
+            if (channel.size() > 0 && channel.size() + bytes.remaining() > MAX_FILE_BYTES) {
+                rotate();
+            }
+            while (bytes.hasRemaining()) {
+                channel.write(bytes);
+            }
+            channel.force(false);
+            unwritten = null;
+        } catch (IOException e) {
+            System.err.println("No se pudo escribir el registro de comandos: " + e.getMessage());
+            closeChannel();
+        }
+    }
+
+    private void open(Path target) throws IOException {
+        if (target.getParent() != null) {
+            Files.createDirectories(target.getParent());
+        }
+        channel = FileChannel.open(target, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        openFile = target;
+    }
+
+    /**
+     * Mueve el archivo a {@code .1} (y los anteriores un número más) y empieza uno nuevo
+     */
+    private void rotate() throws IOException {
+        Path target = openFile;
+        closeChannel();
+        Files.deleteIfExists(rotated(target, MAX_ROTATED_FILES));
+        for (int i = MAX_ROTATED_FILES - 1; i >= 1; i--) {
+            Path from = rotated(target, i);
+            if (Files.exists(from)) {
+                Files.move(from, rotated(target, i + 1), StandardCopyOption.REPLACE_EXISTING);
+            }
+        }
+        Files.move(target, rotated(target, 1), StandardCopyOption.REPLACE_EXISTING);
+        open(target);
+    }
+
+    private static Path rotated(Path target, int index) {
+        return target.resolveSibling(target.getFileName() + "." + index);
+    }
+
+    private void closeChannel() {
+        if (channel != null) {
+            try {
+                channel.close();
+            } catch (IOException e) {
+                e.printStackTrace();
+            }
+        }
+        channel = null;
+        openFile = null;
+    }
+
+    private synchronized void close() {
+        flush();
+        closeChannel();
+    }
+
+    private static final class Entry {
+        final long startMillis;
+        final String directory;
+        final String command;
+        final int exitCode;
+        final long durationNanos;
+
+        Entry(long startMillis, String directory, String command, int exitCode, long durationNanos) {
+            this.startMillis = startMillis;
+            this.directory = directory;
+            this.command = command;
+            this.exitCode = exitCode;
+            this.durationNanos = durationNanos;
+        }
+
+        void appendTo(StringBuilder out) {
+            TIMESTAMP.formatTo(Instant.ofEpochMilli(startMillis), out);
+            out.append('\t').append(exitCode)
+                .append('\t').append(TimeUnit.NANOSECONDS.toMillis(durationNanos)).append("ms")
+                .append('\t');
+            appendEscaped(directory, out);
+            out.append('\t');
+            appendEscaped(command, out);
+            out.append('\n');
+        }
+
+        /**
+         * Escapa los caracteres que romperían el formato de una línea por comando
+         */
+        private static void appendEscaped(String text, StringBuilder out) {
+            if (text == null) return;
+            for (int i = 0; i < text.length(); i++) {
+                char c = text.charAt(i);
+                switch (c) {
+                    case '\\': out.append("\\\\"); break;
+                    case '\t': out.append("\\t"); break;
+                    case '\n': out.append("\\n"); break;
+                    case '\r': out.append("\\r"); break;
+                    default: out.append(c);
+                }
+            }
+        }
+    }
+}
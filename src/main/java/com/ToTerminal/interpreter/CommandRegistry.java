@@ -0,0 +1,90 @@
+package com.ToTerminal.interpreter;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.ServiceConfigurationError;
+import java.util.ServiceLoader;
+import java.util.Set;
+
+/**
+ * Registro de los comandos internos por nombre.
+ * Al crearse carga con {@link ServiceLoader} todos los {@link Command} declarados (los de la
+ * aplicación en module-info.java y en META-INF/services, y los de otros módulos que los
+ * proporcionen). Buscar un comando es una sola consulta a un mapa.
+ */
+public final class CommandRegistry {
+
+    private static CommandRegistry instance;
+
+    private final Map<String, Command> byName = new HashMap<>();
+    private final List<Command> commands = new ArrayList<>();
+
+    CommandRegistry() {
+    }
+
+    /**
+     * Obtiene el registro compartido, cargando los comandos la primera vez que se usa
+     */
+    public static synchronized CommandRegistry getInstance() {
+        if (instance == null) {
+            CommandRegistry registry = new CommandRegistry();
+            try {
+                for (Command command : ServiceLoader.load(Command.class)) {
+                    registry.register(command);
+                }
+            } catch (ServiceConfigurationError e) {
+                e.printStackTrace();
+            }
+            instance = registry;
+        }
+        return instance;
+    }
+
+    /**
+     * Registra un comando con su nombre y sus alias.
+     * Si un nombre ya está ocupado se mantiene el comando anterior para ese nombre.
+     */
+    public synchronized void register(Command command) {
+        boolean added = false;
+        List<String> names = new ArrayList<>();
+        names.add(command.getName());
+        names.addAll(command.getAliases());
+        for (String name : names) {
+            String key = name.toLowerCase(Locale.ROOT);
+            if (byName.putIfAbsent(key, command) == null) {
+                added = true;
+            } else if (byName.get(key) != command) {
+                System.err.println("Comando duplicado, se ignora: " + name);
+            }
+        }
+        if (added) {
+            commands.add(command);
+        }
+    }
+
+    /**
+     * Busca un comando por su nombre o alias, sin distinguir mayúsculas
+     * @return el comando o null si no existe
+     */
+    public synchronized Command get(String name) {
+        return byName.get(name.toLowerCase(Locale.ROOT));
+    }
+
+    /**
+     * Comandos en orden de registro
+     */
+    public synchronized List<Command> getCommands() {
+        return Collections.unmodifiableList(new ArrayList<>(commands));
+    }
+
+    /**
+     * Todos los nombres y alias registrados
+     */
+    public synchronized Set<String> getNames() {
+        return Set.copyOf(byName.keySet());
+    }
+}
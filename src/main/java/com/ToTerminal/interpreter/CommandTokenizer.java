@@ -0,0 +1,195 @@
+package com.ToTerminal.interpreter;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Separa una línea de comandos en palabras y operadores en una sola pasada.
+ * <ul>
+ *   <li>Los espacios y tabuladores separan palabras.</li>
+ *   <li>Fuera de comillas, {@code |}, {@code ||}, {@code &}, {@code &&}, {@code >} y {@code >>} son
+ *       operadores aunque vayan pegados a una palabra ({@code ls|wc}).</li>
+ *   <li>Entre comillas simples todo es literal.</li>
+ *   <li>Entre comillas dobles, {@code \"} y {@code \\} escapan el carácter.</li>
+ *   <li>Fuera de comillas, la barra invertida solo escapa espacios, comillas, operadores y otra
+ *       barra, para que las rutas de Windows ({@code C:\Users}) se mantengan.</li>
+ * </ul>
+ * Una comilla sin cerrar abarca hasta el final de la línea.
+ */
+public final class CommandTokenizer {
+
+    private CommandTokenizer() {
+    }
+
+    /**
+     * Palabra u operador de la línea
+     */
+    public static final class Token {
+        private final String text;
+        private final boolean operator;
+
+        Token(String text, boolean operator) {
+            this.text = text;
+            this.operator = operator;
+        }
+
+        public String getText() {
+            return text;
+        }
+
+        public boolean isOperator() {
+            return operator;
+        }
+
+        /**
+         * Indica si es el operador indicado (una palabra entre comillas nunca lo es)
+         */
+        public boolean is(String operatorText) {
+            return operator && text.equals(operatorText);
+        }
+
+        @Override
+        public String toString() {
+            return text;
+        }
+    }
+
+    /**
+     * Palabra que se está escribiendo al final de una línea, para el autocompletado
+     */
+    static final class Partial {
+        private final List<Token> previous;
+        private final int start;
+        private final String word;
+        private final char quote;
+
+        Partial(List<Token> previous, int start, String word, char quote) {
+            this.previous = previous;
+            this.start = start;
+            this.word = word;
+            this.quote = quote;
+        }
+
+        /**
+         * Palabras y operadores anteriores a la palabra
+         */
+        List<Token> getPrevious() {
+            return previous;
+        }
+
+        /**
+         * Posición de la línea en la que empieza la palabra (su longitud si no hay ninguna empezada)
+         */
+        int getStart() {
+            return start;
+        }
+
+        /**
+         * La palabra sin comillas ni barras de escape
+         */
+        String getWord() {
+            return word;
+        }
+
+        /**
+         * Comilla que sigue abierta al final de la línea o 0
+         */
+        char getQuote() {
+            return quote;
+        }
+    }
+
+    /**
+     * @return las palabras sin comillas y los operadores; vacío si la línea está en blanco
+     */
+    public static List<Token> tokenize(String line) {
+        Partial last = partial(line);
+        List<Token> tokens = last.previous;
+        if (last.start < line.length()) {
+            tokens.add(new Token(last.word, false));
+        }
+        return tokens;
+    }
+
+    /**
+     * Separa la línea como {@link #tokenize} pero deja aparte la última palabra si no ha terminado
+     */
+    static Partial partial(String line) {
+        List<Token> tokens = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        boolean inToken = false;
+        int start = 0;
+        char quote = 0;
+        int length = line.length();
+        for (int i = 0; i < length; i++) {
+            char c = line.charAt(i);
+            if (quote == '\'') {
+                if (c == '\'') {
+                    quote = 0;
+                } else {
+                    current.append(c);
+                }
+            } else if (quote == '"') {
+                if (c == '"') {
+                    quote = 0;
+                } else if (c == '\\' && i + 1 < length && (line.charAt(i + 1) == '"' || line.charAt(i + 1) == '\\')) {
+                    current.append(line.charAt(++i));
+                } else {
+                    current.append(c);
+                }
+            } else if (c == ' ' || c == '\t') {
+                if (inToken) {
+                    tokens.add(new Token(current.toString(), false));
+                    current.setLength(0);
+                    inToken = false;
+                }
+            } else if (c == '|' || c == '>' || c == '&') {
+                if (inToken) {
+                    tokens.add(new Token(current.toString(), false));
+                    current.setLength(0);
+                    inToken = false;
+                }
+                boolean doubled = i + 1 < length && line.charAt(i + 1) == c;
+                tokens.add(new Token(doubled ? "" + c + c : String.valueOf(c), true));
+                if (doubled) i++;
+            } else {
+                if (!inToken) {
+                    start = i;
+                    inToken = true;
+                }
+                if (c == '\'' || c == '"') {
+                    quote = c;
+                } else if (c == '\\' && i + 1 < length && isEscapable(line.charAt(i + 1))) {
+                    current.append(line.charAt(++i));
+                } else {
+                    current.append(c);
+                }
+            }
+        }
+        return new Partial(tokens, inToken ? start : length, current.toString(), quote);
+    }
+
+    /**
+     * Escribe un texto para que {@link #tokenize} lo lea tal cual dentro de una palabra
+     * @param quote comilla abierta en la que se escribe o 0 si no hay ninguna
+     */
+    static String escape(String text, char quote) {
+        StringBuilder result = new StringBuilder(text.length() + 8);
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (quote == '\'') {
+                // Dentro de comillas simples no hay escapes: se cierran, se escapa la comilla y se vuelven a abrir
+                result.append(c == '\'' ? "'\\''" : String.valueOf(c));
+            } else if (quote == '"' ? c == '"' || c == '\\' : isEscapable(c)) {
+                result.append('\\').append(c);
+            } else {
+                result.append(c);
+            }
+        }
+        return result.toString();
+    }
+
+    private static boolean isEscapable(char c) {
+        return c == ' ' || c == '\t' || c == '\'' || c == '"' || c == '\\' || c == '|' || c == '&' || c == '>';
+    }
+}
@@ -0,0 +1,91 @@
+package com.ToTerminal.interpreter;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Árbol de prefijos inmutable con los nombres que se pueden autocompletar.
+ * Cada nodo guarda sus hijos en un array ordenado por carácter, así que los candidatos salen en
+ * orden alfabético y buscar un prefijo cuesta lo que su longitud.
+ *
+ * Se construye una vez con todos los nombres y puede consultarse desde varios hilos.
+ */
+final class CompletionTrie {
+
+    private final Node root = new Node();
+
+    CompletionTrie(Collection<String> words) {
+        String[] sorted = words.stream().filter(word -> !word.isEmpty()).distinct().sorted().toArray(String[]::new);
+        for (String word : sorted) {
+            insert(word);
+        }
+    }
+
+    /**
+     * Palabras que empiezan por {@code prefix}, en orden alfabético
+     * @param max número máximo de palabras devueltas
+     */
+    List<String> find(String prefix, int max) {
+        List<String> result = new ArrayList<>();
+        Node node = root;
+        for (int i = 0; i < prefix.length() && node != null; i++) {
+            node = node.child(prefix.charAt(i));
+        }
+        if (node != null) {
+            collect(node, new StringBuilder(prefix), result, max);
+        }
+        return result;
+    }
+
+    private void insert(String word) {
+        Node node = root;
+        for (int i = 0; i < word.length(); i++) {
+            node = node.childOrAdd(word.charAt(i));
+        }
+        node.terminal = true;
+    }
+
+    private static void collect(Node node, StringBuilder path, List<String> result, int max) {
+        if (result.size() >= max) return;
+        if (node.terminal) {
+            result.add(path.toString());
+        }
+        for (int i = 0; i < node.count && result.size() < max; i++) {
+            path.append(node.keys[i]);
+            collect(node.children[i], path, result, max);
+            path.setLength(path.length() - 1);
+        }
+    }
+
+    private static final class Node {
+        char[] keys = new char[0];
+        Node[] children = new Node[0];
+        int count;
+        boolean terminal;
+
+        Node child(char c) {
+            int i = Arrays.binarySearch(keys, 0, count, c);
+            return i >= 0 ? children[i] : null;
+        }
+
+        Node childOrAdd(char c) {
+            int i = Arrays.binarySearch(keys, 0, count, c);
+            if (i >= 0) return children[i];
+            i = -i - 1;
+            if (count == keys.length) {
+                int capacity = Math.max(2, count * 2);
+                keys = Arrays.copyOf(keys, capacity);
+                children = Arrays.copyOf(children, capacity);
+            }
+            System.arraycopy(keys, i, keys, i + 1, count - i);
+            System.arraycopy(children, i, children, i + 1, count - i);
+            Node node = new Node();
+            keys[i] = c;
+            children[i] = node;
+            count++;
+            return node;
+        }
+    }
+}
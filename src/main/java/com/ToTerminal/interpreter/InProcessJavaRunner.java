@@ -0,0 +1,124 @@
+package com.ToTerminal.interpreter;
+
+import com.ToTerminal.utils.InternationalizationHelper;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Ejecuta scripts Java dentro del proceso de la aplicación.
+ * El código se compila con {@link JavaSourceCompiler} (con caché) y se carga en un
+ * class loader aislado cuyo padre es el class loader de plataforma, de modo que el
+ * script no ve las clases de la aplicación. Su salida estándar se redirige al terminal.
+ *
+ * La cancelación interrumpe el hilo del script; un script que ignore las
+ * interrupciones seguirá ejecutándose hasta terminar. Un System.exit en el script
+ * cierra la aplicación completa.
+ */
+public class InProcessJavaRunner {
+
+    private final OutputSink output;
+    private final JavaSourceCompiler compiler = JavaSourceCompiler.getInstance();
+    private final AtomicReference<Thread> current = new AtomicReference<>();
+
+    /**
+     * @param output sink donde se escribe la salida de los scripts
+     */
+    public InProcessJavaRunner(OutputSink output) {
+        this.output = output;
+    }
+
+    /**
+     * Compila (si no está en caché) y ejecuta el método main de un script
+     * @param sourceFile archivo .java del script
+     * @param args argumentos para main
+     * @return futuro con el código de salida: 0 si main termina normalmente, 1 si falla
+     */
+    public CompletableFuture<Integer> run(Path sourceFile, String[] args) {
+        CompletableFuture<Integer> result = new CompletableFuture<>();
+        Thread thread = new Thread(() -> result.complete(execute(sourceFile, args)),
+            "script-" + sourceFile.getFileName());
+        if (!current.compareAndSet(null, thread)) {
+            throw new IllegalStateException("A script is already running");
+        }
+        thread.setDaemon(true);
+        thread.start();
+        return result;
+    }
+
+    /**
+     * Indica si hay un script en ejecución
+     */
+    public boolean isRunning() {
+        return current.get() != null;
+    }
+
+    /**
+     * Interrumpe el script en ejecución
+     * @return true si había un script que cancelar
+     */
+    public boolean cancel() {
+        Thread thread = current.get();
+        if (thread == null) return false;
+        thread.interrupt();
+        return true;
+    }
+
+    private int execute(Path sourceFile, String[] args) {
+        ScriptConsole.install();
+        ScriptConsole.attach(output);
+        try {
+            JavaSourceCompiler.CompiledScript compiled = compiler.compile(sourceFile);
+            MemoryClassLoader loader = new MemoryClassLoader(compiled.getClasses());
+            Thread.currentThread().setContextClassLoader(loader);
+
+            Class<?> mainClass = Class.forName(compiled.getMainClass(), true, loader);
+            Method main = mainClass.getDeclaredMethod("main", String[].class);
+            main.setAccessible(true);
+            main.invoke(null, (Object) args);
+            return 0;
+        } catch (JavaSourceCompiler.CompilationException e) {
+            for (String error : e.getErrors()) {
+                output.append(error, "stderr");
+            }
+            return 1;
+        } catch (InvocationTargetException e) {
+            e.getCause().printStackTrace();
+            return 1;
+        } catch (NoSuchMethodException e) {
+            output.append(InternationalizationHelper.getText("main.commands.run.no_main"), "stderr");
+            return 1;
+        } catch (Exception e) {
+            output.append(e.toString(), "stderr");
+            return 1;
+        } finally {
+            ScriptConsole.detach();
+            current.compareAndSet(Thread.currentThread(), null);
+        }
+    }
+
+    /**
+     * Class loader que define las clases compiladas en memoria
+     */
+    private static final class MemoryClassLoader extends ClassLoader {
+        private final Map<String, byte[]> classes;
+
+        MemoryClassLoader(Map<String, byte[]> classes) {
+            super("script", ClassLoader.getPlatformClassLoader());
+            this.classes = classes;
+        }
+
+        @Override
+        protected Class<?> findClass(String name) throws ClassNotFoundException {
+            byte[] bytes = classes.get(name);
+            if (bytes == null) {
+                throw new ClassNotFoundException(name);
+            }
+            return defineClass(name, bytes, 0, bytes.length);
+        }
+    }
+}
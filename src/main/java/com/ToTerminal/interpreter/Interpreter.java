@@ -1,100 +1,300 @@
 package com.ToTerminal.interpreter;
 
-import com.ToTerminal.controllers.MainController;
 import com.ToTerminal.utils.InternationalizationHelper;
-import com.ToTerminal.utils.Values;
-import com.sun.tools.javac.Main;
-import javafx.scene.control.Label;
-import javafx.scene.control.ScrollPane;
-import javafx.scene.layout.VBox;
+import javafx.application.Platform;
 
 import java.io.File;
-import java.io.FileNotFoundException;
 import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicReference;
 
 /**
- * Clase encargada de interpretar y ejecutar los comandos del terminal
+ * Clase encargada de interpretar y ejecutar los comandos del terminal.
+ * La línea se separa con el {@link CommandTokenizer} y se analiza como {@link CommandChain}; el
+ * nombre de cada comando se busca en el {@link CommandRegistry} y, si no es un comando interno,
+ * se lanza como proceso externo. Las cadenas que terminan en {@code &} se ejecutan como
+ * {@link Job}s de la {@link JobTable}.
+ *
+ * Cada línea se anota en el {@link CommandLogger} al terminar su parte en primer plano, y cada
+ * trabajo cuando termina él, con su propio código de salida y duración.
+ *
+ * Cada {@link TerminalSession} tiene su propio intérprete, que usa la carpeta, el entorno, la
+ * salida y los hilos de la sesión.
  */
 public class Interpreter {
     
-    private final VBox terminalOutput;
-    private final Label currentPath;
-    private final ScrollPane outputScrollPane;
+    private final TerminalSession session;
+    private final OutputSink terminalOutput;
+    private final ProcessRunner processRunner;
+    private final ScriptRunner scriptRunner;
+    private final CommandRegistry registry;
+    private final AtomicReference<PipelineRun> currentPipeline = new AtomicReference<>();
+    private final AtomicReference<CommandContext> currentCommand = new AtomicReference<>();
+    private final AtomicReference<Job> foregroundJob = new AtomicReference<>();
+    private final JobTable jobs;
     
     /**
-     * Constructor que recibe las dependencias necesarias para ejecutar comandos
-     * @param terminalOutput VBox donde se muestran las salidas
-     * @param currentPath Label que contiene la ruta actual
-     * @param outputScrollPane ScrollPane para auto-scroll
+     * Constructor que recibe la sesión en la que se ejecutan los comandos
+     * @param session sesión con la salida, la carpeta y el entorno de los comandos
      */
-    public Interpreter(VBox terminalOutput, Label currentPath, ScrollPane outputScrollPane) {
-        this.terminalOutput = terminalOutput;
-        this.currentPath = currentPath;
-        this.outputScrollPane = outputScrollPane;
+    Interpreter(TerminalSession session) {
+        this.session = session;
+        this.terminalOutput = session.getOutput();
+        this.processRunner = new ProcessRunner(terminalOutput, session.getEnvironment());
+        this.scriptRunner = new ScriptRunner(session, processRunner);
+        this.registry = CommandRegistry.getInstance();
+        this.jobs = new JobTable(terminalOutput);
     }
     
     /**
-     * Ejecuta el comando especificado
+     * Ejecuta la línea de comandos especificada.
+     * Las tuberías unidas por {@code &&} y {@code ||} se ejecutan una tras otra según el código
+     * de salida de la anterior. Un comando suelto se ejecuta en el hilo que declara, o como proceso
+     * externo si no es interno; las tuberías y redirecciones las ejecuta un {@link PipelineRun}.
      * @param command comando a ejecutar
+     * @return futuro con el código de salida del último comando ejecutado en primer plano
+     *         (0 si todos van en segundo plano)
      */
-    public void executeCommand(String command) {
-        String[] parts = command.split("\\s+");
-        String mainCommand = parts[0].toLowerCase();
+    public CompletableFuture<Integer> executeCommand(String command) {
+        long startMillis = System.currentTimeMillis();
+        long startNanos = System.nanoTime();
+        String directory = session.getWorkingDirectory();
+        List<CommandTokenizer.Token> tokens = CommandTokenizer.tokenize(command);
+        if (tokens.isEmpty()) {
+            return CompletableFuture.completedFuture(0);
+        }
         
-        switch (mainCommand) {
-            case "help":
-                showCommandHelp();
-                break;
-            case "clear":
-                terminalOutput.getChildren().clear();
-                break;
-            case "pwd":
-                addOutputLine(currentPath.getText(), "output");
-                break;
-            case "whoami":
-                addOutputLine("user", "output");
-                break;
-            case "date":
-                addOutputLine(java.time.LocalDateTime.now().toString(), "output");
-                break;
-            case "echo":
-                if (parts.length > 1) {
-                    String message = command.substring(5); // Remover "echo "
-                    addOutputLine(message, "output");
-                } else {
-                    addOutputLine("", "output");
-                }
-                break;
-            case "exit":
-                System.exit(0);
-                break;
-            case "cd":
-                try {
-                    changeDirectory(parts);
-                } catch (IOException e) {
-                    throw new RuntimeException(e);
-                }
-                break;
-            default:
-                addOutputLine(InternationalizationHelper.getText("main.commands.unknown", mainCommand), "error");
-                addOutputLine(InternationalizationHelper.getText("main.commands.help_suggestion"), "info");
+        List<CommandChain> chains;
+        try {
+            chains = CommandChain.parse(tokens);
+        } catch (IllegalArgumentException e) {
+            addOutputLine(InternationalizationHelper.getText("main.commands.syntax_error", e.getMessage()), "error");
+            addOutputLine("", "normal");
+            return log(CompletableFuture.completedFuture(2), command, directory, startMillis, startNanos);
         }
         
-        addOutputLine("", "normal");
+        CompletableFuture<Integer> result = CompletableFuture.completedFuture(0);
+        for (CommandChain chain : chains) {
+            if (chain.isBackground()) {
+                startJob(chain);
+            } else {
+                // Solo la última cadena puede ir en primer plano; si hay trabajos delante se anota sin ellos
+                result = log(runChain(chain, command, null), chains.size() == 1 ? command : chain.toString(),
+                    directory, startMillis, startNanos);
+            }
+        }
+        return result.whenComplete((code, error) -> addOutputLine("", "normal"));
+    }
+    
+    /**
+     * Ejecuta las tuberías de la cadena una tras otra según sus {@code &&} y {@code ||}
+     * @param job trabajo al que pertenece la cadena o null si va en primer plano
+     */
+    private CompletableFuture<Integer> runChain(CommandChain chain, String command, Job job) {
+        List<CommandChain.Pipeline> pipelines = chain.getPipelines();
+        CompletableFuture<Integer> result = runPipeline(pipelines.get(0), command, job);
+        for (int i = 1; i < pipelines.size(); i++) {
+            CommandChain.Pipeline pipeline = pipelines.get(i);
+            boolean onSuccess = chain.getConnector(i - 1).equals(CommandChain.AND);
+            result = result.thenCompose(code -> (code == 0) == onSuccess
+                ? runPipeline(pipeline, command, job)
+                : CompletableFuture.completedFuture(code));
+        }
+        return result;
+    }
+    
+    /**
+     * Lanza una cadena en segundo plano y muestra su número de trabajo
+     */
+    private void startJob(CommandChain chain) {
+        String commandLine = chain.toString();
+        Job job = jobs.create(commandLine, new File(session.getWorkingDirectory()));
+        addOutputLine(InternationalizationHelper.getText("main.commands.jobs.started", job.getId(), commandLine), "info");
+        log(job.getResult(), commandLine + " &", job.getDirectory().getPath(),
+            System.currentTimeMillis(), System.nanoTime());
+        jobs.start(job, runChain(chain, commandLine, job));
+    }
+    
+    /**
+     * Anota el comando en el {@link CommandLogger} cuando termine
+     * @return el mismo futuro
+     */
+    private static CompletableFuture<Integer> log(CompletableFuture<Integer> result, String command,
+                                                  String directory, long startMillis, long startNanos) {
+        CommandLogger logger = CommandLogger.getInstance();
+        if (logger.isEnabled()) {
+            result.whenComplete((code, error) -> logger.log(startMillis, directory, command,
+                code != null ? code : -1, System.nanoTime() - startNanos));
+        }
+        return result;
+    }
+    
+    private CompletableFuture<Integer> runPipeline(CommandChain.Pipeline pipeline, String command, Job job) {
+        if (job != null) {
+            // En segundo plano todo va por PipelineRun: no ocupa el hilo de JavaFX ni el proceso en primer plano
+            return job.run(new PipelineRun(this, job.getOutput(), pipeline, command, job.getDirectory()));
+        }
+        if (!pipeline.isSimple()) {
+            return startPipeline(pipeline, command);
+        }
+        CommandChain.Stage stage = pipeline.getStages().get(0);
+        Command builtin = registry.get(stage.getName());
+        if (builtin == null) {
+            return executeExternal(stage.getWords());
+        }
+        CommandContext context = new CommandContext(this, terminalOutput, LineSource.EMPTY,
+            LineSink.of(terminalOutput), command, true, null);
+        if (builtin.getExecutionThread() == Command.ExecutionThread.WORKER) {
+            // Los comandos largos se pueden detener con Ctrl+C
+            currentCommand.set(context);
+            return CompletableFuture.supplyAsync(() -> execute(builtin, context, stage.getArgs()), session.getExecutor())
+                .thenCompose(future -> future)
+                .whenComplete((code, error) -> currentCommand.compareAndSet(context, null));
+        }
+        if (Platform.isFxApplicationThread()) {
+            return execute(builtin, context, stage.getArgs());
+        }
+        // Detrás de && o || se llega desde el hilo que terminó el comando anterior
+        CompletableFuture<Integer> result = new CompletableFuture<>();
+        Platform.runLater(() -> execute(builtin, context, stage.getArgs()).whenComplete((code, error) -> {
+            if (error != null) {
+                result.completeExceptionally(error);
+            } else {
+                result.complete(code);
+            }
+        }));
+        return result;
     }
     
     /**
-     * Muestra la ayuda de comandos disponibles
+     * Lanza una tubería o un comando con redirección
      */
-    private void showCommandHelp() {
-        addOutputLine(InternationalizationHelper.getText("main.commands.help.title"), "info");
-        addOutputLine(InternationalizationHelper.getText("main.commands.help.help"), "output");
-        addOutputLine(InternationalizationHelper.getText("main.commands.help.clear"), "output");
-        addOutputLine(InternationalizationHelper.getText("main.commands.help.pwd"), "output");
-        addOutputLine(InternationalizationHelper.getText("main.commands.help.whoami"), "output");
-        addOutputLine(InternationalizationHelper.getText("main.commands.help.date"), "output");
-        addOutputLine(InternationalizationHelper.getText("main.commands.help.echo"), "output");
-        addOutputLine(InternationalizationHelper.getText("main.commands.help.exit"), "output");
+    private CompletableFuture<Integer> startPipeline(CommandChain.Pipeline pipeline, String command) {
+        if (isProcessRunning()) {
+            addOutputLine(InternationalizationHelper.getText("main.commands.process_busy"), "error");
+            return CompletableFuture.completedFuture(1);
+        }
+        PipelineRun run = new PipelineRun(this, terminalOutput, pipeline, command, new File(session.getWorkingDirectory()));
+        currentPipeline.set(run);
+        return run.start().whenComplete((code, error) -> currentPipeline.compareAndSet(run, null));
+    }
+    
+    /**
+     * Ejecuta un comando interno convirtiendo sus excepciones en un mensaje de error
+     */
+    CompletableFuture<Integer> execute(Command command, CommandContext context, List<String> args) {
+        try {
+            return command.execute(context, args).exceptionally(error -> reportError(command, error));
+        } catch (Exception e) {
+            return CompletableFuture.completedFuture(reportError(command, e));
+        }
+    }
+    
+    private int reportError(Command command, Throwable error) {
+        Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+        String message = cause.getMessage() != null ? cause.getMessage() : cause.getClass().getSimpleName();
+        addOutputLine(InternationalizationHelper.getText("main.commands.error", command.getName(), message), "error");
+        return 1;
+    }
+    
+    /**
+     * Sesión a la que pertenece este intérprete
+     */
+    public TerminalSession getSession() {
+        return session;
+    }
+    
+    /**
+     * Trabajos en segundo plano de este intérprete
+     */
+    public JobTable getJobs() {
+        return jobs;
+    }
+    
+    /**
+     * Pasa un trabajo a primer plano: deja la tabla de trabajos, su salida ya no se limita y
+     * Ctrl+C lo termina
+     * @return futuro con el código de salida del trabajo
+     */
+    public CompletableFuture<Integer> foreground(Job job) {
+        if (isProcessRunning()) {
+            addOutputLine(InternationalizationHelper.getText("main.commands.process_busy"), "error");
+            return CompletableFuture.completedFuture(1);
+        }
+        foregroundJob.set(job);
+        job.toForeground();
+        jobs.remove(job);
+        return job.getResult().whenComplete((code, error) -> foregroundJob.compareAndSet(job, null));
+    }
+    
+    /**
+     * Registro de comandos que usa este intérprete
+     */
+    public CommandRegistry getRegistry() {
+        return registry;
+    }
+    
+    /**
+     * Lanza un comando externo en el directorio actual
+     * @param parts comando y argumentos
+     * @return futuro con el código de salida del proceso
+     */
+    private CompletableFuture<Integer> executeExternal(List<String> parts) {
+        if (isProcessRunning()) {
+            addOutputLine(InternationalizationHelper.getText("main.commands.process_busy"), "error");
+            return CompletableFuture.completedFuture(1);
+        }
+        try {
+            return processRunner.start(parts, new File(session.getWorkingDirectory()));
+        } catch (IOException e) {
+            addOutputLine(InternationalizationHelper.getText("main.commands.unknown", parts.get(0)), "error");
+            addOutputLine(InternationalizationHelper.getText("main.commands.help_suggestion"), "info");
+            return CompletableFuture.completedFuture(127);
+        }
+    }
+    
+    /**
+     * Ejecuta un script registrado por su nombre
+     * @param scriptName nombre del script
+     * @return futuro con el código de salida del script
+     */
+    public CompletableFuture<Integer> runScript(String scriptName) {
+        if (isProcessRunning()) {
+            addOutputLine(InternationalizationHelper.getText("main.commands.process_busy"), "error");
+            return CompletableFuture.completedFuture(1);
+        }
+        return scriptRunner.run(scriptName);
+    }
+    
+    /**
+     * Cancela el comando interno, el proceso externo, la tubería o el trabajo en primer plano (Ctrl+C)
+     * @return true si había un proceso en ejecución
+     */
+    public boolean cancelRunningProcess() {
+        CommandContext command = currentCommand.getAndSet(null);
+        if (command != null) {
+            command.cancel();
+        }
+        PipelineRun pipeline = currentPipeline.getAndSet(null);
+        if (pipeline != null) {
+            pipeline.cancel();
+        }
+        Job job = foregroundJob.getAndSet(null);
+        if (job != null) {
+            job.kill();
+        }
+        return command != null | pipeline != null | job != null | processRunner.cancel() | scriptRunner.cancel();
+    }
+    
+    /**
+     * Indica si hay un comando interno de trabajo, un proceso externo, una tubería o un trabajo en
+     * primer plano en ejecución
+     */
+    public boolean isProcessRunning() {
+        return currentCommand.get() != null || currentPipeline.get() != null || foregroundJob.get() != null
+            || processRunner.isRunning() || scriptRunner.isRunning();
     }
     
     /**
@@ -103,49 +303,6 @@ public class Interpreter {
      * @param styleClass clase CSS para el estilo
      */
     private void addOutputLine(String text, String styleClass) {
-        Label outputLabel = new Label(text);
-        outputLabel.getStyleClass().add("output-line");
-        outputLabel.getStyleClass().add(styleClass);
-        terminalOutput.getChildren().add(outputLabel);
-        
-        // Auto-scroll hacia abajo
-        javafx.application.Platform.runLater(() -> {
-            outputScrollPane.setVvalue(1.0);
-        });
-    }
-
-    private void changeDirectory (String[] args) throws java.io.IOException{
-        final String DIRECTORY = args[1];
-        boolean isAbsolutPath = DIRECTORY.startsWith(Values.DEFAULT_PATH);
-        File f = new File(DIRECTORY);
-        if(isAbsolutPath){
-            if(!f.exists()){
-                throw  new FileNotFoundException("Error");
-            }
-            if (f.isFile()) {
-
-            }else{
-                Values.currentPath = f.getAbsolutePath();
-                MainController mc = MainController.getInstance();
-                mc.updatePath();
-                addOutputLine(DIRECTORY,"output");
-            }
-
-        }else{
-            String abPath = Values.currentPath + "/" + DIRECTORY;
-            System.out.println(abPath);
-            f = new File(abPath);
-            if(!f.exists()){
-                throw new FileNotFoundException("Error");
-            }
-            if (f.isFile()) {
-            }else{
-                Values.currentPath = f.getAbsolutePath();
-                MainController mc = MainController.getInstance();
-                mc.updatePath();
-                addOutputLine(abPath,"output");
-            }
-        }
-
+        terminalOutput.append(text, styleClass);
     }
 }
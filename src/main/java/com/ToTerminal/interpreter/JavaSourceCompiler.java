@@ -0,0 +1,336 @@
+package com.ToTerminal.interpreter;
+
+import com.ToTerminal.utils.Values;
+import com.sun.source.tree.ClassTree;
+import com.sun.source.tree.CompilationUnitTree;
+import com.sun.source.tree.Tree;
+import com.sun.source.util.JavacTask;
+
+import javax.tools.Diagnostic;
+import javax.tools.DiagnosticCollector;
+import javax.tools.FileObject;
+import javax.tools.ForwardingJavaFileManager;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileManager;
+import javax.tools.JavaFileObject;
+import javax.tools.SimpleJavaFileObject;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.ToolProvider;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Compila scripts Java en memoria usando {@link javax.tools.JavaCompiler}.
+ * El bytecode resultante se guarda en caché indexado por el hash del código fuente
+ * y la versión del JDK, de modo que volver a ejecutar un script sin cambios no invoca javac.
+ * La caché en memoria guarda los {@link #MAX_MEMORY_ENTRIES} scripts usados más recientemente;
+ * además, las entradas se persisten en un {@link BytecodeCache}
+ * para que sobrevivan a reinicios de la aplicación.
+ */
+public class JavaSourceCompiler {
+
+    static final List<String> COMPILER_OPTIONS = List.of("-proc:none", "-g");
+    static final String ENVIRONMENT = String.join(" ", COMPILER_OPTIONS) + " jdk-" + Runtime.version();
+    // Cada edición de un script crea una entrada nueva; las antiguas siguen en disco
+    static final int MAX_MEMORY_ENTRIES = 32;
+
+    private static JavaSourceCompiler instance;
+
+    private final JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+    private final Map<String, CompiledScript> cache = Collections.synchronizedMap(
+        new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CompiledScript> eldest) {
+                return size() > MAX_MEMORY_ENTRIES;
+            }
+        });
+    private final BytecodeCache diskCache = new BytecodeCache(
+        Path.of(Values.SCRIPTS_DIR, "cache"), BytecodeCache.DEFAULT_MAX_BYTES, ENVIRONMENT);
+
+    private final AtomicLong memoryHits = new AtomicLong();
+    private final AtomicLong diskHits = new AtomicLong();
+    private final AtomicLong compilations = new AtomicLong();
+
+    private JavaSourceCompiler() {
+        // El orden de uso de la caché en disco se guarda al salir
+        Runtime.getRuntime().addShutdownHook(new Thread(diskCache::flush, "bytecode-cache-shutdown"));
+    }
+
+    /**
+     * Obtiene la instancia compartida del compilador
+     */
+    public static synchronized JavaSourceCompiler getInstance() {
+        if (instance == null) {
+            instance = new JavaSourceCompiler();
+        }
+        return instance;
+    }
+
+    /**
+     * Compila un archivo fuente o devuelve el resultado en caché si no ha cambiado
+     * @param sourceFile archivo .java del script
+     * @return el script compilado
+     * @throws IOException si no se puede leer el archivo
+     * @throws CompilationException si javac informa de errores
+     */
+    public CompiledScript compile(Path sourceFile) throws IOException, CompilationException {
+        Path path = sourceFile.toAbsolutePath().normalize();
+        BasicFileAttributes attributes = Files.readAttributes(path, BasicFileAttributes.class);
+        long lastModified = attributes.lastModifiedTime().toMillis();
+        long size = attributes.size();
+
+        // Archivo sin cambios desde la última compilación: no hace falta leerlo ni calcular el hash
+        String knownKey = diskCache.lookupKey(path, lastModified, size);
+        if (knownKey != null) {
+            CompiledScript cached = lookup(knownKey);
+            if (cached != null) {
+                return cached;
+            }
+        }
+
+        byte[] source = Files.readAllBytes(path);
+        String key = cacheKey(source);
+
+        CompiledScript cached = lookup(key);
+        if (cached != null) {
+            diskCache.remember(path, lastModified, size, key);
+            return cached;
+        }
+
+        CompiledScript compiled = compile(path.getFileName().toString(),
+            new String(source, StandardCharsets.UTF_8));
+        compilations.incrementAndGet();
+        cache.put(key, compiled);
+        diskCache.store(path, lastModified, size, key, compiled);
+        return compiled;
+    }
+
+    /**
+     * Busca una entrada primero en memoria y después en disco
+     */
+    private CompiledScript lookup(String key) {
+        CompiledScript cached = cache.get(key);
+        if (cached != null) {
+            memoryHits.incrementAndGet();
+            diskCache.touch(key);
+            return cached;
+        }
+        cached = diskCache.load(key);
+        if (cached != null) {
+            diskHits.incrementAndGet();
+            cache.put(key, cached);
+        }
+        return cached;
+    }
+
+    /**
+     * Clave de caché: hash del código fuente, opciones de compilación y versión del JDK
+     */
+    static String cacheKey(byte[] source) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update(source);
+            digest.update(ENVIRONMENT.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Número de scripts compilados en la caché en memoria
+     */
+    public int getCachedCount() {
+        return cache.size();
+    }
+
+    /**
+     * Caché persistente en disco
+     */
+    public BytecodeCache getDiskCache() {
+        return diskCache;
+    }
+
+    public long getMemoryHits() {
+        return memoryHits.get();
+    }
+
+    public long getDiskHits() {
+        return diskHits.get();
+    }
+
+    public long getCompilations() {
+        return compilations.get();
+    }
+
+    /**
+     * Vacía la caché en memoria y en disco
+     */
+    public void clearCache() {
+        cache.clear();
+        diskCache.clear();
+    }
+
+    private CompiledScript compile(String fileName, String source) throws CompilationException {
+        if (compiler == null) {
+            throw new CompilationException(List.of("No Java compiler available in this runtime"));
+        }
+
+        DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<>();
+        StandardJavaFileManager standard = compiler.getStandardFileManager(diagnostics, null, StandardCharsets.UTF_8);
+        MemoryFileManager fileManager = new MemoryFileManager(standard);
+        JavaFileObject sourceObject = new SourceObject(fileName, source);
+
+        JavacTask task = (JavacTask) compiler.getTask(null, fileManager, diagnostics,
+            COMPILER_OPTIONS, null, List.of(sourceObject));
+        try {
+            String mainClass = null;
+            for (CompilationUnitTree unit : task.parse()) {
+                mainClass = firstTopLevelClass(unit);
+            }
+            task.generate();
+
+            if (hasErrors(diagnostics) || mainClass == null) {
+                throw new CompilationException(format(diagnostics));
+            }
+            return new CompiledScript(mainClass, fileManager.classes);
+        } catch (IOException e) {
+            throw new CompilationException(List.of(e.getMessage()));
+        }
+    }
+
+    /**
+     * Igual que el lanzador de código fuente, la clase principal es la primera declarada en el archivo
+     */
+    private static String firstTopLevelClass(CompilationUnitTree unit) {
+        String pkg = unit.getPackageName() == null ? "" : unit.getPackageName() + ".";
+        for (Tree type : unit.getTypeDecls()) {
+            if (type instanceof ClassTree) {
+                return pkg + ((ClassTree) type).getSimpleName();
+            }
+        }
+        return null;
+    }
+
+    private static boolean hasErrors(DiagnosticCollector<JavaFileObject> diagnostics) {
+        for (Diagnostic<? extends JavaFileObject> d : diagnostics.getDiagnostics()) {
+            if (d.getKind() == Diagnostic.Kind.ERROR) return true;
+        }
+        return false;
+    }
+
+    private static List<String> format(DiagnosticCollector<JavaFileObject> diagnostics) {
+        List<String> messages = new ArrayList<>();
+        for (Diagnostic<? extends JavaFileObject> d : diagnostics.getDiagnostics()) {
+            if (d.getKind() == Diagnostic.Kind.ERROR) {
+                messages.add("line " + d.getLineNumber() + ": " + d.getMessage(null));
+            }
+        }
+        return messages;
+    }
+
+    /**
+     * Resultado de una compilación: clase principal y bytecode de todas las clases generadas
+     */
+    public static final class CompiledScript {
+        private final String mainClass;
+        private final Map<String, byte[]> classes;
+
+        CompiledScript(String mainClass, Map<String, byte[]> classes) {
+            this.mainClass = mainClass;
+            this.classes = Map.copyOf(classes);
+        }
+
+        public String getMainClass() {
+            return mainClass;
+        }
+
+        public Map<String, byte[]> getClasses() {
+            return classes;
+        }
+    }
+
+    /**
+     * Errores de compilación informados por javac
+     */
+    public static final class CompilationException extends Exception {
+        private final List<String> errors;
+
+        CompilationException(List<String> errors) {
+            super(String.join("\n", errors));
+            this.errors = List.copyOf(errors);
+        }
+
+        public List<String> getErrors() {
+            return errors;
+        }
+    }
+
+    private static final class SourceObject extends SimpleJavaFileObject {
+        private final String source;
+
+        SourceObject(String fileName, String source) {
+            super(URI.create("string:///" + fileName), Kind.SOURCE);
+            this.source = source;
+        }
+
+        @Override
+        public CharSequence getCharContent(boolean ignoreEncodingErrors) {
+            return source;
+        }
+    }
+
+    private static final class ClassObject extends SimpleJavaFileObject {
+        private final String className;
+        private final Map<String, byte[]> sink;
+
+        ClassObject(String className, Map<String, byte[]> sink) {
+            super(URI.create("mem:///" + className.replace('.', '/') + ".class"), Kind.CLASS);
+            this.className = className;
+            this.sink = sink;
+        }
+
+        @Override
+        public OutputStream openOutputStream() {
+            return new ByteArrayOutputStream() {
+                @Override
+                public void close() {
+                    sink.put(className, toByteArray());
+                }
+            };
+        }
+    }
+
+    /**
+     * Gestor de archivos que guarda las clases generadas en memoria en lugar de en disco
+     */
+    private static final class MemoryFileManager extends ForwardingJavaFileManager<JavaFileManager> {
+        final Map<String, byte[]> classes = new HashMap<>();
+
+        MemoryFileManager(JavaFileManager fileManager) {
+            super(fileManager);
+        }
+
+        @Override
+        public JavaFileObject getJavaFileForOutput(Location location, String className,
+                                                   JavaFileObject.Kind kind, FileObject sibling) {
+            return new ClassObject(className, classes);
+        }
+    }
+}
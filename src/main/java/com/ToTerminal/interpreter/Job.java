@@ -0,0 +1,116 @@
+package com.ToTerminal.interpreter;
+
+import java.io.File;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Cadena de comandos lanzada en segundo plano con {@code &}.
+ * Su salida pasa por un {@link OutputSink} propio y acotado antes de llegar a la terminal.
+ */
+public final class Job {
+
+    /** Código de salida de un trabajo terminado con {@code kill} (128 + SIGTERM, como bash) */
+    public static final int KILLED_EXIT_CODE = 143;
+
+    private final int id;
+    private final String commandLine;
+    private final File directory;
+    private final OutputSink output;
+    private final CompletableFuture<Integer> result = new CompletableFuture<>();
+    private final AtomicReference<PipelineRun> current = new AtomicReference<>();
+    private volatile boolean killed;
+    private volatile boolean foreground;
+
+    Job(int id, String commandLine, File directory, OutputSink output) {
+        this.id = id;
+        this.commandLine = commandLine;
+        this.directory = directory;
+        this.output = output;
+    }
+
+    /**
+     * Número del trabajo, el que se usa en {@code %n}
+     */
+    public int getId() {
+        return id;
+    }
+
+    public String getCommandLine() {
+        return commandLine;
+    }
+
+    /**
+     * Futuro con el código de salida del trabajo
+     */
+    public CompletableFuture<Integer> getResult() {
+        return result;
+    }
+
+    public boolean isRunning() {
+        return !result.isDone();
+    }
+
+    public boolean isKilled() {
+        return killed;
+    }
+
+    boolean isForeground() {
+        return foreground;
+    }
+
+    /**
+     * Carpeta de trabajo en la que se lanzó; todas sus tuberías se ejecutan en ella
+     */
+    File getDirectory() {
+        return directory;
+    }
+
+    OutputSink getOutput() {
+        return output;
+    }
+
+    /**
+     * Ejecuta una de las tuberías del trabajo; no la lanza si el trabajo ya se ha terminado
+     */
+    CompletableFuture<Integer> run(PipelineRun run) {
+        if (killed) {
+            return CompletableFuture.completedFuture(KILLED_EXIT_CODE);
+        }
+        CompletableFuture<Integer> exit = run.start();
+        current.set(run);
+        // kill() pudo llegar mientras se lanzaba la tubería
+        if (killed && current.compareAndSet(run, null)) {
+            run.cancel();
+        }
+        return exit.whenComplete((code, error) -> current.compareAndSet(run, null));
+    }
+
+    /**
+     * Pasa el trabajo a primer plano: su salida deja de estar limitada por pulso
+     */
+    void toForeground() {
+        foreground = true;
+        output.setMaxPerPulse(Integer.MAX_VALUE);
+    }
+
+    /**
+     * Detiene la tubería en ejecución y las que quedaban de la cadena.
+     * La salida que aún no se había mostrado se descarta.
+     * @return false si el trabajo ya había terminado
+     */
+    public boolean kill() {
+        if (!isRunning()) return false;
+        killed = true;
+        PipelineRun run = current.getAndSet(null);
+        if (run != null) {
+            run.cancel();
+        }
+        output.discardPending();
+        return true;
+    }
+
+    void complete(int exitCode) {
+        result.complete(killed ? KILLED_EXIT_CODE : exitCode);
+    }
+}
@@ -0,0 +1,138 @@
+package com.ToTerminal.interpreter;
+
+import com.ToTerminal.utils.InternationalizationHelper;
+import javafx.application.Platform;
+import javafx.beans.property.ReadOnlyIntegerProperty;
+import javafx.beans.property.ReadOnlyIntegerWrapper;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Trabajos en segundo plano de un intérprete.
+ * Los números se asignan como en bash: uno más que el mayor en uso, y vuelven a empezar en 1
+ * cuando no queda ninguno. Al terminar, un trabajo se quita de la tabla y se avisa en la terminal.
+ *
+ * Cada trabajo escribe en un {@link OutputSink} propio de {@link #OUTPUT_BUFFER_LINES} líneas que
+ * pasa a la terminal como mucho {@link #OUTPUT_LINES_PER_PULSE} líneas por pulso. Un trabajo que
+ * escribe más deprisa espera, sin llenar la memoria ni la cola de la terminal.
+ */
+public final class JobTable {
+
+    static final int OUTPUT_BUFFER_LINES = 1000;
+    static final int OUTPUT_LINES_PER_PULSE = 200;
+
+    private final OutputSink terminal;
+    private final TreeMap<Integer, Job> jobs = new TreeMap<>();
+    private final ReadOnlyIntegerWrapper count = new ReadOnlyIntegerWrapper(0);
+    private final Thread shutdownHook = new Thread(this::killAll, "jobs-shutdown");
+
+    JobTable(OutputSink terminal) {
+        this.terminal = terminal;
+        Runtime.getRuntime().addShutdownHook(shutdownHook);
+    }
+
+    /**
+     * Añade un trabajo nuevo a la tabla
+     */
+    synchronized Job create(String commandLine, File directory) {
+        int id = jobs.isEmpty() ? 1 : jobs.lastKey() + 1;
+        Job job = new Job(id, commandLine, directory,
+            new OutputSink(terminal, OUTPUT_BUFFER_LINES, OUTPUT_LINES_PER_PULSE));
+        jobs.put(id, job);
+        updateCount();
+        return job;
+    }
+
+    /**
+     * Asocia al trabajo el futuro de su cadena; cuando termina se quita de la tabla
+     */
+    void start(Job job, CompletableFuture<Integer> exit) {
+        exit.whenComplete((code, error) -> {
+            job.complete(code != null ? code : 1);
+            remove(job);
+            if (!job.isForeground()) {
+                job.getOutput().append(finishedMessage(job), "info");
+            }
+        });
+    }
+
+    /**
+     * Quita el trabajo de la tabla (ha terminado o ha pasado a primer plano)
+     */
+    synchronized void remove(Job job) {
+        if (jobs.remove(job.getId(), job)) {
+            updateCount();
+        }
+    }
+
+    /**
+     * Busca un trabajo por {@code %n} o {@code n}; sin especificación, el último lanzado
+     * @return el trabajo o null si no existe
+     */
+    public synchronized Job find(String spec) {
+        if (spec == null || spec.isEmpty() || spec.equals("%") || spec.equals("%%") || spec.equals("%+")) {
+            return jobs.isEmpty() ? null : jobs.lastEntry().getValue();
+        }
+        try {
+            return jobs.get(Integer.parseInt(spec.startsWith("%") ? spec.substring(1) : spec));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Trabajos en ejecución, ordenados por número
+     */
+    public synchronized List<Job> getJobs() {
+        return new ArrayList<>(jobs.values());
+    }
+
+    /**
+     * Número de trabajos en segundo plano; se actualiza en el hilo de JavaFX
+     */
+    public ReadOnlyIntegerProperty countProperty() {
+        return count.getReadOnlyProperty();
+    }
+
+    /**
+     * Termina todos los trabajos (al cerrar la aplicación)
+     */
+    public void killAll() {
+        for (Job job : getJobs()) {
+            job.kill();
+        }
+    }
+
+    /**
+     * Termina todos los trabajos al cerrar la sesión
+     */
+    void close() {
+        killAll();
+        try {
+            Runtime.getRuntime().removeShutdownHook(shutdownHook);
+        } catch (IllegalStateException e) {
+            // La aplicación ya se está cerrando
+        }
+    }
+
+    private void updateCount() {
+        // Siempre con runLater para que los cambios lleguen en orden
+        int size = jobs.size();
+        Platform.runLater(() -> count.set(size));
+    }
+
+    private static String finishedMessage(Job job) {
+        if (job.isKilled()) {
+            return InternationalizationHelper.getText("main.commands.jobs.killed", job.getId(), job.getCommandLine());
+        }
+        int code = job.getResult().join();
+        if (code == 0) {
+            return InternationalizationHelper.getText("main.commands.jobs.done", job.getId(), job.getCommandLine());
+        }
+        return InternationalizationHelper.getText("main.commands.jobs.exit", job.getId(), code, job.getCommandLine());
+    }
+}
@@ -0,0 +1,36 @@
+package com.ToTerminal.interpreter;
+
+/**
+ * Salida de un comando: la terminal, un archivo o la siguiente etapa de la tubería
+ */
+public interface LineSink {
+
+    /**
+     * Escribe una línea, esperando si el destino va retrasado
+     * @param styleClass clase CSS con la que se muestra si el destino es la terminal
+     * @return false si el destino ya no acepta más líneas (p. ej. la siguiente etapa ha terminado)
+     */
+    boolean write(String line, String styleClass);
+
+    /**
+     * Indica que no habrá más líneas
+     */
+    void close();
+
+    /**
+     * Salida a la terminal
+     */
+    static LineSink of(OutputSink output) {
+        return new LineSink() {
+            @Override
+            public boolean write(String line, String styleClass) {
+                output.append(line, styleClass);
+                return true;
+            }
+
+            @Override
+            public void close() {
+            }
+        };
+    }
+}
@@ -0,0 +1,32 @@
+package com.ToTerminal.interpreter;
+
+/**
+ * Entrada de un comando: las líneas que escribe la etapa anterior de la tubería
+ */
+public interface LineSource {
+
+    /**
+     * Entrada vacía de los comandos que no reciben nada por tubería
+     */
+    LineSource EMPTY = new LineSource() {
+        @Override
+        public String readLine() {
+            return null;
+        }
+
+        @Override
+        public void close() {
+        }
+    };
+
+    /**
+     * Espera a la siguiente línea
+     * @return la línea sin el salto de línea o null si no hay más
+     */
+    String readLine() throws InterruptedException;
+
+    /**
+     * Deja de leer: quien escribe en la entrada ve la salida cerrada y puede parar
+     */
+    void close();
+}
@@ -0,0 +1,380 @@
+package com.ToTerminal.interpreter;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Pool de procesos de NodeJS precalentados para ejecutar scripts sin pagar el arranque de node.
+ * Cada worker ejecuta el programa {@code /node/worker.js} y recibe los scripts a ejecutar por
+ * stdin; la salida del script vuelve por stdout con un protocolo JSON de una línea por mensaje.
+ *
+ * Los workers se reciclan tras {@link #MAX_RUNS_PER_WORKER} ejecuciones, si terminan
+ * inesperadamente o si un script deja temporizadores, sockets o variables globales, y los que llevan más tiempo ociosos que el límite configurado se cierran.
+ *
+ * El pool está desactivado salvo que se configure un tamaño. Dentro de un worker el script se
+ * carga como módulo principal y sus módulos se descargan al terminar, pero no puede leer stdin:
+ * recibe una entrada vacía, como los procesos que lanza la terminal.
+ */
+public class NodeWorkerPool {
+
+    public static final int MAX_RUNS_PER_WORKER = 50;
+
+    private static final String WORKER_RESOURCE = "/node/worker.js";
+    private static final long REAPER_PERIOD_SECONDS = 5;
+
+    private static NodeWorkerPool instance;
+
+    private final Gson gson = new Gson();
+    private final ConcurrentLinkedDeque<NodeWorker> idle = new ConcurrentLinkedDeque<>();
+    private final AtomicInteger liveWorkers = new AtomicInteger();
+    // Ejecuciones en curso y el worker de cada una; cada sesión puede tener la suya
+    private final Map<CompletableFuture<Integer>, NodeWorker> running = new ConcurrentHashMap<>();
+    private final AtomicLong nextJobId = new AtomicLong();
+    private final ScheduledExecutorService reaper = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread t = new Thread(r, "node-pool-reaper");
+        t.setDaemon(true);
+        return t;
+    });
+
+    private volatile int size;
+    private volatile long idleTimeoutMillis;
+    private volatile String workerSource;
+
+    private NodeWorkerPool() {
+        reaper.scheduleWithFixedDelay(this::closeIdleWorkers,
+            REAPER_PERIOD_SECONDS, REAPER_PERIOD_SECONDS, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Obtiene la instancia compartida del pool
+     */
+    public static synchronized NodeWorkerPool getInstance() {
+        if (instance == null) {
+            instance = new NodeWorkerPool();
+        }
+        return instance;
+    }
+
+    /**
+     * Ajusta el tamaño del pool y el tiempo máximo de inactividad
+     * @param size número de workers que se mantienen calientes (0 desactiva el pool)
+     * @param idleTimeoutSeconds segundos tras los que se cierra un worker ocioso
+     */
+    public void configure(int size, int idleTimeoutSeconds) {
+        this.size = Math.max(0, size);
+        this.idleTimeoutMillis = TimeUnit.SECONDS.toMillis(Math.max(1, idleTimeoutSeconds));
+        if (this.size > 0) {
+            warmUp();
+        }
+    }
+
+    /**
+     * Indica si el pool está activo
+     */
+    public boolean isEnabled() {
+        return size > 0;
+    }
+
+    /**
+     * Ejecuta un script en un worker ocioso (o en uno nuevo si no hay ninguno)
+     * @param script archivo .js a ejecutar
+     * @param args argumentos del script
+     * @param directory directorio de trabajo
+     * @param output sink donde se escribe la salida
+     * @return futuro con el código de salida del script
+     * @throws IOException si no se puede iniciar node
+     */
+    public CompletableFuture<Integer> run(Path script, List<String> args, File directory, OutputSink output)
+            throws IOException {
+        NodeWorker worker = idle.pollFirst();
+        if (worker == null) {
+            worker = startWorker();
+        }
+
+        NodeWorker runningWorker = worker;
+        CompletableFuture<Integer> execution = worker.submit(nextJobId.incrementAndGet(), script, args, directory, output)
+            .whenComplete((code, error) -> release(runningWorker));
+        running.put(execution, worker);
+        execution.whenComplete((code, error) -> running.remove(execution));
+        return execution;
+    }
+
+    /**
+     * Cancela una ejecución terminando su worker
+     * @param execution futuro devuelto por {@link #run}
+     * @return true si la ejecución seguía en curso
+     */
+    public boolean cancel(CompletableFuture<Integer> execution) {
+        NodeWorker worker = running.get(execution);
+        if (worker == null) return false;
+        worker.destroy();
+        return true;
+    }
+
+    private void release(NodeWorker worker) {
+        if (worker.isAlive() && worker.runs < MAX_RUNS_PER_WORKER && liveWorkers.get() <= size) {
+            worker.lastUsed = System.currentTimeMillis();
+            idle.addFirst(worker);
+        } else {
+            retire(worker);
+            warmUp();
+        }
+    }
+
+    /**
+     * Arranca en segundo plano los workers que falten hasta llegar al tamaño del pool
+     */
+    private void warmUp() {
+        Thread.ofVirtual().name("node-pool-warmup").start(() -> {
+            try {
+                synchronized (this) {
+                    while (liveWorkers.get() < size) {
+                        idle.addLast(startWorker());
+                    }
+                }
+            } catch (IOException e) {
+                // node no está disponible; las ejecuciones informarán del error
+            }
+        });
+    }
+
+    private void closeIdleWorkers() {
+        long now = System.currentTimeMillis();
+        for (NodeWorker worker : idle) {
+            boolean expired = now - worker.lastUsed > idleTimeoutMillis;
+            if ((expired || !worker.isAlive() || liveWorkers.get() > size) && idle.remove(worker)) {
+                retire(worker);
+            }
+        }
+    }
+
+    private NodeWorker startWorker() throws IOException {
+        ProcessBuilder builder = new ProcessBuilder("node", "-e", getWorkerSource());
+        NodeWorker worker = new NodeWorker(builder.start());
+        liveWorkers.incrementAndGet();
+        worker.process.onExit().thenRun(() -> retire(worker));
+        return worker;
+    }
+
+    /**
+     * Saca un worker del pool y termina su proceso; se puede llamar varias veces
+     */
+    private void retire(NodeWorker worker) {
+        if (worker.retired.compareAndSet(false, true)) {
+            liveWorkers.decrementAndGet();
+            idle.remove(worker);
+            worker.destroy();
+        }
+    }
+
+    private String getWorkerSource() throws IOException {
+        if (workerSource == null) {
+            try (InputStream in = NodeWorkerPool.class.getResourceAsStream(WORKER_RESOURCE)) {
+                if (in == null) {
+                    throw new IOException("Missing resource " + WORKER_RESOURCE);
+                }
+                workerSource = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+            }
+        }
+        return workerSource;
+    }
+
+    /**
+     * Un proceso node que ejecuta scripts de uno en uno
+     */
+    private final class NodeWorker {
+        private final Process process;
+        private final BufferedWriter stdin;
+        private final AtomicBoolean retired = new AtomicBoolean();
+        private volatile Job job;
+        private volatile boolean dirty;
+        private int runs;
+        private volatile long lastUsed = System.currentTimeMillis();
+
+        NodeWorker(Process process) {
+            this.process = process;
+            this.stdin = new BufferedWriter(new OutputStreamWriter(process.getOutputStream(), StandardCharsets.UTF_8));
+            Thread.ofVirtual().name("node-worker-out").start(this::readMessages);
+            Thread.ofVirtual().name("node-worker-err").start(this::readErrors);
+        }
+
+        CompletableFuture<Integer> submit(long id, Path script, List<String> args, File directory, OutputSink output) {
+            Job current = new Job(id, output);
+            job = current;
+            runs++;
+            Map<String, Object> request = Map.of(
+                "id", id,
+                "path", script.toAbsolutePath().toString(),
+                "cwd", directory.getAbsolutePath(),
+                "args", args);
+            try {
+                synchronized (stdin) {
+                    stdin.write(gson.toJson(request));
+                    stdin.newLine();
+                    stdin.flush();
+                }
+            } catch (IOException e) {
+                destroy();
+            }
+            return current.result;
+        }
+
+        boolean isAlive() {
+            return process.isAlive() && !dirty;
+        }
+
+        void destroy() {
+            process.destroyForcibly();
+        }
+
+        private void readMessages() {
+            try (BufferedReader reader = new BufferedReader(
+                    new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8))) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    handle(JsonParser.parseString(line).getAsJsonObject());
+                }
+            } catch (Exception e) {
+                // El proceso terminó o envió un mensaje inválido: se trata como caída
+            }
+            // Worker caído: termina la ejecución en curso con el código del proceso
+            Job current = job;
+            if (current != null) {
+                job = null;
+                int code;
+                try {
+                    code = process.waitFor();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    code = 1;
+                }
+                current.finish(code);
+            }
+            process.destroyForcibly();
+        }
+
+        private void readErrors() {
+            try (BufferedReader reader = new BufferedReader(
+                    new InputStreamReader(process.getErrorStream(), StandardCharsets.UTF_8))) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    Job current = job;
+                    if (current != null) {
+                        current.output.append(line, "stderr");
+                    }
+                }
+            } catch (IOException ignored) {
+            }
+        }
+
+        private void handle(JsonObject message) {
+            Job current = job;
+            if (current == null || message.get("id").getAsLong() != current.id) return;
+
+            switch (message.get("t").getAsString()) {
+                case "o":
+                    current.stdout.write(message.get("d").getAsString());
+                    break;
+                case "e":
+                    current.stderr.write(message.get("d").getAsString());
+                    break;
+                case "x":
+                    if (message.has("dirty") && message.get("dirty").getAsBoolean()) {
+                        dirty = true;
+                    }
+                    job = null;
+                    current.finish(message.get("c").getAsInt());
+                    break;
+                default:
+                    break;
+            }
+        }
+    }
+
+    /**
+     * Ejecución en curso y sus buffers de líneas incompletas
+     */
+    private static final class Job {
+        final long id;
+        final OutputSink output;
+        final LineSplitter stdout;
+        final LineSplitter stderr;
+        final CompletableFuture<Integer> result = new CompletableFuture<>();
+
+        Job(long id, OutputSink output) {
+            this.id = id;
+            this.output = output;
+            this.stdout = new LineSplitter(output, "stdout");
+            this.stderr = new LineSplitter(output, "stderr");
+        }
+
+        void finish(int code) {
+            stdout.flush();
+            stderr.flush();
+            result.complete(code);
+        }
+    }
+
+    /**
+     * Convierte fragmentos de texto arbitrarios en líneas completas
+     */
+    private static final class LineSplitter {
+        private final OutputSink output;
+        private final String styleClass;
+        private final StringBuilder pending = new StringBuilder();
+
+        LineSplitter(OutputSink output, String styleClass) {
+            this.output = output;
+            this.styleClass = styleClass;
+        }
+
+        void write(String chunk) {
+            int start = 0;
+            for (int i = 0; i < chunk.length(); i++) {
+                if (chunk.charAt(i) == '\n') {
+                    pending.append(chunk, start, i);
+                    emit();
+                    start = i + 1;
+                }
+            }
+            pending.append(chunk, start, chunk.length());
+        }
+
+        void flush() {
+            if (pending.length() > 0) {
+                emit();
+            }
+        }
+
+        private void emit() {
+            int end = pending.length();
+            if (end > 0 && pending.charAt(end - 1) == '\r') {
+                end--;
+            }
+            output.append(pending.substring(0, end), styleClass);
+            pending.setLength(0);
+        }
+    }
+}
@@ -0,0 +1,180 @@
+package com.ToTerminal.interpreter;
+
+import com.ToTerminal.models.OutputBuffer;
+import com.ToTerminal.models.TerminalOutputView;
+import javafx.animation.AnimationTimer;
+import javafx.application.Platform;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Punto de entrada único para escribir en la salida del terminal desde cualquier hilo.
+ * Las líneas se acumulan en una cola acotada y se vuelcan a la vista como máximo
+ * una vez por pulso de JavaFX, con un único scroll al final por volcado.
+ *
+ * Si la cola se llena, los productores de otros hilos esperan a que se vacíe
+ * (back-pressure); el hilo de JavaFX nunca espera y vuelca la cola directamente.
+ *
+ * Un sink también puede reenviar a otro sink en lugar de a la vista, pasando como máximo un número
+ * de líneas por pulso. Así se acota la salida de los trabajos en segundo plano: cada uno tiene su
+ * propia cola y un trabajo muy ruidoso no llena la de la terminal.
+ */
+public class OutputSink {
+
+    public static final int DEFAULT_MAX_PENDING = 10000;
+
+    private static final byte CLEAR = -1;
+
+    private final TerminalOutputView view;
+    private final OutputSink target;
+    private volatile int maxPerPulse;
+    private final BlockingQueue<Line> pending;
+    private final AtomicBoolean flushScheduled = new AtomicBoolean(false);
+    private final List<Line> batch = new ArrayList<>();
+
+    private final AnimationTimer pulse = new AnimationTimer() {
+        @Override
+        public void handle(long now) {
+            flush();
+            if (pending.isEmpty()) {
+                stop();
+                flushScheduled.set(false);
+                // Un productor pudo encolar entre el volcado y el cambio de bandera
+                if (!pending.isEmpty() && flushScheduled.compareAndSet(false, true)) {
+                    start();
+                }
+            }
+        }
+    };
+
+    /**
+     * Crea un sink con el tamaño de cola por defecto
+     * @param view vista donde se vuelcan las líneas
+     */
+    public OutputSink(TerminalOutputView view) {
+        this(view, DEFAULT_MAX_PENDING);
+    }
+
+    /**
+     * Crea un sink con un tamaño de cola específico
+     * @param view vista donde se vuelcan las líneas
+     * @param maxPending número máximo de líneas pendientes antes de aplicar back-pressure
+     */
+    public OutputSink(TerminalOutputView view, int maxPending) {
+        this.view = view;
+        this.target = null;
+        this.maxPerPulse = Integer.MAX_VALUE;
+        this.pending = new ArrayBlockingQueue<>(maxPending);
+    }
+
+    /**
+     * Crea un sink que reenvía sus líneas a otro
+     * @param target sink al que se reenvían las líneas
+     * @param maxPending número máximo de líneas pendientes antes de aplicar back-pressure
+     * @param maxPerPulse número máximo de líneas que se reenvían en cada pulso
+     */
+    OutputSink(OutputSink target, int maxPending, int maxPerPulse) {
+        this.view = null;
+        this.target = target;
+        this.maxPerPulse = maxPerPulse;
+        this.pending = new ArrayBlockingQueue<>(maxPending);
+    }
+
+    /**
+     * Cambia el número máximo de líneas que un sink de reenvío pasa en cada pulso
+     */
+    void setMaxPerPulse(int maxPerPulse) {
+        this.maxPerPulse = maxPerPulse;
+    }
+
+    /**
+     * Descarta las líneas pendientes que aún no se han mostrado
+     */
+    void discardPending() {
+        pending.clear();
+    }
+
+    /**
+     * Encola una línea de salida
+     * @param text texto a mostrar
+     * @param styleClass clase CSS para el estilo
+     */
+    public void append(String text, String styleClass) {
+        enqueue(new Line(text, OutputBuffer.styleId(styleClass)));
+    }
+
+    /**
+     * Encola una limpieza de la salida, respetando el orden con las líneas anteriores
+     */
+    public void clear() {
+        enqueue(new Line(null, CLEAR));
+    }
+
+    private void enqueue(Line line) {
+        if (Platform.isFxApplicationThread()) {
+            // El hilo de JavaFX no puede esperar por sí mismo: vuelca la cola si está llena
+            while (!pending.offer(line)) {
+                flush();
+            }
+        } else {
+            try {
+                pending.put(line);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+        scheduleFlush();
+    }
+
+    private void scheduleFlush() {
+        if (flushScheduled.compareAndSet(false, true)) {
+            if (Platform.isFxApplicationThread()) {
+                pulse.start();
+            } else {
+                Platform.runLater(pulse::start);
+            }
+        }
+    }
+
+    /**
+     * Vuelca las líneas pendientes a la vista o al sink de destino. Debe ejecutarse en el hilo de JavaFX.
+     */
+    private void flush() {
+        pending.drainTo(batch, maxPerPulse);
+        if (batch.isEmpty()) return;
+
+        if (target != null) {
+            for (Line line : batch) {
+                target.enqueue(line);
+            }
+            batch.clear();
+            return;
+        }
+
+        view.update(buffer -> {
+            for (Line line : batch) {
+                if (line.styleId == CLEAR) {
+                    buffer.clear();
+                } else {
+                    buffer.append(line.text, line.styleId);
+                }
+            }
+        });
+        batch.clear();
+    }
+
+    private static final class Line {
+        final String text;
+        final byte styleId;
+
+        Line(String text, byte styleId) {
+            this.text = text;
+            this.styleId = styleId;
+        }
+    }
+}
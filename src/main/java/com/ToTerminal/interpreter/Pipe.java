@@ -0,0 +1,95 @@
+package com.ToTerminal.interpreter;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Canal acotado de líneas entre dos etapas de una tubería.
+ * Quien escribe espera cuando hay {@link #CAPACITY} líneas pendientes, así que una etapa rápida
+ * nunca acumula en memoria la salida que la siguiente aún no ha leído.
+ *
+ * Si quien lee cierra su lado ({@link #reader()}), las escrituras devuelven false y se descartan
+ * (como SIGPIPE).
+ */
+final class Pipe implements LineSink {
+
+    static final int CAPACITY = 1024;
+
+    private static final long POLL_MILLIS = 50;
+    private static final Object END = new Object();
+
+    private final BlockingQueue<Object> lines = new ArrayBlockingQueue<>(CAPACITY);
+    private volatile boolean readerClosed;
+    private volatile boolean writerClosed;
+    private boolean ended;
+
+    @Override
+    public boolean write(String line, String styleClass) {
+        try {
+            while (!readerClosed) {
+                if (lines.offer(line, POLL_MILLIS, TimeUnit.MILLISECONDS)) {
+                    return true;
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return false;
+    }
+
+    /**
+     * Cierra el lado de escritura: quien lee recibe el final tras las líneas pendientes
+     */
+    @Override
+    public void close() {
+        if (writerClosed) return;
+        writerClosed = true;
+        try {
+            while (!readerClosed && !lines.offer(END, POLL_MILLIS, TimeUnit.MILLISECONDS)) {
+                // Esperar a que quien lee haga sitio
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private String readLine() throws InterruptedException {
+        while (!ended) {
+            Object line = lines.poll(POLL_MILLIS, TimeUnit.MILLISECONDS);
+            if (line == END) {
+                ended = true;
+            } else if (line != null) {
+                return (String) line;
+            } else if (readerClosed) {
+                ended = true;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Cierra el lado de lectura (la etapa siguiente ha terminado o se cancela la tubería)
+     */
+    private void closeReader() {
+        readerClosed = true;
+        lines.clear();
+    }
+
+    /**
+     * Lado de lectura del canal, para la etapa siguiente
+     */
+    LineSource reader() {
+        return new LineSource() {
+            @Override
+            public String readLine() throws InterruptedException {
+                return Pipe.this.readLine();
+            }
+
+            @Override
+            public void close() {
+                closeReader();
+            }
+        };
+    }
+}
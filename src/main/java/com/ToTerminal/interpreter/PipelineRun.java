@@ -0,0 +1,327 @@
+package com.ToTerminal.interpreter;
+
+import com.ToTerminal.interpreter.CommandChain.Stage;
+import com.ToTerminal.utils.InternationalizationHelper;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Ejecución de una tubería con varias etapas o con redirección de salida.
+ *
+ * Todas las etapas se ejecutan a la vez. Los comandos externos seguidos se lanzan juntos con
+ * {@link ProcessBuilder#startPipeline}, unidos por tuberías del sistema, y sus redirecciones
+ * a archivo las hace el sistema. Cada comando interno se ejecuta en un hilo virtual y se conecta
+ * con las etapas vecinas mediante {@link Pipe}s acotados. Así los datos fluyen por la tubería sin
+ * acumular en memoria la salida completa de ninguna etapa.
+ *
+ * stderr de los procesos y las líneas de error de los comandos internos van a la terminal.
+ * El código de salida es el de la última etapa.
+ */
+final class PipelineRun {
+
+    private static final long DESTROY_GRACE_MILLIS = 2000;
+    private static final Pattern PROGRAM = Pattern.compile("\"([^\"]+)\"");
+
+    private final Interpreter interpreter;
+    private final OutputSink terminal;
+    private final List<Stage> stages;
+    private final String commandLine;
+    private final File directory;
+
+    private final List<Process> processes = new CopyOnWriteArrayList<>();
+    private final List<LineSource> readers = new CopyOnWriteArrayList<>();
+    private final List<CommandContext> contexts = new CopyOnWriteArrayList<>();
+
+    PipelineRun(Interpreter interpreter, OutputSink terminal, CommandChain.Pipeline pipeline,
+                String commandLine, File directory) {
+        this.interpreter = interpreter;
+        this.terminal = terminal;
+        this.stages = pipeline.getStages();
+        this.commandLine = commandLine;
+        this.directory = directory;
+    }
+
+    /**
+     * Lanza todas las etapas
+     * @return futuro con el código de salida de la última etapa, cuando han terminado todas
+     */
+    CompletableFuture<Integer> start() {
+        List<CompletableFuture<Integer>> results = new ArrayList<>();
+        LineSource input = LineSource.EMPTY;
+        int i = 0;
+        while (i < stages.size()) {
+            Stage stage = stages.get(i);
+            Command builtin = interpreter.getRegistry().get(stage.getName());
+
+            // Los comandos externos seguidos forman un solo grupo, que acaba en la primera redirección
+            int end = i + 1;
+            if (builtin == null) {
+                while (end < stages.size() && stages.get(end - 1).getRedirect() == null
+                        && interpreter.getRegistry().get(stages.get(end).getName()) == null) {
+                    end++;
+                }
+            }
+            Stage last = stages.get(end - 1);
+
+            Pipe next = null;
+            LineSink output;
+            if (last.getRedirect() != null) {
+                output = builtin != null ? openFile(last) : null;
+            } else if (end == stages.size()) {
+                output = LineSink.of(terminal);
+            } else {
+                next = new Pipe();
+                output = next;
+            }
+
+            if (builtin != null && output == null) {
+                // No se pudo abrir el archivo de la redirección
+                input.close();
+                results.add(CompletableFuture.completedFuture(1));
+            } else if (builtin != null) {
+                results.add(runBuiltin(builtin, stage, input, output));
+            } else {
+                results.add(runExternal(stages.subList(i, end), input, output));
+            }
+
+            // Tras una redirección la siguiente etapa no recibe nada
+            if (next != null) {
+                input = next.reader();
+                readers.add(input);
+            } else {
+                input = LineSource.EMPTY;
+            }
+            i = end;
+        }
+
+        CompletableFuture<Integer> last = results.get(results.size() - 1);
+        return CompletableFuture.allOf(results.toArray(new CompletableFuture<?>[0]))
+            .handle((ignored, error) -> last.isCompletedExceptionally() ? 1 : last.join());
+    }
+
+    /**
+     * Detiene todas las etapas: cancela los comandos internos, termina los procesos y cierra los canales
+     */
+    void cancel() {
+        for (CommandContext context : contexts) {
+            context.cancel();
+        }
+        for (LineSource reader : readers) {
+            reader.close();
+        }
+        for (Process process : processes) {
+            process.descendants().forEach(ProcessHandle::destroy);
+            process.destroy();
+        }
+        Thread.ofVirtual().name("pipeline-killer").start(() -> {
+            for (Process process : processes) {
+                try {
+                    if (!process.waitFor(DESTROY_GRACE_MILLIS, TimeUnit.MILLISECONDS)) {
+                        process.descendants().forEach(ProcessHandle::destroyForcibly);
+                        process.destroyForcibly();
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        });
+    }
+
+    // ========================================
+    // ETAPAS
+    // ========================================
+
+    private CompletableFuture<Integer> runBuiltin(Command command, Stage stage, LineSource input, LineSink output) {
+        CompletableFuture<Integer> result = new CompletableFuture<>();
+        CommandContext context = new CommandContext(interpreter, terminal, input, output, commandLine, false, directory);
+        contexts.add(context);
+        // Las etapas esperan a sus canales, así que nunca se ejecutan en el hilo de JavaFX
+        Thread.ofVirtual().name("pipeline-" + stage.getName()).start(() -> {
+            int code;
+            try {
+                code = interpreter.execute(command, context, stage.getArgs()).join();
+            } catch (RuntimeException e) {
+                code = 1;
+            } finally {
+                output.close();
+                input.close();
+            }
+            result.complete(code);
+        });
+        return result;
+    }
+
+    private CompletableFuture<Integer> runExternal(List<Stage> group, LineSource input, LineSink output) {
+        List<ProcessBuilder> builders = new ArrayList<>();
+        for (Stage stage : group) {
+            ProcessBuilder builder = new ProcessBuilder(stage.getWords()).directory(directory);
+            TerminalSession.applyEnvironment(builder, interpreter.getSession().getEnvironment());
+            builders.add(builder);
+        }
+        Stage last = group.get(group.size() - 1);
+        if (last.getRedirect() != null) {
+            File file = resolve(last.getRedirect());
+            builders.get(builders.size() - 1).redirectOutput(
+                last.isAppend() ? ProcessBuilder.Redirect.appendTo(file) : ProcessBuilder.Redirect.to(file));
+        }
+
+        List<Process> started;
+        try {
+            started = ProcessBuilder.startPipeline(builders);
+        } catch (IOException e) {
+            Matcher program = PROGRAM.matcher(String.valueOf(e.getMessage()));
+            if (program.find()) {
+                terminal.append(InternationalizationHelper.getText("main.commands.unknown", program.group(1)), "error");
+            } else {
+                terminal.append(InternationalizationHelper.getText("main.commands.redirect_failed",
+                    last.getRedirect(), e.getMessage()), "error");
+            }
+            input.close();
+            if (output != null) {
+                output.close();
+            }
+            return CompletableFuture.completedFuture(127);
+        }
+        processes.addAll(started);
+
+        Process first = started.get(0);
+        Process lastProcess = started.get(started.size() - 1);
+        if (input == LineSource.EMPTY) {
+            closeQuietly(first.getOutputStream());
+        } else {
+            feed(input, first.getOutputStream());
+        }
+
+        List<CompletableFuture<?>> pending = new ArrayList<>();
+        for (Process process : started) {
+            pending.add(pump(process.getErrorStream(), LineSink.of(terminal), "stderr"));
+            pending.add(process.onExit());
+        }
+        if (output != null) {
+            pending.add(pump(lastProcess.getInputStream(), output, "stdout"));
+        }
+        return CompletableFuture.allOf(pending.toArray(new CompletableFuture<?>[0]))
+            .thenApply(ignored -> lastProcess.exitValue())
+            .whenComplete((code, error) -> {
+                input.close();
+                if (output != null) {
+                    output.close();
+                }
+            });
+    }
+
+    /**
+     * Copia la entrada al stdin del proceso hasta que se acaba o el proceso deja de leer
+     */
+    private void feed(LineSource input, OutputStream stdin) {
+        Thread.ofVirtual().name("pipeline-stdin").start(() -> {
+            try (BufferedWriter writer = new BufferedWriter(new OutputStreamWriter(stdin, Charset.defaultCharset()))) {
+                String line;
+                while ((line = input.readLine()) != null) {
+                    writer.write(line);
+                    writer.newLine();
+                }
+            } catch (IOException | InterruptedException e) {
+                // El proceso ha terminado o se ha cancelado la tubería
+            } finally {
+                input.close();
+            }
+        });
+    }
+
+    /**
+     * Lee un flujo línea a línea y lo escribe en la salida; si la salida se cierra, cierra el flujo
+     * para que el proceso que escribe reciba SIGPIPE
+     */
+    private CompletableFuture<Void> pump(InputStream stream, LineSink output, String styleClass) {
+        CompletableFuture<Void> done = new CompletableFuture<>();
+        Thread.ofVirtual().name("pipeline-" + styleClass).start(() -> {
+            try (BufferedReader reader = new BufferedReader(new InputStreamReader(stream, Charset.defaultCharset()))) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    if (!output.write(line, styleClass)) break;
+                }
+            } catch (IOException e) {
+                // El flujo se cierra al cancelar la tubería
+            } finally {
+                done.complete(null);
+            }
+        });
+        return done;
+    }
+
+    /**
+     * Abre el archivo de la redirección de un comando interno
+     * @return la salida al archivo o null si no se puede abrir (ya se ha informado del error)
+     */
+    private LineSink openFile(Stage stage) {
+        BufferedWriter writer;
+        try {
+            writer = Files.newBufferedWriter(resolve(stage.getRedirect()).toPath(), Charset.defaultCharset(),
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                stage.isAppend() ? StandardOpenOption.APPEND : StandardOpenOption.TRUNCATE_EXISTING);
+        } catch (IOException e) {
+            terminal.append(InternationalizationHelper.getText("main.commands.redirect_failed",
+                stage.getRedirect(), e.getMessage()), "error");
+            return null;
+        }
+        return new LineSink() {
+            private boolean failed;
+
+            @Override
+            public boolean write(String line, String styleClass) {
+                if (failed) return false;
+                try {
+                    writer.write(line);
+                    writer.newLine();
+                    return true;
+                } catch (IOException e) {
+                    failed = true;
+                    terminal.append(InternationalizationHelper.getText("main.commands.redirect_failed",
+                        stage.getRedirect(), e.getMessage()), "error");
+                    return false;
+                }
+            }
+
+            @Override
+            public void close() {
+                try {
+                    writer.close();
+                } catch (IOException e) {
+                    e.printStackTrace();
+                }
+            }
+        };
+    }
+
+    private File resolve(String path) {
+        File file = new File(path);
+        return file.isAbsolute() ? file : new File(directory, path);
+    }
+
+    private static void closeQuietly(OutputStream stream) {
+        try {
+            stream.close();
+        } catch (IOException e) {
+            // Ya estaba cerrado
+        }
+    }
+}
@@ -0,0 +1,116 @@
+package com.ToTerminal.interpreter;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Ejecuta procesos externos y transmite su salida al terminal de forma incremental.
+ * stdout y stderr se leen en hilos virtuales independientes, por lo que el hilo de
+ * JavaFX nunca espera al proceso. Solo se permite un proceso en primer plano a la vez.
+ */
+public class ProcessRunner {
+
+    private static final long DESTROY_GRACE_MILLIS = 2000;
+
+    private final OutputSink output;
+    private final Map<String, String> environment;
+    private final AtomicReference<Process> current = new AtomicReference<>();
+
+    /**
+     * @param output sink donde se escribe la salida de los procesos
+     * @param environment variables de entorno de los procesos
+     */
+    public ProcessRunner(OutputSink output, Map<String, String> environment) {
+        this.output = output;
+        this.environment = environment;
+    }
+
+    /**
+     * Lanza un proceso y empieza a transmitir su salida
+     * @param command comando y argumentos
+     * @param directory directorio de trabajo del proceso
+     * @return futuro que se completa con el código de salida cuando el proceso
+     *         termina y toda su salida se ha transmitido
+     * @throws IOException si el proceso no se puede iniciar (p. ej. no existe el ejecutable)
+     */
+    public CompletableFuture<Integer> start(List<String> command, File directory) throws IOException {
+        ProcessBuilder builder = new ProcessBuilder(command).directory(directory);
+        TerminalSession.applyEnvironment(builder, environment);
+        Process process = builder.start();
+        if (!current.compareAndSet(null, process)) {
+            process.destroyForcibly();
+            throw new IllegalStateException("A process is already running");
+        }
+        // Sin entrada interactiva: el proceso recibe EOF si lee stdin
+        process.getOutputStream().close();
+
+        CompletableFuture<Void> stdout = pump(process.getInputStream(), "stdout");
+        CompletableFuture<Void> stderr = pump(process.getErrorStream(), "stderr");
+
+        return CompletableFuture.allOf(stdout, stderr)
+            .thenCompose(ignored -> process.onExit())
+            .thenApply(Process::exitValue)
+            .whenComplete((code, error) -> current.compareAndSet(process, null));
+    }
+
+    /**
+     * Indica si hay un proceso en ejecución
+     */
+    public boolean isRunning() {
+        return current.get() != null;
+    }
+
+    /**
+     * Cancela el proceso en ejecución y sus descendientes.
+     * Primero se solicita la terminación y, si sigue vivo tras un margen, se fuerza.
+     * @return true si había un proceso que cancelar
+     */
+    public boolean cancel() {
+        Process process = current.get();
+        if (process == null) return false;
+
+        process.descendants().forEach(ProcessHandle::destroy);
+        process.destroy();
+        Thread.ofVirtual().name("process-killer").start(() -> {
+            try {
+                if (!process.waitFor(DESTROY_GRACE_MILLIS, TimeUnit.MILLISECONDS)) {
+                    process.descendants().forEach(ProcessHandle::destroyForcibly);
+                    process.destroyForcibly();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        return true;
+    }
+
+    /**
+     * Lee un flujo línea a línea en un hilo virtual y lo envía al sink
+     */
+    private CompletableFuture<Void> pump(InputStream stream, String styleClass) {
+        CompletableFuture<Void> done = new CompletableFuture<>();
+        Thread.ofVirtual().name("process-" + styleClass).start(() -> {
+            try (BufferedReader reader = new BufferedReader(
+                    new InputStreamReader(stream, Charset.defaultCharset()))) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    output.append(line, styleClass);
+                }
+            } catch (IOException e) {
+                // El flujo se cierra al cancelar el proceso
+            } finally {
+                done.complete(null);
+            }
+        });
+        return done;
+    }
+}
@@ -0,0 +1,124 @@
+package com.ToTerminal.interpreter;
+
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.charset.Charset;
+
+/**
+ * Redirige System.out y System.err de los scripts ejecutados dentro del proceso.
+ * Cada hilo de script (y los hilos que cree) escribe en el {@link OutputSink} que se le
+ * asignó; el resto de hilos de la aplicación siguen escribiendo en la consola original.
+ */
+final class ScriptConsole {
+
+    private static final InheritableThreadLocal<OutputSink> TARGET = new InheritableThreadLocal<>();
+    private static RoutedStream out;
+    private static RoutedStream err;
+
+    private ScriptConsole() {
+    }
+
+    /**
+     * Sustituye System.out y System.err por flujos enrutados (solo la primera vez)
+     */
+    static synchronized void install() {
+        if (out != null) return;
+        out = new RoutedStream(System.out, "stdout");
+        err = new RoutedStream(System.err, "stderr");
+        System.setOut(new PrintStream(out, true, Charset.defaultCharset()));
+        System.setErr(new PrintStream(err, true, Charset.defaultCharset()));
+    }
+
+    /**
+     * Asigna el sink del hilo actual; los hilos hijos lo heredan
+     */
+    static void attach(OutputSink sink) {
+        TARGET.set(sink);
+    }
+
+    /**
+     * Libera el sink del hilo actual y vacía las líneas incompletas
+     */
+    static void detach() {
+        OutputSink sink = TARGET.get();
+        if (sink != null) {
+            out.emitPending(sink);
+            err.emitPending(sink);
+        }
+        TARGET.remove();
+    }
+
+    /**
+     * Flujo que acumula bytes por hilo y envía líneas completas al sink asignado
+     */
+    private static final class RoutedStream extends OutputStream {
+        private final PrintStream original;
+        private final String styleClass;
+        private final ThreadLocal<ByteArrayOutputStream> pending =
+            ThreadLocal.withInitial(ByteArrayOutputStream::new);
+
+        RoutedStream(PrintStream original, String styleClass) {
+            this.original = original;
+            this.styleClass = styleClass;
+        }
+
+        @Override
+        public void write(int b) {
+            OutputSink sink = TARGET.get();
+            if (sink == null) {
+                original.write(b);
+                return;
+            }
+            if (b == '\n') {
+                emit(sink);
+            } else {
+                pending.get().write(b);
+            }
+        }
+
+        @Override
+        public void write(byte[] bytes, int off, int len) {
+            OutputSink sink = TARGET.get();
+            if (sink == null) {
+                original.write(bytes, off, len);
+                return;
+            }
+            ByteArrayOutputStream buffer = pending.get();
+            int start = off;
+            for (int i = off; i < off + len; i++) {
+                if (bytes[i] == '\n') {
+                    buffer.write(bytes, start, i - start);
+                    emit(sink);
+                    start = i + 1;
+                }
+            }
+            buffer.write(bytes, start, off + len - start);
+        }
+
+        @Override
+        public void flush() {
+            // Las líneas se envían al encontrar '\n'; las incompletas esperan a detach()
+            if (TARGET.get() == null) {
+                original.flush();
+            }
+        }
+
+        void emitPending(OutputSink sink) {
+            if (pending.get().size() > 0) {
+                emit(sink);
+            }
+            pending.remove();
+        }
+
+        private void emit(OutputSink sink) {
+            ByteArrayOutputStream buffer = pending.get();
+            String line = buffer.toString(Charset.defaultCharset());
+            buffer.reset();
+            if (line.endsWith("\r")) {
+                line = line.substring(0, line.length() - 1);
+            }
+            sink.append(line, styleClass);
+        }
+    }
+}
@@ -0,0 +1,145 @@
+package com.ToTerminal.interpreter;
+
+import com.ToTerminal.ScriptReader.AvailableLanguage;
+import com.ToTerminal.ScriptReader.Script;
+import com.ToTerminal.ScriptReader.ScriptAvailabilityMonitor;
+import com.ToTerminal.ScriptReader.ScriptRegistry;
+import com.ToTerminal.utils.InternationalizationHelper;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Ejecuta los scripts registrados con el runtime correspondiente a su lenguaje.
+ * Los scripts Java (.java) se compilan y ejecutan dentro del proceso con
+ * {@link InProcessJavaRunner}, los scripts NodeJS se envían al {@link NodeWorkerPool} si está
+ * activo y el resto se lanzan con el {@link ProcessRunner}.
+ * Al terminar se informa del código de salida y del tiempo transcurrido.
+ */
+public class ScriptRunner {
+
+    private final TerminalSession session;
+    private final OutputSink output;
+    private final ProcessRunner processRunner;
+    private final InProcessJavaRunner javaRunner;
+    private final NodeWorkerPool nodePool = NodeWorkerPool.getInstance();
+    private final AtomicReference<CompletableFuture<Integer>> nodeExecution = new AtomicReference<>();
+
+    /**
+     * @param session sesión en cuya carpeta y salida se ejecutan los scripts
+     * @param processRunner ejecutor de procesos compartido con el intérprete
+     */
+    public ScriptRunner(TerminalSession session, ProcessRunner processRunner) {
+        this.session = session;
+        this.output = session.getOutput();
+        this.processRunner = processRunner;
+        this.javaRunner = new InProcessJavaRunner(output);
+    }
+
+    /**
+     * Busca un script por nombre y lo ejecuta
+     * @param scriptName nombre del script registrado
+     * @return futuro con el código de salida del script
+     */
+    public CompletableFuture<Integer> run(String scriptName) {
+        Script script = ScriptRegistry.getInstance().getScript(scriptName);
+        if (script == null) {
+            output.append(InternationalizationHelper.getText("main.commands.run.not_found", scriptName), "error");
+            return CompletableFuture.completedFuture(1);
+        }
+
+        File file = new File(script.getScriptPath());
+        if (!file.isFile()) {
+            ScriptAvailabilityMonitor.getInstance().refresh();
+            output.append(InternationalizationHelper.getText("main.commands.run.file_missing", file.getPath()), "error");
+            return CompletableFuture.completedFuture(1);
+        }
+        // Lenguaje desconocido o vacío en el registro guardado
+        if (script.getAvailableLanguage() == null) {
+            output.append(InternationalizationHelper.getText("main.commands.run.unknown_language",
+                script.getScriptName()), "error");
+            return CompletableFuture.completedFuture(1);
+        }
+
+        long start = System.nanoTime();
+        CompletableFuture<Integer> execution;
+        if (isJavaSource(script)) {
+            execution = javaRunner.run(file.toPath(), new String[0]);
+        } else if (isPooledNodeScript(script)) {
+            try {
+                CompletableFuture<Integer> node = nodePool.run(file.toPath(), List.of(),
+                    new File(session.getWorkingDirectory()), output);
+                nodeExecution.set(node);
+                execution = node.whenComplete((code, error) -> nodeExecution.compareAndSet(node, null));
+            } catch (IOException e) {
+                output.append(InternationalizationHelper.getText("main.commands.run.runtime_missing",
+                    "node", e.getMessage()), "error");
+                return CompletableFuture.completedFuture(127);
+            }
+        } else {
+            List<String> command = buildCommand(script);
+            try {
+                execution = processRunner.start(command, new File(session.getWorkingDirectory()));
+            } catch (IOException e) {
+                output.append(InternationalizationHelper.getText("main.commands.run.runtime_missing",
+                    command.get(0), e.getMessage()), "error");
+                return CompletableFuture.completedFuture(127);
+            }
+        }
+        return execution.whenComplete((code, error) -> {
+            long millis = (System.nanoTime() - start) / 1_000_000;
+            output.append(InternationalizationHelper.getText("main.commands.run.finished",
+                script.getScriptName(), code != null ? code : -1, millis), "info");
+        });
+    }
+
+    /**
+     * Indica si hay un script de esta sesión ejecutándose dentro del proceso o en el pool de NodeJS
+     */
+    public boolean isRunning() {
+        return javaRunner.isRunning() || nodeExecution.get() != null;
+    }
+
+    /**
+     * Cancela el script que se ejecuta dentro del proceso o en el pool de NodeJS
+     * @return true si había un script que cancelar
+     */
+    public boolean cancel() {
+        CompletableFuture<Integer> node = nodeExecution.get();
+        return javaRunner.cancel() | (node != null && nodePool.cancel(node));
+    }
+
+    private static boolean isJavaSource(Script script) {
+        return script.getAvailableLanguage() == AvailableLanguage.Java
+            && script.getScriptPath().endsWith(".java");
+    }
+
+    /**
+     * Los módulos ES (.mjs) no se pueden cargar con require, así que se ejecutan con un node nuevo
+     */
+    private boolean isPooledNodeScript(Script script) {
+        return script.getAvailableLanguage() == AvailableLanguage.NodeJS
+            && nodePool.isEnabled()
+            && !script.getScriptPath().endsWith(".mjs");
+    }
+
+    /**
+     * Construye la línea de comandos según el lenguaje del script
+     */
+    private List<String> buildCommand(Script script) {
+        String path = script.getScriptPath();
+        switch (script.getAvailableLanguage()) {
+            case NodeJS:
+                return List.of("node", path);
+            case Java:
+            default:
+                if (path.endsWith(".jar")) {
+                    return List.of("java", "-jar", path);
+                }
+                return List.of("java", path);
+        }
+    }
+}
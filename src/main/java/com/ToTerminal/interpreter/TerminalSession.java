@@ -0,0 +1,149 @@
+package com.ToTerminal.interpreter;
+
+import com.ToTerminal.models.CommandHistory;
+import com.ToTerminal.models.SessionHistory;
+import com.ToTerminal.models.TerminalOutputView;
+import com.ToTerminal.utils.Values;
+import javafx.application.Platform;
+import javafx.beans.property.ReadOnlyStringProperty;
+import javafx.beans.property.ReadOnlyStringWrapper;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Sesión de la terminal (una pestaña). Cada sesión tiene su propia carpeta de trabajo, variables
+ * de entorno, historial, salida e intérprete, así que un {@code cd} o un {@code export} en una no
+ * afecta a las demás y varias sesiones pueden ejecutar comandos a la vez.
+ *
+ * Los comandos WORKER de la sesión se ejecutan en su propio pool de hilos, que no conserva hilos
+ * cuando la sesión está inactiva.
+ */
+public final class TerminalSession {
+
+    private static final AtomicInteger NEXT_ID = new AtomicInteger(1);
+
+    private final int id = NEXT_ID.getAndIncrement();
+    private final Map<String, String> environment = new ConcurrentHashMap<>(System.getenv());
+    private final SessionHistory history = new SessionHistory(CommandHistory.getInstance());
+    private final ReadOnlyStringWrapper directoryProperty = new ReadOnlyStringWrapper();
+    private final ExecutorService executor;
+    private final OutputSink output;
+    private final Interpreter interpreter;
+    private volatile String workingDirectory;
+    private volatile Runnable closeHandler;
+
+    /**
+     * @param view vista donde se muestra la salida de la sesión
+     */
+    public TerminalSession(TerminalOutputView view) {
+        this.executor = Executors.newCachedThreadPool(r -> {
+            Thread t = new Thread(r, "session-" + id + "-worker");
+            t.setDaemon(true);
+            return t;
+        });
+        this.output = new OutputSink(view);
+        setWorkingDirectory(Values.DEFAULT_PATH);
+        this.interpreter = new Interpreter(this);
+    }
+
+    public int getId() {
+        return id;
+    }
+
+    /**
+     * Carpeta de trabajo actual (desde cualquier hilo)
+     */
+    public String getWorkingDirectory() {
+        return workingDirectory;
+    }
+
+    /**
+     * Cambia la carpeta de trabajo y la variable PWD
+     * @param directory ruta absoluta de una carpeta existente
+     */
+    public void setWorkingDirectory(String directory) {
+        workingDirectory = directory;
+        environment.put("PWD", directory);
+        if (Platform.isFxApplicationThread()) {
+            directoryProperty.set(directory);
+        } else {
+            Platform.runLater(() -> directoryProperty.set(directory));
+        }
+    }
+
+    /**
+     * Carpeta de trabajo para la interfaz; se actualiza en el hilo de JavaFX
+     */
+    public ReadOnlyStringProperty workingDirectoryProperty() {
+        return directoryProperty.getReadOnlyProperty();
+    }
+
+    /**
+     * Variables de entorno que reciben los procesos de la sesión; se pueden modificar
+     */
+    public Map<String, String> getEnvironment() {
+        return environment;
+    }
+
+    public SessionHistory getHistory() {
+        return history;
+    }
+
+    public OutputSink getOutput() {
+        return output;
+    }
+
+    public Interpreter getInterpreter() {
+        return interpreter;
+    }
+
+    /**
+     * Hilos de trabajo de la sesión
+     */
+    ExecutorService getExecutor() {
+        return executor;
+    }
+
+    /**
+     * Indica qué hacer cuando la sesión pide cerrarse (p. ej. con {@code exit})
+     */
+    public void setCloseHandler(Runnable closeHandler) {
+        this.closeHandler = closeHandler;
+    }
+
+    /**
+     * Pide a la interfaz que cierre la sesión; sin interfaz, cierra la aplicación
+     */
+    public void requestClose() {
+        Runnable handler = closeHandler;
+        if (handler == null) {
+            System.exit(0);
+        } else if (Platform.isFxApplicationThread()) {
+            handler.run();
+        } else {
+            Platform.runLater(handler);
+        }
+    }
+
+    /**
+     * Termina lo que sigue en ejecución en la sesión y libera sus hilos
+     */
+    public void close() {
+        interpreter.cancelRunningProcess();
+        interpreter.getJobs().close();
+        executor.shutdownNow();
+    }
+
+    /**
+     * Sustituye el entorno del proceso por el de la sesión
+     */
+    static void applyEnvironment(ProcessBuilder builder, Map<String, String> environment) {
+        Map<String, String> target = builder.environment();
+        target.clear();
+        target.putAll(environment);
+    }
+}
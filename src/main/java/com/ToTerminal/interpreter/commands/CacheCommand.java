@@ -0,0 +1,56 @@
+package com.ToTerminal.interpreter.commands;
+
+import com.ToTerminal.interpreter.BytecodeCache;
+import com.ToTerminal.interpreter.Command;
+import com.ToTerminal.interpreter.CommandContext;
+import com.ToTerminal.interpreter.JavaSourceCompiler;
+import com.ToTerminal.utils.InternationalizationHelper;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Muestra o vacía la caché de scripts Java compilados (cache stats | cache clear).
+ * Lee y borra archivos de la caché, así que se ejecuta fuera del hilo de JavaFX.
+ */
+public class CacheCommand implements Command {
+
+    @Override
+    public String getName() {
+        return "cache";
+    }
+
+    @Override
+    public String getDescription() {
+        return InternationalizationHelper.getText("main.commands.help.cache");
+    }
+
+    @Override
+    public ExecutionThread getExecutionThread() {
+        return ExecutionThread.WORKER;
+    }
+
+    @Override
+    public CompletableFuture<Integer> execute(CommandContext context, List<String> args) {
+        JavaSourceCompiler compiler = JavaSourceCompiler.getInstance();
+        String action = args.isEmpty() ? "" : args.get(0).toLowerCase(Locale.ROOT);
+        switch (action) {
+            case "stats":
+                BytecodeCache disk = compiler.getDiskCache();
+                context.print(InternationalizationHelper.getText("main.commands.cache.stats",
+                    disk.getEntryCount(), disk.getTotalBytes() / 1024, disk.getMaxBytes() / 1024,
+                    compiler.getCachedCount()), "output");
+                context.print(InternationalizationHelper.getText("main.commands.cache.hits",
+                    compiler.getMemoryHits(), compiler.getDiskHits(), compiler.getCompilations()), "output");
+                return CompletableFuture.completedFuture(0);
+            case "clear":
+                compiler.clearCache();
+                context.print(InternationalizationHelper.getText("main.commands.cache.cleared"), "info");
+                return CompletableFuture.completedFuture(0);
+            default:
+                context.print(InternationalizationHelper.getText("main.commands.cache.usage"), "error");
+                return CompletableFuture.completedFuture(1);
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package com.ToTerminal.interpreter.commands;
+
+import com.ToTerminal.interpreter.Command;
+import com.ToTerminal.interpreter.CommandContext;
+import com.ToTerminal.utils.InternationalizationHelper;
+import com.ToTerminal.utils.Values;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Cambia la carpeta de trabajo. Sin argumentos vuelve a la carpeta del usuario; las rutas
+ * relativas se resuelven desde la carpeta actual. En una tubería o en segundo plano solo comprueba
+ * la carpeta, como {@code cd} en una subshell.
+ */
+public class CdCommand implements Command {
+
+    @Override
+    public String getName() {
+        return "cd";
+    }
+
+    @Override
+    public String getDescription() {
+        return InternationalizationHelper.getText("main.commands.help.cd");
+    }
+
+    @Override
+    public CompletableFuture<Integer> execute(CommandContext context, List<String> args) {
+        String written = args.isEmpty() ? "~" : args.get(0);
+        String target = written;
+        if (target.equals("~") || target.startsWith("~/")) {
+            target = Values.DEFAULT_PATH + target.substring(1);
+        }
+        Path directory = Path.of(context.getWorkingDirectory()).resolve(target).normalize();
+        if (!Files.isDirectory(directory)) {
+            // Sin argumentos se muestra la carpeta del usuario, que no existe
+            context.print(InternationalizationHelper.getText("main.commands.cd.not_found",
+                args.isEmpty() ? target : written), "error");
+            return CompletableFuture.completedFuture(1);
+        }
+        String absolute = directory.toAbsolutePath().toString();
+        context.setWorkingDirectory(absolute);
+        context.print(absolute, "output");
+        return CompletableFuture.completedFuture(0);
+    }
+}
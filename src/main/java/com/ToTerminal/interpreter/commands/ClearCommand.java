@@ -0,0 +1,30 @@
+package com.ToTerminal.interpreter.commands;
+
+import com.ToTerminal.interpreter.Command;
+import com.ToTerminal.interpreter.CommandContext;
+import com.ToTerminal.utils.InternationalizationHelper;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Limpia la salida del terminal
+ */
+public class ClearCommand implements Command {
+
+    @Override
+    public String getName() {
+        return "clear";
+    }
+
+    @Override
+    public String getDescription() {
+        return InternationalizationHelper.getText("main.commands.help.clear");
+    }
+
+    @Override
+    public CompletableFuture<Integer> execute(CommandContext context, List<String> args) {
+        context.getTerminal().clear();
+        return CompletableFuture.completedFuture(0);
+    }
+}
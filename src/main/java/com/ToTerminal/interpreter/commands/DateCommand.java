@@ -0,0 +1,31 @@
+package com.ToTerminal.interpreter.commands;
+
+import com.ToTerminal.interpreter.Command;
+import com.ToTerminal.interpreter.CommandContext;
+import com.ToTerminal.utils.InternationalizationHelper;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Muestra la fecha y hora actual
+ */
+public class DateCommand implements Command {
+
+    @Override
+    public String getName() {
+        return "date";
+    }
+
+    @Override
+    public String getDescription() {
+        return InternationalizationHelper.getText("main.commands.help.date");
+    }
+
+    @Override
+    public CompletableFuture<Integer> execute(CommandContext context, List<String> args) {
+        context.print(LocalDateTime.now().toString(), "output");
+        return CompletableFuture.completedFuture(0);
+    }
+}
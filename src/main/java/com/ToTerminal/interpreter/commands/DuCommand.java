@@ -0,0 +1,114 @@
+package com.ToTerminal.interpreter.commands;
+
+import com.ToTerminal.interpreter.Command;
+import com.ToTerminal.interpreter.CommandContext;
+import com.ToTerminal.interpreter.commands.FileWalker.Entry;
+import com.ToTerminal.utils.InternationalizationHelper;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Muestra lo que ocupan las carpetas (du [-s] [-h] [ruta...]), en KB o, con -h, en la unidad más
+ * cómoda. Sin -s muestra cada subcarpeta en cuanto termina de recorrerla.
+ *
+ * El árbol se recorre en paralelo con todos los núcleos; Ctrl+C lo detiene a medio recorrido.
+ * Se suma el tamaño de los archivos, no los bloques que ocupan en disco.
+ */
+public class DuCommand implements Command {
+
+    private static final String[] UNITS = {"K", "M", "G", "T", "P"};
+
+    @Override
+    public String getName() {
+        return "du";
+    }
+
+    @Override
+    public String getDescription() {
+        return InternationalizationHelper.getText("main.commands.help.du");
+    }
+
+    @Override
+    public ExecutionThread getExecutionThread() {
+        return ExecutionThread.WORKER;
+    }
+
+    @Override
+    public CompletableFuture<Integer> execute(CommandContext context, List<String> args) {
+        boolean summary = false;
+        boolean human = false;
+        List<String> paths = new ArrayList<>();
+        for (String arg : args) {
+            if (arg.length() > 1 && arg.startsWith("-")) {
+                for (char option : arg.substring(1).toCharArray()) {
+                    switch (option) {
+                        case 's' -> summary = true;
+                        case 'h' -> human = true;
+                        default -> {
+                            context.print(InternationalizationHelper.getText("main.commands.files.invalid_option",
+                                getName(), "-" + option), "error");
+                            return CompletableFuture.completedFuture(2);
+                        }
+                    }
+                }
+            } else {
+                paths.add(arg);
+            }
+        }
+        if (paths.isEmpty()) {
+            paths.add(".");
+        }
+
+        FileWalker walker = new FileWalker(context, getName());
+        boolean onlyRoot = summary;
+        boolean humanReadable = human;
+        for (String path : paths) {
+            if (walker.isStopped()) break;
+            Entry root = walker.stat(FileWalker.resolve(context, path), path);
+            if (root == null) continue;
+            if (!root.isDirectory()) {
+                walker.print(format(root.getAttributes().size(), humanReadable) + "\t" + path);
+                continue;
+            }
+
+            Path rootPath = root.getPath();
+            Path shown = Path.of(path);
+            walker.walk(root, new FileWalker.Visitor() {
+                @Override
+                public boolean visit(Entry entry, int depth, List<String> out) {
+                    return true;
+                }
+
+                @Override
+                public void leave(Path directory, long size, int depth, List<String> out) {
+                    if (depth == 0 || !onlyRoot) {
+                        out.add(format(size, humanReadable) + "\t" + shown.resolve(rootPath.relativize(directory)));
+                    }
+                }
+            });
+        }
+        return CompletableFuture.completedFuture(walker.exitCode());
+    }
+
+    /**
+     * Tamaño en KB redondeado hacia arriba, como du, o con -h en la unidad más cómoda (1.5M, 12G)
+     */
+    private static String format(long bytes, boolean human) {
+        double size = Math.ceil(bytes / 1024.0);
+        if (!human) {
+            return String.valueOf((long) size);
+        }
+        int unit = 0;
+        while (size >= 1024 && unit < UNITS.length - 1) {
+            size /= 1024;
+            unit++;
+        }
+        return size < 10 && unit > 0
+            ? String.format(Locale.ROOT, "%.1f%s", size, UNITS[unit])
+            : String.format(Locale.ROOT, "%d%s", (long) Math.ceil(size), UNITS[unit]);
+    }
+}
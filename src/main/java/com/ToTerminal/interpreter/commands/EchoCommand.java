@@ -0,0 +1,30 @@
+package com.ToTerminal.interpreter.commands;
+
+import com.ToTerminal.interpreter.Command;
+import com.ToTerminal.interpreter.CommandContext;
+import com.ToTerminal.utils.InternationalizationHelper;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Repite sus argumentos separados por un espacio
+ */
+public class EchoCommand implements Command {
+
+    @Override
+    public String getName() {
+        return "echo";
+    }
+
+    @Override
+    public String getDescription() {
+        return InternationalizationHelper.getText("main.commands.help.echo");
+    }
+
+    @Override
+    public CompletableFuture<Integer> execute(CommandContext context, List<String> args) {
+        context.print(String.join(" ", args), "output");
+        return CompletableFuture.completedFuture(0);
+    }
+}
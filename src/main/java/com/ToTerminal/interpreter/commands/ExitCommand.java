@@ -0,0 +1,33 @@
+package com.ToTerminal.interpreter.commands;
+
+import com.ToTerminal.interpreter.Command;
+import com.ToTerminal.interpreter.CommandContext;
+import com.ToTerminal.utils.InternationalizationHelper;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Cierra la sesión; la aplicación se cierra con la última. En una tubería o en segundo plano no
+ * hace nada, como {@code exit} en una subshell.
+ */
+public class ExitCommand implements Command {
+
+    @Override
+    public String getName() {
+        return "exit";
+    }
+
+    @Override
+    public String getDescription() {
+        return InternationalizationHelper.getText("main.commands.help.exit");
+    }
+
+    @Override
+    public CompletableFuture<Integer> execute(CommandContext context, List<String> args) {
+        if (context.isStandalone()) {
+            context.getSession().requestClose();
+        }
+        return CompletableFuture.completedFuture(0);
+    }
+}
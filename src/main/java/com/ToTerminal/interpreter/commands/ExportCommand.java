@@ -0,0 +1,54 @@
+package com.ToTerminal.interpreter.commands;
+
+import com.ToTerminal.interpreter.Command;
+import com.ToTerminal.interpreter.CommandContext;
+import com.ToTerminal.utils.InternationalizationHelper;
+
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.regex.Pattern;
+
+/**
+ * Define variables de entorno de la sesión (export NOMBRE=valor); sin argumentos las lista.
+ * Las reciben los procesos que se lancen después desde la misma sesión.
+ */
+public class ExportCommand implements Command {
+
+    private static final Pattern NAME = Pattern.compile("[A-Za-z_][A-Za-z0-9_]*");
+
+    @Override
+    public String getName() {
+        return "export";
+    }
+
+    @Override
+    public String getDescription() {
+        return InternationalizationHelper.getText("main.commands.help.export");
+    }
+
+    @Override
+    public CompletableFuture<Integer> execute(CommandContext context, List<String> args) {
+        Map<String, String> environment = context.getSession().getEnvironment();
+        if (args.isEmpty()) {
+            for (Map.Entry<String, String> variable : new TreeMap<>(environment).entrySet()) {
+                if (!context.print(variable.getKey() + "=" + variable.getValue(), "output")) break;
+            }
+            return CompletableFuture.completedFuture(0);
+        }
+
+        int exitCode = 0;
+        for (String arg : args) {
+            int equals = arg.indexOf('=');
+            String name = equals < 0 ? arg : arg.substring(0, equals);
+            if (!NAME.matcher(name).matches()) {
+                context.print(InternationalizationHelper.getText("main.commands.export.invalid", arg), "error");
+                exitCode = 1;
+            } else if (equals >= 0) {
+                environment.put(name, arg.substring(equals + 1));
+            }
+        }
+        return CompletableFuture.completedFuture(exitCode);
+    }
+}
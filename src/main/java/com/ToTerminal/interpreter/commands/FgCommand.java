@@ -0,0 +1,39 @@
+package com.ToTerminal.interpreter.commands;
+
+import com.ToTerminal.interpreter.Command;
+import com.ToTerminal.interpreter.CommandContext;
+import com.ToTerminal.interpreter.Job;
+import com.ToTerminal.utils.InternationalizationHelper;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Pasa un trabajo a primer plano (fg [%n]) y espera a que termine; sin argumento, el último lanzado
+ */
+public class FgCommand implements Command {
+
+    @Override
+    public String getName() {
+        return "fg";
+    }
+
+    @Override
+    public String getDescription() {
+        return InternationalizationHelper.getText("main.commands.help.fg");
+    }
+
+    @Override
+    public CompletableFuture<Integer> execute(CommandContext context, List<String> args) {
+        String spec = args.isEmpty() ? null : args.get(0);
+        Job job = context.getInterpreter().getJobs().find(spec);
+        if (job == null) {
+            context.print(spec == null
+                ? InternationalizationHelper.getText("main.commands.jobs.no_current", getName())
+                : InternationalizationHelper.getText("main.commands.jobs.not_found", getName(), spec), "error");
+            return CompletableFuture.completedFuture(1);
+        }
+        context.print(job.getCommandLine(), "info");
+        return context.getInterpreter().foreground(job);
+    }
+}
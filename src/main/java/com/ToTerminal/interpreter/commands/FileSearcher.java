@@ -0,0 +1,403 @@
+package com.ToTerminal.interpreter.commands;
+
+import com.ToTerminal.utils.InternationalizationHelper;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.RecursiveTask;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Búsqueda de un patrón en archivos para grep.
+ *
+ * Los archivos grandes se proyectan en memoria con {@link FileChannel#map} y se parten en trozos
+ * de unos {@link #CHUNK_BYTES} que terminan en un salto de línea. Los trozos se buscan en paralelo
+ * en el pool de {@link FileWalker} y sus líneas se escriben en orden, así que la salida es la misma
+ * que la de una búsqueda secuencial. Como mucho se adelantan {@link #WINDOW} trozos para no
+ * acumular resultados en memoria. Los archivos pequeños se leen de una vez.
+ *
+ * Los patrones que solo pueden coincidir con texto ASCII ({@link #matchesOnBytes}) se buscan
+ * directamente sobre los bytes, cada byte como un carácter, sin decodificar el archivo; solo se
+ * decodifican las líneas que coinciden. Los demás patrones se buscan en el texto decodificado de
+ * cada trozo, para que {@code .} o {@code [^a]} coincidan con caracteres enteros y no con bytes.
+ */
+final class FileSearcher {
+
+    static final int CHUNK_BYTES = 8 << 20;
+    static final int WINDOW = 2 * FileWalker.PARALLELISM + 1;
+
+    private static final int READ_THRESHOLD = 256 << 10;
+    private static final int BINARY_PROBE = 8192;
+    private static final int FLAGS = Pattern.MULTILINE | Pattern.UNIX_LINES;
+
+    private final FileWalker walker;
+    private final Pattern pattern;
+    private final boolean onBytes;
+    private final boolean lineNumbers;
+    private final boolean countOnly;
+    private final Charset charset = Charset.defaultCharset();
+
+    /**
+     * @param expression expresión regular o, con literal, texto a buscar
+     * @throws java.util.regex.PatternSyntaxException si la expresión no es válida
+     */
+    FileSearcher(FileWalker walker, String expression, boolean literal, boolean ignoreCase,
+                 boolean lineNumbers, boolean countOnly) {
+        this.walker = walker;
+        this.onBytes = matchesOnBytes(expression, literal, ignoreCase);
+        this.pattern = compile(expression, literal, ignoreCase, !onBytes);
+        this.lineNumbers = lineNumbers;
+        this.countOnly = countOnly;
+    }
+
+    /**
+     * Indica si el patrón coincide igual con los bytes que con el texto decodificado: es ASCII y no
+     * tiene nada que pueda coincidir con un byte de un carácter multibyte, como {@code .}, las clases
+     * negadas, {@code \W}, {@code \S}, {@code \D}, las propiedades Unicode o los códigos de carácter.
+     * Ante la duda devuelve false y se busca en el texto decodificado.
+     */
+    static boolean matchesOnBytes(String expression, boolean literal, boolean ignoreCase) {
+        if (!expression.chars().allMatch(c -> c < 128)) return false;
+        // Sin distinguir mayúsculas, k y s también coinciden con el signo kelvin y la s larga
+        if (ignoreCase && expression.chars().anyMatch(c -> "kKsS".indexOf(c) >= 0)) return false;
+        if (literal) return true;
+
+        boolean inClass = false;
+        for (int i = 0; i < expression.length(); i++) {
+            char c = expression.charAt(i);
+            if (c == '\\' && i + 1 < expression.length()) {
+                char escaped = expression.charAt(++i);
+                if (escaped == 'Q') {
+                    // Texto literal hasta \E
+                    int end = expression.indexOf("\\E", i);
+                    if (end < 0) break;
+                    i = end + 1;
+                } else if ("WSDHVRXhvpPxu0N".indexOf(escaped) >= 0) {
+                    return false;
+                }
+            } else if (c == '[') {
+                if (i + 1 < expression.length() && expression.charAt(i + 1) == '^') return false;
+                inClass = true;
+            } else if (c == ']') {
+                inClass = false;
+            } else if (c == '.' && !inClass) {
+                return false;
+            } else if (c == '(' && expression.startsWith("(?", i)) {
+                // Los modificadores u y U hacen que las clases y las mayúsculas sigan Unicode
+                for (int j = i + 2; j < expression.length() && ":)".indexOf(expression.charAt(j)) < 0; j++) {
+                    if (expression.charAt(j) == 'u' || expression.charAt(j) == 'U') return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Compila el patrón para buscar línea a línea
+     * @param unicode si se compara texto decodificado (las mayúsculas no ASCII también se igualan)
+     */
+    static Pattern compile(String expression, boolean literal, boolean ignoreCase, boolean unicode) {
+        int flags = FLAGS;
+        if (ignoreCase) {
+            flags |= unicode ? Pattern.CASE_INSENSITIVE | Pattern.UNICODE_CASE : Pattern.CASE_INSENSITIVE;
+        }
+        return Pattern.compile(literal ? Pattern.quote(expression) : expression, flags);
+    }
+
+    /**
+     * Busca en un archivo y escribe las líneas que coinciden (salvo con -c)
+     * @param shownAs ruta tal como se muestra en los mensajes
+     * @param prefix texto delante de cada línea ("ruta:" o nada)
+     * @return número de líneas que coinciden (lo encontrado hasta parar si se detiene)
+     */
+    long search(Path file, String shownAs, String prefix) {
+        long count = 0;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size == 0) return 0;
+            boolean binary = isBinary(channel, size);
+
+            if (size <= READ_THRESHOLD) {
+                ByteBuffer bytes = ByteBuffer.allocate((int) size);
+                while (bytes.hasRemaining() && channel.read(bytes, bytes.position()) >= 0) {
+                    // Lee hasta llenar el buffer
+                }
+                bytes.flip();
+                Chunk chunk = scan(bytes, binary);
+                count = chunk.count;
+                print(chunk, 0, prefix, binary);
+            } else {
+                count = searchChunks(channel, size, prefix, binary);
+            }
+
+            if (binary && count > 0 && !countOnly) {
+                walker.print(InternationalizationHelper.getText("main.commands.grep.binary", shownAs));
+            }
+        } catch (IOException | UncheckedIOException e) {
+            walker.reportUnreadable(shownAs, e instanceof UncheckedIOException unchecked ? unchecked.getCause() : e);
+        }
+        return count;
+    }
+
+    /**
+     * Busca en los trozos de un archivo grande en paralelo y los escribe en orden
+     */
+    private long searchChunks(FileChannel channel, long size, String prefix, boolean binary) throws IOException {
+        List<Long> starts = boundaries(channel, size);
+        ArrayDeque<ChunkTask> pending = new ArrayDeque<>();
+        int next = 0;
+        long count = 0;
+        long lineBase = 0;
+        try {
+            while (next < starts.size() - 1 && pending.size() < WINDOW) {
+                pending.add(submit(channel, starts.get(next), starts.get(++next), binary));
+            }
+            while (!pending.isEmpty() && !walker.isStopped()) {
+                Chunk chunk = pending.poll().join();
+                if (next < starts.size() - 1) {
+                    pending.add(submit(channel, starts.get(next), starts.get(++next), binary));
+                }
+                count += chunk.count;
+                print(chunk, lineBase, prefix, binary);
+                lineBase += chunk.newlines;
+                // De un archivo binario solo interesa saber si coincide
+                if (binary && count > 0 && !countOnly) break;
+            }
+        } finally {
+            // Los trozos que no han empezado ya no hacen falta; los que están en marcha leen el
+            // canal, así que se espera a que terminen antes de cerrarlo
+            for (ChunkTask task : pending) {
+                task.cancel(false);
+            }
+            for (ChunkTask task : pending) {
+                if (!task.isCancelled()) {
+                    task.quietlyJoin();
+                }
+            }
+        }
+        return count;
+    }
+
+    private ChunkTask submit(FileChannel channel, long start, long end, boolean binary) {
+        ChunkTask task = new ChunkTask(channel, start, end, binary);
+        walker.execute(task);
+        return task;
+    }
+
+    /**
+     * Escribe las líneas de un trozo con sus números de línea
+     */
+    private void print(Chunk chunk, long lineBase, String prefix, boolean binary) {
+        if (countOnly || binary || chunk.lines.isEmpty()) return;
+        List<String> out = new ArrayList<>(chunk.lines.size());
+        for (int i = 0; i < chunk.lines.size(); i++) {
+            out.add(lineNumbers
+                ? prefix + (lineBase + chunk.lineNumbers.get(i) + 1) + ":" + chunk.lines.get(i)
+                : prefix + chunk.lines.get(i));
+        }
+        walker.print(out);
+    }
+
+    /**
+     * Busca en un trozo que empieza al principio de una línea
+     */
+    private Chunk scan(ByteBuffer bytes, boolean binary) {
+        CharSequence text = onBytes ? new ByteText(bytes, 0, bytes.remaining()) : charset.decode(bytes.duplicate());
+        Chunk chunk = new Chunk();
+        Matcher matcher = pattern.matcher(text);
+        int length = text.length();
+        int position = 0;
+        int counted = 0;
+        long line = 0;
+        while (position < length && !walker.isStopped()) {
+            matcher.region(position, length);
+            if (!matcher.find()) break;
+            int lineStart = matcher.start();
+            while (lineStart > position && text.charAt(lineStart - 1) != '\n') {
+                lineStart--;
+            }
+            int lineEnd = indexOfNewline(text, matcher.start(), length);
+            if (matcher.end() > lineEnd) {
+                // La coincidencia pasa a la línea siguiente (p. ej. con \s): solo vale otra dentro de la línea
+                matcher.region(lineStart, lineEnd);
+                if (!matcher.find()) {
+                    position = lineEnd + 1;
+                    continue;
+                }
+            }
+
+            chunk.count++;
+            if (binary && !countOnly) break;
+            if (lineNumbers) {
+                line += countNewlines(text, counted, lineStart);
+                counted = lineStart;
+            }
+            if (!countOnly) {
+                chunk.lineNumbers.add(line);
+                chunk.lines.add(lineText(bytes, text, lineStart, lineEnd));
+            }
+            position = lineEnd + 1;
+        }
+        if (lineNumbers) {
+            chunk.newlines = line + countNewlines(text, counted, length);
+        }
+        return chunk;
+    }
+
+    private String lineText(ByteBuffer bytes, CharSequence text, int start, int end) {
+        if (end > start && text.charAt(end - 1) == '\r') {
+            end--;
+        }
+        if (!onBytes) {
+            return text.subSequence(start, end).toString();
+        }
+        byte[] raw = new byte[end - start];
+        bytes.get(bytes.position() + start, raw);
+        return new String(raw, charset);
+    }
+
+    private static int indexOfNewline(CharSequence text, int from, int length) {
+        for (int i = from; i < length; i++) {
+            if (text.charAt(i) == '\n') return i;
+        }
+        return length;
+    }
+
+    private static long countNewlines(CharSequence text, int from, int to) {
+        long count = 0;
+        for (int i = from; i < to; i++) {
+            if (text.charAt(i) == '\n') count++;
+        }
+        return count;
+    }
+
+    /**
+     * Principio de cada trozo, justo detrás de un salto de línea, y el tamaño del archivo al final
+     */
+    private static List<Long> boundaries(FileChannel channel, long size) throws IOException {
+        List<Long> starts = new ArrayList<>();
+        starts.add(0L);
+        ByteBuffer probe = ByteBuffer.allocate(4096);
+        long start = 0;
+        while (size - start > CHUNK_BYTES) {
+            long newline = indexOfNewline(channel, start + CHUNK_BYTES - 1, size, probe);
+            // Un trozo no puede pasar de lo que admite FileChannel.map
+            long end = newline < 0 ? size : Math.min(newline + 1, start + Integer.MAX_VALUE);
+            if (end >= size) break;
+            starts.add(end);
+            start = end;
+        }
+        starts.add(size);
+        return starts;
+    }
+
+    private static long indexOfNewline(FileChannel channel, long from, long size, ByteBuffer probe) throws IOException {
+        long position = from;
+        while (position < size) {
+            probe.clear();
+            int read = channel.read(probe, position);
+            if (read <= 0) break;
+            for (int i = 0; i < read; i++) {
+                if (probe.get(i) == '\n') return position + i;
+            }
+            position += read;
+        }
+        return -1;
+    }
+
+    /**
+     * Un archivo con bytes nulos al principio se trata como binario, como hace grep
+     */
+    private static boolean isBinary(FileChannel channel, long size) throws IOException {
+        ByteBuffer probe = ByteBuffer.allocate((int) Math.min(BINARY_PROBE, size));
+        channel.read(probe, 0);
+        for (int i = 0; i < probe.position(); i++) {
+            if (probe.get(i) == 0) return true;
+        }
+        return false;
+    }
+
+    /**
+     * Resultado de un trozo: sus líneas, en qué línea del trozo está cada una y cuántas tiene
+     */
+    private static final class Chunk {
+        final List<String> lines = new ArrayList<>();
+        final List<Long> lineNumbers = new ArrayList<>();
+        long count;
+        long newlines;
+    }
+
+    /**
+     * Proyecta un trozo en memoria y busca en él
+     */
+    private final class ChunkTask extends RecursiveTask<Chunk> {
+        private final FileChannel channel;
+        private final long start;
+        private final long end;
+        private final boolean binary;
+
+        ChunkTask(FileChannel channel, long start, long end, boolean binary) {
+            this.channel = channel;
+            this.start = start;
+            this.end = end;
+            this.binary = binary;
+        }
+
+        @Override
+        protected Chunk compute() {
+            if (walker.isStopped()) return new Chunk();
+            try {
+                return scan(channel.map(FileChannel.MapMode.READ_ONLY, start, end - start), binary);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+
+    /**
+     * Bytes vistos como texto ISO-8859-1: cada byte es un carácter, sin copiar ni decodificar
+     */
+    private static final class ByteText implements CharSequence {
+        private final ByteBuffer bytes;
+        private final int base;
+        private final int length;
+
+        ByteText(ByteBuffer bytes, int offset, int length) {
+            this.bytes = bytes;
+            this.base = bytes.position() + offset;
+            this.length = length;
+        }
+
+        @Override
+        public int length() {
+            return length;
+        }
+
+        @Override
+        public char charAt(int index) {
+            return (char) (bytes.get(base + index) & 0xFF);
+        }
+
+        @Override
+        public CharSequence subSequence(int start, int end) {
+            return new ByteText(bytes, base - bytes.position() + start, end - start);
+        }
+
+        @Override
+        public String toString() {
+            byte[] raw = new byte[length];
+            bytes.get(base, raw);
+            return new String(raw, StandardCharsets.ISO_8859_1);
+        }
+    }
+}
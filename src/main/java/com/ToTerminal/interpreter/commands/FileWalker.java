@@ -0,0 +1,448 @@
+package com.ToTerminal.interpreter.commands;
+
+import com.ToTerminal.interpreter.CommandContext;
+import com.ToTerminal.utils.InternationalizationHelper;
+import com.ToTerminal.utils.Values;
+
+import java.io.IOException;
+import java.nio.file.AccessDeniedException;
+import java.nio.file.DirectoryIteratorException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.PosixFileAttributes;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Recorrido de carpetas en paralelo para ls, find, du, tree y grep.
+ *
+ * Cada carpeta se lee con un {@link DirectoryStream} en una tarea de un {@link ForkJoinPool} con
+ * un hilo por núcleo. Las subcarpetas se lanzan como subtareas que los hilos libres se roban, así
+ * que un árbol grande ocupa todos los núcleos. El recorrido para en cuanto el comando se cancela o
+ * su salida deja de aceptar líneas.
+ *
+ * Cada comando tiene su propio pool y los hilos del pool nunca escriben en la salida, que puede
+ * estar limitada o ser una tubería: dejan las líneas de cada carpeta en una cola de
+ * {@link #OUTPUT_BATCHES} tandas que escribe el hilo del comando mientras espera
+ * ({@link #await}). Si la salida va lenta, la cola se llena y solo esperan los hilos de este
+ * comando; los de otros comandos y pestañas siguen.
+ *
+ * Los enlaces simbólicos no se siguen. Los tamaños son los de los archivos, no los bloques que
+ * ocupan en disco.
+ */
+final class FileWalker {
+
+    /** Código de salida de un comando detenido con Ctrl+C (128 + SIGINT, como bash) */
+    static final int CANCELLED_EXIT_CODE = 130;
+
+    /** Hilos del pool de cada comando */
+    static final int PARALLELISM = Runtime.getRuntime().availableProcessors();
+
+    /** Carpetas que ls y tree leen por adelantado en cada nivel mientras muestran la actual */
+    static final int PREFETCH_WINDOW = PARALLELISM + 1;
+
+    /** Tandas de líneas que los hilos del pool pueden dejar pendientes de escribir */
+    static final int OUTPUT_BATCHES = 256;
+
+    // Los hilos terminan poco después de quedarse sin trabajo, así que el pool no se cierra
+    private static final long KEEP_ALIVE_MILLIS = 1000;
+    private static final long OFFER_MILLIS = 100;
+    private static final int SPARE_THREADS = 256;
+
+    // Despierta al hilo del comando cuando termina lo que espera
+    private static final Batch WAKE = new Batch(List.of(), null);
+
+    private static final boolean POSIX = FileSystems.getDefault().supportedFileAttributeViews().contains("posix");
+
+    private static final Comparator<Entry> BY_NAME = Comparator
+        .comparing(Entry::getName, String.CASE_INSENSITIVE_ORDER)
+        .thenComparing(Entry::getName);
+
+    /**
+     * Archivo o carpeta encontrado, con sus atributos
+     */
+    static final class Entry {
+        private final Path path;
+        private final BasicFileAttributes attributes;
+
+        Entry(Path path, BasicFileAttributes attributes) {
+            this.path = path;
+            this.attributes = attributes;
+        }
+
+        Path getPath() {
+            return path;
+        }
+
+        String getName() {
+            Path name = path.getFileName();
+            return name != null ? name.toString() : path.toString();
+        }
+
+        /**
+         * Atributos del propio archivo; son {@link PosixFileAttributes} si el sistema los admite
+         */
+        BasicFileAttributes getAttributes() {
+            return attributes;
+        }
+
+        boolean isDirectory() {
+            return attributes.isDirectory();
+        }
+
+        boolean isHidden() {
+            return getName().startsWith(".");
+        }
+    }
+
+    /**
+     * Lo que hace cada comando con las entradas de {@link #walk}. Se llama desde varios hilos a
+     * la vez, cada vez con la lista de líneas de una carpeta.
+     */
+    interface Visitor {
+
+        /**
+         * Entrada de una carpeta del árbol (la raíz no se visita)
+         * @param depth 1 para las entradas de la raíz
+         * @param out líneas a mostrar
+         * @return true para recorrer la entrada si es una carpeta
+         */
+        boolean visit(Entry entry, int depth, List<String> out);
+
+        /**
+         * Trabajo aparte para una entrada que no se recorre (p. ej. buscar en un archivo); se
+         * reparte entre los hilos igual que las subcarpetas
+         * @return la tarea o null si no hace falta
+         */
+        default ForkJoinTask<?> task(Entry entry, int depth) {
+            return null;
+        }
+
+        /**
+         * Carpeta recorrida entera, incluidas sus subcarpetas
+         * @param size bytes de la carpeta y de todo lo que contiene
+         * @param depth 0 para la raíz
+         */
+        default void leave(Path directory, long size, int depth, List<String> out) {
+        }
+    }
+
+    /**
+     * Líneas que un hilo del pool deja para que las escriba el hilo del comando
+     */
+    private static final class Batch {
+        final List<String> lines;
+        final String styleClass;
+
+        Batch(List<String> lines, String styleClass) {
+            this.lines = lines;
+            this.styleClass = styleClass;
+        }
+    }
+
+    private final CommandContext context;
+    private final String command;
+    private final Thread owner = Thread.currentThread();
+    private final ForkJoinPool pool;
+    private final BlockingQueue<Batch> output = new ArrayBlockingQueue<>(OUTPUT_BATCHES);
+    private final AtomicInteger errors = new AtomicInteger();
+    private volatile boolean stopped;
+
+    /**
+     * Se crea en el hilo del comando, que es el que escribe la salida
+     * @param command nombre del comando para los mensajes de error
+     */
+    FileWalker(CommandContext context, String command) {
+        this.context = context;
+        this.command = command;
+        // Como el pool común, con hilos de repuesto para las esperas en join(); si se acaban se sigue sin ellos
+        this.pool = new ForkJoinPool(PARALLELISM, pool -> {
+            ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+            thread.setName("file-walker-" + command + "-" + thread.getPoolIndex());
+            return thread;
+        }, null, false, 0, PARALLELISM + SPARE_THREADS, 1, pool -> true, KEEP_ALIVE_MILLIS, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Resuelve una ruta escrita por el usuario desde la carpeta de trabajo ({@code ~} es la del usuario)
+     */
+    static Path resolve(CommandContext context, String path) {
+        if (path.equals("~") || path.startsWith("~/")) {
+            path = Values.DEFAULT_PATH + path.substring(1);
+        }
+        return Path.of(context.getWorkingDirectory()).resolve(path).normalize();
+    }
+
+    /**
+     * Lee los atributos de una ruta sin seguir enlaces
+     * @return la entrada o null si no existe o no se puede leer (ya se ha informado)
+     */
+    Entry stat(Path path, String shownAs) {
+        try {
+            return new Entry(path, readAttributes(path));
+        } catch (NoSuchFileException e) {
+            reportError(InternationalizationHelper.getText("main.commands.files.not_found", command, shownAs));
+        } catch (IOException e) {
+            reportUnreadable(shownAs, e);
+        }
+        return null;
+    }
+
+    /**
+     * Recorre en paralelo el árbol bajo la carpeta y espera a que termine
+     * @return bytes de la carpeta y de todo lo que contiene (lo recorrido si se ha detenido)
+     */
+    long walk(Entry root, Visitor visitor) {
+        DirectoryTask task = new DirectoryTask(root.getPath(), root.getAttributes().size(), 0, visitor);
+        return await(CompletableFuture.supplyAsync(task::invoke, pool));
+    }
+
+    /**
+     * Lee una carpeta en el pool, para ir leyendo las siguientes mientras se muestra la actual
+     * @return futuro con las entradas ordenadas por nombre
+     */
+    CompletableFuture<List<Entry>> list(Path directory) {
+        return CompletableFuture.supplyAsync(() -> readDirectory(directory), pool);
+    }
+
+    /**
+     * Ejecuta un trabajo en el pool del comando
+     * @return futuro que se completa al terminar; se espera con {@link #await}
+     */
+    CompletableFuture<Void> submit(Runnable work) {
+        return CompletableFuture.runAsync(work, pool);
+    }
+
+    /**
+     * Lanza una tarea en el pool del comando sin esperarla
+     */
+    void execute(ForkJoinTask<?> task) {
+        pool.execute(task);
+    }
+
+    /**
+     * Espera un trabajo del pool desde el hilo del comando, escribiendo mientras tanto las líneas
+     * que dejan los hilos del pool
+     * @return el resultado del trabajo
+     */
+    <T> T await(CompletableFuture<T> work) {
+        work.whenComplete((result, error) -> output.offer(WAKE));
+        try {
+            // Si la cola está llena no cabe WAKE, pero entonces take() no espera
+            while (!work.isDone()) {
+                write(output.take());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            stopped = true;
+        }
+        writePending();
+        return work.join();
+    }
+
+    /**
+     * Lee una carpeta en este hilo
+     * @return las entradas ordenadas por nombre; vacía si no se puede leer (ya se ha informado)
+     */
+    List<Entry> readDirectory(Path directory) {
+        List<Entry> entries = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory)) {
+            for (Path path : stream) {
+                if (isStopped()) break;
+                try {
+                    entries.add(new Entry(path, readAttributes(path)));
+                } catch (IOException e) {
+                    reportUnreadable(path.toString(), e);
+                }
+            }
+        } catch (IOException | DirectoryIteratorException e) {
+            reportUnreadable(directory.toString(), e);
+        }
+        entries.sort(BY_NAME);
+        return entries;
+    }
+
+    /**
+     * Escribe las líneas seguidas en la salida del comando. Desde un hilo del pool solo las deja
+     * en la cola; si está llena espera a que el hilo del comando la vacíe.
+     * @return false si hay que dejar de recorrer
+     */
+    boolean print(List<String> lines) {
+        if (lines.isEmpty()) return !isStopped();
+        return send(new Batch(lines, "output"));
+    }
+
+    boolean print(String line) {
+        return print(List.of(line));
+    }
+
+    /**
+     * Indica si el comando se ha cancelado o su salida ya no acepta líneas
+     */
+    boolean isStopped() {
+        return stopped || context.isCancelled();
+    }
+
+    /**
+     * Código de salida del comando: 130 si se ha cancelado, 1 si alguna ruta no se pudo leer
+     */
+    int exitCode() {
+        if (context.isCancelled()) return CANCELLED_EXIT_CODE;
+        return hasErrors() ? 1 : 0;
+    }
+
+    /**
+     * Indica si alguna ruta no se pudo leer
+     */
+    boolean hasErrors() {
+        return errors.get() > 0;
+    }
+
+    /**
+     * Informa de una ruta que no se ha podido leer
+     */
+    void reportUnreadable(String path, Exception error) {
+        Throwable cause = error instanceof DirectoryIteratorException && error.getCause() != null ? error.getCause() : error;
+        String reason = cause instanceof AccessDeniedException
+            ? InternationalizationHelper.getText("main.commands.files.denied")
+            : cause.getClass().getSimpleName();
+        reportError(InternationalizationHelper.getText("main.commands.files.unreadable", command, path, reason));
+    }
+
+    /**
+     * Muestra un error del comando; el código de salida indicará que ha habido errores
+     */
+    void reportError(String message) {
+        errors.incrementAndGet();
+        if (!isStopped()) {
+            send(new Batch(List.of(message), "error"));
+        }
+    }
+
+    private boolean send(Batch batch) {
+        if (Thread.currentThread() == owner) {
+            writePending();
+            write(batch);
+            return !isStopped();
+        }
+        try {
+            while (!output.offer(batch, OFFER_MILLIS, TimeUnit.MILLISECONDS)) {
+                // El hilo del comando deja de vaciar la cola cuando se detiene
+                if (isStopped()) return false;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+        return !isStopped();
+    }
+
+    /**
+     * Escribe lo que hay en la cola sin esperar más (solo en el hilo del comando)
+     */
+    private void writePending() {
+        Batch batch;
+        while ((batch = output.poll()) != null) {
+            write(batch);
+        }
+    }
+
+    private void write(Batch batch) {
+        if (batch == WAKE || isStopped()) return;
+        for (String line : batch.lines) {
+            if (!context.print(line, batch.styleClass)) {
+                stopped = true;
+                return;
+            }
+        }
+    }
+
+    private static BasicFileAttributes readAttributes(Path path) throws IOException {
+        return POSIX
+            ? Files.readAttributes(path, PosixFileAttributes.class, LinkOption.NOFOLLOW_LINKS)
+            : Files.readAttributes(path, BasicFileAttributes.class, LinkOption.NOFOLLOW_LINKS);
+    }
+
+    /**
+     * Lee una carpeta, lanza sus subcarpetas como subtareas y suma los tamaños
+     */
+    private final class DirectoryTask extends RecursiveTask<Long> {
+        private final Path directory;
+        private final long ownSize;
+        private final int depth;
+        private final Visitor visitor;
+
+        DirectoryTask(Path directory, long ownSize, int depth, Visitor visitor) {
+            this.directory = directory;
+            this.ownSize = ownSize;
+            this.depth = depth;
+            this.visitor = visitor;
+        }
+
+        @Override
+        protected Long compute() {
+            if (isStopped()) return ownSize;
+            long size = ownSize;
+            List<String> out = new ArrayList<>();
+            List<DirectoryTask> subtasks = new ArrayList<>();
+            List<ForkJoinTask<?>> work = new ArrayList<>();
+            try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory)) {
+                for (Path path : stream) {
+                    if (isStopped()) break;
+                    BasicFileAttributes attributes;
+                    try {
+                        attributes = readAttributes(path);
+                    } catch (IOException e) {
+                        reportUnreadable(path.toString(), e);
+                        continue;
+                    }
+                    Entry entry = new Entry(path, attributes);
+                    if (visitor.visit(entry, depth + 1, out) && attributes.isDirectory()) {
+                        DirectoryTask subtask = new DirectoryTask(path, attributes.size(), depth + 1, visitor);
+                        subtask.fork();
+                        subtasks.add(subtask);
+                    } else {
+                        size += attributes.size();
+                        ForkJoinTask<?> task = visitor.task(entry, depth + 1);
+                        if (task != null) {
+                            task.fork();
+                            work.add(task);
+                        }
+                    }
+                }
+            } catch (IOException | DirectoryIteratorException e) {
+                reportUnreadable(directory.toString(), e);
+            }
+            print(out);
+
+            // Las últimas en lanzarse son las primeras que se pueden recoger sin esperar
+            for (int i = subtasks.size() - 1; i >= 0; i--) {
+                size += subtasks.get(i).join();
+            }
+            for (int i = work.size() - 1; i >= 0; i--) {
+                work.get(i).join();
+            }
+            if (!isStopped()) {
+                List<String> after = new ArrayList<>(1);
+                visitor.leave(directory, size, depth, after);
+                print(after);
+            }
+            return size;
+        }
+    }
+}
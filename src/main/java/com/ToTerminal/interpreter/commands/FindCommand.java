@@ -0,0 +1,164 @@
+package com.ToTerminal.interpreter.commands;
+
+import com.ToTerminal.interpreter.Command;
+import com.ToTerminal.interpreter.CommandContext;
+import com.ToTerminal.interpreter.commands.FileWalker.Entry;
+import com.ToTerminal.utils.InternationalizationHelper;
+
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.regex.Pattern;
+
+/**
+ * Busca archivos por nombre y tipo (find [ruta...] [-name patrón] [-iname patrón] [-type f|d|l]
+ * [-maxdepth n]). Los patrones admiten *, ? y [...].
+ *
+ * Las carpetas se recorren en paralelo y cada una se muestra en cuanto se ha leído, así que el
+ * orden de los resultados puede variar entre ejecuciones.
+ */
+public class FindCommand implements Command {
+
+    @Override
+    public String getName() {
+        return "find";
+    }
+
+    @Override
+    public String getDescription() {
+        return InternationalizationHelper.getText("main.commands.help.find");
+    }
+
+    @Override
+    public ExecutionThread getExecutionThread() {
+        return ExecutionThread.WORKER;
+    }
+
+    @Override
+    public CompletableFuture<Integer> execute(CommandContext context, List<String> args) {
+        List<String> paths = new ArrayList<>();
+        Pattern name = null;
+        char type = 0;
+        int maxDepth = Integer.MAX_VALUE;
+
+        int i = 0;
+        while (i < args.size() && !args.get(i).startsWith("-")) {
+            paths.add(args.get(i++));
+        }
+        try {
+            while (i < args.size()) {
+                String option = args.get(i++);
+                if (i >= args.size()) {
+                    return usage(context);
+                }
+                String value = args.get(i++);
+                switch (option) {
+                    case "-name" -> name = globToPattern(value, false);
+                    case "-iname" -> name = globToPattern(value, true);
+                    case "-type" -> {
+                        if (!value.matches("[fdl]")) {
+                            return usage(context);
+                        }
+                        type = value.charAt(0);
+                    }
+                    case "-maxdepth" -> maxDepth = Integer.parseInt(value);
+                    default -> {
+                        context.print(InternationalizationHelper.getText("main.commands.files.invalid_option",
+                            getName(), option), "error");
+                        return usage(context);
+                    }
+                }
+            }
+        } catch (NumberFormatException e) {
+            return usage(context);
+        }
+        if (paths.isEmpty()) {
+            paths.add(".");
+        }
+
+        FileWalker walker = new FileWalker(context, getName());
+        Filter filter = new Filter(name, type);
+        for (String path : paths) {
+            if (walker.isStopped()) break;
+            Entry root = walker.stat(FileWalker.resolve(context, path), path);
+            if (root == null) continue;
+            if (filter.matches(root) && !walker.print(path)) break;
+            if (!root.isDirectory() || maxDepth <= 0) continue;
+
+            Path rootPath = root.getPath();
+            Path shown = Path.of(path);
+            int limit = maxDepth;
+            walker.walk(root, (entry, depth, out) -> {
+                if (filter.matches(entry)) {
+                    out.add(shown.resolve(rootPath.relativize(entry.getPath())).toString());
+                }
+                return depth < limit;
+            });
+        }
+        return CompletableFuture.completedFuture(walker.exitCode());
+    }
+
+    private CompletableFuture<Integer> usage(CommandContext context) {
+        context.print(InternationalizationHelper.getText("main.commands.find.usage"), "error");
+        return CompletableFuture.completedFuture(2);
+    }
+
+    /**
+     * Convierte un patrón de nombres de archivo (*, ?, [...]) en una expresión regular
+     */
+    private static Pattern globToPattern(String glob, boolean ignoreCase) {
+        StringBuilder regex = new StringBuilder();
+        boolean inClass = false;
+        for (int i = 0; i < glob.length(); i++) {
+            char c = glob.charAt(i);
+            if (inClass) {
+                if (c == ']') {
+                    inClass = false;
+                } else if (c == '\\') {
+                    regex.append('\\');
+                }
+                regex.append(c);
+            } else if (c == '*') {
+                regex.append(".*");
+            } else if (c == '?') {
+                regex.append('.');
+            } else if (c == '[' && glob.indexOf(']', i + 2) > 0) {
+                inClass = true;
+                regex.append('[');
+                if (i + 1 < glob.length() && glob.charAt(i + 1) == '!') {
+                    regex.append('^');
+                    i++;
+                }
+            } else {
+                if ("\\.[]{}()<>+-=!^$|".indexOf(c) >= 0) {
+                    regex.append('\\');
+                }
+                regex.append(c);
+            }
+        }
+        return Pattern.compile(regex.toString(), ignoreCase ? Pattern.CASE_INSENSITIVE | Pattern.UNICODE_CASE : 0);
+    }
+
+    /**
+     * Condiciones de -name/-iname y -type
+     */
+    private static final class Filter {
+        private final Pattern name;
+        private final char type;
+
+        Filter(Pattern name, char type) {
+            this.name = name;
+            this.type = type;
+        }
+
+        boolean matches(Entry entry) {
+            BasicFileAttributes attributes = entry.getAttributes();
+            if (type == 'f' && !attributes.isRegularFile()) return false;
+            if (type == 'd' && !attributes.isDirectory()) return false;
+            if (type == 'l' && !attributes.isSymbolicLink()) return false;
+            return name == null || name.matcher(entry.getName()).matches();
+        }
+    }
+}
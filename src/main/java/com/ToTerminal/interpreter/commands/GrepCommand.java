@@ -0,0 +1,197 @@
+package com.ToTerminal.interpreter.commands;
+
+import com.ToTerminal.interpreter.Command;
+import com.ToTerminal.interpreter.CommandContext;
+import com.ToTerminal.interpreter.LineSource;
+import com.ToTerminal.interpreter.commands.FileWalker.Entry;
+import com.ToTerminal.utils.InternationalizationHelper;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+
+/**
+ * Busca líneas que coinciden con un patrón (grep [-r] [-i] [-n] [-c] [-F] patrón [ruta...]).
+ * El patrón es una expresión regular de Java o, con -F, un texto literal. Sin rutas lee la
+ * entrada de la tubería; con -r y sin rutas busca en la carpeta actual.
+ *
+ * Cada archivo se busca con un {@link FileSearcher}. Con varios archivos o con -r, cada uno es una
+ * tarea del pool de robo de trabajo de {@link FileWalker}, así que sus resultados pueden salir en
+ * cualquier orden; las líneas de un mismo archivo salen siempre en orden. Todo se busca en el pool,
+ * y el hilo del comando solo escribe lo encontrado.
+ *
+ * Código de salida: 0 si alguna línea coincide, 1 si ninguna y 2 si hubo errores, como grep.
+ */
+public class GrepCommand implements Command {
+
+    @Override
+    public String getName() {
+        return "grep";
+    }
+
+    @Override
+    public String getDescription() {
+        return InternationalizationHelper.getText("main.commands.help.grep");
+    }
+
+    @Override
+    public ExecutionThread getExecutionThread() {
+        return ExecutionThread.WORKER;
+    }
+
+    @Override
+    public CompletableFuture<Integer> execute(CommandContext context, List<String> args) throws InterruptedException {
+        boolean recursive = false;
+        boolean ignoreCase = false;
+        boolean lineNumbers = false;
+        boolean countOnly = false;
+        boolean literal = false;
+        String expression = null;
+        List<String> paths = new ArrayList<>();
+        boolean options = true;
+        for (String arg : args) {
+            if (options && arg.equals("--")) {
+                options = false;
+            } else if (options && arg.length() > 1 && arg.startsWith("-")) {
+                for (char option : arg.substring(1).toCharArray()) {
+                    switch (option) {
+                        case 'r', 'R' -> recursive = true;
+                        case 'i' -> ignoreCase = true;
+                        case 'n' -> lineNumbers = true;
+                        case 'c' -> countOnly = true;
+                        case 'F' -> literal = true;
+                        default -> {
+                            context.print(InternationalizationHelper.getText("main.commands.files.invalid_option",
+                                getName(), "-" + option), "error");
+                            return usage(context);
+                        }
+                    }
+                }
+            } else if (expression == null) {
+                expression = arg;
+            } else {
+                paths.add(arg);
+            }
+        }
+        if (expression == null) {
+            return usage(context);
+        }
+
+        FileWalker walker = new FileWalker(context, getName());
+        FileSearcher searcher;
+        try {
+            searcher = new FileSearcher(walker, expression, literal, ignoreCase, lineNumbers, countOnly);
+        } catch (PatternSyntaxException e) {
+            context.print(InternationalizationHelper.getText("main.commands.grep.invalid_pattern",
+                e.getDescription(), e.getPattern()), "error");
+            return CompletableFuture.completedFuture(2);
+        }
+
+        long matches;
+        if (paths.isEmpty() && !recursive) {
+            matches = searchInput(context, walker, FileSearcher.compile(expression, literal, ignoreCase, true),
+                lineNumbers, countOnly);
+        } else {
+            if (paths.isEmpty()) {
+                paths.add(".");
+            }
+            matches = searchFiles(context, walker, searcher, paths, recursive, countOnly);
+        }
+
+        if (context.isCancelled()) {
+            return CompletableFuture.completedFuture(FileWalker.CANCELLED_EXIT_CODE);
+        }
+        return CompletableFuture.completedFuture(walker.hasErrors() ? 2 : matches > 0 ? 0 : 1);
+    }
+
+    private CompletableFuture<Integer> usage(CommandContext context) {
+        context.print(InternationalizationHelper.getText("main.commands.grep.usage"), "error");
+        return CompletableFuture.completedFuture(2);
+    }
+
+    /**
+     * Busca en las líneas que llegan por la tubería
+     * @return número de líneas que coinciden
+     */
+    private long searchInput(CommandContext context, FileWalker walker, Pattern pattern,
+                             boolean lineNumbers, boolean countOnly) throws InterruptedException {
+        LineSource input = context.getInput();
+        Matcher matcher = pattern.matcher("");
+        long count = 0;
+        long number = 0;
+        String line;
+        while ((line = input.readLine()) != null) {
+            number++;
+            if (!matcher.reset(line).find()) continue;
+            count++;
+            if (!countOnly && !walker.print(lineNumbers ? number + ":" + line : line)) {
+                // Quien lee la salida ha terminado: se deja de leer la entrada
+                input.close();
+                break;
+            }
+        }
+        if (countOnly) {
+            walker.print(String.valueOf(count));
+        }
+        return count;
+    }
+
+    /**
+     * Busca en los archivos y, con -r, en todo lo que hay debajo de las carpetas
+     * @return número de líneas que coinciden
+     */
+    private long searchFiles(CommandContext context, FileWalker walker, FileSearcher searcher,
+                             List<String> paths, boolean recursive, boolean countOnly) {
+        boolean prefixed = recursive || paths.size() > 1;
+        AtomicLong matches = new AtomicLong();
+        List<CompletableFuture<Void>> tasks = new ArrayList<>();
+        for (String path : paths) {
+            if (walker.isStopped()) break;
+            Entry entry = walker.stat(FileWalker.resolve(context, path), path);
+            if (entry == null) continue;
+
+            if (!entry.isDirectory()) {
+                tasks.add(walker.submit(() -> searchFile(walker, searcher, entry.getPath(), path,
+                    prefixed, countOnly, matches)));
+            } else if (!recursive) {
+                walker.reportError(InternationalizationHelper.getText("main.commands.grep.is_directory", path));
+            } else {
+                Path root = entry.getPath();
+                Path shown = Path.of(path);
+                // Cada archivo es una tarea más del recorrido, que se reparten los hilos del pool
+                walker.walk(entry, new FileWalker.Visitor() {
+                    @Override
+                    public boolean visit(Entry child, int depth, List<String> out) {
+                        return true;
+                    }
+
+                    @Override
+                    public ForkJoinTask<?> task(Entry child, int depth) {
+                        if (!child.getAttributes().isRegularFile()) return null;
+                        String shownAs = shown.resolve(root.relativize(child.getPath())).toString();
+                        return ForkJoinTask.adapt(() -> searchFile(walker, searcher, child.getPath(), shownAs,
+                            true, countOnly, matches));
+                    }
+                });
+            }
+        }
+        walker.await(CompletableFuture.allOf(tasks.toArray(new CompletableFuture<?>[0])));
+        return matches.get();
+    }
+
+    private static void searchFile(FileWalker walker, FileSearcher searcher, Path file, String shownAs,
+                                   boolean prefixed, boolean countOnly, AtomicLong matches) {
+        if (walker.isStopped()) return;
+        long count = searcher.search(file, shownAs, prefixed ? shownAs + ":" : "");
+        matches.addAndGet(count);
+        if (countOnly && !walker.isStopped()) {
+            walker.print(prefixed ? shownAs + ":" + count : String.valueOf(count));
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package com.ToTerminal.interpreter.commands;
+
+import com.ToTerminal.interpreter.Command;
+import com.ToTerminal.interpreter.CommandContext;
+import com.ToTerminal.utils.InternationalizationHelper;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Muestra los comandos registrados con su descripción
+ */
+public class HelpCommand implements Command {
+
+    @Override
+    public String getName() {
+        return "help";
+    }
+
+    @Override
+    public String getDescription() {
+        return InternationalizationHelper.getText("main.commands.help.help");
+    }
+
+    @Override
+    public CompletableFuture<Integer> execute(CommandContext context, List<String> args) {
+        List<Command> commands = context.getInterpreter().getRegistry().getCommands();
+        int width = 0;
+        for (Command command : commands) {
+            width = Math.max(width, command.getName().length());
+        }
+        context.print(InternationalizationHelper.getText("main.commands.help.title"), "info");
+        for (Command command : commands) {
+            context.print(String.format("  %-" + width + "s - %s", command.getName(), command.getDescription()), "output");
+        }
+        return CompletableFuture.completedFuture(0);
+    }
+}
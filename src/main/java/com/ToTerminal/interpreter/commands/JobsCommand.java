@@ -0,0 +1,36 @@
+package com.ToTerminal.interpreter.commands;
+
+import com.ToTerminal.interpreter.Command;
+import com.ToTerminal.interpreter.CommandContext;
+import com.ToTerminal.interpreter.Job;
+import com.ToTerminal.utils.InternationalizationHelper;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Lista los trabajos en segundo plano que siguen en ejecución
+ */
+public class JobsCommand implements Command {
+
+    @Override
+    public String getName() {
+        return "jobs";
+    }
+
+    @Override
+    public String getDescription() {
+        return InternationalizationHelper.getText("main.commands.help.jobs");
+    }
+
+    @Override
+    public CompletableFuture<Integer> execute(CommandContext context, List<String> args) {
+        for (Job job : context.getInterpreter().getJobs().getJobs()) {
+            if (!context.print(InternationalizationHelper.getText("main.commands.jobs.running",
+                    job.getId(), job.getCommandLine()), "output")) {
+                break;
+            }
+        }
+        return CompletableFuture.completedFuture(0);
+    }
+}
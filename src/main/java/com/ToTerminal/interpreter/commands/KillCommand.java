@@ -0,0 +1,65 @@
+package com.ToTerminal.interpreter.commands;
+
+import com.ToTerminal.interpreter.Command;
+import com.ToTerminal.interpreter.CommandContext;
+import com.ToTerminal.interpreter.Job;
+import com.ToTerminal.utils.InternationalizationHelper;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Termina trabajos ({@code kill %n}) o procesos del sistema ({@code kill pid}).
+ * Con {@code -9} los procesos se terminan a la fuerza.
+ */
+public class KillCommand implements Command {
+
+    @Override
+    public String getName() {
+        return "kill";
+    }
+
+    @Override
+    public String getDescription() {
+        return InternationalizationHelper.getText("main.commands.help.kill");
+    }
+
+    @Override
+    public CompletableFuture<Integer> execute(CommandContext context, List<String> args) {
+        boolean force = !args.isEmpty() && (args.get(0).equals("-9") || args.get(0).equalsIgnoreCase("-KILL"));
+        List<String> targets = force ? args.subList(1, args.size()) : args;
+        if (targets.isEmpty()) {
+            context.print(InternationalizationHelper.getText("main.commands.kill.usage"), "error");
+            return CompletableFuture.completedFuture(2);
+        }
+
+        int exitCode = 0;
+        for (String target : targets) {
+            if (target.startsWith("%")) {
+                Job job = context.getInterpreter().getJobs().find(target);
+                if (job == null || !job.kill()) {
+                    context.print(InternationalizationHelper.getText("main.commands.jobs.not_found", getName(), target), "error");
+                    exitCode = 1;
+                }
+            } else if (!killProcess(target, force)) {
+                context.print(InternationalizationHelper.getText("main.commands.kill.no_process", target), "error");
+                exitCode = 1;
+            }
+        }
+        return CompletableFuture.completedFuture(exitCode);
+    }
+
+    private static boolean killProcess(String target, boolean force) {
+        Optional<ProcessHandle> process;
+        try {
+            process = ProcessHandle.of(Long.parseLong(target));
+        } catch (NumberFormatException e) {
+            return false;
+        }
+        if (process.isEmpty()) {
+            return false;
+        }
+        return force ? process.get().destroyForcibly() : process.get().destroy();
+    }
+}
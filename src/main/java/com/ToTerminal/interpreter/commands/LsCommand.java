@@ -0,0 +1,190 @@
+package com.ToTerminal.interpreter.commands;
+
+import com.ToTerminal.interpreter.Command;
+import com.ToTerminal.interpreter.CommandContext;
+import com.ToTerminal.interpreter.commands.FileWalker.Entry;
+import com.ToTerminal.utils.InternationalizationHelper;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.PosixFileAttributes;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Lista el contenido de carpetas (ls [-a] [-l] [-R] [ruta...]).
+ * Con -R las subcarpetas se leen en paralelo mientras se muestra la carpeta actual, y el
+ * resultado sale en el mismo orden que con un recorrido normal.
+ */
+public class LsCommand implements Command {
+
+    private static final DateTimeFormatter DATE = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm")
+        .withZone(ZoneId.systemDefault());
+
+    @Override
+    public String getName() {
+        return "ls";
+    }
+
+    @Override
+    public String getDescription() {
+        return InternationalizationHelper.getText("main.commands.help.ls");
+    }
+
+    @Override
+    public ExecutionThread getExecutionThread() {
+        return ExecutionThread.WORKER;
+    }
+
+    @Override
+    public CompletableFuture<Integer> execute(CommandContext context, List<String> args) {
+        boolean all = false;
+        boolean longFormat = false;
+        boolean recursive = false;
+        List<String> paths = new ArrayList<>();
+        for (String arg : args) {
+            if (arg.length() > 1 && arg.startsWith("-")) {
+                for (char option : arg.substring(1).toCharArray()) {
+                    switch (option) {
+                        case 'a' -> all = true;
+                        case 'l' -> longFormat = true;
+                        case 'R' -> recursive = true;
+                        default -> {
+                            context.print(InternationalizationHelper.getText("main.commands.files.invalid_option",
+                                getName(), "-" + option), "error");
+                            return CompletableFuture.completedFuture(2);
+                        }
+                    }
+                }
+            } else {
+                paths.add(arg);
+            }
+        }
+        if (paths.isEmpty()) {
+            paths.add(".");
+        }
+
+        FileWalker walker = new FileWalker(context, getName());
+        Listing listing = new Listing(walker, all, longFormat, recursive);
+
+        // Primero los archivos sueltos y después las carpetas, como ls
+        List<Entry> directories = new ArrayList<>();
+        List<String> directoryNames = new ArrayList<>();
+        List<String> files = new ArrayList<>();
+        for (String path : paths) {
+            Entry entry = walker.stat(FileWalker.resolve(context, path), path);
+            if (entry == null) continue;
+            if (entry.isDirectory()) {
+                directories.add(entry);
+                directoryNames.add(path);
+            } else {
+                files.add(listing.format(entry, path));
+            }
+        }
+        walker.print(files);
+
+        boolean headers = recursive || paths.size() > 1;
+        for (int i = 0; i < directories.size() && !walker.isStopped(); i++) {
+            if (headers && (i > 0 || !files.isEmpty())) {
+                walker.print("");
+            }
+            listing.show(directoryNames.get(i), headers,
+                walker.list(directories.get(i).getPath()));
+        }
+        return CompletableFuture.completedFuture(walker.exitCode());
+    }
+
+    /**
+     * Opciones de una ejecución de ls
+     */
+    private static final class Listing {
+        private final FileWalker walker;
+        private final boolean all;
+        private final boolean longFormat;
+        private final boolean recursive;
+
+        Listing(FileWalker walker, boolean all, boolean longFormat, boolean recursive) {
+            this.walker = walker;
+            this.all = all;
+            this.longFormat = longFormat;
+            this.recursive = recursive;
+        }
+
+        /**
+         * Muestra una carpeta y, con -R, sus subcarpetas en orden
+         * @param entries futuro con el contenido de la carpeta, ya pedido al pool
+         */
+        void show(String shownAs, boolean header, CompletableFuture<List<Entry>> entries) {
+            List<Entry> visible = new ArrayList<>();
+            for (Entry entry : walker.await(entries)) {
+                if (all || !entry.isHidden()) {
+                    visible.add(entry);
+                }
+            }
+
+            // Se piden ya las primeras subcarpetas para que se lean mientras se muestra esta
+            List<Entry> subdirectories = new ArrayList<>();
+            if (recursive) {
+                for (Entry entry : visible) {
+                    if (entry.isDirectory()) {
+                        subdirectories.add(entry);
+                    }
+                }
+            }
+            ArrayDeque<CompletableFuture<List<Entry>>> pending = new ArrayDeque<>();
+            int next = 0;
+            while (next < subdirectories.size() && pending.size() < FileWalker.PREFETCH_WINDOW) {
+                pending.add(walker.list(subdirectories.get(next++).getPath()));
+            }
+
+            List<String> lines = new ArrayList<>(visible.size() + 1);
+            if (header) {
+                lines.add(shownAs + ":");
+            }
+            for (Entry entry : visible) {
+                lines.add(format(entry, entry.getName()));
+            }
+            if (!walker.print(lines)) return;
+
+            for (int i = 0; i < subdirectories.size() && !walker.isStopped(); i++) {
+                walker.print("");
+                CompletableFuture<List<Entry>> contents = pending.poll();
+                if (next < subdirectories.size()) {
+                    pending.add(walker.list(subdirectories.get(next++).getPath()));
+                }
+                Entry subdirectory = subdirectories.get(i);
+                show(Path.of(shownAs).resolve(subdirectory.getName()).toString(), true, contents);
+            }
+        }
+
+        String format(Entry entry, String name) {
+            if (!longFormat) {
+                return name;
+            }
+            BasicFileAttributes attributes = entry.getAttributes();
+            StringBuilder line = new StringBuilder();
+            line.append(attributes.isDirectory() ? 'd' : attributes.isSymbolicLink() ? 'l' : '-');
+            if (attributes instanceof PosixFileAttributes posix) {
+                line.append(PosixFilePermissions.toString(posix.permissions()));
+            }
+            line.append(String.format(" %12d ", attributes.size()));
+            line.append(DATE.format(attributes.lastModifiedTime().toInstant()));
+            line.append(' ').append(name);
+            if (attributes.isSymbolicLink()) {
+                try {
+                    line.append(" -> ").append(Files.readSymbolicLink(entry.getPath()));
+                } catch (IOException e) {
+                    // Se muestra sin destino
+                }
+            }
+            return line.toString();
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package com.ToTerminal.interpreter.commands;
+
+import com.ToTerminal.interpreter.Command;
+import com.ToTerminal.interpreter.CommandContext;
+import com.ToTerminal.utils.InternationalizationHelper;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Ejecuta un script registrado por su nombre (run &lt;nombre&gt;).
+ * Los scripts usan la terminal y el proceso en primer plano de la sesión, así que no se pueden
+ * ejecutar en una tubería ni en segundo plano.
+ */
+public class RunCommand implements Command {
+
+    @Override
+    public String getName() {
+        return "run";
+    }
+
+    @Override
+    public String getDescription() {
+        return InternationalizationHelper.getText("main.commands.help.run");
+    }
+
+    @Override
+    public CompletableFuture<Integer> execute(CommandContext context, List<String> args) {
+        if (args.isEmpty()) {
+            context.print(InternationalizationHelper.getText("main.commands.run.usage"), "error");
+            return CompletableFuture.completedFuture(1);
+        }
+        if (!context.isStandalone()) {
+            context.print(InternationalizationHelper.getText("main.commands.run.not_standalone"), "error");
+            return CompletableFuture.completedFuture(1);
+        }
+        // Los nombres de script pueden tener espacios
+        return context.getInterpreter().runScript(String.join(" ", args));
+    }
+}
@@ -0,0 +1,167 @@
+package com.ToTerminal.interpreter.commands;
+
+import com.ToTerminal.interpreter.Command;
+import com.ToTerminal.interpreter.CommandContext;
+import com.ToTerminal.interpreter.commands.FileWalker.Entry;
+import com.ToTerminal.utils.InternationalizationHelper;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Muestra un árbol de carpetas (tree [-a] [-d] [-L nivel] [ruta]).
+ * Mientras se muestra una carpeta sus subcarpetas se leen en paralelo, así que el árbol sale
+ * línea a línea y en orden sin esperar a recorrerlo entero.
+ */
+public class TreeCommand implements Command {
+
+    @Override
+    public String getName() {
+        return "tree";
+    }
+
+    @Override
+    public String getDescription() {
+        return InternationalizationHelper.getText("main.commands.help.tree");
+    }
+
+    @Override
+    public ExecutionThread getExecutionThread() {
+        return ExecutionThread.WORKER;
+    }
+
+    @Override
+    public CompletableFuture<Integer> execute(CommandContext context, List<String> args) {
+        boolean all = false;
+        boolean directoriesOnly = false;
+        int maxDepth = Integer.MAX_VALUE;
+        String path = ".";
+        for (int i = 0; i < args.size(); i++) {
+            String arg = args.get(i);
+            if (arg.equals("-L") && i + 1 < args.size()) {
+                try {
+                    maxDepth = Integer.parseInt(args.get(++i));
+                } catch (NumberFormatException e) {
+                    maxDepth = 0;
+                }
+                if (maxDepth < 1) {
+                    context.print(InternationalizationHelper.getText("main.commands.tree.invalid_level", args.get(i)), "error");
+                    return CompletableFuture.completedFuture(2);
+                }
+            } else if (arg.equals("-a")) {
+                all = true;
+            } else if (arg.equals("-d")) {
+                directoriesOnly = true;
+            } else if (arg.length() > 1 && arg.startsWith("-")) {
+                context.print(InternationalizationHelper.getText("main.commands.files.invalid_option", getName(), arg), "error");
+                return CompletableFuture.completedFuture(2);
+            } else {
+                path = arg;
+            }
+        }
+
+        FileWalker walker = new FileWalker(context, getName());
+        Entry root = walker.stat(FileWalker.resolve(context, path), path);
+        if (root == null) {
+            return CompletableFuture.completedFuture(walker.exitCode());
+        }
+        if (!walker.print(path) || !root.isDirectory()) {
+            return CompletableFuture.completedFuture(walker.exitCode());
+        }
+
+        Printer printer = new Printer(walker, all, directoriesOnly, maxDepth);
+        printer.show("", 1, walker.list(root.getPath()));
+        if (!walker.isStopped()) {
+            walker.print(List.of("", InternationalizationHelper.getText("main.commands.tree.summary",
+                printer.directories, printer.files)));
+        }
+        return CompletableFuture.completedFuture(walker.exitCode());
+    }
+
+    /**
+     * Recorrido en orden de una ejecución de tree
+     */
+    private static final class Printer {
+        private final FileWalker walker;
+        private final boolean all;
+        private final boolean directoriesOnly;
+        private final int maxDepth;
+        private long directories;
+        private long files;
+
+        Printer(FileWalker walker, boolean all, boolean directoriesOnly, int maxDepth) {
+            this.walker = walker;
+            this.all = all;
+            this.directoriesOnly = directoriesOnly;
+            this.maxDepth = maxDepth;
+        }
+
+        /**
+         * Muestra el contenido de una carpeta con sus ramas
+         * @param entries futuro con el contenido de la carpeta, ya pedido al pool
+         */
+        void show(String prefix, int depth, CompletableFuture<List<Entry>> entries) {
+            List<Entry> visible = new ArrayList<>();
+            for (Entry entry : walker.await(entries)) {
+                if ((all || !entry.isHidden()) && (!directoriesOnly || entry.isDirectory())) {
+                    visible.add(entry);
+                }
+            }
+
+            // Se piden ya las primeras subcarpetas para que se lean mientras se muestra esta
+            ArrayDeque<CompletableFuture<List<Entry>>> pending = new ArrayDeque<>();
+            int next = prefetch(visible, 0, depth, pending);
+
+            for (int i = 0; i < visible.size(); i++) {
+                Entry entry = visible.get(i);
+                boolean last = i == visible.size() - 1;
+                if (entry.isDirectory()) {
+                    directories++;
+                } else {
+                    files++;
+                }
+                if (!walker.print(prefix + (last ? "└── " : "├── ") + label(entry))) return;
+                if (isExpanded(entry, depth)) {
+                    CompletableFuture<List<Entry>> contents = pending.poll();
+                    next = prefetch(visible, next, depth, pending);
+                    show(prefix + (last ? "    " : "│   "), depth + 1, contents);
+                    if (walker.isStopped()) return;
+                }
+            }
+        }
+
+        /**
+         * Pide las siguientes subcarpetas hasta tener {@link FileWalker#PREFETCH_WINDOW} pendientes
+         * @return posición de la primera entrada que aún no se ha mirado
+         */
+        private int prefetch(List<Entry> visible, int next, int depth,
+                             ArrayDeque<CompletableFuture<List<Entry>>> pending) {
+            while (next < visible.size() && pending.size() < FileWalker.PREFETCH_WINDOW) {
+                Entry entry = visible.get(next++);
+                if (isExpanded(entry, depth)) {
+                    pending.add(walker.list(entry.getPath()));
+                }
+            }
+            return next;
+        }
+
+        private boolean isExpanded(Entry entry, int depth) {
+            return entry.isDirectory() && depth < maxDepth;
+        }
+
+        private static String label(Entry entry) {
+            if (!entry.getAttributes().isSymbolicLink()) {
+                return entry.getName();
+            }
+            try {
+                return entry.getName() + " -> " + Files.readSymbolicLink(entry.getPath());
+            } catch (IOException e) {
+                return entry.getName();
+            }
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package com.ToTerminal.interpreter.commands;
+
+import com.ToTerminal.interpreter.Command;
+import com.ToTerminal.interpreter.CommandContext;
+import com.ToTerminal.utils.InternationalizationHelper;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Elimina variables de entorno de la sesión (unset NOMBRE...)
+ */
+public class UnsetCommand implements Command {
+
+    @Override
+    public String getName() {
+        return "unset";
+    }
+
+    @Override
+    public String getDescription() {
+        return InternationalizationHelper.getText("main.commands.help.unset");
+    }
+
+    @Override
+    public CompletableFuture<Integer> execute(CommandContext context, List<String> args) {
+        for (String name : args) {
+            context.getSession().getEnvironment().remove(name);
+        }
+        return CompletableFuture.completedFuture(0);
+    }
+}
@@ -0,0 +1,30 @@
+package com.ToTerminal.interpreter.commands;
+
+import com.ToTerminal.interpreter.Command;
+import com.ToTerminal.interpreter.CommandContext;
+import com.ToTerminal.utils.InternationalizationHelper;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Muestra el usuario actual
+ */
+public class WhoamiCommand implements Command {
+
+    @Override
+    public String getName() {
+        return "whoami";
+    }
+
+    @Override
+    public String getDescription() {
+        return InternationalizationHelper.getText("main.commands.help.whoami");
+    }
+
+    @Override
+    public CompletableFuture<Integer> execute(CommandContext context, List<String> args) {
+        context.print("user", "output");
+        return CompletableFuture.completedFuture(0);
+    }
+}
@@ -0,0 +1,466 @@
+package com.ToTerminal.models;
+
+import com.ToTerminal.utils.StyleManager;
+import com.ToTerminal.utils.Values;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongFunction;
+
+/**
+ * Historial de comandos persistente.
+ * Los comandos se guardan en memoria en un búfer circular de tamaño {@code historyLimit} y se
+ * anexan a {@code history.log}, una línea por comando. Las escrituras las hace un hilo propio que
+ * agrupa todo lo pendiente en una sola escritura; cuando el archivo acumula demasiadas líneas
+ * antiguas se reescribe solo con las vigentes.
+ *
+ * Las posiciones van de 0 (el más antiguo) a {@link #size()} - 1 (el más reciente). La búsqueda
+ * inversa usa un {@link HistoryIndex}, por lo que no recorre todo el historial.
+ *
+ * Cargar el archivo, cambiar el límite o reconstruir el índice se hace en el hilo de escritura
+ * sobre un búfer nuevo, que solo se pone en lugar del actual al terminar: {@link #add} y
+ * {@link #search} no esperan a que se reconstruya.
+ *
+ * Es el historial compartido por todas las sesiones; cada una lo ve a través de un {@link SessionHistory}.
+ */
+public final class CommandHistory {
+
+    static final String HISTORY_FILE = "history.log";
+
+    // Pide al hilo de escritura que reconstruya el búfer (límite nuevo o índice con demasiadas entradas antiguas)
+    private static final Object REBUILD = new Object();
+
+    private static CommandHistory instance;
+
+    private final Path file;
+    private final LinkedBlockingQueue<Object> pending = new LinkedBlockingQueue<>();
+
+    private Ring ring;
+    // Límite pedido; el búfer se ajusta a él en el hilo de escritura
+    private int limit;
+    private boolean rebuildQueued;
+    // Comandos añadidos con add() desde el arranque; no cambia al cargar el archivo
+    private long added;
+
+    private long fileLines;
+    private BufferedWriter out;
+
+    private CommandHistory(Path file, int limit) {
+        this.file = file;
+        this.limit = Math.max(1, limit);
+        this.ring = new Ring(this.limit);
+        Thread writer = new Thread(this::run, "command-history");
+        writer.setDaemon(true);
+        writer.start();
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> flush(2000), "command-history-shutdown"));
+    }
+
+    public static synchronized CommandHistory getInstance() {
+        if (instance == null) {
+            instance = new CommandHistory(Path.of(Values.CONFIG_DATA_DIR, HISTORY_FILE),
+                StyleManager.getInstance().getCurrentConfig().getHistoryLimit());
+        }
+        return instance;
+    }
+
+    /**
+     * Añade un comando al historial y lo deja pendiente de guardar
+     */
+    public synchronized void add(String command) {
+        if (command == null || command.isEmpty()) return;
+        ring.append(command);
+        if (ring.needsReindex()) {
+            requestRebuild();
+        }
+        added++;
+        pending.add(escape(command));
+    }
+
+    /**
+     * Marca del momento actual para {@link #sizeBefore(long)}
+     */
+    synchronized long mark() {
+        return added;
+    }
+
+    /**
+     * Número de comandos que ya estaban en el historial al tomar la marca y siguen en él.
+     * Son los más antiguos, así que ocupan las posiciones de 0 a este valor - 1.
+     */
+    synchronized int sizeBefore(long mark) {
+        return (int) Math.max(0, ring.size() - (added - mark));
+    }
+
+    synchronized int getLimit() {
+        return limit;
+    }
+
+    public synchronized int size() {
+        return ring.size();
+    }
+
+    /**
+     * @param position posición entre 0 (el más antiguo) y {@link #size()} - 1
+     */
+    public synchronized String get(int position) {
+        if (position < 0 || position >= ring.size()) {
+            throw new IndexOutOfBoundsException(position);
+        }
+        return ring.get(ring.oldest + position);
+    }
+
+    /**
+     * Cambia el número máximo de comandos guardados; si baja se descartan los más antiguos.
+     * El búfer se reconstruye en segundo plano.
+     */
+    public synchronized void setLimit(int limit) {
+        this.limit = Math.max(1, limit);
+        if (this.limit != ring.capacity()) {
+            requestRebuild();
+        }
+    }
+
+    /**
+     * Busca hacia atrás el comando más reciente anterior a {@code before} en el que cada palabra
+     * de la consulta es el principio de alguna palabra del comando (sin distinguir mayúsculas)
+     *
+     * @param before posición desde la que buscar (se excluye); {@link #size()} para empezar por el último
+     * @return la posición encontrada o -1
+     */
+    public synchronized int search(String query, int before) {
+        List<String> words = HistoryIndex.tokenize(query);
+        if (words.isEmpty()) return -1;
+        Ring current = ring;
+        long limit = current.oldest + Math.max(0, Math.min(before, current.size()));
+        long seq = search(current.index, words, limit, current.oldest, current::get);
+        return seq < 0 ? -1 : (int) (seq - current.oldest);
+    }
+
+    /**
+     * Busca en un índice la secuencia más reciente entre {@code oldest} y {@code before} (excluida)
+     * cuyo comando coincide con todas las palabras
+     * @param commands comando guardado con cada secuencia
+     * @return la secuencia encontrada o -1
+     */
+    static long search(HistoryIndex index, List<String> words, long before, long oldest, LongFunction<String> commands) {
+        // Se recorren los comandos de la palabra con menos apariciones
+        String driver = null;
+        int fewest = Integer.MAX_VALUE;
+        for (String word : words) {
+            int count = index.count(word, fewest);
+            if (count < fewest) {
+                driver = word;
+                fewest = count;
+            }
+        }
+        if (fewest == 0) return -1;
+        return index.findBefore(driver, before, oldest, candidate -> matches(commands.apply(candidate), words));
+    }
+
+    /**
+     * Espera a que se guarden los comandos pendientes
+     * @return false si no terminó en el tiempo indicado
+     */
+    public boolean flush(long timeoutMillis) {
+        CompletableFuture<Void> barrier = new CompletableFuture<>();
+        pending.add(barrier);
+        try {
+            barrier.get(timeoutMillis, TimeUnit.MILLISECONDS);
+            return true;
+        } catch (Exception e) {
+            return false;
+        }
+    }
+
+    private static boolean matches(String command, List<String> words) {
+        List<String> commandWords = HistoryIndex.tokenize(command);
+        for (String word : words) {
+            boolean found = false;
+            for (String commandWord : commandWords) {
+                if (commandWord.startsWith(word)) {
+                    found = true;
+                    break;
+                }
+            }
+            if (!found) return false;
+        }
+        return true;
+    }
+
+    // ========================================
+    // MEMORIA
+    // ========================================
+
+    private void requestRebuild() {
+        if (!rebuildQueued) {
+            rebuildQueued = true;
+            pending.add(REBUILD);
+        }
+    }
+
+    /**
+     * Construye fuera del cerrojo un búfer con el límite actual y los comandos {@code older}
+     * delante de los que ya hay, le añade los que lleguen mientras tanto y lo pone en lugar del actual
+     */
+    private void rebuild(List<String> older) {
+        String[] commands;
+        long from;
+        long to;
+        long mark;
+        int capacity;
+        synchronized (this) {
+            rebuildQueued = false;
+            capacity = limit;
+            commands = ring.commands.clone();
+            from = ring.oldest;
+            to = ring.next;
+            mark = added;
+        }
+
+        Ring fresh = new Ring(capacity);
+        long skip = Math.max(0, older.size() + (to - from) - capacity);
+        for (int i = (int) Math.min(skip, older.size()); i < older.size(); i++) {
+            fresh.append(older.get(i));
+        }
+        for (long seq = from + Math.max(0, skip - older.size()); seq < to; seq++) {
+            fresh.append(commands[(int) (seq % commands.length)]);
+        }
+
+        synchronized (this) {
+            // Comandos añadidos mientras se construía; son los últimos del búfer actual
+            long late = Math.min(added - mark, ring.size());
+            for (long seq = ring.next - late; seq < ring.next; seq++) {
+                fresh.append(ring.get(seq));
+            }
+            ring = fresh;
+            if (limit != fresh.capacity() || fresh.needsReindex()) {
+                requestRebuild();
+            }
+        }
+    }
+
+    /**
+     * Búfer circular con su índice: el comando con secuencia s está en commands[s % commands.length]
+     */
+    private static final class Ring {
+        private final String[] commands;
+        private final HistoryIndex index = new HistoryIndex();
+        private long oldest;
+        private long next;
+        // Secuencia más antigua que sigue en el índice (las anteriores a oldest ya no son válidas)
+        private long indexedFrom;
+
+        Ring(int capacity) {
+            this.commands = new String[capacity];
+        }
+
+        void append(String command) {
+            if (next - oldest == commands.length) {
+                commands[(int) (oldest % commands.length)] = null;
+                oldest++;
+            }
+            commands[(int) (next % commands.length)] = command;
+            index.add(next, command);
+            next++;
+        }
+
+        String get(long seq) {
+            return commands[(int) (seq % commands.length)];
+        }
+
+        int size() {
+            return (int) (next - oldest);
+        }
+
+        int capacity() {
+            return commands.length;
+        }
+
+        /**
+         * Indica si el índice tiene más entradas descartadas que vigentes
+         */
+        boolean needsReindex() {
+            return oldest - indexedFrom > next - oldest;
+        }
+    }
+
+    // ========================================
+    // PERSISTENCIA (hilo command-history)
+    // ========================================
+
+    private void run() {
+        load();
+        List<Object> batch = new ArrayList<>();
+        while (true) {
+            try {
+                batch.add(pending.take());
+            } catch (InterruptedException e) {
+                return;
+            }
+            pending.drainTo(batch);
+            write(batch);
+            batch.clear();
+        }
+    }
+
+    /**
+     * Lee el archivo y pone sus comandos delante de los añadidos mientras se leía
+     */
+    private void load() {
+        int limit;
+        synchronized (this) {
+            limit = this.limit;
+        }
+        ArrayDeque<String> loaded = new ArrayDeque<>();
+        long lines = 0;
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isEmpty()) continue;
+                lines++;
+                if (loaded.size() == limit) loaded.removeFirst();
+                loaded.addLast(unescape(line));
+            }
+        } catch (NoSuchFileException e) {
+            // Primer arranque
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+        fileLines = lines;
+        if (loaded.isEmpty()) return;
+        rebuild(new ArrayList<>(loaded));
+    }
+
+    private void write(List<Object> batch) {
+        List<CompletableFuture<?>> barriers = new ArrayList<>();
+        try {
+            for (Object item : batch) {
+                if (item instanceof String) {
+                    writer().write((String) item);
+                    writer().newLine();
+                    fileLines++;
+                } else if (item == REBUILD) {
+                    rebuild(List.of());
+                } else {
+                    barriers.add((CompletableFuture<?>) item);
+                }
+            }
+            if (out != null) {
+                out.flush();
+            }
+            int limit;
+            synchronized (this) {
+                limit = this.limit;
+            }
+            if (fileLines > 2L * limit + 1000) {
+                compact(barriers);
+            }
+        } catch (IOException e) {
+            e.printStackTrace();
+            closeWriter();
+        }
+        barriers.forEach(barrier -> barrier.complete(null));
+    }
+
+    /**
+     * Reescribe el archivo solo con los comandos vigentes.
+     * Los comandos que aún estaban en cola ya están en la copia, así que se retiran de la cola.
+     */
+    private void compact(List<CompletableFuture<?>> barriers) throws IOException {
+        List<Object> queued = new ArrayList<>();
+        String[] commands;
+        long from;
+        long to;
+        synchronized (this) {
+            pending.drainTo(queued);
+            commands = ring.commands.clone();
+            from = ring.oldest;
+            to = ring.next;
+        }
+        for (Object item : queued) {
+            if (item instanceof CompletableFuture) {
+                barriers.add((CompletableFuture<?>) item);
+            } else if (item == REBUILD) {
+                pending.add(REBUILD);
+            }
+        }
+
+        closeWriter();
+        Path tmp = Files.createTempFile(file.getParent(), "history", ".tmp");
+        try (BufferedWriter writer = Files.newBufferedWriter(tmp, StandardCharsets.UTF_8)) {
+            for (long seq = from; seq < to; seq++) {
+                writer.write(escape(commands[(int) (seq % commands.length)]));
+                writer.newLine();
+            }
+        }
+        Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        fileLines = to - from;
+    }
+
+    private BufferedWriter writer() throws IOException {
+        if (out == null) {
+            Files.createDirectories(file.getParent());
+            out = Files.newBufferedWriter(file, StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        }
+        return out;
+    }
+
+    private void closeWriter() {
+        if (out == null) return;
+        try {
+            out.close();
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+        out = null;
+    }
+
+    /**
+     * Un comando por línea: se escapan la barra invertida y los saltos de línea
+     */
+    static String escape(String command) {
+        if (command.indexOf('\\') < 0 && command.indexOf('\n') < 0 && command.indexOf('\r') < 0) {
+            return command;
+        }
+        StringBuilder result = new StringBuilder(command.length() + 8);
+        for (int i = 0; i < command.length(); i++) {
+            char c = command.charAt(i);
+            switch (c) {
+                case '\\': result.append("\\\\"); break;
+                case '\n': result.append("\\n"); break;
+                case '\r': result.append("\\r"); break;
+                default: result.append(c);
+            }
+        }
+        return result.toString();
+    }
+
+    static String unescape(String line) {
+        if (line.indexOf('\\') < 0) return line;
+        StringBuilder result = new StringBuilder(line.length());
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (c == '\\' && i + 1 < line.length()) {
+                char escaped = line.charAt(++i);
+                result.append(escaped == 'n' ? '\n' : escaped == 'r' ? '\r' : escaped);
+            } else {
+                result.append(c);
+            }
+        }
+        return result.toString();
+    }
+}
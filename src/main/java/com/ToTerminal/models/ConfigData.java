@@ -1,5 +1,11 @@
 package com.ToTerminal.models;
 
+import com.ToTerminal.utils.Values;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
 import java.io.Serializable;
 import java.util.Objects;
 
@@ -14,6 +20,10 @@ public class ConfigData implements Serializable {
     
     private static final long serialVersionUID = 1L;
     
+    // El pool es opcional: por defecto cada script se ejecuta con su propio node
+    public static final int DEFAULT_NODE_WORKER_POOL_SIZE = 0;
+    public static final int DEFAULT_NODE_WORKER_IDLE_TIMEOUT = 300;
+    
     // ========================================
     // CONFIGURACIÓN DE APARIENCIA
     // ========================================
@@ -62,6 +72,11 @@ public class ConfigData implements Serializable {
      */
     private int historyLimit;
     
+    /**
+     * Límite de líneas conservadas en la salida del terminal
+     */
+    private int outputLineLimit = OutputBuffer.DEFAULT_CAPACITY;
+    
     // ========================================
     // CONFIGURACIÓN AVANZADA
     // ========================================
@@ -86,6 +101,16 @@ public class ConfigData implements Serializable {
      */
     private String logFilePath;
     
+    /**
+     * Número de procesos de NodeJS precalentados para ejecutar scripts (0 desactiva el pool)
+     */
+    private int nodeWorkerPoolSize = DEFAULT_NODE_WORKER_POOL_SIZE;
+    
+    /**
+     * Segundos que un proceso de NodeJS puede estar ocioso antes de cerrarse
+     */
+    private int nodeWorkerIdleTimeout = DEFAULT_NODE_WORKER_IDLE_TIMEOUT;
+    
     // ========================================
     // CONSTRUCTORES
     // ========================================
@@ -135,10 +160,13 @@ public class ConfigData implements Serializable {
         this.showTimeInPrompt = true;
         this.showPathInPrompt = true;
         this.historyLimit = 100;
+        this.outputLineLimit = OutputBuffer.DEFAULT_CAPACITY;
         this.enableAutoComplete = true;
         this.startupCommand = "";
         this.enableCommandLogging = false;
         this.logFilePath = "~/ToTerminal.log";
+        this.nodeWorkerPoolSize = DEFAULT_NODE_WORKER_POOL_SIZE;
+        this.nodeWorkerIdleTimeout = DEFAULT_NODE_WORKER_IDLE_TIMEOUT;
     }
     
     // ========================================
@@ -209,6 +237,30 @@ public class ConfigData implements Serializable {
         this.historyLimit = historyLimit;
     }
     
+    public int getOutputLineLimit() {
+        return outputLineLimit;
+    }
+    
+    public void setOutputLineLimit(int outputLineLimit) {
+        this.outputLineLimit = outputLineLimit;
+    }
+    
+    public int getNodeWorkerPoolSize() {
+        return nodeWorkerPoolSize;
+    }
+    
+    public void setNodeWorkerPoolSize(int nodeWorkerPoolSize) {
+        this.nodeWorkerPoolSize = nodeWorkerPoolSize;
+    }
+    
+    public int getNodeWorkerIdleTimeout() {
+        return nodeWorkerIdleTimeout;
+    }
+    
+    public void setNodeWorkerIdleTimeout(int nodeWorkerIdleTimeout) {
+        this.nodeWorkerIdleTimeout = nodeWorkerIdleTimeout;
+    }
+    
     public boolean isEnableAutoComplete() {
         return enableAutoComplete;
     }
@@ -283,6 +335,38 @@ public class ConfigData implements Serializable {
             (int) (color.getBlue() * 255));
     }
     
+    /**
+     * Carga la configuración guardada en disco
+     * @return la configuración persistida o una configuración por defecto si no existe
+     */
+    public static ConfigData load() {
+        File f = new File(Values.CONFIG_DATA_DIR + "/" + Values.CONFIG_FILE_NAME);
+        if (!f.exists()) {
+            return new ConfigData();
+        }
+        try (ObjectInputStream in = new ObjectInputStream(new FileInputStream(f))) {
+            return (ConfigData) in.readObject();
+        } catch (Exception e) {
+            e.printStackTrace();
+            return new ConfigData();
+        }
+    }
+    
+    /**
+     * Completa con valores por defecto los campos que no existían en versiones anteriores
+     */
+    private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+        in.defaultReadObject();
+        if (outputLineLimit <= 0) {
+            outputLineLimit = OutputBuffer.DEFAULT_CAPACITY;
+        }
+        // Un tiempo de 0 indica una configuración guardada antes de existir el pool de NodeJS
+        if (nodeWorkerIdleTimeout <= 0) {
+            nodeWorkerPoolSize = DEFAULT_NODE_WORKER_POOL_SIZE;
+            nodeWorkerIdleTimeout = DEFAULT_NODE_WORKER_IDLE_TIMEOUT;
+        }
+    }
+    
     // ========================================
     // MÉTODOS DE COMPARACIÓN Y REPRESENTACIÓN
     // ========================================
@@ -298,8 +382,11 @@ public class ConfigData implements Serializable {
                showTimeInPrompt == that.showTimeInPrompt &&
                showPathInPrompt == that.showPathInPrompt &&
                historyLimit == that.historyLimit &&
+               outputLineLimit == that.outputLineLimit &&
                enableAutoComplete == that.enableAutoComplete &&
                enableCommandLogging == that.enableCommandLogging &&
+               nodeWorkerPoolSize == that.nodeWorkerPoolSize &&
+               nodeWorkerIdleTimeout == that.nodeWorkerIdleTimeout &&
                Objects.equals(selectedFontFamily, that.selectedFontFamily) &&
                Objects.equals(backgroundColor, that.backgroundColor) &&
                Objects.equals(textColor, that.textColor) &&
@@ -312,7 +399,8 @@ public class ConfigData implements Serializable {
     public int hashCode() {
         return Objects.hash(selectedFontFamily, fontSize, backgroundColor, 
                           textColor, customPrompt, showTimeInPrompt, showPathInPrompt, 
-                          historyLimit, enableAutoComplete, startupCommand, enableCommandLogging, logFilePath);
+                          historyLimit, outputLineLimit, enableAutoComplete, startupCommand, enableCommandLogging, logFilePath,
+                          nodeWorkerPoolSize, nodeWorkerIdleTimeout);
     }
     
     @Override
@@ -326,10 +414,13 @@ public class ConfigData implements Serializable {
                ", showTimeInPrompt=" + showTimeInPrompt +
                ", showPathInPrompt=" + showPathInPrompt +
                ", historyLimit=" + historyLimit +
+               ", outputLineLimit=" + outputLineLimit +
                ", enableAutoComplete=" + enableAutoComplete +
                ", startupCommand='" + startupCommand + '\'' +
                ", enableCommandLogging=" + enableCommandLogging +
                ", logFilePath='" + logFilePath + '\'' +
+               ", nodeWorkerPoolSize=" + nodeWorkerPoolSize +
+               ", nodeWorkerIdleTimeout=" + nodeWorkerIdleTimeout +
                '}';
     }
 } 
\ No newline at end of file
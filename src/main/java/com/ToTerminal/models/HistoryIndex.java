@@ -0,0 +1,180 @@
+package com.ToTerminal.models;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.function.LongPredicate;
+
+/**
+ * Índice de palabras del historial de comandos para la búsqueda inversa (Ctrl+R).
+ * Cada comando se divide en palabras (letras y dígitos, en minúsculas) y cada palabra guarda la
+ * lista ordenada de números de secuencia de los comandos que la contienen.
+ *
+ * Una búsqueda recorre de más reciente a más antiguo solo los comandos que tienen alguna palabra
+ * que empieza por la palabra menos frecuente de la consulta; para prefijos de una letra, que abarcan
+ * demasiadas palabras, se usa una lista aparte por inicial.
+ *
+ * Las entradas que salen del historial no se quitan: quien usa el índice descarta las secuencias
+ * antiguas y lo reconstruye cuando acumula demasiadas. No es thread-safe.
+ */
+final class HistoryIndex {
+
+    private final TreeMap<String, Postings> words = new TreeMap<>();
+    private final Map<Character, Postings> initials = new HashMap<>();
+
+    /**
+     * Añade un comando; las secuencias deben llegar en orden creciente
+     */
+    void add(long seq, String command) {
+        Set<Character> seen = new HashSet<>();
+        for (String word : tokenize(command)) {
+            words.computeIfAbsent(word, w -> new Postings()).add(seq);
+            if (seen.add(word.charAt(0))) {
+                initials.computeIfAbsent(word.charAt(0), c -> new Postings()).add(seq);
+            }
+        }
+    }
+
+    void clear() {
+        words.clear();
+        initials.clear();
+    }
+
+    /**
+     * Número de apariciones de las palabras que empiezan por {@code prefix}, contando solo hasta
+     * pasar de {@code max} para no recorrer prefijos muy comunes
+     */
+    int count(String prefix, int max) {
+        if (prefix.length() == 1) {
+            Postings postings = initials.get(prefix.charAt(0));
+            return postings == null ? 0 : postings.size;
+        }
+        int total = 0;
+        for (Postings postings : words.subMap(prefix, true, prefix + Character.MAX_VALUE, false).values()) {
+            total += postings.size;
+            if (total > max) break;
+        }
+        return total;
+    }
+
+    /**
+     * Busca el comando más reciente anterior a {@code before} que tenga alguna palabra que empiece
+     * por {@code prefix} y que acepte {@code matcher}
+     * @param oldest secuencia más antigua todavía válida
+     * @return la secuencia encontrada o -1
+     */
+    long findBefore(String prefix, long before, long oldest, LongPredicate matcher) {
+        Collection<Postings> lists;
+        if (prefix.length() == 1) {
+            Postings postings = initials.get(prefix.charAt(0));
+            lists = postings == null ? List.of() : List.of(postings);
+        } else {
+            lists = words.subMap(prefix, true, prefix + Character.MAX_VALUE, false).values();
+        }
+
+        // Mezcla descendente de las listas: siempre se examina la mayor secuencia pendiente
+        PriorityQueue<Cursor> heap = new PriorityQueue<>((a, b) -> Long.compare(b.value(), a.value()));
+        for (Postings postings : lists) {
+            int position = postings.lastBefore(before);
+            if (position >= 0 && postings.get(position) >= oldest) {
+                heap.add(new Cursor(postings, position));
+            }
+        }
+        long last = -1;
+        while (!heap.isEmpty()) {
+            Cursor cursor = heap.poll();
+            long seq = cursor.value();
+            // Un mismo comando puede aparecer en varias listas
+            if (seq != last) {
+                if (matcher.test(seq)) {
+                    return seq;
+                }
+                last = seq;
+            }
+            if (--cursor.position >= 0 && cursor.value() >= oldest) {
+                heap.add(cursor);
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Palabras distintas de un texto en minúsculas, en orden de aparición
+     */
+    static List<String> tokenize(String text) {
+        Set<String> result = new LinkedHashSet<>();
+        int start = -1;
+        for (int i = 0; i <= text.length(); i++) {
+            boolean wordChar = i < text.length() && Character.isLetterOrDigit(text.charAt(i));
+            if (wordChar && start < 0) {
+                start = i;
+            } else if (!wordChar && start >= 0) {
+                result.add(text.substring(start, i).toLowerCase(Locale.ROOT));
+                start = -1;
+            }
+        }
+        return new ArrayList<>(result);
+    }
+
+    /**
+     * Lista creciente de secuencias
+     */
+    private static final class Postings {
+        private long[] values = new long[2];
+        private int size;
+
+        void add(long seq) {
+            if (size > 0 && values[size - 1] == seq) return;
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = seq;
+        }
+
+        long get(int position) {
+            return values[position];
+        }
+
+        /**
+         * @return la posición del mayor valor menor que {@code before} o -1
+         */
+        int lastBefore(long before) {
+            int low = 0;
+            int high = size - 1;
+            int found = -1;
+            while (low <= high) {
+                int mid = (low + high) >>> 1;
+                if (values[mid] < before) {
+                    found = mid;
+                    low = mid + 1;
+                } else {
+                    high = mid - 1;
+                }
+            }
+            return found;
+        }
+    }
+
+    private static final class Cursor {
+        final Postings postings;
+        int position;
+
+        Cursor(Postings postings, int position) {
+            this.postings = postings;
+            this.position = position;
+        }
+
+        long value() {
+            return postings.get(position);
+        }
+    }
+}
@@ -0,0 +1,174 @@
+package com.ToTerminal.models;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Almacén compacto de líneas de salida del terminal.
+ * Guarda el texto y un identificador de clase CSS por línea en un buffer circular
+ * de capacidad fija: al superar el límite se descartan las líneas más antiguas.
+ *
+ * No es thread-safe; debe usarse desde el hilo de JavaFX.
+ */
+public class OutputBuffer {
+
+    public static final int DEFAULT_CAPACITY = 10000;
+
+    // Registro global de clases de estilo (id <-> nombre)
+    private static final List<String> STYLE_CLASSES = new ArrayList<>();
+    private static final Map<String, Byte> STYLE_IDS = new HashMap<>();
+
+    private String[] lines;
+    private byte[] styles;
+    private int head;
+    private int size;
+
+    /**
+     * Crea un buffer con la capacidad por defecto
+     */
+    public OutputBuffer() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Crea un buffer con la capacidad indicada
+     * @param capacity número máximo de líneas almacenadas
+     */
+    public OutputBuffer(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("capacity must be positive: " + capacity);
+        }
+        this.lines = new String[capacity];
+        this.styles = new byte[capacity];
+    }
+
+    /**
+     * Obtiene el identificador compacto de una clase de estilo, registrándola si es nueva
+     * @param styleClass clase CSS
+     * @return identificador de la clase
+     */
+    public static synchronized byte styleId(String styleClass) {
+        Byte id = STYLE_IDS.get(styleClass);
+        if (id == null) {
+            if (STYLE_CLASSES.size() >= Byte.MAX_VALUE) {
+                throw new IllegalStateException("Too many output style classes");
+            }
+            id = (byte) STYLE_CLASSES.size();
+            STYLE_CLASSES.add(styleClass);
+            STYLE_IDS.put(styleClass, id);
+        }
+        return id;
+    }
+
+    /**
+     * Obtiene el nombre de la clase de estilo asociada a un identificador
+     * @param id identificador de la clase
+     * @return clase CSS
+     */
+    public static synchronized String styleClass(byte id) {
+        return STYLE_CLASSES.get(id);
+    }
+
+    /**
+     * Agrega una línea al final del buffer
+     * @param text texto de la línea
+     * @param styleClass clase CSS de la línea
+     * @return true si se descartó la línea más antigua para hacer sitio
+     */
+    public boolean append(String text, String styleClass) {
+        return append(text, styleId(styleClass));
+    }
+
+    /**
+     * Agrega una línea al final del buffer usando un identificador de estilo ya resuelto
+     * @param text texto de la línea
+     * @param styleId identificador de la clase CSS
+     * @return true si se descartó la línea más antigua para hacer sitio
+     */
+    public boolean append(String text, byte styleId) {
+        int capacity = lines.length;
+        int slot = (head + size) % capacity;
+        lines[slot] = text;
+        styles[slot] = styleId;
+        if (size < capacity) {
+            size++;
+            return false;
+        }
+        head = (head + 1) % capacity;
+        return true;
+    }
+
+    /**
+     * Obtiene el texto de una línea
+     * @param index posición de la línea (0 es la más antigua)
+     * @return texto de la línea
+     */
+    public String getText(int index) {
+        return lines[slot(index)];
+    }
+
+    /**
+     * Obtiene la clase de estilo de una línea
+     * @param index posición de la línea (0 es la más antigua)
+     * @return clase CSS de la línea
+     */
+    public String getStyleClass(int index) {
+        return styleClass(styles[slot(index)]);
+    }
+
+    /**
+     * Número de líneas almacenadas
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Capacidad máxima del buffer
+     */
+    public int getCapacity() {
+        return lines.length;
+    }
+
+    /**
+     * Cambia la capacidad del buffer conservando las líneas más recientes
+     * @param capacity nueva capacidad
+     */
+    public void setCapacity(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("capacity must be positive: " + capacity);
+        }
+        if (capacity == lines.length) return;
+
+        int kept = Math.min(size, capacity);
+        String[] newLines = new String[capacity];
+        byte[] newStyles = new byte[capacity];
+        for (int i = 0; i < kept; i++) {
+            int from = slot(size - kept + i);
+            newLines[i] = lines[from];
+            newStyles[i] = styles[from];
+        }
+        lines = newLines;
+        styles = newStyles;
+        head = 0;
+        size = kept;
+    }
+
+    /**
+     * Elimina todas las líneas
+     */
+    public void clear() {
+        java.util.Arrays.fill(lines, null);
+        head = 0;
+        size = 0;
+    }
+
+    private int slot(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        }
+        return (head + index) % lines.length;
+    }
+}
@@ -0,0 +1,50 @@
+package com.ToTerminal.models;
+
+import com.ToTerminal.ScriptReader.Script;
+import com.ToTerminal.controllers.ConfigController;
+import javafx.scene.control.ContentDisplay;
+import javafx.scene.control.ListCell;
+
+/**
+ * Celda de la lista de scripts de la configuración.
+ * Cada celda crea una única {@link ScriptView} y la reutiliza para el script que le toque mostrar,
+ * de modo que solo existen vistas para los scripts visibles.
+ */
+public class ScriptListCell extends ListCell<Script> {
+
+    private final ScriptView view;
+
+    public ScriptListCell(ConfigController controller) {
+        this.view = new ScriptView(null, controller);
+        setContentDisplay(ContentDisplay.GRAPHIC_ONLY);
+        setStyle("-fx-background-color: transparent; -fx-padding: 5 0 5 0;");
+    }
+
+    @Override
+    protected void updateItem(Script script, boolean empty) {
+        super.updateItem(script, empty);
+        if (empty || script == null) {
+            view.setScript(null);
+            setGraphic(null);
+        } else {
+            view.setScript(script);
+            view.setSelected(isSelected());
+            setGraphic(view);
+        }
+    }
+
+    @Override
+    public void updateSelected(boolean selected) {
+        super.updateSelected(selected);
+        view.setSelected(selected && !isEmpty());
+    }
+
+    /**
+     * Vuelve a mostrar el estado del archivo del script de la celda
+     */
+    public void refreshStatus() {
+        if (!isEmpty() && getItem() != null) {
+            view.refreshStatus();
+        }
+    }
+}
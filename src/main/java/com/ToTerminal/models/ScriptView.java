@@ -1,10 +1,9 @@
 package com.ToTerminal.models;
 
 import com.ToTerminal.ScriptReader.Script;
+import com.ToTerminal.ScriptReader.ScriptAvailabilityMonitor;
 import com.ToTerminal.ScriptReader.ScriptState;
 import com.ToTerminal.controllers.ConfigController;
-import com.ToTerminal.utils.StyleManager;
-import javafx.application.Platform;
 import javafx.geometry.Insets;
 import javafx.geometry.Pos;
 import javafx.scene.control.Label;
@@ -16,7 +15,8 @@ import javafx.scene.text.FontWeight;
 
 /**
  * Vista personalizada para mostrar información de scripts
- * Sigue el patrón de diseño establecido y se integra con el StyleManager
+ * Sigue el patrón de diseño establecido; los colores y la fuente del tema llegan por la hoja de
+ * estilos de la escena
  */
 public class ScriptView extends VBox {
     
@@ -32,28 +32,26 @@ public class ScriptView extends VBox {
     // Referencias a los datos
     private Script script;
     private ConfigController controller;
-    private StyleManager styleManager;
+    private boolean selected;
     
     // Constantes de diseño
     private static final double PREF_WIDTH = 300;
-    private static final double PREF_HEIGHT = 180;
+    public static final double PREF_HEIGHT = 180;
     private static final double DESCRIPTION_HEIGHT = 80;
     private static final Insets PADDING = new Insets(10);
     private static final int SPACING = 8;
     
     /**
      * Constructor principal
-     * @param script Script a mostrar
+     * @param script Script a mostrar (puede ser null si la vista se rellena después con {@link #setScript})
      * @param controller Controlador de configuración
      */
     public ScriptView(Script script, ConfigController controller) {
         this.script = script;
         this.controller = controller;
-        this.styleManager = StyleManager.getInstance();
         
         initializeComponents();
         setupLayout();
-        applyStyles();
         setupEventHandlers();
         updateContent();
     }
@@ -136,45 +134,17 @@ public class ScriptView extends VBox {
         setStyle("-fx-background-color: #f0f0f0; -fx-border-color: #ccc; -fx-border-width: 1px; -fx-border-radius: 5px;");
     }
     
-    /**
-     * Aplica estilos usando el StyleManager
-     */
-    private void applyStyles() {
-        if (styleManager != null) {
-            // Aplicar estilos al contenedor principal
-            styleManager.applyStylesToNode(this);
-            
-            // Aplicar estilos a los componentes individuales
-            styleManager.applyStylesToNode(scriptNameLabel);
-            styleManager.applyStylesToNode(scriptLanguageLabel);
-            styleManager.applyStylesToNode(scriptPathLabel);
-            styleManager.applyStylesToNode(scriptDescriptionArea);
-            styleManager.applyStylesToNode(scriptStatusLabel);
-            styleManager.applyStylesToNode(scriptSizeLabel);
-            styleManager.applyStylesToNode(scriptModifiedLabel);
-        }
-    }
-    
     /**
      * Configura los manejadores de eventos
      */
     private void setupEventHandlers() {
-        // Evento de clic para seleccionar el script
-        setOnMouseClicked(event -> {
-            if (controller != null) {
-                controller.selectedScript = script;
-                controller.selectedScriptView = this;
-                controller.updateSelectionStyle();
-            }
-        });
-        
         // Eventos de hover para mejorar la UX
         setOnMouseEntered(event -> {
             setStyle("-fx-background-color: #e8e8e8; -fx-border-color: #aaa; -fx-border-width: 2px; -fx-border-radius: 5px; -fx-effect: dropshadow(three-pass-box, rgba(0,0,0,0.1), 5, 0, 0, 0);");
         });
         
         setOnMouseExited(event -> {
-            if (controller != null && controller.selectedScriptView != this) {
+            if (!selected) {
                 setStyle("-fx-background-color: #f0f0f0; -fx-border-color: #ccc; -fx-border-width: 1px; -fx-border-radius: 5px;");
             }
         });
@@ -205,14 +175,43 @@ public class ScriptView extends VBox {
         updateAdditionalInfo();
     }
     
+    /**
+     * Cambia el script mostrado reutilizando los componentes de la vista
+     * @param script Script a mostrar o null para vaciar la vista
+     */
+    public void setScript(Script script) {
+        this.script = script;
+        if (script == null) {
+            scriptNameLabel.setText("");
+            scriptLanguageLabel.setText("");
+            scriptPathLabel.setText("");
+            scriptDescriptionArea.setText("");
+            scriptStatusLabel.setText("");
+            scriptSizeLabel.setText("");
+            scriptModifiedLabel.setText("");
+        } else {
+            updateContent();
+        }
+    }
+    
+    /**
+     * Vuelve a mostrar el estado y la información del archivo a partir de la caché del monitor
+     */
+    public void refreshStatus() {
+        if (script == null) return;
+        updateScriptStatus();
+        updateAdditionalInfo();
+    }
+    
     /**
      * Actualiza el estado del script con colores apropiados
      */
     private void updateScriptStatus() {
-        if (script.state == ScriptState.NOT_FOUND) {
+        ScriptState state = ScriptAvailabilityMonitor.getInstance().getStatus(script).getState();
+        if (state == ScriptState.NOT_FOUND) {
             scriptStatusLabel.setText("❌ NO ENCONTRADO");
             scriptStatusLabel.setStyle("-fx-text-fill: #d32f2f; -fx-font-weight: bold;");
-        } else if (script.state == ScriptState.DEFAULT_STATE) {
+        } else if (state == ScriptState.DEFAULT_STATE) {
             scriptStatusLabel.setText("✅ DISPONIBLE");
             scriptStatusLabel.setStyle("-fx-text-fill: #388e3c; -fx-font-weight: bold;");
         } else {
@@ -222,26 +221,14 @@ public class ScriptView extends VBox {
     }
     
     /**
-     * Actualiza información adicional del script
+     * Actualiza información adicional del script (tamaño y fecha, desde la caché del monitor)
      */
     private void updateAdditionalInfo() {
-        // Tamaño del archivo (si está disponible)
-        try {
-            java.io.File scriptFile = new java.io.File(script.getScriptPath());
-            if (scriptFile.exists()) {
-                long sizeInBytes = scriptFile.length();
-                String sizeText = formatFileSize(sizeInBytes);
-                scriptSizeLabel.setText("📁 " + sizeText);
-                
-                // Fecha de modificación
-                long lastModified = scriptFile.lastModified();
-                String dateText = formatDate(lastModified);
-                scriptModifiedLabel.setText("📅 " + dateText);
-            } else {
-                scriptSizeLabel.setText("📁 N/A");
-                scriptModifiedLabel.setText("📅 N/A");
-            }
-        } catch (Exception e) {
+        ScriptAvailabilityMonitor.FileStatus status = ScriptAvailabilityMonitor.getInstance().getStatus(script);
+        if (status.getState() == ScriptState.DEFAULT_STATE) {
+            scriptSizeLabel.setText("📁 " + formatFileSize(status.getSize()));
+            scriptModifiedLabel.setText("📅 " + formatDate(status.getLastModified()));
+        } else {
             scriptSizeLabel.setText("📁 N/A");
             scriptModifiedLabel.setText("📅 N/A");
         }
@@ -270,6 +257,18 @@ public class ScriptView extends VBox {
         }
     }
     
+    /**
+     * Marca la vista como seleccionada o no y aplica el estilo correspondiente
+     */
+    public void setSelected(boolean selected) {
+        this.selected = selected;
+        if (selected) {
+            applySelectionStyle();
+        } else {
+            applyNormalStyle();
+        }
+    }
+    
     /**
      * Aplica el estilo de selección
      */
@@ -284,13 +283,6 @@ public class ScriptView extends VBox {
         setStyle("-fx-background-color: #f0f0f0; -fx-border-color: #ccc; -fx-border-width: 1px; -fx-border-radius: 5px;");
     }
     
-    /**
-     * Actualiza los estilos usando el StyleManager
-     */
-    public void refreshStyles() {
-        Platform.runLater(this::applyStyles);
-    }
-    
     /**
      * Obtiene el script asociado
      */
@@ -0,0 +1,83 @@
+package com.ToTerminal.models;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Historial de una sesión de la terminal.
+ * Contiene el {@link CommandHistory} compartido tal como estaba al abrir la sesión, seguido de los
+ * comandos escritos en ella; lo que se escribe en otras sesiones no aparece, como en bash. Los
+ * comandos se guardan también en el historial compartido para las sesiones futuras.
+ *
+ * Las posiciones van de 0 (el más antiguo) a {@link #size()} - 1 (el más reciente).
+ */
+public final class SessionHistory {
+
+    private final CommandHistory shared;
+    private final long start;
+
+    // Comandos de esta sesión: own.get(i) tiene la secuencia ownOffset + i
+    private final List<String> own = new ArrayList<>();
+    private final HistoryIndex ownIndex = new HistoryIndex();
+    private long ownOffset;
+
+    public SessionHistory(CommandHistory shared) {
+        this.shared = shared;
+        this.start = shared.mark();
+    }
+
+    /**
+     * Añade un comando a la sesión y al historial compartido
+     */
+    public synchronized void add(String command) {
+        if (command == null || command.isEmpty()) return;
+        shared.add(command);
+        ownIndex.add(ownOffset + own.size(), command);
+        own.add(command);
+
+        // Se descartan de golpe los más antiguos cuando hay el doble del límite
+        int limit = shared.getLimit();
+        if (own.size() >= 2 * limit) {
+            int dropped = own.size() - limit;
+            own.subList(0, dropped).clear();
+            ownOffset += dropped;
+            ownIndex.clear();
+            for (int i = 0; i < own.size(); i++) {
+                ownIndex.add(ownOffset + i, own.get(i));
+            }
+        }
+    }
+
+    public synchronized int size() {
+        return shared.sizeBefore(start) + own.size();
+    }
+
+    /**
+     * @param position posición entre 0 (el más antiguo) y {@link #size()} - 1
+     */
+    public synchronized String get(int position) {
+        int inherited = shared.sizeBefore(start);
+        return position < inherited ? shared.get(position) : own.get(position - inherited);
+    }
+
+    /**
+     * Busca hacia atrás como {@link CommandHistory#search(String, int)}: primero en los comandos
+     * de la sesión y después en los heredados
+     *
+     * @param before posición desde la que buscar (se excluye); {@link #size()} para empezar por el último
+     * @return la posición encontrada o -1
+     */
+    public synchronized int search(String query, int before) {
+        List<String> words = HistoryIndex.tokenize(query);
+        if (words.isEmpty()) return -1;
+        int inherited = shared.sizeBefore(start);
+        if (before > inherited) {
+            long limit = ownOffset + Math.min(before - inherited, own.size());
+            long seq = CommandHistory.search(ownIndex, words, limit, ownOffset, s -> own.get((int) (s - ownOffset)));
+            if (seq >= 0) {
+                return inherited + (int) (seq - ownOffset);
+            }
+        }
+        return shared.search(query, Math.min(before, inherited));
+    }
+}
@@ -0,0 +1,159 @@
+package com.ToTerminal.models;
+
+import javafx.scene.control.IndexedCell;
+import javafx.scene.control.skin.VirtualFlow;
+
+import java.util.function.Consumer;
+
+/**
+ * Vista virtualizada de la salida del terminal.
+ * Las líneas se guardan en un {@link OutputBuffer} y solo se crean nodos para
+ * las celdas visibles en el viewport, que se reciclan al hacer scroll.
+ *
+ * Mientras está suspendida (pestaña en segundo plano) solo se actualiza el buffer, que
+ * conserva como mucho {@link #getLineLimit()} líneas; las celdas se refrescan al reanudarla.
+ */
+public class TerminalOutputView extends VirtualFlow<TerminalOutputView.OutputCell> {
+
+    private static final String LINE_STYLE_CLASS = "output-line";
+
+    private final OutputBuffer buffer;
+    private boolean suspended;
+    private boolean stale;
+
+    /**
+     * Constructor usado por FXML, con la capacidad por defecto
+     */
+    public TerminalOutputView() {
+        this(OutputBuffer.DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Constructor con un límite de líneas específico
+     * @param lineLimit número máximo de líneas conservadas
+     */
+    public TerminalOutputView(int lineLimit) {
+        this.buffer = new OutputBuffer(lineLimit);
+        setFocusTraversable(false);
+        setCellFactory(flow -> new OutputCell());
+    }
+
+    /**
+     * Agrega una línea de salida y desplaza la vista hasta el final
+     * @param text texto a mostrar
+     * @param styleClass clase CSS para el estilo
+     */
+    public void appendLine(String text, String styleClass) {
+        boolean shifted = buffer.append(text, styleClass);
+        refresh(shifted);
+    }
+
+    /**
+     * Aplica varios cambios al buffer y refresca la vista una sola vez
+     * @param changes operaciones sobre el buffer (agregar, limpiar...)
+     */
+    public void update(Consumer<OutputBuffer> changes) {
+        changes.accept(buffer);
+        refresh(true);
+    }
+
+    /**
+     * Elimina todas las líneas de la salida
+     */
+    public void clear() {
+        buffer.clear();
+        refresh(true);
+    }
+
+    /**
+     * Cambia el número máximo de líneas conservadas
+     * @param lineLimit nuevo límite
+     */
+    public void setLineLimit(int lineLimit) {
+        if (lineLimit == buffer.getCapacity()) return;
+        buffer.setCapacity(lineLimit);
+        refresh(true);
+    }
+
+    /**
+     * Obtiene el número máximo de líneas conservadas
+     */
+    public int getLineLimit() {
+        return buffer.getCapacity();
+    }
+
+    /**
+     * Número de líneas almacenadas actualmente
+     */
+    public int getLineCount() {
+        return buffer.size();
+    }
+
+    /**
+     * Suspende o reanuda el refresco de las celdas
+     * @param suspended true mientras la vista no se muestra
+     */
+    public void setSuspended(boolean suspended) {
+        this.suspended = suspended;
+        if (!suspended && stale) {
+            stale = false;
+            refresh(true);
+        }
+    }
+
+    /**
+     * Sincroniza las celdas visibles con el contenido del buffer
+     * @param shifted true si los índices existentes ahora apuntan a otras líneas
+     */
+    private void refresh(boolean shifted) {
+        if (suspended) {
+            stale = true;
+            return;
+        }
+        setCellCount(buffer.size());
+        if (shifted) {
+            rebuildCells();
+        }
+        if (buffer.size() > 0) {
+            scrollTo(buffer.size() - 1);
+        }
+    }
+
+    /**
+     * Celda reutilizable que muestra una línea del buffer
+     */
+    public final class OutputCell extends IndexedCell<String> {
+
+        private String currentStyleClass;
+
+        OutputCell() {
+            getStyleClass().setAll(LINE_STYLE_CLASS);
+        }
+
+        @Override
+        public void updateIndex(int index) {
+            super.updateIndex(index);
+            if (index < 0 || index >= buffer.size()) {
+                updateItem(null, true);
+                setText(null);
+                setStyleClass(null);
+                return;
+            }
+            String text = buffer.getText(index);
+            updateItem(text, false);
+            setText(text);
+            setStyleClass(buffer.getStyleClass(index));
+        }
+
+        private void setStyleClass(String styleClass) {
+            if (styleClass != null && styleClass.equals(currentStyleClass)) return;
+            if (currentStyleClass != null) {
+                getStyleClass().remove(currentStyleClass);
+            }
+            if (styleClass != null) {
+                getStyleClass().add(styleClass);
+            }
+            currentStyleClass = styleClass;
+        }
+    }
+}
@@ -0,0 +1,265 @@
+package com.ToTerminal.utils;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.Reader;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+/**
+ * Paquete binario con los textos de todos los idiomas, generado en la compilación a partir de
+ * {@code languages/*.json} (ver la ejecución de exec-maven-plugin en el pom.xml).
+ *
+ * Se lee con una sola lectura al arrancar y solo se decodifica el directorio; los textos de cada
+ * idioma se decodifican cuando se piden. Así el arranque no necesita Gson.
+ *
+ * Formato (big-endian):
+ * <pre>
+ * int magic "TTLB", int versión
+ * int nStrings, int[nStrings + 1] desplazamientos en el bloque de texto
+ * int nIdiomas, por idioma: int código, int nEntradas, int[nEntradas * 2] pares clave/valor
+ * bloque de texto UTF-8
+ * </pre>
+ * Los códigos, claves y valores son índices en la tabla de strings, que no repite valores
+ * (las claves de todos los idiomas se guardan una sola vez).
+ */
+public final class LanguageBundle {
+
+    static final String RESOURCE = "/languages/messages.bin";
+
+    private static final int MAGIC = 0x54544C42; // "TTLB"
+    private static final int VERSION = 1;
+
+    private final ByteBuffer data;
+    private final int[] stringOffsets;
+    private final int textStart;
+    private final String[] strings;
+    private final Map<String, Integer> languageOffsets;
+
+    private LanguageBundle(ByteBuffer data) {
+        this.data = data;
+        if (data.getInt() != MAGIC || data.getInt() != VERSION) {
+            throw new IllegalArgumentException("Paquete de idiomas no válido");
+        }
+        int count = data.getInt();
+        if (count < 0 || count > data.remaining() / 4) {
+            throw new IllegalArgumentException("Paquete de idiomas dañado");
+        }
+        stringOffsets = new int[count + 1];
+        for (int i = 0; i <= count; i++) {
+            stringOffsets[i] = data.getInt();
+        }
+        strings = new String[count];
+
+        int languages = data.getInt();
+        Map<String, Integer> offsets = new LinkedHashMap<>();
+        int[] codes = new int[languages];
+        int[] positions = new int[languages];
+        for (int i = 0; i < languages; i++) {
+            codes[i] = data.getInt();
+            positions[i] = data.position();
+            int entries = data.getInt();
+            data.position(data.position() + entries * 8);
+        }
+        textStart = data.position();
+        if (textStart + stringOffsets[count] > data.limit()) {
+            throw new IllegalArgumentException("Paquete de idiomas truncado");
+        }
+        for (int i = 0; i < languages; i++) {
+            offsets.put(string(codes[i]), positions[i]);
+        }
+        languageOffsets = Collections.unmodifiableMap(offsets);
+    }
+
+    /**
+     * Lee el paquete del classpath
+     * @return el paquete o null si no existe o no es válido
+     */
+    static LanguageBundle load() {
+        try (InputStream in = LanguageBundle.class.getResourceAsStream(RESOURCE)) {
+            if (in == null) {
+                return null;
+            }
+            return new LanguageBundle(ByteBuffer.wrap(in.readAllBytes()));
+        } catch (IOException | RuntimeException e) {
+            System.err.println("No se pudo leer el paquete de idiomas: " + e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Códigos de los idiomas del paquete
+     */
+    List<String> getLanguages() {
+        return new ArrayList<>(languageOffsets.keySet());
+    }
+
+    /**
+     * Decodifica los textos de un idioma
+     * @return claves con puntos y sus textos, o null si el idioma no está en el paquete
+     */
+    synchronized Map<String, String> decode(String languageCode) {
+        Integer position = languageOffsets.get(languageCode);
+        if (position == null) {
+            return null;
+        }
+        ByteBuffer buffer = data.duplicate();
+        buffer.position(position);
+        int entries = buffer.getInt();
+        Map<String, String> texts = new HashMap<>(entries * 2);
+        for (int i = 0; i < entries; i++) {
+            String key = string(buffer.getInt());
+            texts.put(key, string(buffer.getInt()));
+        }
+        return texts;
+    }
+
+    private String string(int index) {
+        String value = strings[index];
+        if (value == null) {
+            int start = stringOffsets[index];
+            int length = stringOffsets[index + 1] - start;
+            value = new String(data.array(), data.arrayOffset() + textStart + start, length, StandardCharsets.UTF_8);
+            strings[index] = value;
+        }
+        return value;
+    }
+
+    // ========================================
+    // GENERACIÓN (en la compilación)
+    // ========================================
+
+    /**
+     * Escribe el paquete con los idiomas indicados
+     * @param languages textos aplanados de cada idioma por código
+     */
+    static void write(Map<String, Map<String, String>> languages, OutputStream out) throws IOException {
+        Map<String, Integer> index = new LinkedHashMap<>();
+        ByteArrayOutputStream text = new ByteArrayOutputStream();
+        List<Integer> offsets = new ArrayList<>();
+        offsets.add(0);
+
+        List<int[]> tables = new ArrayList<>();
+        List<Integer> codes = new ArrayList<>();
+        for (Map.Entry<String, Map<String, String>> language : languages.entrySet()) {
+            codes.add(intern(language.getKey(), index, text, offsets));
+            int[] pairs = new int[language.getValue().size() * 2];
+            int i = 0;
+            for (Map.Entry<String, String> entry : language.getValue().entrySet()) {
+                pairs[i++] = intern(entry.getKey(), index, text, offsets);
+                pairs[i++] = intern(entry.getValue(), index, text, offsets);
+            }
+            tables.add(pairs);
+        }
+
+        DataOutputStream data = new DataOutputStream(out);
+        data.writeInt(MAGIC);
+        data.writeInt(VERSION);
+        data.writeInt(index.size());
+        for (int offset : offsets) {
+            data.writeInt(offset);
+        }
+        data.writeInt(tables.size());
+        for (int i = 0; i < tables.size(); i++) {
+            data.writeInt(codes.get(i));
+            int[] pairs = tables.get(i);
+            data.writeInt(pairs.length / 2);
+            for (int value : pairs) {
+                data.writeInt(value);
+            }
+        }
+        text.writeTo(data);
+        data.flush();
+    }
+
+    private static int intern(String value, Map<String, Integer> index, ByteArrayOutputStream text, List<Integer> offsets) {
+        Integer existing = index.get(value);
+        if (existing != null) {
+            return existing;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        text.write(bytes, 0, bytes.length);
+        offsets.add(text.size());
+        index.put(value, index.size());
+        return index.size() - 1;
+    }
+
+    /**
+     * Genera el paquete en la compilación.
+     * Incluye los idiomas de {@code config.json} ("available_languages"), o todos los JSON del
+     * directorio si no hay configuración.
+     *
+     * @param args directorio de los JSON de idioma y archivo de salida
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length != 2) {
+            System.err.println("Uso: LanguageBundle <directorio de idiomas> <archivo de salida>");
+            System.exit(2);
+        }
+        Path directory = Path.of(args[0]);
+        Path output = Path.of(args[1]);
+
+        Map<String, Map<String, String>> languages = new LinkedHashMap<>();
+        for (String code : languageCodes(directory)) {
+            Path file = directory.resolve(code + ".json");
+            if (!Files.isRegularFile(file)) {
+                System.err.println("Falta el archivo de idioma: " + file);
+                continue;
+            }
+            try (Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+                languages.put(code, MessageTable.flatten(JsonParser.parseReader(reader).getAsJsonObject()));
+            }
+        }
+
+        if (output.getParent() != null) {
+            Files.createDirectories(output.getParent());
+        }
+        try (OutputStream out = Files.newOutputStream(output)) {
+            write(languages, out);
+        }
+        System.out.println("Paquete de idiomas generado: " + output + " " + languages.keySet());
+    }
+
+    private static List<String> languageCodes(Path directory) throws IOException {
+        List<String> codes = new ArrayList<>();
+        Path config = directory.resolve("config.json");
+        if (Files.isRegularFile(config)) {
+            try (Reader reader = Files.newBufferedReader(config, StandardCharsets.UTF_8)) {
+                JsonElement available = JsonParser.parseReader(reader).getAsJsonObject().get("available_languages");
+                if (available != null && available.isJsonArray()) {
+                    for (JsonElement language : (JsonArray) available) {
+                        if (language.isJsonObject() && ((JsonObject) language).has("code")) {
+                            codes.add(((JsonObject) language).get("code").getAsString());
+                        }
+                    }
+                }
+            }
+        }
+        if (codes.isEmpty()) {
+            try (Stream<Path> files = Files.list(directory)) {
+                files.map(path -> path.getFileName().toString())
+                    .filter(name -> name.endsWith(".json") && !name.equals("config.json"))
+                    .sorted()
+                    .forEach(name -> codes.add(name.substring(0, name.length() - ".json".length())));
+            }
+        }
+        return codes;
+    }
+}
@@ -9,14 +9,20 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.nio.charset.StandardCharsets;
-import java.util.HashMap;
 import java.util.Locale;
 import java.util.Map;
-import java.util.ResourceBundle;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Gestor de idiomas para la aplicación MiniTerminal
  * Maneja la carga y acceso a los archivos de idioma JSON
+ *
+ * Cada idioma se aplana al cargarlo en una {@link MessageTable} inmutable. El idioma actual se
+ * publica en un campo volátil, así que las consultas y el cambio de idioma no toman bloqueos.
+ *
+ * Los textos se leen del paquete binario generado en la compilación ({@link LanguageBundle}) y
+ * cada idioma se decodifica solo cuando se usa. Si el paquete no existe (p. ej. al ejecutar desde
+ * un IDE sin pasar por Maven) se recurre a los JSON con Gson.
  */
 public class LanguageManager {
     
@@ -25,23 +31,21 @@ public class LanguageManager {
     private static final String LANGUAGE_EXTENSION = ".json";
     
     private static LanguageManager instance;
-    private Map<String, JsonObject> languageFiles;
-    private String currentLanguage;
+    private final Map<String, MessageTable> languageFiles = new ConcurrentHashMap<>();
+    private volatile MessageTable current;
+    private final LanguageBundle bundle;
     private Gson gson;
     
     private LanguageManager() {
-        languageFiles = new HashMap<>();
-        gson = new Gson();
+        bundle = LanguageBundle.load();
 
         String systemLanguage = Locale.getDefault().getLanguage();
         if (getLanguageDisplayName(systemLanguage) != systemLanguage) {
-            currentLanguage = systemLanguage;
             loadLanguage(systemLanguage);
             System.out.println("cargando");
             return;
         }
         System.out.println("cargado");
-        currentLanguage = DEFAULT_LANGUAGE;
         loadLanguage(DEFAULT_LANGUAGE);
     }
     
@@ -50,7 +54,7 @@ public class LanguageManager {
      * Obtiene la instancia singleton del LanguageManager
      * @return Instancia del LanguageManager
      */
-    public static LanguageManager getInstance() {
+    public static synchronized LanguageManager getInstance() {
         if (instance == null) {
             instance = new LanguageManager();
         }
@@ -58,40 +62,71 @@ public class LanguageManager {
     }
     
     /**
-     * Carga un archivo de idioma específico
+     * Carga un archivo de idioma específico y lo establece como idioma actual
      * @param languageCode Código del idioma (ej: "es", "en")
      */
     public void loadLanguage(String languageCode) {
-        if (languageFiles.containsKey(languageCode)) {
-            currentLanguage = languageCode;
-            return;
+        MessageTable table = getTable(languageCode);
+        if (table != null) {
+            current = table;
+        } else if (!languageCode.equals(DEFAULT_LANGUAGE)) {
+            // Cargar idioma por defecto si falla
+            loadLanguage(DEFAULT_LANGUAGE);
         }
-        
-        try {
-            String resourcePath = LANGUAGE_PATH + languageCode + LANGUAGE_EXTENSION;
-            InputStream inputStream = getClass().getResourceAsStream(resourcePath);
-            
-            if (inputStream != null) {
-                JsonObject languageData = gson.fromJson(
-                    new InputStreamReader(inputStream, StandardCharsets.UTF_8), 
-                    JsonObject.class
-                );
-                languageFiles.put(languageCode, languageData);
-                currentLanguage = languageCode;
-                System.out.println("Idioma cargado: " + languageCode);
-            } else {
-                System.err.println("No se pudo cargar el archivo de idioma: " + resourcePath);
-                // Cargar idioma por defecto si falla
-                if (!languageCode.equals(DEFAULT_LANGUAGE)) {
-                    loadLanguage(DEFAULT_LANGUAGE);
+    }
+    
+    /**
+     * Obtiene la tabla de un idioma, cargándola la primera vez
+     * @return la tabla o null si el idioma no se pudo cargar
+     */
+    private MessageTable getTable(String languageCode) {
+        if (languageCode == null) return null;
+        MessageTable table = languageFiles.get(languageCode);
+        if (table != null) {
+            return table;
+        }
+        table = readLanguage(languageCode);
+        if (table == null) {
+            return null;
+        }
+        MessageTable existing = languageFiles.putIfAbsent(languageCode, table);
+        return existing != null ? existing : table;
+    }
+    
+    private MessageTable readLanguage(String languageCode) {
+        if (bundle != null) {
+            try {
+                Map<String, String> texts = bundle.decode(languageCode);
+                if (texts != null) {
+                    return new MessageTable(languageCode, texts);
                 }
+            } catch (RuntimeException e) {
+                System.err.println("Paquete de idiomas dañado, se usan los JSON: " + e.getMessage());
             }
+        }
+        return readLanguageJson(languageCode);
+    }
+    
+    private synchronized MessageTable readLanguageJson(String languageCode) {
+        String resourcePath = LANGUAGE_PATH + languageCode + LANGUAGE_EXTENSION;
+        try (InputStream inputStream = getClass().getResourceAsStream(resourcePath)) {
+            if (inputStream == null) {
+                System.err.println("No se pudo cargar el archivo de idioma: " + resourcePath);
+                return null;
+            }
+            if (gson == null) {
+                gson = new Gson();
+            }
+            JsonObject languageData = gson.fromJson(
+                new InputStreamReader(inputStream, StandardCharsets.UTF_8), 
+                JsonObject.class
+            );
+            MessageTable table = MessageTable.fromJson(languageCode, languageData);
+            System.out.println("Idioma cargado: " + languageCode);
+            return table;
         } catch (Exception e) {
             System.err.println("Error al cargar el idioma " + languageCode + ": " + e.getMessage());
-            // Cargar idioma por defecto si falla
-            if (!languageCode.equals(DEFAULT_LANGUAGE)) {
-                loadLanguage(DEFAULT_LANGUAGE);
-            }
+            return null;
         }
     }
     
@@ -101,7 +136,9 @@ public class LanguageManager {
      * @return Texto en el idioma actual o la clave si no se encuentra
      */
     public String getText(String key) {
-        return getText(key, currentLanguage);
+        MessageTable table = current;
+        String text = table == null ? null : table.get(key);
+        return text != null ? text : key;
     }
     
     /**
@@ -111,27 +148,9 @@ public class LanguageManager {
      * @return Texto en el idioma especificado o la clave si no se encuentra
      */
     public String getText(String key, String languageCode) {
-        JsonObject languageData = languageFiles.get(languageCode);
-        if (languageData == null) {
-            return key;
-        }
-        
-        String[] keyParts = key.split("\\.");
-        JsonObject current = languageData;
-        
-        for (int i = 0; i < keyParts.length - 1; i++) {
-            if (current.has(keyParts[i]) && current.get(keyParts[i]).isJsonObject()) {
-                current = current.getAsJsonObject(keyParts[i]);
-            } else {
-                return key;
-            }
-        }
-        
-        if (current.has(keyParts[keyParts.length - 1])) {
-            return current.get(keyParts[keyParts.length - 1]).getAsString();
-        }
-        
-        return key;
+        MessageTable table = languageFiles.get(languageCode);
+        String text = table == null ? null : table.get(key);
+        return text != null ? text : key;
     }
     
     /**
@@ -141,11 +160,9 @@ public class LanguageManager {
      * @return Texto con parámetros sustituidos
      */
     public String getText(String key, Object... params) {
-        String text = getText(key);
-        for (int i = 0; i < params.length; i++) {
-            text = text.replace("{" + i + "}", String.valueOf(params[i]));
-        }
-        return text;
+        MessageTable table = current;
+        String text = table == null ? null : table.format(key, params);
+        return text != null ? text : key;
     }
     
     /**
@@ -153,7 +170,8 @@ public class LanguageManager {
      * @return Código del idioma actual
      */
     public String getCurrentLanguage() {
-        return currentLanguage;
+        MessageTable table = current;
+        return table != null ? table.getLanguageCode() : DEFAULT_LANGUAGE;
     }
     
     /**
@@ -161,10 +179,7 @@ public class LanguageManager {
      * @param languageCode Código del idioma
      */
     public void setCurrentLanguage(String languageCode) {
-        if (!languageFiles.containsKey(languageCode)) {
-            loadLanguage(languageCode);
-        }
-        currentLanguage = languageCode;
+        loadLanguage(languageCode);
     }
     
     /**
@@ -204,8 +219,9 @@ public class LanguageManager {
      * Carga todos los idiomas disponibles
      */
     public void loadAllLanguages() {
-        loadLanguage("es");
-        loadLanguage("en");
+        // Solo carga las tablas; el idioma actual no cambia
+        getTable("es");
+        getTable("en");
     }
     
     /**
@@ -215,7 +231,7 @@ public class LanguageManager {
      */
     public String getTextWithFallback(String key) {
         String text = getText(key);
-        if (text.equals(key) && !currentLanguage.equals(DEFAULT_LANGUAGE)) {
+        if (text.equals(key) && !getCurrentLanguage().equals(DEFAULT_LANGUAGE)) {
             text = getText(key, DEFAULT_LANGUAGE);
         }
         return text;
@@ -0,0 +1,153 @@
+package com.ToTerminal.utils;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Textos de un idioma ya preparados para consultarlos.
+ * Las claves anidadas del JSON se aplanan a claves con puntos ("main.menu.terminal") y cada texto
+ * se divide al cargarlo en fragmentos literales y parámetros {0}, {1}..., de modo que una consulta
+ * es una sola búsqueda en un mapa y la sustitución de parámetros una sola pasada.
+ *
+ * Es inmutable y puede compartirse entre hilos.
+ */
+final class MessageTable {
+
+    private final String languageCode;
+    private final Map<String, Message> messages;
+
+    MessageTable(String languageCode, Map<String, String> texts) {
+        this.languageCode = languageCode;
+        Map<String, Message> parsed = new HashMap<>(texts.size() * 2);
+        for (Map.Entry<String, String> entry : texts.entrySet()) {
+            parsed.put(entry.getKey(), Message.parse(entry.getValue()));
+        }
+        this.messages = Collections.unmodifiableMap(parsed);
+    }
+
+    /**
+     * Crea la tabla a partir del JSON de un idioma
+     */
+    static MessageTable fromJson(String languageCode, JsonObject json) {
+        return new MessageTable(languageCode, flatten(json));
+    }
+
+    /**
+     * Aplana el JSON de un idioma a claves con puntos, en el orden del archivo
+     */
+    static Map<String, String> flatten(JsonObject json) {
+        Map<String, String> texts = new LinkedHashMap<>();
+        flatten("", json, texts);
+        return texts;
+    }
+
+    private static void flatten(String prefix, JsonObject object, Map<String, String> texts) {
+        for (Map.Entry<String, JsonElement> entry : object.entrySet()) {
+            String key = prefix.isEmpty() ? entry.getKey() : prefix + "." + entry.getKey();
+            JsonElement value = entry.getValue();
+            if (value.isJsonObject()) {
+                flatten(key, value.getAsJsonObject(), texts);
+            } else if (value.isJsonPrimitive()) {
+                texts.put(key, value.getAsString());
+            }
+        }
+    }
+
+    String getLanguageCode() {
+        return languageCode;
+    }
+
+    /**
+     * @return el texto sin sustituir o null si la clave no existe
+     */
+    String get(String key) {
+        Message message = messages.get(key);
+        return message == null ? null : message.text;
+    }
+
+    /**
+     * @return el texto con los parámetros sustituidos o null si la clave no existe
+     */
+    String format(String key, Object[] params) {
+        Message message = messages.get(key);
+        return message == null ? null : message.format(params);
+    }
+
+    int size() {
+        return messages.size();
+    }
+
+    /**
+     * Texto con sus parámetros localizados. {@code segments} alterna literales (String) e índices
+     * de parámetro (Integer); si no hay parámetros es null.
+     */
+    private static final class Message {
+        final String text;
+        final Object[] segments;
+
+        private Message(String text, Object[] segments) {
+            this.text = text;
+            this.segments = segments;
+        }
+
+        static Message parse(String text) {
+            List<Object> segments = null;
+            int literalStart = 0;
+            int i = text.indexOf('{');
+            while (i >= 0) {
+                int end = i + 1;
+                while (end < text.length() && Character.isDigit(text.charAt(end))) {
+                    end++;
+                }
+                if (end > i + 1 && end < text.length() && text.charAt(end) == '}' && end - i <= 10) {
+                    if (segments == null) {
+                        segments = new ArrayList<>();
+                    }
+                    if (i > literalStart) {
+                        segments.add(text.substring(literalStart, i));
+                    }
+                    segments.add(Integer.parseInt(text.substring(i + 1, end)));
+                    literalStart = end + 1;
+                    i = text.indexOf('{', literalStart);
+                } else {
+                    i = text.indexOf('{', i + 1);
+                }
+            }
+            if (segments == null) {
+                return new Message(text, null);
+            }
+            if (literalStart < text.length()) {
+                segments.add(text.substring(literalStart));
+            }
+            return new Message(text, segments.toArray());
+        }
+
+        String format(Object[] params) {
+            if (segments == null || params == null || params.length == 0) {
+                return text;
+            }
+            StringBuilder result = new StringBuilder(text.length() + 16 * params.length);
+            for (Object segment : segments) {
+                if (segment instanceof Integer) {
+                    int index = (Integer) segment;
+                    if (index < params.length) {
+                        result.append(params[index]);
+                    } else {
+                        // Sin valor para el parámetro se deja tal cual
+                        result.append('{').append(index).append('}');
+                    }
+                } else {
+                    result.append((String) segment);
+                }
+            }
+            return result.toString();
+        }
+    }
+}
@@ -2,32 +2,50 @@ package com.ToTerminal.utils;
 
 import com.ToTerminal.models.ConfigData;
 import javafx.application.Platform;
-import javafx.scene.Node;
 import javafx.scene.Scene;
-import javafx.scene.control.*;
-import javafx.scene.layout.Pane;
 import javafx.stage.Stage;
 
-import java.util.ArrayList;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.concurrent.CopyOnWriteArrayList;
 
 /**
  * Gestor centralizado de estilos para toda la aplicación
  * Implementa el patrón Observer para notificar cambios de estilo a todas las ventanas
+ *
+ * El tema se aplica con una hoja de estilos generada a partir de la configuración que redefine
+ * los colores de terminal-styles.css; cambiar de tema solo sustituye esa hoja en cada escena.
  */
 public class StyleManager {
     
+    private static final String THEME_STYLESHEET_PREFIX = "data:text/css;base64,";
+    private static final int MAX_CACHED_STYLESHEETS = 32;
+    
     private static StyleManager instance;
+    
+    // Hojas generadas por tema; se descartan las menos usadas (p. ej. al arrastrar un selector de color)
+    private final Map<ThemeKey, String> stylesheetCache = new LinkedHashMap<ThemeKey, String>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<ThemeKey, String> eldest) {
+            return size() > MAX_CACHED_STYLESHEETS;
+        }
+    };
     private ConfigData currentConfig;
     private final List<StyleChangeListener> listeners = new CopyOnWriteArrayList<>();
     private final List<Stage> registeredStages = new CopyOnWriteArrayList<>();
+    // Hoja del tema aplicado con updateStyles; se guarda como texto porque la configuración
+    // que la generó puede seguir editándose en la ventana de configuración
+    private String appliedStylesheet;
+    private boolean previewActive;
     
     // Constructor privado para singleton
     private StyleManager() {
-        // Inicializar con configuración por defecto
-        currentConfig = new ConfigData();
-        currentConfig.setDefaultValues();
+        // Inicializar con la configuración guardada (o la de por defecto si no existe)
+        currentConfig = ConfigData.load();
     }
     
     /**
@@ -88,6 +106,9 @@ public class StyleManager {
         if (newConfig == null) return;
         
         this.currentConfig = newConfig;
+        this.appliedStylesheet = getStylesheet(newConfig);
+        // La configuración aplicada sustituye a cualquier vista previa en curso
+        previewActive = false;
         
         // Notificar a todos los listeners
         Platform.runLater(() -> {
@@ -120,122 +141,93 @@ public class StyleManager {
      */
     public void applyStylesToStage(Stage stage) {
         if (stage == null || currentConfig == null) return;
-        
-        Scene scene = stage.getScene();
-        if (scene == null) return;
-        
-        Node root = scene.getRoot();
-        if (root != null) {
-            applyStylesToNode(root);
+        applyTheme(stage.getScene(), currentConfig);
+    }
+    
+    /**
+     * Aplica el tema de una configuración a una escena sustituyendo su hoja de estilos generada.
+     * El cambio es un único reemplazo en la lista de hojas de la escena, sin recorrer sus nodos.
+     */
+    public void applyTheme(Scene scene, ConfigData config) {
+        if (scene == null || config == null) return;
+        applyStylesheet(scene, getStylesheet(config));
+    }
+    
+    /**
+     * Muestra temporalmente el tema de una configuración en todas las ventanas registradas,
+     * sin cambiar la configuración actual. Se deshace con {@link #endPreview()}.
+     */
+    public void previewTheme(ConfigData config) {
+        if (config == null) return;
+        if (appliedStylesheet == null && currentConfig != null) {
+            appliedStylesheet = getStylesheet(currentConfig);
+        }
+        previewActive = true;
+        String stylesheet = getStylesheet(config);
+        for (Stage stage : registeredStages) {
+            if (stage != null && stage.isShowing() && stage.getScene() != null) {
+                applyStylesheet(stage.getScene(), stylesheet);
+            }
         }
     }
     
     /**
-     * Aplica estilos a un nodo y todos sus hijos recursivamente
+     * Termina la vista previa global y devuelve a las ventanas el tema que tenían
      */
-    public void applyStylesToNode(Node node) {
-        if (node == null || currentConfig == null) return;
-        
-        // Aplicar estilos al nodo actual
-        applyNodeSpecificStyles(node);
-        
-        // Aplicar estilos a los hijos si es un contenedor
-        if (node instanceof Pane) {
-            Pane pane = (Pane) node;
-            for (Node child : pane.getChildren()) {
-                applyStylesToNode(child);
+    public void endPreview() {
+        if (!previewActive || appliedStylesheet == null) return;
+        previewActive = false;
+        for (Stage stage : registeredStages) {
+            if (stage != null && stage.isShowing() && stage.getScene() != null) {
+                applyStylesheet(stage.getScene(), appliedStylesheet);
             }
         }
-        
-        // Aplicar estilos a elementos específicos de JavaFX
-        if (node instanceof TabPane) {
-            TabPane tabPane = (TabPane) node;
-            for (Tab tab : tabPane.getTabs()) {
-                if (tab.getContent() != null) {
-                    applyStylesToNode(tab.getContent());
+    }
+    
+    private void applyStylesheet(Scene scene, String stylesheet) {
+        List<String> stylesheets = scene.getStylesheets();
+        for (int i = 0; i < stylesheets.size(); i++) {
+            if (stylesheets.get(i).startsWith(THEME_STYLESHEET_PREFIX)) {
+                if (!stylesheets.get(i).equals(stylesheet)) {
+                    stylesheets.set(i, stylesheet);
                 }
+                return;
             }
         }
+        // Al final, para que tenga prioridad sobre terminal-styles.css
+        stylesheets.add(stylesheet);
     }
     
     /**
-     * Aplica estilos específicos según el tipo de nodo
+     * Obtiene la hoja de estilos (como URI data:) con los colores y la fuente de una configuración.
+     * Las hojas se guardan en caché según los valores de apariencia de la configuración.
      */
-    private void applyNodeSpecificStyles(Node node) {
-        if (currentConfig == null) return;
-        
-        String bgColor = currentConfig.getBackgroundColor();
-        String textColor = currentConfig.getTextColor();
-        String fontSize = currentConfig.getFontSize() + "px";
-        String fontFamily = getFontFamilyCSSValue(currentConfig.getSelectedFontFamily());
-        
-        // Estilos base para todos los nodos
-        String baseStyle = String.format(
-            "-fx-background-color: %s !important; " +
-            "-fx-text-fill: %s !important; " +
-            "-fx-font-size: %s !important; " +
-            "-fx-font-family: %s !important;",
-            bgColor, textColor, fontSize, fontFamily
-        );
-        
-        // Estilos específicos según el tipo de nodo
-        if (node instanceof TextField) {
-            TextField textField = (TextField) node;
-            textField.setStyle(baseStyle + 
-                " -fx-border-color: " + textColor + " !important;" +
-                " -fx-prompt-text-fill: " + textColor + " !important;");
-        }
-        else if (node instanceof TextArea) {
-            TextArea textArea = (TextArea) node;
-            textArea.setStyle(baseStyle + 
-                " -fx-border-color: " + textColor + " !important;");
-        }
-        else if (node instanceof ComboBox) {
-            ComboBox<?> comboBox = (ComboBox<?>) node;
-            comboBox.setStyle(baseStyle + 
-                " -fx-border-color: " + textColor + " !important;");
-        }
-        else if (node instanceof CheckBox) {
-            CheckBox checkBox = (CheckBox) node;
-            checkBox.setStyle(baseStyle);
-        }
-        else if (node instanceof Label) {
-            Label label = (Label) node;
-            label.setStyle(baseStyle);
-        }
-        else if (node instanceof Button) {
-            Button button = (Button) node;
-            // Los botones mantienen su estilo original para mejor UX
-            // Solo cambiamos el texto
-            button.setStyle(baseStyle);
-        }
-        else if (node instanceof Slider) {
-            Slider slider = (Slider) node;
-            slider.setStyle(baseStyle);
-        }
-        else if (node instanceof Spinner) {
-            Spinner<?> spinner = (Spinner<?>) node;
-            spinner.setStyle(baseStyle);
-        }
-        else if (node instanceof ColorPicker) {
-            ColorPicker colorPicker = (ColorPicker) node;
-            colorPicker.setStyle(baseStyle + 
-                " -fx-border-color: " + textColor + " !important;");
-        }
-        else if (node instanceof TabPane) {
-            TabPane tabPane = (TabPane) node;
-            tabPane.setStyle(baseStyle);
-        }
-        else {
-            // Para otros tipos de nodos, aplicar estilos base
-            node.setStyle(baseStyle);
+    public String getStylesheet(ConfigData config) {
+        ThemeKey key = new ThemeKey(config);
+        synchronized (stylesheetCache) {
+            return stylesheetCache.computeIfAbsent(key, StyleManager::buildStylesheet);
         }
     }
     
+    /**
+     * Genera la hoja de estilos de un tema: redefine en .root los colores que usa terminal-styles.css
+     * y la fuente, que heredan todos los nodos
+     */
+    private static String buildStylesheet(ThemeKey key) {
+        String css = ".root {\n" +
+            "    -tt-background: " + key.backgroundColor + ";\n" +
+            "    -tt-text: " + key.textColor + ";\n" +
+            "    -fx-font-size: " + key.fontSize + "px;\n" +
+            "    -fx-font-family: " + getFontFamilyCSSValue(key.fontFamily) + ";\n" +
+            "}\n";
+        return THEME_STYLESHEET_PREFIX + Base64.getEncoder().encodeToString(css.getBytes(StandardCharsets.UTF_8));
+    }
+    
     /**
      * Convierte valores internos de fuente a valores CSS válidos
      */
-    private String getFontFamilyCSSValue(String fontValue) {
+    public static String getFontFamilyCSSValue(String fontValue) {
+        if (fontValue == null) return "'Courier New', monospace";
         switch (fontValue) {
             case "courier_new":
                 return "'Courier New', monospace";
@@ -257,30 +249,35 @@ public class StyleManager {
     }
     
     /**
-     * Limpia todos los estilos inline de un nodo y sus hijos
+     * Valores de la configuración que determinan la hoja de estilos generada
      */
-    public void clearStylesFromNode(Node node) {
-        if (node == null) return;
+    private static final class ThemeKey {
+        final String backgroundColor;
+        final String textColor;
+        final int fontSize;
+        final String fontFamily;
         
-        // Limpiar estilos del nodo actual
-        node.setStyle("");
+        ThemeKey(ConfigData config) {
+            this.backgroundColor = config.getBackgroundColor();
+            this.textColor = config.getTextColor();
+            this.fontSize = config.getFontSize();
+            this.fontFamily = config.getSelectedFontFamily();
+        }
         
-        // Limpiar estilos de los hijos si es un contenedor
-        if (node instanceof Pane) {
-            Pane pane = (Pane) node;
-            for (Node child : pane.getChildren()) {
-                clearStylesFromNode(child);
-            }
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) return true;
+            if (!(obj instanceof ThemeKey)) return false;
+            ThemeKey that = (ThemeKey) obj;
+            return fontSize == that.fontSize
+                && Objects.equals(backgroundColor, that.backgroundColor)
+                && Objects.equals(textColor, that.textColor)
+                && Objects.equals(fontFamily, that.fontFamily);
         }
         
-        // Limpiar estilos de elementos específicos
-        if (node instanceof TabPane) {
-            TabPane tabPane = (TabPane) node;
-            for (Tab tab : tabPane.getTabs()) {
-                if (tab.getContent() != null) {
-                    clearStylesFromNode(tab.getContent());
-                }
-            }
+        @Override
+        public int hashCode() {
+            return Objects.hash(backgroundColor, textColor, fontSize, fontFamily);
         }
     }
     
@@ -290,17 +287,7 @@ public class StyleManager {
     public void restoreDefaultStyles() {
         currentConfig.setDefaultValues();
         
-        // Limpiar estilos inline de todas las ventanas registradas
-        for (Stage stage : registeredStages) {
-            if (stage != null && stage.isShowing()) {
-                Scene scene = stage.getScene();
-                if (scene != null && scene.getRoot() != null) {
-                    clearStylesFromNode(scene.getRoot());
-                }
-            }
-        }
-        
-        // Notificar a todos los listeners
+        // Notificar a todos los listeners y aplicar la hoja del tema por defecto
         updateStyles(currentConfig);
     }
-} 
\ No newline at end of file
+}
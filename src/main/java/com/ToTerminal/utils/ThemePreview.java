@@ -0,0 +1,108 @@
+package com.ToTerminal.utils;
+
+import com.ToTerminal.models.ConfigData;
+import javafx.animation.AnimationTimer;
+import javafx.scene.Scene;
+
+import java.util.function.Supplier;
+
+/**
+ * Vista previa en vivo del tema que se está editando.
+ * Los cambios de los controles solo piden una actualización; las peticiones se agrupan y se
+ * aplican como mucho una vez por frame, y solo si el tema resultante es distinto del último
+ * aplicado (p. ej. arrastrar el slider dentro del mismo tamaño entero no hace nada).
+ *
+ * Debe usarse desde el hilo de JavaFX.
+ */
+public class ThemePreview {
+
+    private final Supplier<ConfigData> settings;
+    private final StyleManager styleManager;
+
+    private Scene scene;
+    private boolean global;
+    private boolean scheduled;
+    private String applied;
+
+    private final AnimationTimer frame = new AnimationTimer() {
+        @Override
+        public void handle(long now) {
+            stop();
+            scheduled = false;
+            flush();
+        }
+    };
+
+    /**
+     * @param settings configuración en edición (se consulta en cada frame, por lo que puede cambiar de objeto)
+     */
+    public ThemePreview(Supplier<ConfigData> settings) {
+        this.settings = settings;
+        this.styleManager = StyleManager.getInstance();
+    }
+
+    /**
+     * Escena propia de la vista previa (la de la ventana de configuración)
+     */
+    public void setScene(Scene scene) {
+        this.scene = scene;
+        applied = null;
+        request();
+    }
+
+    /**
+     * Pide aplicar la vista previa en el próximo frame
+     */
+    public void request() {
+        if (!scheduled) {
+            scheduled = true;
+            frame.start();
+        }
+    }
+
+    /**
+     * Activa o desactiva la vista previa en todas las ventanas registradas
+     */
+    public void setGlobal(boolean global) {
+        if (this.global == global) return;
+        this.global = global;
+        if (!global) {
+            // Restaura el resto de ventanas, incluida la propia, que se vuelve a previsualizar
+            styleManager.endPreview();
+        }
+        applied = null;
+        request();
+    }
+
+    public boolean isGlobal() {
+        return global;
+    }
+
+    /**
+     * Detiene la vista previa y restaura las ventanas si estaba activa en todas
+     */
+    public void dispose() {
+        frame.stop();
+        scheduled = false;
+        if (global) {
+            global = false;
+            styleManager.endPreview();
+        }
+        scene = null;
+    }
+
+    private void flush() {
+        ConfigData config = settings.get();
+        if (config == null) return;
+        String stylesheet = styleManager.getStylesheet(config);
+        if (stylesheet.equals(applied)) return;
+        applied = stylesheet;
+
+        if (global) {
+            styleManager.previewTheme(config);
+        }
+        if (scene != null) {
+            styleManager.applyTheme(scene, config);
+        }
+    }
+}
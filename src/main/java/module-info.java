@@ -14,4 +14,28 @@ module com.ToTerminal {
     exports com.ToTerminal.ScriptReader;
     exports com.ToTerminal.utils;
     exports com.ToTerminal.models;
+
+    // Comandos internos de la terminal (ver CommandRegistry)
+    uses com.ToTerminal.interpreter.Command;
+    provides com.ToTerminal.interpreter.Command with
+        com.ToTerminal.interpreter.commands.HelpCommand,
+        com.ToTerminal.interpreter.commands.ClearCommand,
+        com.ToTerminal.interpreter.commands.PwdCommand,
+        com.ToTerminal.interpreter.commands.CdCommand,
+        com.ToTerminal.interpreter.commands.WhoamiCommand,
+        com.ToTerminal.interpreter.commands.DateCommand,
+        com.ToTerminal.interpreter.commands.EchoCommand,
+        com.ToTerminal.interpreter.commands.RunCommand,
+        com.ToTerminal.interpreter.commands.CacheCommand,
+        com.ToTerminal.interpreter.commands.JobsCommand,
+        com.ToTerminal.interpreter.commands.FgCommand,
+        com.ToTerminal.interpreter.commands.KillCommand,
+        com.ToTerminal.interpreter.commands.ExportCommand,
+        com.ToTerminal.interpreter.commands.UnsetCommand,
+        com.ToTerminal.interpreter.commands.LsCommand,
+        com.ToTerminal.interpreter.commands.FindCommand,
+        com.ToTerminal.interpreter.commands.DuCommand,
+        com.ToTerminal.interpreter.commands.TreeCommand,
+        com.ToTerminal.interpreter.commands.GrepCommand,
+        com.ToTerminal.interpreter.commands.ExitCommand;
 }
@@ -0,0 +1,130 @@
+// Worker de NodeJS para ToTerminal.
+// Protocolo (una línea JSON por mensaje):
+//   entrada:  {"id": n, "path": "...", "cwd": "...", "args": [...]}
+//   salida:   {"id": n, "t": "o"|"e", "d": "texto"}   salida estándar / de error del script
+//             {"id": n, "t": "x", "c": código, "dirty": b}  fin de la ejecución; dirty indica que el
+//                                                      script dejó recursos abiertos o variables globales
+//                                                      y el worker debe reciclarse
+//
+// Cada script se carga como módulo principal (require.main === module), como con node script.js,
+// y sus módulos se quitan de require.cache al terminar. stdin es el canal del protocolo, así que
+// el script ve una entrada vacía, igual que los procesos que lanza la terminal.
+'use strict';
+
+const Module = require('module');
+const path = require('path');
+const readline = require('readline');
+const { Readable } = require('stream');
+
+const rawWrite = process.stdout.write.bind(process.stdout);
+const send = (message) => rawWrite(JSON.stringify(message) + '\n');
+
+let current = null;
+
+const capture = (type) => (chunk, encoding, callback) => {
+    if (current !== null) {
+        send({ id: current, t: type, d: typeof chunk === 'string' ? chunk : Buffer.from(chunk).toString('utf8') });
+    }
+    const done = typeof encoding === 'function' ? encoding : callback;
+    if (typeof done === 'function') done();
+    return true;
+};
+process.stdout.write = capture('o');
+process.stderr.write = capture('e');
+
+// process.exit termina solo el script actual, no el worker
+class ScriptExit {
+    constructor(code) { this.code = code; }
+}
+process.exit = (code) => {
+    throw new ScriptExit(code === undefined ? (process.exitCode || 0) : code);
+};
+
+const activeCount = () => process.getActiveResourcesInfo
+    ? process.getActiveResourcesInfo().length
+    : process._getActiveHandles().length + process._getActiveRequests().length;
+
+// Espera a que el script no tenga temporizadores, sockets ni peticiones pendientes.
+// La comprobación se hace desde un temporizador propio, que cuenta como un recurso activo más.
+let pendingCheck = null;
+const waitForIdle = (baseline) => new Promise((resolve) => {
+    const check = () => {
+        if (activeCount() - 1 <= baseline) {
+            pendingCheck = null;
+            resolve();
+        } else {
+            pendingCheck = setTimeout(check, 5);
+        }
+    };
+    pendingCheck = setTimeout(check, 0);
+});
+const stopWaiting = () => {
+    if (pendingCheck) clearTimeout(pendingCheck);
+    pendingCheck = null;
+};
+
+const protocolInput = process.stdin;
+let scriptInput = null;
+Object.defineProperty(process, 'stdin', {
+    configurable: true,
+    enumerable: true,
+    get: () => {
+        if (scriptInput === null) {
+            scriptInput = new Readable({ read() { this.push(null); } });
+        }
+        return scriptInput;
+    }
+});
+
+// Lo que hay antes de ejecutar ningún script; lo que se añada después es del script
+const baseModules = new Set(Object.keys(Module._cache));
+const baseGlobals = new Set(Object.getOwnPropertyNames(globalThis));
+
+const clearModules = () => {
+    for (const key of Object.keys(Module._cache)) {
+        if (!baseModules.has(key)) delete Module._cache[key];
+    }
+};
+const leakedGlobals = () => Object.getOwnPropertyNames(globalThis).some((name) => !baseGlobals.has(name));
+
+let exitHandler = null;
+process.on('uncaughtException', (error) => {
+    if (exitHandler) exitHandler(error);
+});
+
+const run = async (job) => {
+    current = job.id;
+    let code = 0;
+    let failed = false;
+    const baseline = activeCount();
+    try {
+        const failure = new Promise((_, reject) => { exitHandler = reject; });
+        process.chdir(job.cwd);
+        process.argv = [process.argv[0], job.path, ...(job.args || [])];
+        clearModules();
+        Module._load(path.resolve(job.cwd, job.path), null, true);
+        await Promise.race([waitForIdle(baseline), failure]);
+        code = process.exitCode || 0;
+    } catch (error) {
+        if (error instanceof ScriptExit) {
+            code = error.code;
+        } else {
+            send({ id: job.id, t: 'e', d: String((error && error.stack) || error) + '\n' });
+            code = 1;
+            failed = true;
+        }
+    }
+    stopWaiting();
+    clearModules();
+    scriptInput = null;
+    exitHandler = null;
+    process.exitCode = undefined;
+    current = null;
+    send({ id: job.id, t: 'x', c: code, dirty: failed || activeCount() > baseline || leakedGlobals() });
+};
+
+let queue = Promise.resolve();
+readline.createInterface({ input: protocolInput }).on('line', (line) => {
+    const job = JSON.parse(line);
+    queue = queue.then(() => run(job));
+});
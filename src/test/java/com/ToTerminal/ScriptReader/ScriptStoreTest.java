@@ -0,0 +1,168 @@
+package com.ToTerminal.ScriptReader;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Recuperación del registro de scripts: instantánea o diario dañados, compactación interrumpida y reproducción
+ */
+class ScriptStoreTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void truncatedLastRecordIsDiscarded() throws IOException {
+        ScriptStore store = new ScriptStore(directory);
+        store.load();
+        List<Script> state = new ArrayList<>();
+        state.add(script("a"));
+        store.logAdd(script("a"), () -> state);
+        state.add(script("b"));
+        store.logAdd(script("b"), () -> state);
+        store.flush();
+
+        // El proceso muere a mitad de escribir el último registro
+        Path journal = directory.resolve(ScriptStore.JOURNAL_FILE);
+        long size = Files.size(journal);
+        try (FileChannel channel = FileChannel.open(journal, StandardOpenOption.WRITE)) {
+            channel.truncate(size - 3);
+        }
+
+        ScriptStore reopened = new ScriptStore(directory);
+        assertEquals(List.of("a"), names(reopened.load()));
+        long valid = Files.size(journal);
+
+        // Se sigue anexando detrás del último registro válido
+        reopened.logAdd(script("c"), List::of);
+        reopened.flush();
+        assertEquals(List.of("a", "c"), names(new ScriptStore(directory).load()));
+        assertTrue(Files.size(journal) > valid);
+    }
+
+    @Test
+    void corruptedLastRecordIsDiscarded() throws IOException {
+        try (ScriptJournal journal = ScriptJournal.create(directory.resolve(ScriptStore.JOURNAL_FILE), 0)) {
+            journal.append(ScriptJournal.addRecord(script("a")));
+            journal.append(ScriptJournal.addRecord(script("b")));
+        }
+        Path journal = directory.resolve(ScriptStore.JOURNAL_FILE);
+        byte[] data = Files.readAllBytes(journal);
+        data[data.length - 1] ^= 0x55;
+        Files.write(journal, data);
+
+        assertEquals(List.of("a"), names(new ScriptStore(directory).load()));
+    }
+
+    @Test
+    void corruptSnapshotIsMovedAside() throws IOException {
+        // Instantánea ilegible y una compactación interrumpida que habría que terminar
+        byte[] damaged = ScriptStore.encode(List.of(script("a")), 0);
+        damaged[0] ^= 0x55;
+        Files.write(directory.resolve(ScriptStore.STORE_FILE), damaged);
+        try (ScriptJournal old = ScriptJournal.create(directory.resolve(ScriptStore.OLD_JOURNAL_FILE), 0)) {
+            old.append(ScriptJournal.addRecord(script("b")));
+        }
+        try (ScriptJournal current = ScriptJournal.create(directory.resolve(ScriptStore.JOURNAL_FILE), 1)) {
+            current.append(ScriptJournal.addRecord(script("c")));
+        }
+
+        assertEquals(List.of("b", "c"), names(new ScriptStore(directory).load()));
+        Path corrupt = directory.resolve(ScriptStore.STORE_FILE + ScriptStore.CORRUPT_SUFFIX);
+        assertArrayEquals(damaged, Files.readAllBytes(corrupt));
+        // No se compacta sobre ella: se conservan los dos diarios
+        assertFalse(Files.exists(directory.resolve(ScriptStore.STORE_FILE)));
+        assertTrue(Files.exists(directory.resolve(ScriptStore.OLD_JOURNAL_FILE)));
+    }
+
+    @Test
+    void compactionInterruptedBeforeSnapshotReplaysBothJournals() throws IOException {
+        // Instantánea de la generación 0, diario rotado y diario nuevo, sin instantánea nueva
+        writeSnapshot(List.of(script("a")), 0);
+        try (ScriptJournal old = ScriptJournal.create(directory.resolve(ScriptStore.OLD_JOURNAL_FILE), 0)) {
+            old.append(ScriptJournal.addRecord(script("b")));
+        }
+        try (ScriptJournal current = ScriptJournal.create(directory.resolve(ScriptStore.JOURNAL_FILE), 1)) {
+            current.append(ScriptJournal.addRecord(script("c")));
+        }
+
+        assertEquals(List.of("a", "b", "c"), names(new ScriptStore(directory).load()));
+        // La recuperación termina la compactación
+        assertFalse(Files.exists(directory.resolve(ScriptStore.OLD_JOURNAL_FILE)));
+        assertEquals(List.of("a", "b", "c"), names(new ScriptStore(directory).load()));
+    }
+
+    @Test
+    void crashBetweenSnapshotWriteAndJournalResetDoesNotDuplicate() throws IOException {
+        // La instantánea de la generación 1 ya incluye el diario rotado, que no se llegó a borrar
+        writeSnapshot(List.of(script("a"), script("b")), 1);
+        try (ScriptJournal old = ScriptJournal.create(directory.resolve(ScriptStore.OLD_JOURNAL_FILE), 0)) {
+            old.append(ScriptJournal.addRecord(script("b")));
+            old.append(ScriptJournal.removeRecord("a"));
+        }
+        try (ScriptJournal current = ScriptJournal.create(directory.resolve(ScriptStore.JOURNAL_FILE), 1)) {
+            current.append(ScriptJournal.addRecord(script("c")));
+        }
+
+        assertEquals(List.of("a", "b", "c"), names(new ScriptStore(directory).load()));
+        assertFalse(Files.exists(directory.resolve(ScriptStore.OLD_JOURNAL_FILE)));
+    }
+
+    @Test
+    void staleJournalFromOlderGenerationIsIgnored() throws IOException {
+        writeSnapshot(List.of(script("a")), 2);
+        try (ScriptJournal current = ScriptJournal.create(directory.resolve(ScriptStore.JOURNAL_FILE), 1)) {
+            current.append(ScriptJournal.removeRecord("a"));
+        }
+
+        assertEquals(List.of("a"), names(new ScriptStore(directory).load()));
+    }
+
+    @Test
+    void replayIsIdempotent() throws IOException {
+        Script renamed = script("b2");
+        // La instantánea ya contiene los cambios del diario, como tras una compactación que se repite
+        writeSnapshot(List.of(script("a"), renamed), 0);
+        try (ScriptJournal current = ScriptJournal.create(directory.resolve(ScriptStore.JOURNAL_FILE), 0)) {
+            current.append(ScriptJournal.addRecord(script("a")));
+            current.append(ScriptJournal.addRecord(script("b")));
+            current.append(ScriptJournal.changeRecord("b", renamed));
+            current.append(ScriptJournal.removeRecord("x"));
+        }
+
+        List<Script> first = new ScriptStore(directory).load();
+        List<Script> second = new ScriptStore(directory).load();
+        assertEquals(List.of("a", "b2"), names(first));
+        assertEquals(names(first), names(second));
+        assertEquals("/scripts/b2.js", second.get(1).getScriptPath());
+    }
+
+    private void writeSnapshot(List<Script> scripts, long generation) throws IOException {
+        Files.write(directory.resolve(ScriptStore.STORE_FILE), ScriptStore.encode(scripts, generation));
+    }
+
+    private static Script script(String name) {
+        return new Script(name, "/scripts/" + name + ".js", AvailableLanguage.NodeJS, "");
+    }
+
+    private static List<String> names(List<Script> scripts) {
+        List<String> names = new ArrayList<>();
+        for (Script s : scripts) {
+            names.add(s.getScriptName());
+        }
+        return names;
+    }
+}
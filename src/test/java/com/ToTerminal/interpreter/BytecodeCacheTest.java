@@ -0,0 +1,75 @@
+package com.ToTerminal.interpreter;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/**
+ * Descarte por uso de la caché de bytecode
+ */
+class BytecodeCacheTest {
+
+    // Cabe con holgura el bytecode de dos entradas, pero no el de tres
+    private static final long MAX_BYTES = 2500;
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void recentlyLookedUpEntrySurvivesEviction() {
+        BytecodeCache cache = new BytecodeCache(directory, MAX_BYTES, "env");
+        store(cache, "a");
+        store(cache, "b");
+
+        assertEquals("a", cache.lookupKey(source("a"), 1, 1));
+        store(cache, "c");
+
+        assertNotNull(cache.load("a"));
+        assertNull(cache.load("b"));
+        assertNotNull(cache.load("c"));
+    }
+
+    @Test
+    void memoryHitSurvivesEviction() {
+        BytecodeCache cache = new BytecodeCache(directory, MAX_BYTES, "env");
+        store(cache, "a");
+        store(cache, "b");
+
+        cache.touch("a");
+        store(cache, "c");
+
+        assertEquals("a", cache.lookupKey(source("a"), 1, 1));
+        assertNull(cache.lookupKey(source("b"), 1, 1));
+    }
+
+    @Test
+    void accessOrderSurvivesRestart() {
+        BytecodeCache cache = new BytecodeCache(directory, MAX_BYTES, "env");
+        store(cache, "a");
+        store(cache, "b");
+        cache.touch("a");
+        cache.flush();
+
+        BytecodeCache reopened = new BytecodeCache(directory, MAX_BYTES, "env");
+        store(reopened, "c");
+
+        assertEquals("a", reopened.lookupKey(source("a"), 1, 1));
+        assertNull(reopened.lookupKey(source("b"), 1, 1));
+    }
+
+    private void store(BytecodeCache cache, String name) {
+        JavaSourceCompiler.CompiledScript script =
+            new JavaSourceCompiler.CompiledScript(name, Map.of(name, new byte[1000]));
+        cache.store(source(name), 1, 1, name, script);
+    }
+
+    private Path source(String name) {
+        return directory.resolve(name + ".java");
+    }
+}
@@ -0,0 +1,118 @@
+package com.ToTerminal.interpreter;
+
+import com.ToTerminal.interpreter.CommandChain.Pipeline;
+import com.ToTerminal.interpreter.CommandChain.Stage;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CommandChainTest {
+
+    @Test
+    void simpleCommand() {
+        List<CommandChain> chains = parse("echo hola mundo");
+        assertEquals(1, chains.size());
+        CommandChain chain = chains.get(0);
+        assertFalse(chain.isBackground());
+        Pipeline pipeline = chain.getPipelines().get(0);
+        assertTrue(pipeline.isSimple());
+        Stage stage = pipeline.getStages().get(0);
+        assertEquals("echo", stage.getName());
+        assertEquals(List.of("hola", "mundo"), stage.getArgs());
+        assertNull(stage.getRedirect());
+    }
+
+    @Test
+    void pipesSplitStages() {
+        Pipeline pipeline = parse("cat f | grep x | wc -l").get(0).getPipelines().get(0);
+        assertEquals(3, pipeline.getStages().size());
+        assertEquals("grep", pipeline.getStages().get(1).getName());
+        assertEquals(List.of("-l"), pipeline.getStages().get(2).getArgs());
+    }
+
+    @Test
+    void andOrConnectPipelines() {
+        CommandChain chain = parse("make && ./run || echo fallo").get(0);
+        assertEquals(3, chain.getPipelines().size());
+        assertEquals(CommandChain.AND, chain.getConnector(0));
+        assertEquals(CommandChain.OR, chain.getConnector(1));
+    }
+
+    @Test
+    void redirectsBelongToTheirStage() {
+        Pipeline pipeline = parse("ls > out.txt").get(0).getPipelines().get(0);
+        Stage stage = pipeline.getStages().get(0);
+        assertEquals("out.txt", stage.getRedirect());
+        assertFalse(stage.isAppend());
+        assertFalse(pipeline.isSimple());
+
+        Stage appended = parse("echo a >> log | cat").get(0).getPipelines().get(0).getStages().get(0);
+        assertEquals("log", appended.getRedirect());
+        assertTrue(appended.isAppend());
+    }
+
+    @Test
+    void ampersandSplitsBackgroundChains() {
+        List<CommandChain> chains = parse("sleep 5 & find / && echo fin &");
+        assertEquals(2, chains.size());
+        assertTrue(chains.get(0).isBackground());
+        assertTrue(chains.get(1).isBackground());
+        assertEquals(2, chains.get(1).getPipelines().size());
+
+        List<CommandChain> mixed = parse("a & b");
+        assertTrue(mixed.get(0).isBackground());
+        assertFalse(mixed.get(1).isBackground());
+    }
+
+    @Test
+    void quotedOperatorsAreArguments() {
+        Stage stage = parse("echo '|' \"&&\" '>'").get(0).getPipelines().get(0).getStages().get(0);
+        assertEquals(List.of("|", "&&", ">"), stage.getArgs());
+    }
+
+    @Test
+    void toStringQuotesWhereNeeded() {
+        assertEquals("echo \"a b\" | wc > \"out file\"", parse("echo 'a b'|wc >'out file'").get(0).toString());
+    }
+
+    @Test
+    void emptyStagesAreRejected() {
+        assertEquals("|", error("| ls"));
+        assertEquals("|", error("ls | | wc"));
+        assertEquals("newline", error("ls |"));
+        assertEquals("newline", error("ls &&"));
+        assertEquals("&&", error("&& ls"));
+        assertEquals("||", error("ls && || wc"));
+        assertEquals("&", error("& ls"));
+        assertEquals("&", error("ls & &"));
+    }
+
+    @Test
+    void badRedirectsAreRejected() {
+        assertEquals("newline", error("ls >"));
+        assertEquals("|", error("ls > | wc"));
+        assertEquals(">", error("> f"));
+        assertEquals(">", error("ls > a > b"));
+        assertEquals("x", error("ls > a x"));
+        assertEquals("&", error("ls > &"));
+    }
+
+    @Test
+    void blankLineHasNoChains() {
+        assertTrue(parse("   ").isEmpty());
+    }
+
+    private static List<CommandChain> parse(String line) {
+        return CommandChain.parse(CommandTokenizer.tokenize(line));
+    }
+
+    private static String error(String line) {
+        return assertThrows(IllegalArgumentException.class, () -> parse(line)).getMessage();
+    }
+}
@@ -0,0 +1,99 @@
+package com.ToTerminal.interpreter;
+
+import com.ToTerminal.interpreter.CommandTokenizer.Token;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CommandTokenizerTest {
+
+    @Test
+    void splitsOnSpacesAndTabs() {
+        assertEquals(List.of("ls", "-l", "/tmp"), texts("  ls \t-l   /tmp  "));
+        assertTrue(CommandTokenizer.tokenize("   ").isEmpty());
+    }
+
+    @Test
+    void operatorsSplitWordsOutsideQuotes() {
+        assertEquals(List.of("ls", "|", "wc", "&&", "a", "||", "b", ">", "f", ">>", "g", "&"),
+            texts("ls|wc&&a||b>f>>g&"));
+        List<Token> tokens = CommandTokenizer.tokenize("a && b");
+        assertTrue(tokens.get(1).is("&&"));
+        assertFalse(tokens.get(0).isOperator());
+    }
+
+    @Test
+    void singleQuotesAreLiteral() {
+        assertEquals(List.of("echo", "a | b \\\" c"), texts("echo 'a | b \\\" c'"));
+    }
+
+    @Test
+    void doubleQuotesEscapeOnlyQuoteAndBackslash() {
+        assertEquals(List.of("echo", "say \"hi\" \\ \\n"), texts("echo \"say \\\"hi\\\" \\\\ \\n\""));
+    }
+
+    @Test
+    void quotedOperatorsAreWords() {
+        List<Token> tokens = CommandTokenizer.tokenize("echo '|' \"&&\" \\>");
+        assertEquals(List.of("echo", "|", "&&", ">"), texts(tokens));
+        for (Token token : tokens) {
+            assertFalse(token.isOperator());
+        }
+    }
+
+    @Test
+    void backslashOutsideQuotesEscapesOnlySpecialCharacters() {
+        assertEquals(List.of("cd", "My Folder"), texts("cd My\\ Folder"));
+        assertEquals(List.of("dir", "C:\\Users\\me"), texts("dir C:\\Users\\me"));
+        assertEquals(List.of("a\\b"), texts("a\\\\b"));
+    }
+
+    @Test
+    void quotesJoinAdjacentText() {
+        assertEquals(List.of("abc d"), texts("a'b'\"c d\""));
+        assertEquals(List.of("echo", ""), texts("echo ''"));
+    }
+
+    @Test
+    void unclosedQuoteRunsToEndOfLine() {
+        assertEquals(List.of("echo", "a | b"), texts("echo \"a | b"));
+    }
+
+    @Test
+    void partialWordKeepsRawStartAndOpenQuote() {
+        CommandTokenizer.Partial partial = CommandTokenizer.partial("cat x | ls \"My Fo");
+        assertEquals(11, partial.getStart());
+        assertEquals("My Fo", partial.getWord());
+        assertEquals('"', partial.getQuote());
+        assertEquals(List.of("cat", "x", "|", "ls"), texts(partial.getPrevious()));
+
+        CommandTokenizer.Partial none = CommandTokenizer.partial("ls ");
+        assertEquals(3, none.getStart());
+        assertEquals("", none.getWord());
+    }
+
+    @Test
+    void escapedTextReadsBackAsOneWord() {
+        String name = "it's a \"b\" | c & d > e\\f";
+        assertEquals(List.of(name), texts(CommandTokenizer.escape(name, (char) 0)));
+        assertEquals(List.of(name), texts("\"" + CommandTokenizer.escape(name, '"') + "\""));
+        assertEquals(List.of(name), texts("'" + CommandTokenizer.escape(name, '\'') + "'"));
+    }
+
+    private static List<String> texts(String line) {
+        return texts(CommandTokenizer.tokenize(line));
+    }
+
+    private static List<String> texts(List<Token> tokens) {
+        List<String> texts = new ArrayList<>();
+        for (Token token : tokens) {
+            texts.add(token.getText());
+        }
+        return texts;
+    }
+}
@@ -0,0 +1,32 @@
+package com.ToTerminal.interpreter;
+
+import java.io.File;
+import java.util.List;
+
+/**
+ * Contextos de comando para las pruebas de otros paquetes, sin sesión ni terminal
+ */
+public final class TestContexts {
+
+    private TestContexts() {
+    }
+
+    /**
+     * Contexto que guarda en la lista las líneas que escribe el comando.
+     * No tiene terminal, así que el comando no debe escribir errores.
+     */
+    public static CommandContext capturing(List<String> output) {
+        LineSink sink = new LineSink() {
+            @Override
+            public boolean write(String line, String styleClass) {
+                output.add(line);
+                return true;
+            }
+
+            @Override
+            public void close() {
+            }
+        };
+        return new CommandContext(null, null, LineSource.EMPTY, sink, "", false, new File("."));
+    }
+}
@@ -0,0 +1,146 @@
+package com.ToTerminal.interpreter.commands;
+
+import com.ToTerminal.interpreter.TestContexts;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.TreeSet;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Búsqueda de grep en archivos: trozos de los archivos grandes, números de línea y texto no ASCII
+ */
+class FileSearcherTest {
+
+    // Bytes de cada línea del archivo grande, salto de línea incluido
+    private static final int LINE_BYTES = 100;
+    private static final int LINES = 2 * FileSearcher.CHUNK_BYTES / LINE_BYTES + 30_000;
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void linesAroundChunkBoundariesKeepTheirText() throws IOException {
+        TreeSet<Integer> marked = markedLines();
+        Path file = writeLargeFile(marked);
+        List<String> expected = new ArrayList<>();
+        for (int line : marked) {
+            expected.add((line + 1) + ":" + lineText(line, true));
+        }
+
+        // Sobre los bytes y sobre el texto decodificado
+        assertEquals(expected, search(file, "MARK", true, false));
+        assertEquals(expected, search(file, "MAR.", true, false));
+    }
+
+    @Test
+    void countAddsUpAllChunks() throws IOException {
+        TreeSet<Integer> marked = markedLines();
+        Path file = writeLargeFile(marked);
+        assertEquals(List.of(String.valueOf(marked.size())), search(file, "MARK", false, true));
+        assertEquals(List.of(String.valueOf(LINES)), search(file, "café", false, true));
+    }
+
+    @Test
+    void lineNumbersCountLinesNotBytes() throws IOException {
+        Path file = write("ñandú\n\nδέλτα\r\nfin");
+        assertEquals(List.of("1:ñandú", "3:δέλτα"), search(file, "[ñδ]", true, false));
+        assertEquals(List.of("4:fin"), search(file, "fin", true, false));
+        assertEquals(List.of("2:"), search(file, "^$", true, false));
+    }
+
+    @Test
+    void wildcardsMatchWholeCharacters() throws IOException {
+        Path file = write("café\ncafe\ncafés\nnaïve\n");
+        assertEquals(List.of("café", "cafe"), search(file, "caf.$", false, false));
+        assertEquals(List.of("café", "cafe"), search(file, "^.{4}$", false, false));
+        assertEquals(List.of("café", "cafés", "naïve"), search(file, "[^a-z]", false, false));
+        assertEquals(List.of("café", "cafés", "naïve"), search(file, "\\W", false, false));
+        assertEquals(List.of("naïve"), search(file, "na\\Sve", false, false));
+        assertEquals(List.of("café", "cafés"), search(file, "é", false, false));
+    }
+
+    @Test
+    void onlyAsciiSafePatternsRunOnBytes() {
+        assertTrue(FileSearcher.matchesOnBytes("error", false, false));
+        assertTrue(FileSearcher.matchesOnBytes("^fo+ [a-z.]*\\d\\s\\w$", false, false));
+        assertTrue(FileSearcher.matchesOnBytes("a.b[^c]", true, false));
+        assertTrue(FileSearcher.matchesOnBytes("\\Q.[^\\E", false, false));
+        assertTrue(FileSearcher.matchesOnBytes("(?i)error", false, false));
+
+        assertFalse(FileSearcher.matchesOnBytes("café", false, false));
+        assertFalse(FileSearcher.matchesOnBytes("caf.", false, false));
+        assertFalse(FileSearcher.matchesOnBytes("[^a]", false, false));
+        assertFalse(FileSearcher.matchesOnBytes("\\W", false, false));
+        assertFalse(FileSearcher.matchesOnBytes("\\S", false, false));
+        assertFalse(FileSearcher.matchesOnBytes("\\D", false, false));
+        assertFalse(FileSearcher.matchesOnBytes("\\xE9", false, false));
+        assertFalse(FileSearcher.matchesOnBytes("\\p{L}", false, false));
+        assertFalse(FileSearcher.matchesOnBytes("(?U)\\w", false, false));
+        assertFalse(FileSearcher.matchesOnBytes("mask", false, true));
+    }
+
+    private List<String> search(Path file, String expression, boolean lineNumbers, boolean countOnly) {
+        List<String> output = new ArrayList<>();
+        FileWalker walker = new FileWalker(TestContexts.capturing(output), "grep");
+        FileSearcher searcher = new FileSearcher(walker, expression, false, false, lineNumbers, countOnly);
+        long count = searcher.search(file, file.toString(), "");
+        if (countOnly) {
+            output.add(String.valueOf(count));
+        }
+        assertFalse(walker.hasErrors());
+        return output;
+    }
+
+    private Path write(String text) throws IOException {
+        Path file = directory.resolve("small.txt");
+        Files.writeString(file, text, StandardCharsets.UTF_8);
+        return file;
+    }
+
+    /**
+     * Las líneas que cruzan cada múltiplo de {@link FileSearcher#CHUNK_BYTES}, sus vecinas, la
+     * primera y la última, que no termina en salto de línea
+     */
+    private static TreeSet<Integer> markedLines() {
+        TreeSet<Integer> marked = new TreeSet<>(List.of(0, LINES - 1));
+        for (int chunk = 1; chunk <= 2; chunk++) {
+            int line = chunk * FileSearcher.CHUNK_BYTES / LINE_BYTES;
+            marked.addAll(List.of(line - 1, line, line + 1));
+        }
+        return marked;
+    }
+
+    private Path writeLargeFile(TreeSet<Integer> marked) throws IOException {
+        Path file = directory.resolve("large.txt");
+        try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(file), 1 << 16)) {
+            for (int line = 0; line < LINES; line++) {
+                out.write(lineText(line, marked.contains(line)).getBytes(StandardCharsets.UTF_8));
+                if (line < LINES - 1) {
+                    out.write('\n');
+                }
+            }
+        }
+        return file;
+    }
+
+    /**
+     * Texto de una línea del archivo grande: {@link #LINE_BYTES} - 1 bytes con una é de dos bytes
+     */
+    private static String lineText(int line, boolean marked) {
+        String start = String.format("%07d café ", line) + (marked ? "MARK" : "");
+        int bytes = start.getBytes(StandardCharsets.UTF_8).length;
+        return start + "x".repeat(LINE_BYTES - 1 - bytes);
+    }
+}